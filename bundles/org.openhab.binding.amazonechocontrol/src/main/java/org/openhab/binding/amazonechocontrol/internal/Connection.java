@@ -14,7 +14,10 @@ package org.openhab.binding.amazonechocontrol.internal;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.net.CookieManager;
 import java.net.CookieStore;
 import java.net.HttpCookie;
@@ -24,6 +27,7 @@ import java.net.URL;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -36,6 +40,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
@@ -121,6 +128,8 @@ public class Connection {
 
     private static final long expiresIn = 432000; // five days
     private static final Pattern charsetPattern = Pattern.compile("(?i)\\bcharset=\\s*\"?([^\\s;\"]*)");
+    // time in milliseconds to reuse responses which rarely change, like playlists and notification sounds
+    private static final long RESPONSE_CACHE_TIME = TimeUnit.MINUTES.toMillis(5);
 
     private final Logger logger = LoggerFactory.getLogger(Connection.class);
 
@@ -143,6 +152,23 @@ public class Connection {
     private final Gson gson;
     private final Gson gsonWithNullSerialization;
 
+    private final Map<String, CachedResponse> responseCache = new ConcurrentHashMap<>();
+
+    /**
+     * The parsed response of a GET request, which is shared by all concurrent requests of the same URL.
+     */
+    private static class CachedResponse {
+        private final CompletableFuture<@Nullable Object> result = new CompletableFuture<>();
+        private volatile long completionTime;
+
+        private boolean isUsable(long maxAge) {
+            if (!result.isDone()) {
+                return true;
+            }
+            return !result.isCompletedExceptionally() && System.currentTimeMillis() - completionTime < maxAge;
+        }
+    }
+
     public Connection(@Nullable Connection oldConnection, Gson gson) {
         this.gson = gson;
         String frc = null;
@@ -458,16 +484,16 @@ public class Connection {
     }
 
     public String convertStream(HttpsURLConnection connection) throws IOException {
-        InputStream input = connection.getInputStream();
-        if (input == null) {
-            return "";
+        try (Scanner inputScanner = new Scanner(getResponseReader(connection))) {
+            Scanner scannerWithoutDelimiter = inputScanner.useDelimiter("\\A");
+            return scannerWithoutDelimiter.hasNext() ? scannerWithoutDelimiter.next() : "";
         }
+    }
 
-        InputStream readerStream;
+    private Reader getResponseReader(HttpsURLConnection connection) throws IOException {
+        InputStream readerStream = connection.getInputStream();
         if (StringUtils.equalsIgnoreCase(connection.getContentEncoding(), "gzip")) {
-            readerStream = new GZIPInputStream(connection.getInputStream());
-        } else {
-            readerStream = input;
+            readerStream = new GZIPInputStream(readerStream);
         }
         String contentType = connection.getContentType();
         String charSet = null;
@@ -477,18 +503,8 @@ public class Connection {
                 charSet = m.group(1).trim().toUpperCase();
             }
         }
-
-        Scanner inputScanner = StringUtils.isEmpty(charSet) ? new Scanner(readerStream, StandardCharsets.UTF_8.name())
-                : new Scanner(readerStream, charSet);
-        Scanner scannerWithoutDelimiter = inputScanner.useDelimiter("\\A");
-        String result = scannerWithoutDelimiter.hasNext() ? scannerWithoutDelimiter.next() : null;
-        inputScanner.close();
-        scannerWithoutDelimiter.close();
-        input.close();
-        if (result == null) {
-            result = "";
-        }
-        return result;
+        return new InputStreamReader(readerStream,
+                StringUtils.isEmpty(charSet) ? StandardCharsets.UTF_8 : Charset.forName(charSet));
     }
 
     public String makeRequestAndReturnString(String url) throws IOException, URISyntaxException {
@@ -875,6 +891,7 @@ public class Connection {
 
     public void logout() {
         cookieManager.getCookieStore().removeAll();
+        responseCache.clear();
         // reset all members
         refreshToken = null;
         loginTime = null;
@@ -883,6 +900,73 @@ public class Connection {
     }
 
     // parser
+    /**
+     * Executes a GET request and parses the JSON response directly from the response stream. Concurrent requests of
+     * the same URL share one request to the server and its result.
+     *
+     * @param url the URL to request
+     * @param type the type of the result
+     * @param maxAge the time in milliseconds to reuse the result for following requests or 0 to not reuse it
+     * @param customHeaders additional headers of the request
+     * @return the parsed response, which must not be changed, because it can be shared
+     */
+    <T> T getJson(String url, Class<T> type, long maxAge,
+            @Nullable Map<String, String> customHeaders) throws IOException, URISyntaxException {
+        CachedResponse request = new CachedResponse();
+        CachedResponse response = responseCache.compute(url,
+                (key, cached) -> cached != null && cached.isUsable(maxAge) ? cached : request);
+        if (response == request) {
+            try {
+                T result = makeRequestAndParseJson(url, type, customHeaders);
+                request.completionTime = System.currentTimeMillis();
+                request.result.complete(result);
+                if (maxAge <= 0) {
+                    responseCache.remove(url, request);
+                }
+                return result;
+            } catch (IOException | URISyntaxException | RuntimeException e) {
+                responseCache.remove(url, request);
+                request.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return type.cast(response.result.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response of " + url);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private <T> T makeRequestAndParseJson(String url, Class<T> type,
+            @Nullable Map<String, String> customHeaders) throws IOException, URISyntaxException {
+        HttpsURLConnection connection = makeRequest("GET", url, null, false, true, customHeaders, 0);
+        if (logger.isDebugEnabled()) {
+            // the response text is only needed for logging
+            String result = convertStream(connection);
+            this.logger.debug("Result of {} {}:{}", "GET", url, result);
+            return parseJson(result, type);
+        }
+        try (Reader reader = getResponseReader(connection)) {
+            return gson.fromJson(reader, type);
+        } catch (JsonParseException | IllegalStateException e) {
+            logger.warn("Parsing json of {} failed", url, e);
+            throw e;
+        }
+    }
+
     private <T> T parseJson(String json, Class<T> type) throws JsonSyntaxException, IllegalStateException {
         try {
             return gson.fromJson(json, type);
@@ -896,10 +980,9 @@ public class Connection {
     // commands and states
 
     public WakeWord[] getWakeWords() {
-        String json;
         try {
-            json = makeRequestAndReturnString(alexaServer + "/api/wake-word?cached=true");
-            JsonWakeWords wakeWords = parseJson(json, JsonWakeWords.class);
+            JsonWakeWords wakeWords = getJson(alexaServer + "/api/wake-word?cached=true", JsonWakeWords.class, 0,
+                    null);
             WakeWord[] result = wakeWords.wakeWords;
             if (result != null) {
                 return result;
@@ -911,8 +994,7 @@ public class Connection {
     }
 
     public List<Device> getDeviceList() throws IOException, URISyntaxException {
-        String json = getDeviceListJson();
-        JsonDevices devices = parseJson(json, JsonDevices.class);
+        JsonDevices devices = getJson(alexaServer + "/api/devices-v2/device?cached=false", JsonDevices.class, 0, null);
         Device[] result = devices.devices;
         if (result == null) {
             return new ArrayList<>();
@@ -926,16 +1008,15 @@ public class Connection {
     }
 
     public JsonPlayerState getPlayer(Device device) throws IOException, URISyntaxException {
-        String json = makeRequestAndReturnString(alexaServer + "/api/np/player?deviceSerialNumber="
-                + device.serialNumber + "&deviceType=" + device.deviceType + "&screenWidth=1440");
-        JsonPlayerState playerState = parseJson(json, JsonPlayerState.class);
+        JsonPlayerState playerState = getJson(alexaServer + "/api/np/player?deviceSerialNumber="
+                + device.serialNumber + "&deviceType=" + device.deviceType + "&screenWidth=1440",
+                JsonPlayerState.class, 0, null);
         return playerState;
     }
 
     public JsonMediaState getMediaState(Device device) throws IOException, URISyntaxException {
-        String json = makeRequestAndReturnString(alexaServer + "/api/media/state?deviceSerialNumber="
-                + device.serialNumber + "&deviceType=" + device.deviceType);
-        JsonMediaState mediaState = parseJson(json, JsonMediaState.class);
+        JsonMediaState mediaState = getJson(alexaServer + "/api/media/state?deviceSerialNumber="
+                + device.serialNumber + "&deviceType=" + device.deviceType, JsonMediaState.class, 0, null);
         return mediaState;
     }
 
@@ -956,23 +1037,20 @@ public class Connection {
     }
 
     public JsonBluetoothStates getBluetoothConnectionStates() {
-        String json;
         try {
-            json = makeRequestAndReturnString(alexaServer + "/api/bluetooth?cached=true");
+            return getJson(alexaServer + "/api/bluetooth?cached=true", JsonBluetoothStates.class, 0, null);
         } catch (IOException | URISyntaxException e) {
             logger.debug("failed to get bluetooth state: {}", e.getMessage());
             return new JsonBluetoothStates();
         }
-        JsonBluetoothStates bluetoothStates = parseJson(json, JsonBluetoothStates.class);
-        return bluetoothStates;
     }
 
     public JsonPlaylists getPlaylists(Device device) throws IOException, URISyntaxException {
-        String json = makeRequestAndReturnString(alexaServer + "/api/cloudplayer/playlists?deviceSerialNumber="
+        JsonPlaylists playlists = getJson(alexaServer + "/api/cloudplayer/playlists?deviceSerialNumber="
                 + device.serialNumber + "&deviceType=" + device.deviceType + "&mediaOwnerCustomerId="
                 + (StringUtils.isEmpty(this.accountCustomerId) ? device.deviceOwnerCustomerId
-                        : this.accountCustomerId));
-        JsonPlaylists playlists = parseJson(json, JsonPlaylists.class);
+                        : this.accountCustomerId),
+                JsonPlaylists.class, RESPONSE_CACHE_TIME, null);
         return playlists;
     }
 
@@ -999,10 +1077,9 @@ public class Connection {
     }
 
     public DeviceNotificationState[] getDeviceNotificationStates() {
-        String json;
         try {
-            json = makeRequestAndReturnString(alexaServer + "/api/device-notification-state");
-            JsonDeviceNotificationState result = parseJson(json, JsonDeviceNotificationState.class);
+            JsonDeviceNotificationState result = getJson(alexaServer + "/api/device-notification-state",
+                    JsonDeviceNotificationState.class, 0, null);
             DeviceNotificationState[] deviceNotificationStates = result.deviceNotificationStates;
             if (deviceNotificationStates != null) {
                 return deviceNotificationStates;
@@ -1014,10 +1091,9 @@ public class Connection {
     }
 
     public AscendingAlarmModel[] getAscendingAlarm() {
-        String json;
         try {
-            json = makeRequestAndReturnString(alexaServer + "/api/ascending-alarm");
-            JsonAscendingAlarm result = parseJson(json, JsonAscendingAlarm.class);
+            JsonAscendingAlarm result = getJson(alexaServer + "/api/ascending-alarm", JsonAscendingAlarm.class, 0,
+                    null);
             AscendingAlarmModel[] ascendingAlarmModelList = result.ascendingAlarmModelList;
             if (ascendingAlarmModelList != null) {
                 return ascendingAlarmModelList;
@@ -1328,10 +1404,10 @@ public class Connection {
     }
 
     public JsonNotificationSound[] getNotificationSounds(Device device) throws IOException, URISyntaxException {
-        String json = makeRequestAndReturnString(
+        JsonNotificationSounds result = getJson(
                 alexaServer + "/api/notification/sounds?deviceSerialNumber=" + device.serialNumber + "&deviceType="
-                        + device.deviceType + "&softwareVersion=" + device.softwareVersion);
-        JsonNotificationSounds result = parseJson(json, JsonNotificationSounds.class);
+                        + device.deviceType + "&softwareVersion=" + device.softwareVersion,
+                JsonNotificationSounds.class, RESPONSE_CACHE_TIME, null);
         JsonNotificationSound[] notificationSounds = result.notificationSounds;
         if (notificationSounds != null) {
             return notificationSounds;
@@ -1340,8 +1416,8 @@ public class Connection {
     }
 
     public JsonNotificationResponse[] notifications() throws IOException, URISyntaxException {
-        String response = makeRequestAndReturnString(alexaServer + "/api/notifications");
-        JsonNotificationsResponse result = parseJson(response, JsonNotificationsResponse.class);
+        JsonNotificationsResponse result = getJson(alexaServer + "/api/notifications",
+                JsonNotificationsResponse.class, 0, null);
         JsonNotificationResponse[] notifications = result.notifications;
         if (notifications == null) {
             return new JsonNotificationResponse[0];
@@ -1390,20 +1466,19 @@ public class Connection {
     }
 
     public List<JsonMusicProvider> getMusicProviders() {
-        String response;
+        JsonMusicProvider[] result;
         try {
             Map<String, String> headers = new HashMap<>();
             headers.put("Routines-Version", "1.1.218665");
-            response = makeRequestAndReturnString("GET",
-                    alexaServer + "/api/behaviors/entities?skillId=amzn1.ask.1p.music", null, true, headers);
+            result = getJson(alexaServer + "/api/behaviors/entities?skillId=amzn1.ask.1p.music",
+                    JsonMusicProvider[].class, RESPONSE_CACHE_TIME, headers);
         } catch (IOException | URISyntaxException e) {
             logger.warn("getMusicProviders fails: {}", e.getMessage());
             return new ArrayList<>();
         }
-        if (StringUtils.isEmpty(response)) {
+        if (result == null) {
             return new ArrayList<>();
         }
-        JsonMusicProvider[] result = parseJson(response, JsonMusicProvider[].class);
         return Arrays.asList(result);
     }
 
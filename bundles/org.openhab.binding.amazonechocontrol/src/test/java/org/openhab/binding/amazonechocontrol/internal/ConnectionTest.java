@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManagerFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+/**
+ * Tests for sharing and caching the responses of GET requests in the {@link Connection}, using a local HTTPS server
+ * instead of the Alexa web API.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class ConnectionTest {
+
+    private static final char[] KEYSTORE_PASSWORD = "secret".toCharArray();
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final CountDownLatch requestReceived = new CountDownLatch(1);
+    private final CountDownLatch sendResponse = new CountDownLatch(1);
+
+    private SSLSocketFactory defaultSocketFactory;
+    private HostnameVerifier defaultHostnameVerifier;
+    private HttpsServer server;
+    private ExecutorService executor;
+    private Connection connection;
+    private String baseUrl;
+
+    @Before
+    public void setUp() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        try (InputStream input = ConnectionTest.class.getResourceAsStream("localhost.jks")) {
+            keyStore.load(input, KEYSTORE_PASSWORD);
+        }
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keyStore, KEYSTORE_PASSWORD);
+        TrustManagerFactory trustManagers = TrustManagerFactory
+                .getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(keyStore);
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagers.getKeyManagers(), trustManagers.getTrustManagers(), null);
+
+        defaultSocketFactory = HttpsURLConnection.getDefaultSSLSocketFactory();
+        defaultHostnameVerifier = HttpsURLConnection.getDefaultHostnameVerifier();
+        HttpsURLConnection.setDefaultSSLSocketFactory(sslContext.getSocketFactory());
+        HttpsURLConnection.setDefaultHostnameVerifier((hostname, session) -> "localhost".equals(hostname));
+
+        server = HttpsServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+        server.createContext("/api/value", exchange -> respond(exchange, 200));
+        server.createContext("/api/slow", exchange -> {
+            requestReceived.countDown();
+            try {
+                sendResponse.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200);
+        });
+        server.createContext("/api/fail-once",
+                exchange -> respond(exchange, failures.getAndIncrement() == 0 ? 500 : 200));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "https://localhost:" + server.getAddress().getPort();
+
+        executor = Executors.newCachedThreadPool();
+        connection = new Connection(null, new Gson());
+    }
+
+    @After
+    public void tearDown() {
+        sendResponse.countDown();
+        executor.shutdownNow();
+        server.stop(0);
+        HttpsURLConnection.setDefaultSSLSocketFactory(defaultSocketFactory);
+        HttpsURLConnection.setDefaultHostnameVerifier(defaultHostnameVerifier);
+    }
+
+    private void respond(HttpExchange exchange, int code) throws IOException {
+        byte[] body = ("{\"request\":" + requests.incrementAndGet() + "}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(code, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private JsonObject get(String path, long maxAge) throws Exception {
+        return connection.getJson(baseUrl + path, JsonObject.class, maxAge, null);
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneRequest() throws Exception {
+        Future<JsonObject> first = executor.submit(() -> get("/api/slow", 0));
+        assertTrue(requestReceived.await(5, TimeUnit.SECONDS));
+
+        // the second request starts while the first one waits for its response
+        AtomicReference<Thread> waiting = new AtomicReference<>();
+        Future<JsonObject> second = executor.submit(() -> {
+            waiting.set(Thread.currentThread());
+            return get("/api/slow", 0);
+        });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (waiting.get() == null || waiting.get().getState() != Thread.State.WAITING) {
+            assertTrue("second request does not wait for the first one", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        sendResponse.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+
+        // without a maximum age the response is not reused by later requests
+        assertEquals(2, get("/api/slow", 0).get("request").getAsInt());
+    }
+
+    @Test
+    public void testResponseIsReusedUntilItExpires() throws Exception {
+        JsonObject response = get("/api/value", TimeUnit.MINUTES.toMillis(5));
+        assertSame(response, get("/api/value", TimeUnit.MINUTES.toMillis(5)));
+        assertEquals(1, requests.get());
+
+        // a response older than the maximum age of the request is fetched again
+        Thread.sleep(20);
+        JsonObject newResponse = get("/api/value", 10);
+        assertEquals(2, newResponse.get("request").getAsInt());
+        assertSame(newResponse, get("/api/value", TimeUnit.MINUTES.toMillis(5)));
+
+        connection.logout();
+        assertEquals(3, get("/api/value", TimeUnit.MINUTES.toMillis(5)).get("request").getAsInt());
+    }
+
+    @Test
+    public void testFailedRequestIsNotReused() throws Exception {
+        try {
+            get("/api/fail-once", TimeUnit.MINUTES.toMillis(5));
+            fail("the first request must fail");
+        } catch (HttpException e) {
+            assertEquals(500, e.getCode());
+        }
+        assertEquals(2, get("/api/fail-once", TimeUnit.MINUTES.toMillis(5)).get("request").getAsInt());
+        assertEquals(2, requests.get());
+    }
+}
@@ -48,6 +48,11 @@ public class MoonCalc {
     protected static final int ECLIPSE_MODE_TOTAL = 1;
     protected static final int ECLIPSE_MODE_RING = 2;
 
+    // The previous new moon only changes once per day, see setMoonPhase()
+    private double parentNewMoonEndOfDay = Double.NaN;
+    private double parentNewMoon;
+    private long parentNewMoonMillis;
+
     /**
      * Calculates all moon data at the specified coordinates
      */
@@ -122,11 +127,14 @@ public class MoonCalc {
     private void setMoonPhase(Calendar calendar, Moon moon) {
         MoonPhase phase = moon.getPhase();
         double julianDateEndOfDay = DateTimeUtils.endOfDayDateToJulianDate(calendar);
-        double parentNewMoon = getPreviousPhase(calendar, julianDateEndOfDay, NEW_MOON);
+        if (julianDateEndOfDay != parentNewMoonEndOfDay) {
+            parentNewMoon = getPreviousPhase(calendar, julianDateEndOfDay, NEW_MOON);
+            parentNewMoonMillis = DateTimeUtils.toCalendar(parentNewMoon).getTimeInMillis();
+            parentNewMoonEndOfDay = julianDateEndOfDay;
+        }
         double age = Math.abs(parentNewMoon - julianDateEndOfDay);
         phase.setAge((int) age);
 
-        long parentNewMoonMillis = DateTimeUtils.toCalendar(parentNewMoon).getTimeInMillis();
         long ageRangeTimeMillis = phase.getNew().getTimeInMillis() - parentNewMoonMillis;
         long ageCurrentMillis = System.currentTimeMillis() - parentNewMoonMillis;
         double agePercent = ageRangeTimeMillis != 0 ? ageCurrentMillis * 100.0 / ageRangeTimeMillis : 0;
@@ -119,15 +119,19 @@ public class SunCalc {
     /**
      * Returns true, if the sun is up all day (no rise and set).
      */
-    private boolean isSunUpAllDay(Calendar calendar, double latitude, double longitude, Double altitude) {
-        Calendar cal = DateTimeUtils.truncateToMidnight(calendar);
-        Sun sun = new Sun();
+    private boolean isSunUpAllDay(Calendar calendar, double latitude, double longitude) {
+        double lw = -longitude * DEG2RAD;
+        double phi = latitude * DEG2RAD;
+        double midnight = DateTimeUtils.midnightDateToJulianDate(calendar);
         for (int minutes = 0; minutes <= MINUTES_PER_DAY; minutes += CURVE_TIME_INTERVAL) {
-            setPositionalInfo(cal, latitude, longitude, altitude, sun);
-            if (sun.getPosition().getElevationAsDouble() < SUN_ANGLE) {
+            double j = midnight + minutes * JD_ONE_MINUTE_FRACTION;
+            double m = getSolarMeanAnomaly(j);
+            double lsun = getEclipticLongitude(m, getEquationOfCenter(m));
+            double elevation = getElevation(getSiderealTime(j, lw), getRightAscension(lsun), phi,
+                    getSunDeclination(lsun)) / DEG2RAD;
+            if (elevation < SUN_ANGLE) {
                 return false;
             }
-            cal.add(Calendar.MINUTE, CURVE_TIME_INTERVAL);
         }
         return true;
     }
@@ -186,7 +190,7 @@ public class SunCalc {
         sun.setNauticDawn(new Range(DateTimeUtils.toCalendar(jnau2), DateTimeUtils.toCalendar(jciv2)));
         sun.setNauticDusk(new Range(DateTimeUtils.toCalendar(jnau), DateTimeUtils.toCalendar(jastro)));
 
-        boolean isSunUpAllDay = isSunUpAllDay(calendar, latitude, longitude, altitude);
+        boolean isSunUpAllDay = isSunUpAllDay(calendar, latitude, longitude);
 
         // daylight
         Range daylightRange = new Range();
@@ -248,10 +252,19 @@ public class SunCalc {
         SeasonCalc seasonCalc = new SeasonCalc();
         sun.setSeason(seasonCalc.getSeason(calendar, latitude));
 
-        // phase
+        setPhase(Calendar.getInstance(), sun);
+
+        return sun;
+    }
+
+    /**
+     * Sets the name of the sun phase the calendar lies in. The ranges of the sun must have been calculated by
+     * {@link #getSunInfo(Calendar, double, double, Double)} before.
+     */
+    public void setPhase(Calendar calendar, Sun sun) {
         for (Entry<SunPhaseName, Range> rangeEntry : sun.getAllRanges().entrySet()) {
             SunPhaseName entryPhase = rangeEntry.getKey();
-            if (rangeEntry.getValue().matches(Calendar.getInstance())) {
+            if (rangeEntry.getValue().matches(calendar)) {
                 if (entryPhase == SunPhaseName.MORNING_NIGHT || entryPhase == SunPhaseName.EVENING_NIGHT) {
                     sun.getPhase().setName(SunPhaseName.NIGHT);
                 } else {
@@ -259,8 +272,6 @@ public class SunCalc {
                 }
             }
         }
-
-        return sun;
     }
 
     /**
@@ -14,6 +14,7 @@ package org.openhab.binding.astro.internal.handler;
 
 import static org.openhab.binding.astro.internal.AstroBindingConstants.THING_TYPE_MOON;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashSet;
@@ -42,6 +43,8 @@ public class MoonHandler extends AstroThingHandler {
             "phase#ageDegree", "phase#illumination", "position#azimuth", "position#elevation", "zodiac#sign" };
     private final MoonCalc moonCalc = new MoonCalc();
     private Moon moon;
+    // The day the rise, set and phase dates of the moon have been calculated for
+    private LocalDate moonDate;
 
     /**
      * Constructor
@@ -58,7 +61,9 @@ public class MoonHandler extends AstroThingHandler {
 
     @Override
     public void publishPositionalInfo() {
-        initializeMoon();
+        if (moon == null || !LocalDate.now().equals(moonDate)) {
+            initializeMoon();
+        }
         moonCalc.setPositionalInfo(Calendar.getInstance(), thingConfig.getLatitude(), thingConfig.getLongitude(), moon);
         publishPlanet();
     }
@@ -85,6 +90,7 @@ public class MoonHandler extends AstroThingHandler {
     }
 
     private void initializeMoon() {
+        moonDate = LocalDate.now();
         moon = moonCalc.getMoonInfo(Calendar.getInstance(), thingConfig.getLatitude(), thingConfig.getLongitude());
     }
 
@@ -14,6 +14,7 @@ package org.openhab.binding.astro.internal.handler;
 
 import static org.openhab.binding.astro.internal.AstroBindingConstants.THING_TYPE_SUN;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashSet;
@@ -42,6 +43,8 @@ public class SunHandler extends AstroThingHandler {
             "radiation#direct", "radiation#diffuse", "radiation#total" };
     private final SunCalc sunCalc = new SunCalc();
     private Sun sun;
+    // The day the rise, set and phase ranges of the sun have been calculated for
+    private LocalDate sunDate;
 
     /**
      * Constructor
@@ -58,8 +61,12 @@ public class SunHandler extends AstroThingHandler {
 
     @Override
     public void publishPositionalInfo() {
-        initializeSun();
-        sunCalc.setPositionalInfo(Calendar.getInstance(), thingConfig.getLatitude(), thingConfig.getLongitude(),
+        if (sun == null || !LocalDate.now().equals(sunDate)) {
+            initializeSun();
+        }
+        Calendar now = Calendar.getInstance();
+        sunCalc.setPhase(now, sun);
+        sunCalc.setPositionalInfo(now, thingConfig.getLatitude(), thingConfig.getLongitude(),
                 thingConfig.getAltitude(), sun);
         publishPlanet();
     }
@@ -86,6 +93,7 @@ public class SunHandler extends AstroThingHandler {
     }
 
     private void initializeSun() {
+        sunDate = LocalDate.now();
         sun = sunCalc.getSunInfo(Calendar.getInstance(), thingConfig.getLatitude(), thingConfig.getLongitude(),
                 thingConfig.getAltitude());
     }
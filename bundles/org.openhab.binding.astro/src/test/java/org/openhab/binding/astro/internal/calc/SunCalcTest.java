@@ -276,6 +276,17 @@ public class SunCalcTest {
                 sun.getAllRanges().get(SunPhaseName.EVENING_NIGHT).getStart());
     }
 
+    @Test
+    public void testSetPhaseReusesRangesOfTheDay() {
+        Sun sun = sunCalc.getSunInfo(FEB_27_2019, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE, AMSTERDAM_ALTITUDE);
+
+        sunCalc.setPhase(SunCalcTest.newCalendar(2019, Calendar.FEBRUARY, 27, 3, 0, TIME_ZONE), sun);
+        assertEquals(SunPhaseName.NIGHT, sun.getPhase().getName());
+
+        sunCalc.setPhase(SunCalcTest.newCalendar(2019, Calendar.FEBRUARY, 27, 10, 0, TIME_ZONE), sun);
+        assertEquals(SunPhaseName.DAYLIGHT, sun.getPhase().getName());
+    }
+
     /***
      * Constructs a <code>GregorianCalendar</code> with the given date and time set
      * for the provided time zone.
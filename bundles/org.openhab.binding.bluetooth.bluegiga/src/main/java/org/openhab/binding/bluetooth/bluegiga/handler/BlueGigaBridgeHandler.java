@@ -184,7 +184,7 @@ public class BlueGigaBridgeHandler extends BaseBridgeHandler
             return;
         }
         if (openSerialPort(portId, 115200)) {
-            BlueGigaSerialHandler bgh = new BlueGigaSerialHandler(inputStream, outputStream);
+            BlueGigaSerialHandler bgh = new BlueGigaSerialHandler(inputStream, outputStream, scheduler);
             // Create and send the reset command to the dongle
             bgh.addEventListener(this);
             bgh.addHandlerListener(this);
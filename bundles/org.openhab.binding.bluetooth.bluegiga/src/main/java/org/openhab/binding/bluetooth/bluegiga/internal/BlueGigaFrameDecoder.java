@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Splits the serial byte stream of the BlueGiga dongle into BGAPI frames. Data is read from the stream in bulk into a
+ * ring buffer, and every complete frame in the buffer is passed on as an int array holding exactly one frame.
+ * <p>
+ * The BGAPI protocol has no packet framing and no error detection, so a few sanity checks are done on the header of
+ * every frame. If a check fails the first byte is dropped, and decoding resumes at the next byte.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class BlueGigaFrameDecoder {
+
+    private static final int BUFFER_SIZE = 1024;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+    private static final int HEADER_LENGTH = 4;
+
+    /**
+     * Header sanity checks:
+     * Byte 0: Check technology type is bluetooth and high length is 0
+     * Byte 1: Check length is less than 64 bytes
+     * Byte 2: Check class ID is less than 8
+     * Byte 3: Check command ID is less than 32
+     */
+    private static final int[] FRAME_CHECK = new int[] { 0x7F, 0xC0, 0xF8, 0xE0 };
+
+    private final Logger logger = LoggerFactory.getLogger(BlueGigaFrameDecoder.class);
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    // head and tail are running counters, they are masked when indexing the buffer
+    private int head;
+    private int tail;
+
+    private long framesDecoded;
+    private long framingErrors;
+
+    /**
+     * Reads the bytes that are available from the input stream with a single read call and decodes them.
+     *
+     * @param inputStream the stream to read from
+     * @param frameConsumer consumer receiving every decoded frame
+     * @return the number of bytes read, or -1 if no data was read because the end of the stream was reached
+     * @throws IOException if reading from the stream failed
+     */
+    public int read(InputStream inputStream, Consumer<int[]> frameConsumer) throws IOException {
+        int offset = tail & BUFFER_MASK;
+        int length = Math.min(BUFFER_SIZE - (tail - head), BUFFER_SIZE - offset);
+        int count = inputStream.read(buffer, offset, length);
+        if (count > 0) {
+            tail += count;
+            decode(frameConsumer);
+        }
+        return count;
+    }
+
+    /**
+     * Decodes the given bytes.
+     *
+     * @param data the data received from the dongle
+     * @param offset offset of the first byte to decode
+     * @param length number of bytes to decode
+     * @param frameConsumer consumer receiving every decoded frame
+     */
+    public void write(byte[] data, int offset, int length, Consumer<int[]> frameConsumer) {
+        int end = offset + length;
+        while (offset < end) {
+            int bufferOffset = tail & BUFFER_MASK;
+            int count = Math.min(end - offset,
+                    Math.min(BUFFER_SIZE - (tail - head), BUFFER_SIZE - bufferOffset));
+            System.arraycopy(data, offset, buffer, bufferOffset, count);
+            offset += count;
+            tail += count;
+            decode(frameConsumer);
+        }
+    }
+
+    /**
+     * @return the number of frames decoded so far
+     */
+    public long getFramesDecoded() {
+        return framesDecoded;
+    }
+
+    /**
+     * @return the number of bytes dropped so far because of framing errors
+     */
+    public long getFramingErrors() {
+        return framingErrors;
+    }
+
+    private void decode(Consumer<int[]> frameConsumer) {
+        while (tail - head >= HEADER_LENGTH) {
+            if (!isValidHeader()) {
+                head++;
+                framingErrors++;
+                continue;
+            }
+
+            int frameLength = HEADER_LENGTH + getByte(1);
+            if (tail - head < frameLength) {
+                // wait for the rest of the frame
+                return;
+            }
+
+            int[] frame = new int[frameLength];
+            for (int cnt = 0; cnt < frameLength; cnt++) {
+                frame[cnt] = getByte(cnt);
+            }
+            head += frameLength;
+            framesDecoded++;
+            frameConsumer.accept(frame);
+        }
+    }
+
+    private boolean isValidHeader() {
+        for (int cnt = 0; cnt < FRAME_CHECK.length; cnt++) {
+            int val = getByte(cnt);
+            if ((val & FRAME_CHECK[cnt]) != 0) {
+                logger.debug("BlueGiga framing error byte {} = {}", cnt, val);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int getByte(int index) {
+        return buffer[(head + index) & BUFFER_MASK] & 0xFF;
+    }
+}
@@ -15,20 +15,21 @@ package org.openhab.binding.bluetooth.bluegiga.internal;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.slf4j.Logger;
@@ -43,20 +44,22 @@ import org.slf4j.LoggerFactory;
  */
 public class BlueGigaSerialHandler {
 
-    private static final int BLE_MAX_LENGTH = 64;
-    private static final int TRANSACTION_TIMEOUT_PERIOD = 50;
-
     private final Logger logger = LoggerFactory.getLogger(BlueGigaSerialHandler.class);
 
     /**
      * The portName portName output stream.
      */
     private final OutputStream outputStream;
-    private final Queue<BlueGigaCommand> sendQueue = new LinkedList<BlueGigaCommand>();
-    private final Timer timer = new Timer();
-    private TimerTask timerTask = null;
+    private final Queue<QueuedFrame> sendQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of requests to drain the send queue. Only the thread incrementing it from zero sends frames, which keeps
+     * the frames in queue order without locking the queue.
+     */
+    private final AtomicInteger sendQueueDrainRequests = new AtomicInteger();
     private Thread parserThread = null;
     private final ExecutorService executor = ThreadPoolManager.getPool("bluegiga");
+    private final ScheduledExecutorService scheduler;
 
     /**
      * Transaction listeners are used internally to correlate the commands and responses
@@ -79,66 +82,21 @@ public class BlueGigaSerialHandler {
      */
     private boolean close = false;
 
-    public BlueGigaSerialHandler(final InputStream inputStream, final OutputStream outputStream) {
+    public BlueGigaSerialHandler(final InputStream inputStream, final OutputStream outputStream,
+            final ScheduledExecutorService scheduler) {
         this.outputStream = outputStream;
-
-        final int framecheckParams[] = new int[] { 0x00, 0x7F, 0xC0, 0xF8, 0xE0 };
+        this.scheduler = scheduler;
 
         parserThread = new Thread("BlueGigaBLEHandler") {
             @Override
             public void run() {
                 int exceptionCnt = 0;
                 logger.trace("BlueGiga BLE thread started");
-                int[] inputBuffer = new int[BLE_MAX_LENGTH];
-                int inputCount = 0;
-                int inputLength = 0;
+                BlueGigaFrameDecoder decoder = new BlueGigaFrameDecoder();
 
                 while (!close) {
                     try {
-                        int val = inputStream.read();
-                        if (val == -1) {
-                            continue;
-                        }
-
-                        inputBuffer[inputCount++] = val;
-
-                        if (inputCount < 4) {
-                            // The BGAPI protocol has no packet framing, and no error detection, so we do a few
-                            // sanity checks on the header to try and allow resyncronisation should there be an
-                            // error.
-                            // Byte 0: Check technology type is bluetooth and high length is 0
-                            // Byte 1: Check length is less than 64 bytes
-                            // Byte 2: Check class ID is less than 8
-                            // Byte 3: Check command ID is less than 16
-                            if ((val & framecheckParams[inputCount]) != 0) {
-                                logger.debug("BlueGiga framing error byte {} = {}", inputCount, val);
-                                inputCount = 0;
-                                continue;
-                            }
-                        } else if (inputCount == 4) {
-                            // Process the header to get the length
-                            inputLength = inputBuffer[1] + (inputBuffer[0] & 0x02 << 8) + 4;
-                            if (inputLength > 64) {
-                                logger.error("BLE length larger than 64 bytes ({})", inputLength);
-                            }
-                        }
-                        if (inputCount == inputLength) {
-                            // End of packet reached - process
-                            BlueGigaResponse responsePacket = BlueGigaResponsePackets.getPacket(inputBuffer);
-
-                            logger.trace("BLE RX: {}", printHex(inputBuffer, inputLength));
-                            logger.trace("BLE RX: {}", responsePacket);
-                            if (responsePacket != null) {
-                                if (responsePacket.isEvent()) {
-                                    notifyEventListeners(responsePacket);
-                                } else {
-                                    notifyTransactionComplete(responsePacket);
-                                }
-                            }
-
-                            inputCount = 0;
-                        }
-
+                        decoder.read(inputStream, frame -> processFrame(frame));
                     } catch (final IOException e) {
                         logger.error("BlueGiga BLE IOException: ", e);
 
@@ -169,6 +127,22 @@ public class BlueGigaSerialHandler {
         }
     }
 
+    private void processFrame(int[] frame) {
+        BlueGigaResponse responsePacket = BlueGigaResponsePackets.getPacket(frame);
+
+        if (logger.isTraceEnabled()) {
+            logger.trace("BLE RX: {}", printHex(frame, frame.length));
+            logger.trace("BLE RX: {}", responsePacket);
+        }
+        if (responsePacket != null) {
+            if (responsePacket.isEvent()) {
+                notifyEventListeners(responsePacket);
+            } else {
+                notifyTransactionComplete(responsePacket);
+            }
+        }
+    }
+
     /**
      * Requests parser thread to shutdown. Waits forever while the parser thread is getting shut down.
      */
@@ -184,11 +158,6 @@ public class BlueGigaSerialHandler {
     public void close(long timeout) {
         close = true;
         executor.shutdownNow();
-        if (timerTask != null) {
-            timerTask.cancel();
-            timerTask = null;
-        }
-        timer.cancel();
         try {
             parserThread.interrupt();
             parserThread.join(timeout);
@@ -206,15 +175,17 @@ public class BlueGigaSerialHandler {
         return parserThread != null && parserThread.isAlive() && !close;
     }
 
-    // Synchronize this method to ensure a packet gets sent as a block
-    private synchronized void sendFrame(BlueGigaCommand bleFrame) {
-        // Send the data
+    private void sendFrame(BlueGigaCommand bleFrame) {
+        // Send the data as a block
         try {
             int[] payload = bleFrame.serialize();
             logger.trace("TX BLE frame: {}", printHex(payload, payload.length));
-            for (int b : payload) {
-                outputStream.write(b);
+            byte[] data = new byte[payload.length];
+            for (int cnt = 0; cnt < payload.length; cnt++) {
+                data[cnt] = (byte) payload[cnt];
             }
+            outputStream.write(data);
+            outputStream.flush();
         } catch (IOException e) {
             throw new BlueGigaException("Error sending BLE frame", e);
         }
@@ -222,17 +193,26 @@ public class BlueGigaSerialHandler {
         logger.trace("--> TX BLE frame: {}", bleFrame);
     }
 
-    // Synchronize this method so we can do the window check without interruption.
-    // Otherwise this method could be called twice from different threads that could end up with
-    // more than the TX_WINDOW number of frames sent.
-    private synchronized void sendNextFrame() {
-        BlueGigaCommand nextFrame = sendQueue.poll();
-        if (nextFrame == null) {
-            // Nothing to send
+    // Drains the send queue. If another thread is already draining it, it will send our frame as well, so frames are
+    // always sent one after the other and in queue order.
+    private void sendQueuedFrames() {
+        if (sendQueueDrainRequests.getAndIncrement() != 0) {
             return;
         }
-
-        sendFrame(nextFrame);
+        do {
+            QueuedFrame nextFrame;
+            while ((nextFrame = sendQueue.poll()) != null) {
+                try {
+                    sendFrame(nextFrame.command);
+                } catch (BlueGigaException e) {
+                    if (nextFrame.transaction != null) {
+                        nextFrame.transaction.completeExceptionally(e);
+                    } else {
+                        logger.warn("{}", e.getMessage(), e);
+                    }
+                }
+            }
+        } while (sendQueueDrainRequests.decrementAndGet() != 0);
     }
 
     /**
@@ -244,11 +224,14 @@ public class BlueGigaSerialHandler {
      *            {@link BlueGigaCommand}
      */
     public void queueFrame(BlueGigaCommand request) {
+        queueFrame(request, null);
+    }
+
+    private void queueFrame(BlueGigaCommand request, CompletableFuture<?> transaction) {
         logger.trace("TX BLE frame: {}", request);
         checkIfAlive();
-        sendQueue.add(request);
-        logger.trace("TX BLE queue: {}", sendQueue.size());
-        sendNextFrame();
+        sendQueue.add(new QueuedFrame(request, transaction));
+        sendQueuedFrames();
     }
 
     /**
@@ -296,37 +279,13 @@ public class BlueGigaSerialHandler {
      */
     public <T extends BlueGigaResponse> Future<T> sendBleRequestAsync(final BlueGigaCommand bleCommand,
             final Class<T> expected) {
-        checkIfAlive();
-        class TransactionWaiter implements Callable<T>, BluetoothListener<T> {
-            private boolean complete;
-            private BlueGigaResponse response;
-
-            @SuppressWarnings("unchecked")
-            @Override
-            public T call() {
-                // Register a listener
-                addTransactionListener(this);
-
-                // Send the transaction
-                queueFrame(bleCommand);
-
-                // Wait for the transaction to complete
-                synchronized (this) {
-                    while (!complete) {
-                        try {
-                            wait();
-                        } catch (InterruptedException e) {
-                            complete = true;
-                        }
-                    }
-                }
-
-                // Remove the listener
-                removeTransactionListener(this);
-
-                return (T) response;
-            }
+        return sendBleRequest(bleCommand, expected);
+    }
 
+    private <T extends BlueGigaResponse> CompletableFuture<T> sendBleRequest(final BlueGigaCommand bleCommand,
+            final Class<T> expected) {
+        checkIfAlive();
+        class TransactionWaiter extends CompletableFuture<T> implements BluetoothListener<T> {
             @Override
             public boolean transactionEvent(BlueGigaResponse bleResponse) {
                 // Check if this response completes our transaction
@@ -341,18 +300,19 @@ public class BlueGigaSerialHandler {
                     return false;
                 }
 
-                response = bleResponse;
-                complete = true;
-                synchronized (this) {
-                    notify();
-                }
-
-                return true;
+                return complete(expected.cast(bleResponse));
             }
         }
 
-        Callable<T> worker = new TransactionWaiter();
-        return executor.submit(worker);
+        TransactionWaiter waiter = new TransactionWaiter();
+        // Register a listener, which is removed again as soon as the transaction completes or is cancelled
+        addTransactionListener(waiter);
+        waiter.whenComplete((response, error) -> removeTransactionListener(waiter));
+
+        // Send the transaction
+        queueFrame(bleCommand, waiter);
+
+        return waiter;
     }
 
     /**
@@ -363,8 +323,7 @@ public class BlueGigaSerialHandler {
      * @return response {@link BlueGigaResponse}
      */
     public BlueGigaResponse sendTransaction(BlueGigaCommand bleCommand) {
-        checkIfAlive();
-        Future<BlueGigaResponse> futureResponse = sendBleRequestAsync(bleCommand, BlueGigaResponse.class);
+        Future<BlueGigaResponse> futureResponse = sendBleRequest(bleCommand, BlueGigaResponse.class);
 
         try {
             return futureResponse.get();
@@ -385,36 +344,21 @@ public class BlueGigaSerialHandler {
      */
     public <T extends BlueGigaResponse> T sendTransaction(BlueGigaCommand bleCommand, Class<T> expected, long timeout)
             throws TimeoutException {
-        Future<T> futureResponse = sendBleRequestAsync(bleCommand, expected);
+        CompletableFuture<T> futureResponse = sendBleRequest(bleCommand, expected);
+        ScheduledFuture<?> timeoutJob = scheduler.schedule(
+                () -> futureResponse.completeExceptionally(new TimeoutException()), timeout, TimeUnit.MILLISECONDS);
         try {
-            return futureResponse.get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException e) {
+            return futureResponse.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw (TimeoutException) e.getCause();
+            }
+            throw new BlueGigaException("Error sending BLE transaction to listeners: ", e);
+        } catch (InterruptedException e) {
             futureResponse.cancel(true);
             throw new BlueGigaException("Error sending BLE transaction to listeners: ", e);
-        }
-    }
-
-    @SuppressWarnings("unused")
-    private synchronized void startTransactionTimer() {
-        // Stop any existing timer
-        resetTransactionTimer();
-
-        // Create the timer task
-        timerTask = new TransactionTimer();
-        timer.schedule(timerTask, TRANSACTION_TIMEOUT_PERIOD);
-    }
-
-    private synchronized void resetTransactionTimer() {
-        // Stop any existing timer
-        if (timerTask != null) {
-            timerTask.cancel();
-            timerTask = null;
-        }
-    }
-
-    private class TransactionTimer extends TimerTask {
-        @Override
-        public void run() {
+        } finally {
+            timeoutJob.cancel(false);
         }
     }
 
@@ -492,6 +436,16 @@ public class BlueGigaSerialHandler {
         }
     }
 
+    private static class QueuedFrame {
+        final BlueGigaCommand command;
+        final CompletableFuture<?> transaction;
+
+        QueuedFrame(BlueGigaCommand command, CompletableFuture<?> transaction) {
+            this.command = command;
+            this.transaction = transaction;
+        }
+    }
+
     interface BluetoothListener<T extends BlueGigaResponse> {
         boolean transactionEvent(BlueGigaResponse response);
     }
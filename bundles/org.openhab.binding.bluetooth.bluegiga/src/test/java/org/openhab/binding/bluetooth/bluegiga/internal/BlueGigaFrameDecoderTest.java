@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaScanResponseEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests {@link BlueGigaFrameDecoder} and replays a burst of scan response events through it to measure the decoding
+ * rate.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class BlueGigaFrameDecoderTest {
+
+    private static final int REPLAY_FRAMES = 100000;
+    private static final int SERIAL_CHUNK_SIZE = 256;
+
+    private final Logger logger = LoggerFactory.getLogger(BlueGigaFrameDecoderTest.class);
+
+    /**
+     * Creates a gap scan response event frame for the given device.
+     */
+    private static byte[] createScanResponseFrame(int device, int rssi) {
+        int[] eir = { 0x02, 0x01, 0x06, 0x05, 0x09, 'T', 'e', 's', 't' };
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(0x80);
+        frame.write(11 + eir.length);
+        frame.write(BlueGigaScanResponseEvent.COMMAND_CLASS);
+        frame.write(BlueGigaScanResponseEvent.COMMAND_METHOD);
+        frame.write(rssi & 0xFF);
+        frame.write(0x00);
+        for (int cnt = 0; cnt < 6; cnt++) {
+            frame.write(cnt == 0 ? device & 0xFF : cnt);
+        }
+        frame.write(0x00);
+        frame.write(0xFF);
+        frame.write(eir.length);
+        for (int b : eir) {
+            frame.write(b);
+        }
+        return frame.toByteArray();
+    }
+
+    private static byte[] createScanResponseBurst(int frames) {
+        ByteArrayOutputStream burst = new ByteArrayOutputStream();
+        for (int cnt = 0; cnt < frames; cnt++) {
+            byte[] frame = createScanResponseFrame(cnt, -40 - cnt % 50);
+            burst.write(frame, 0, frame.length);
+        }
+        return burst.toByteArray();
+    }
+
+    @Test
+    public void testFramesSplitAcrossReads() {
+        byte[] frame = createScanResponseFrame(1, -60);
+        List<int[]> frames = new ArrayList<>();
+        BlueGigaFrameDecoder decoder = new BlueGigaFrameDecoder();
+
+        for (byte b : frame) {
+            decoder.write(new byte[] { b }, 0, 1, frames::add);
+        }
+
+        assertEquals(1, frames.size());
+        assertEquals(frame.length, frames.get(0).length);
+        BlueGigaResponse response = BlueGigaResponsePackets.getPacket(frames.get(0));
+        assertTrue(response instanceof BlueGigaScanResponseEvent);
+        assertEquals(-60, ((BlueGigaScanResponseEvent) response).getRssi());
+    }
+
+    @Test
+    public void testResynchronisationAfterGarbage() {
+        byte[] frame = createScanResponseFrame(1, -60);
+        byte[] data = new byte[frame.length * 2 + 3];
+        data[0] = (byte) 0xFF;
+        data[1] = 0x7F;
+        data[2] = 0x13;
+        System.arraycopy(frame, 0, data, 3, frame.length);
+        System.arraycopy(frame, 0, data, 3 + frame.length, frame.length);
+        List<int[]> frames = new ArrayList<>();
+        BlueGigaFrameDecoder decoder = new BlueGigaFrameDecoder();
+
+        decoder.write(data, 0, data.length, frames::add);
+
+        assertEquals(2, frames.size());
+        assertEquals(3, decoder.getFramingErrors());
+    }
+
+    @Test
+    public void testInvalidCommandIdIsDropped() {
+        byte[] frame = createScanResponseFrame(1, -60);
+        byte[] data = new byte[frame.length + 4];
+        data[0] = (byte) 0x80;
+        data[1] = 0x00;
+        data[2] = (byte) BlueGigaScanResponseEvent.COMMAND_CLASS;
+        data[3] = 0x20;
+        System.arraycopy(frame, 0, data, 4, frame.length);
+        List<int[]> frames = new ArrayList<>();
+        BlueGigaFrameDecoder decoder = new BlueGigaFrameDecoder();
+
+        decoder.write(data, 0, data.length, frames::add);
+
+        assertEquals(1, frames.size());
+        assertEquals(frame.length, frames.get(0).length);
+        assertEquals(4, decoder.getFramingErrors());
+    }
+
+    @Test
+    public void testReplayScanResponseBurst() throws IOException {
+        byte[] burst = createScanResponseBurst(REPLAY_FRAMES);
+        InputStream inputStream = new ByteArrayInputStream(burst) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                // a serial port delivers the data in small chunks
+                return super.read(b, off, Math.min(len, SERIAL_CHUNK_SIZE));
+            }
+        };
+        int[] scanResponses = new int[1];
+        BlueGigaFrameDecoder decoder = new BlueGigaFrameDecoder();
+
+        long start = System.nanoTime();
+        while (decoder.read(inputStream, frame -> {
+            if (BlueGigaResponsePackets.getPacket(frame) instanceof BlueGigaScanResponseEvent) {
+                scanResponses[0]++;
+            }
+        }) > 0) {
+        }
+        long duration = System.nanoTime() - start;
+
+        assertEquals(REPLAY_FRAMES, decoder.getFramesDecoded());
+        assertEquals(REPLAY_FRAMES, scanResponses[0]);
+        assertEquals(0, decoder.getFramingErrors());
+        logger.info("Decoded {} frames in {} ms ({} frames/s)", REPLAY_FRAMES,
+                TimeUnit.NANOSECONDS.toMillis(duration), REPLAY_FRAMES * TimeUnit.SECONDS.toNanos(1) / duration);
+    }
+}
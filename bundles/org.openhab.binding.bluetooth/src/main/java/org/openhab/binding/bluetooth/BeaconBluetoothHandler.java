@@ -12,9 +12,11 @@
  */
 package org.openhab.binding.bluetooth;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
@@ -26,8 +28,11 @@ import org.eclipse.smarthome.core.thing.binding.BridgeHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.UnDefType;
+import org.openhab.binding.bluetooth.internal.RssiFilter;
 import org.openhab.binding.bluetooth.notification.BluetoothConnectionStatusNotification;
 import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This is a handler for generic Bluetooth devices in beacon-mode (i.e. not connected), which at the same time can be
@@ -38,6 +43,8 @@ import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
 @NonNullByDefault
 public class BeaconBluetoothHandler extends BaseThingHandler implements BluetoothDeviceListener {
 
+    private final Logger logger = LoggerFactory.getLogger(BeaconBluetoothHandler.class);
+
     @NonNullByDefault({} /* non-null if initialized */)
     protected BluetoothAdapter adapter;
 
@@ -49,6 +56,12 @@ public class BeaconBluetoothHandler extends BaseThingHandler implements Bluetoot
 
     protected final ReentrantLock deviceLock;
 
+    private RssiFilter rssiFilter = RssiFilter.create(RssiFilter.FILTER_NONE);
+    private long rssiUpdateInterval;
+    private long lastRssiUpdate;
+    private @Nullable Integer lastPublishedRssi;
+    private int advertisementsSinceRssiUpdate;
+
     public BeaconBluetoothHandler(Thing thing) {
         super(thing);
         deviceLock = new ReentrantLock();
@@ -63,6 +76,13 @@ public class BeaconBluetoothHandler extends BaseThingHandler implements Bluetoot
             return;
         }
 
+        Object filter = getConfig().get(BluetoothBindingConstants.CONFIGURATION_RSSI_FILTER);
+        rssiFilter = RssiFilter.create(filter != null ? filter.toString() : RssiFilter.FILTER_NONE);
+        Object interval = getConfig().get(BluetoothBindingConstants.CONFIGURATION_RSSI_UPDATE_INTERVAL);
+        rssiUpdateInterval = TimeUnit.SECONDS.toNanos(interval instanceof Number ? ((Number) interval).longValue()
+                : BluetoothBindingConstants.DEFAULT_RSSI_UPDATE_INTERVAL);
+        lastPublishedRssi = null;
+
         Bridge bridge = getBridge();
         if (bridge == null) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "Not associated with any bridge");
@@ -116,6 +136,13 @@ public class BeaconBluetoothHandler extends BaseThingHandler implements Bluetoot
     protected void updateRSSI() {
         if (device != null) {
             Integer rssi = device.getRssi();
+            if (advertisementsSinceRssiUpdate > 0) {
+                logger.trace("Updating RSSI of {} to {} after {} advertisements", address, rssi,
+                        advertisementsSinceRssiUpdate);
+            }
+            lastRssiUpdate = System.nanoTime();
+            lastPublishedRssi = rssi;
+            advertisementsSinceRssiUpdate = 0;
             if (rssi != null && rssi != 0) {
                 updateState(BluetoothBindingConstants.CHANNEL_TYPE_RSSI, new DecimalType(rssi));
                 updateStatusBasedOnRssi(true);
@@ -144,9 +171,26 @@ public class BeaconBluetoothHandler extends BaseThingHandler implements Bluetoot
     public void onScanRecordReceived(BluetoothScanNotification scanNotification) {
         int rssi = scanNotification.getRssi();
         if (rssi != Integer.MIN_VALUE) {
-            device.setRssi(rssi);
-            updateRSSI();
+            device.setRssi(rssiFilter.filter(rssi));
+            advertisementsSinceRssiUpdate++;
+            if (isRssiUpdateDue()) {
+                updateRSSI();
+            }
+        }
+    }
+
+    /**
+     * Advertisements can be received several times per second, so the RSSI channel is only updated if the filtered
+     * value changed and the configured update interval passed, or if the thing is not yet known to be in reach.
+     *
+     * @return true, if the RSSI channel should be updated
+     */
+    private boolean isRssiUpdateDue() {
+        if (getThing().getStatus() != ThingStatus.ONLINE) {
+            return true;
         }
+        return System.nanoTime() - lastRssiUpdate >= rssiUpdateInterval
+                && !device.getRssi().equals(lastPublishedRssi);
     }
 
     @Override
@@ -38,6 +38,10 @@ public class BluetoothBindingConstants {
     public static final String PROPERTY_MAXCONNECTIONS = "maxconnections";
 
     public static final String CONFIGURATION_ADDRESS = "address";
+    public static final String CONFIGURATION_RSSI_FILTER = "rssiFilter";
+    public static final String CONFIGURATION_RSSI_UPDATE_INTERVAL = "rssiUpdateInterval";
+
+    public static final long DEFAULT_RSSI_UPDATE_INTERVAL = 1;
 
     public static final long BLUETOOTH_BASE_UUID = 0x800000805f9b34fbL;
 
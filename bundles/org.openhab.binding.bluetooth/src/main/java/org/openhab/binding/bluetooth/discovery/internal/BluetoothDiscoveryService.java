@@ -14,9 +14,13 @@ package org.openhab.binding.bluetooth.discovery.internal;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.eclipse.smarthome.config.discovery.AbstractDiscoveryService;
 import org.eclipse.smarthome.config.discovery.DiscoveryResult;
@@ -27,10 +31,12 @@ import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.thing.UID;
 import org.openhab.binding.bluetooth.BluetoothAdapter;
+import org.openhab.binding.bluetooth.BluetoothAddress;
 import org.openhab.binding.bluetooth.BluetoothBindingConstants;
 import org.openhab.binding.bluetooth.BluetoothCompanyIdentifiers;
 import org.openhab.binding.bluetooth.BluetoothDevice;
 import org.openhab.binding.bluetooth.BluetoothDiscoveryListener;
+import org.openhab.binding.bluetooth.BluetoothService;
 import org.openhab.binding.bluetooth.discovery.BluetoothDiscoveryParticipant;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -55,6 +61,10 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService {
     private final Logger logger = LoggerFactory.getLogger(BluetoothDiscoveryService.class);
 
     private static final int SEARCH_TIME = 15;
+    // unchanged results are published again after this time, so results removed from the inbox come back
+    private static final long REPUBLISH_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    // results of devices which have not been seen for this time are dropped, e.g. after an address rotation
+    private static final long CACHE_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
 
     private final Set<BluetoothAdapter> adapters = new CopyOnWriteArraySet<>();
     private final Set<BluetoothDiscoveryParticipant> participants = new CopyOnWriteArraySet<>();
@@ -62,6 +72,29 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService {
 
     private final Set<ThingTypeUID> supportedThingTypes = new CopyOnWriteArraySet<>();
 
+    /**
+     * Discovery results per adapter and device address. Devices keep advertising while they are in reach, so the
+     * participants are only asked again if the advertised device information changed.
+     */
+    private final Map<UID, Map<BluetoothAddress, CachedDiscoveryResult>> cachedResults = new ConcurrentHashMap<>();
+
+    private final AtomicLong advertisementsReceived = new AtomicLong();
+    private final AtomicLong resultsPublished = new AtomicLong();
+    private volatile long statisticsStart = System.nanoTime();
+    private volatile long nextCacheCleanup = System.currentTimeMillis() + CACHE_TIMEOUT;
+
+    private static class CachedDiscoveryResult {
+        final int fingerprint;
+        final DiscoveryResult result;
+        volatile long lastPublished;
+        volatile long lastSeen;
+
+        CachedDiscoveryResult(int fingerprint, DiscoveryResult result) {
+            this.fingerprint = fingerprint;
+            this.result = result;
+        }
+    }
+
     public BluetoothDiscoveryService() {
         super(SEARCH_TIME);
         supportedThingTypes.add(BluetoothBindingConstants.THING_TYPE_BEACON);
@@ -98,17 +131,20 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService {
     protected void removeBluetoothAdapter(BluetoothAdapter adapter) {
         this.adapters.remove(adapter);
         adapter.removeDiscoveryListener(registeredListeners.remove(adapter.getUID()));
+        cachedResults.remove(adapter.getUID());
     }
 
     @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
     protected void addBluetoothDiscoveryParticipant(BluetoothDiscoveryParticipant participant) {
         this.participants.add(participant);
         supportedThingTypes.addAll(participant.getSupportedThingTypeUIDs());
+        cachedResults.clear();
     }
 
     protected void removeBluetoothDiscoveryParticipant(BluetoothDiscoveryParticipant participant) {
         supportedThingTypes.removeAll(participant.getSupportedThingTypeUIDs());
         this.participants.remove(participant);
+        cachedResults.clear();
     }
 
     @Override
@@ -129,16 +165,72 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService {
             adapter.scanStop();
         }
         removeOlderResults(getTimestampOfLastScan());
+        removeExpiredCachedResults(System.currentTimeMillis());
+        logStatistics();
+    }
+
+    private void logStatistics() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(now - statisticsStart));
+        long received = advertisementsReceived.getAndSet(0);
+        long published = resultsPublished.getAndSet(0);
+        statisticsStart = now;
+        logger.debug("Received {} advertisements ({}/s), published {} discovery results ({}/s)", received,
+                String.format("%.1f", received / seconds), published, String.format("%.1f", published / seconds));
+    }
+
+    /**
+     * Drops the cached results of devices which have not been seen within the {@link #CACHE_TIMEOUT}.
+     */
+    private void removeExpiredCachedResults(long now) {
+        nextCacheCleanup = now + CACHE_TIMEOUT;
+        for (Map<BluetoothAddress, CachedDiscoveryResult> adapterResults : cachedResults.values()) {
+            adapterResults.values().removeIf(cached -> now - cached.lastSeen > CACHE_TIMEOUT);
+        }
     }
 
     private void deviceDiscovered(BluetoothAdapter adapter, BluetoothDevice device) {
-        logger.debug("Discovered bluetooth device '{}': {}", device.getName(), device);
+        advertisementsReceived.incrementAndGet();
+        long now = System.currentTimeMillis();
+        if (now > nextCacheCleanup) {
+            // background discovery has no scan which stops, so the cache is cleaned up here
+            removeExpiredCachedResults(now);
+        }
+        Map<BluetoothAddress, CachedDiscoveryResult> adapterResults = cachedResults.computeIfAbsent(adapter.getUID(),
+                uid -> new ConcurrentHashMap<>());
+        int fingerprint = getFingerprint(device);
+        CachedDiscoveryResult cached = adapterResults.get(device.getAddress());
+        if (cached == null || cached.fingerprint != fingerprint) {
+            logger.debug("Discovered bluetooth device '{}': {}", device.getName(), device);
+            cached = new CachedDiscoveryResult(fingerprint, createResult(adapter, device));
+            adapterResults.put(device.getAddress(), cached);
+        }
+        cached.lastSeen = now;
+        if (cached.lastPublished >= getTimestampOfLastScan() && now - cached.lastPublished < REPUBLISH_INTERVAL) {
+            // unchanged and already published recently during the current scan
+            return;
+        }
+
+        // results that were not published during a scan are removed when it stops
+        cached.lastPublished = now;
+        resultsPublished.incrementAndGet();
+        thingDiscovered(cached.result);
+    }
+
+    /**
+     * Computes a fingerprint of the device information the discovery participants look at.
+     */
+    private int getFingerprint(BluetoothDevice device) {
+        return Objects.hash(device.getName(), device.getManufacturerId(), device.getTxPower(),
+                device.getServices().stream().map(BluetoothService::getUuid).collect(Collectors.toSet()));
+    }
+
+    private DiscoveryResult createResult(BluetoothAdapter adapter, BluetoothDevice device) {
         for (BluetoothDiscoveryParticipant participant : participants) {
             try {
                 DiscoveryResult result = participant.createResult(device);
                 if (result != null) {
-                    thingDiscovered(result);
-                    return;
+                    return result;
                 }
             } catch (RuntimeException e) {
                 logger.warn("Participant '{}' threw an exception", participant.getClass().getName(), e);
@@ -168,10 +260,9 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService {
         ThingUID thingUID = new ThingUID(BluetoothBindingConstants.THING_TYPE_BEACON, adapter.getUID(),
                 device.getAddress().toString().toLowerCase().replace(":", ""));
 
-        // Create the discovery result and add to the inbox
-        DiscoveryResult discoveryResult = DiscoveryResultBuilder.create(thingUID).withProperties(properties)
+        // Create the discovery result
+        return DiscoveryResultBuilder.create(thingUID).withProperties(properties)
                 .withRepresentationProperty(BluetoothBindingConstants.CONFIGURATION_ADDRESS)
                 .withBridge(adapter.getUID()).withLabel(label).build();
-        thingDiscovered(discoveryResult);
     }
 }
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link RssiFilter} smooths the RSSI values of the advertisements received from a device, which otherwise
+ * fluctuate by several dBm from one advertisement to the next.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public abstract class RssiFilter {
+
+    public static final String FILTER_NONE = "none";
+    public static final String FILTER_AVERAGE = "average";
+    public static final String FILTER_KALMAN = "kalman";
+
+    private static final int AVERAGE_WINDOW = 8;
+
+    // noise of the RSSI itself and of its measurement, in dBm squared
+    private static final double KALMAN_PROCESS_NOISE = 0.125;
+    private static final double KALMAN_MEASUREMENT_NOISE = 4;
+
+    /**
+     * Creates a filter.
+     *
+     * @param type one of {@link #FILTER_NONE}, {@link #FILTER_AVERAGE} or {@link #FILTER_KALMAN}
+     * @return the filter, which does not filter at all for unknown types
+     */
+    public static RssiFilter create(String type) {
+        switch (type) {
+            case FILTER_AVERAGE:
+                return new MovingAverage(AVERAGE_WINDOW);
+            case FILTER_KALMAN:
+                return new Kalman(KALMAN_PROCESS_NOISE, KALMAN_MEASUREMENT_NOISE);
+            default:
+                return new RssiFilter() {
+                    @Override
+                    public int filter(int rssi) {
+                        return rssi;
+                    }
+                };
+        }
+    }
+
+    /**
+     * Adds a received RSSI value to the filter.
+     *
+     * @param rssi the received RSSI value
+     * @return the filtered RSSI value
+     */
+    public abstract int filter(int rssi);
+
+    private static class MovingAverage extends RssiFilter {
+        private final int[] values;
+        private int index;
+        private int count;
+        private int sum;
+
+        MovingAverage(int window) {
+            values = new int[window];
+        }
+
+        @Override
+        public synchronized int filter(int rssi) {
+            if (count < values.length) {
+                count++;
+            } else {
+                sum -= values[index];
+            }
+            values[index] = rssi;
+            sum += rssi;
+            index = (index + 1) % values.length;
+            return Math.round((float) sum / count);
+        }
+    }
+
+    private static class Kalman extends RssiFilter {
+        private final double processNoise;
+        private final double measurementNoise;
+        private double estimate = Double.NaN;
+        private double errorCovariance;
+
+        Kalman(double processNoise, double measurementNoise) {
+            this.processNoise = processNoise;
+            this.measurementNoise = measurementNoise;
+        }
+
+        @Override
+        public synchronized int filter(int rssi) {
+            if (Double.isNaN(estimate)) {
+                estimate = rssi;
+                errorCovariance = measurementNoise;
+            } else {
+                double predictedCovariance = errorCovariance + processNoise;
+                double gain = predictedCovariance / (predictedCovariance + measurementNoise);
+                estimate += gain * (rssi - estimate);
+                errorCovariance = (1 - gain) * predictedCovariance;
+            }
+            return (int) Math.round(estimate);
+        }
+    }
+}
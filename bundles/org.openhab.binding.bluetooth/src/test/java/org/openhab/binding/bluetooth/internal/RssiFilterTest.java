@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.internal;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link RssiFilter}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class RssiFilterTest {
+
+    private static final int[] NOISY_RSSI = { -60, -70, -58, -66, -61, -72, -59, -64, -62, -68, -60, -65 };
+
+    @Test
+    public void testNoFilter() {
+        RssiFilter filter = RssiFilter.create(RssiFilter.FILTER_NONE);
+        for (int rssi : NOISY_RSSI) {
+            assertEquals(rssi, filter.filter(rssi));
+        }
+    }
+
+    @Test
+    public void testMovingAverage() {
+        RssiFilter filter = RssiFilter.create(RssiFilter.FILTER_AVERAGE);
+        assertEquals(-60, filter.filter(-60));
+        assertEquals(-65, filter.filter(-70));
+        for (int cnt = 0; cnt < 8; cnt++) {
+            filter.filter(-50);
+        }
+        assertEquals(-50, filter.filter(-50));
+    }
+
+    @Test
+    public void testMovingAverageOfManyValues() {
+        RssiFilter filter = RssiFilter.create(RssiFilter.FILTER_AVERAGE);
+        for (int cnt = 0; cnt < 100003; cnt++) {
+            filter.filter(-40 - cnt % 8 * 10);
+        }
+        // the window holds one value of each step
+        assertEquals(-75, filter.filter(-40 - 100003 % 8 * 10));
+    }
+
+    @Test
+    public void testKalmanSmoothsNoise() {
+        RssiFilter filter = RssiFilter.create(RssiFilter.FILTER_KALMAN);
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int cnt = 0; cnt < NOISY_RSSI.length; cnt++) {
+            int filtered = filter.filter(NOISY_RSSI[cnt]);
+            if (cnt >= 4) {
+                min = Math.min(min, filtered);
+                max = Math.max(max, filtered);
+            }
+        }
+        assertTrue(max - min <= 3);
+        assertTrue(min >= -66 && max <= -60);
+    }
+}
@@ -65,13 +65,21 @@ public class DeconzBridgeHandler extends BaseBridgeHandler implements WebSocketC
     private DeconzBridgeConfig config = new DeconzBridgeConfig();
     private final Gson gson;
     private @Nullable ScheduledFuture<?> scheduledFuture;
+    private @Nullable ScheduledFuture<?> statisticsFuture;
     private int websocketPort = 0;
+    private long lastReceivedEvents = 0;
+    private long lastDispatchedEvents = 0;
+    private volatile double receivedEventsPerSecond = 0;
+    private volatile double dispatchedEventsPerSecond = 0;
     /** Prevent a dispose/init cycle while this flag is set. Use for property updates */
     private boolean ignoreConfigurationUpdate;
 
     /** The poll frequency for the API Key verification */
     private static final int POLL_FREQUENCY_SEC = 10;
 
+    /** The period for the websocket event statistics */
+    private static final int STATISTICS_PERIOD_SEC = 60;
+
     public DeconzBridgeHandler(Bridge thing, WebSocketFactory webSocketFactory, AsyncHttpClient http, Gson gson) {
         super(thing);
         this.http = http;
@@ -257,6 +265,11 @@ public class DeconzBridgeHandler extends BaseBridgeHandler implements WebSocketC
     @Override
     public void dispose() {
         stopTimer();
+        ScheduledFuture<?> future = statisticsFuture;
+        if (future != null) {
+            future.cancel(true);
+            statisticsFuture = null;
+        }
         websocket.close();
     }
 
@@ -275,6 +288,12 @@ public class DeconzBridgeHandler extends BaseBridgeHandler implements WebSocketC
     @Override
     public void connectionEstablished() {
         stopTimer();
+        if (statisticsFuture == null) {
+            lastReceivedEvents = websocket.getReceivedEvents();
+            lastDispatchedEvents = websocket.getDispatchedEvents();
+            statisticsFuture = scheduler.scheduleWithFixedDelay(this::updateStatistics, STATISTICS_PERIOD_SEC,
+                    STATISTICS_PERIOD_SEC, TimeUnit.SECONDS);
+        }
         updateStatus(ThingStatus.ONLINE);
     }
 
@@ -284,6 +303,34 @@ public class DeconzBridgeHandler extends BaseBridgeHandler implements WebSocketC
         startWebsocket();
     }
 
+    /**
+     * Calculates the websocket event rates of the last statistics period.
+     */
+    private void updateStatistics() {
+        long received = websocket.getReceivedEvents();
+        long dispatched = websocket.getDispatchedEvents();
+        receivedEventsPerSecond = (double) (received - lastReceivedEvents) / STATISTICS_PERIOD_SEC;
+        dispatchedEventsPerSecond = (double) (dispatched - lastDispatchedEvents) / STATISTICS_PERIOD_SEC;
+        lastReceivedEvents = received;
+        lastDispatchedEvents = dispatched;
+        logger.debug("Websocket events per second: {} received, {} dispatched to sensors", receivedEventsPerSecond,
+                dispatchedEventsPerSecond);
+    }
+
+    /**
+     * Return the number of websocket events per second received in the last statistics period.
+     */
+    public double getReceivedEventsPerSecond() {
+        return receivedEventsPerSecond;
+    }
+
+    /**
+     * Return the number of websocket events per second dispatched to sensors in the last statistics period.
+     */
+    public double getDispatchedEventsPerSecond() {
+        return dispatchedEventsPerSecond;
+    }
+
     /**
      * Return the websocket connection.
      */
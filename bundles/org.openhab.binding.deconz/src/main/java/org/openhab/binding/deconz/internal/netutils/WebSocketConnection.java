@@ -12,11 +12,15 @@
  */
 package org.openhab.binding.deconz.internal.netutils;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
@@ -24,17 +28,25 @@ import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
 import org.eclipse.jetty.websocket.client.WebSocketClient;
-import org.openhab.binding.deconz.internal.dto.SensorMessage;
+import org.openhab.binding.deconz.internal.dto.SensorState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 
 /**
  * Establishes and keeps a websocket connection to the deCONZ software.
  *
  * The connection is closed by deCONZ now and then and needs to be re-established.
  *
+ * Events are read with a streaming parser. The routing fields are read first and the state of a sensor is only
+ * decoded, if a listener is registered for it. deCONZ sends the fields of an event sorted by name, so the state is
+ * decoded directly from the stream in this case. Events of other resources like lights or groups are skipped.
+ *
  * @author David Graeff - Initial contribution
  */
 @WebSocket
@@ -44,8 +56,11 @@ public class WebSocketConnection {
 
     private final WebSocketClient client;
     private final WebSocketConnectionListener connectionListener;
-    private final Map<String, WebSocketValueUpdateListener> valueListener = new HashMap<>();
+    private final Map<String, WebSocketValueUpdateListener> valueListener = new ConcurrentHashMap<>();
     private final Gson gson;
+    private final JsonParser parser = new JsonParser();
+    private final AtomicLong receivedEvents = new AtomicLong();
+    private final AtomicLong dispatchedEvents = new AtomicLong();
     private boolean connected = false;
 
     public WebSocketConnection(WebSocketConnectionListener listener, WebSocketClient client, Gson gson) {
@@ -96,16 +111,85 @@ public class WebSocketConnection {
         connectionListener.connectionEstablished();
     }
 
-    @SuppressWarnings("null")
     @OnWebSocketMessage
     public void onMessage(String message) {
-        SensorMessage changedMessage = gson.fromJson(message, SensorMessage.class);
-        WebSocketValueUpdateListener listener = valueListener.get(changedMessage.id);
-        if (listener != null) {
-            listener.websocketUpdate(changedMessage.id, changedMessage.state);
+        receivedEvents.incrementAndGet();
+        try (JsonReader reader = new JsonReader(new StringReader(message))) {
+            String event = "";
+            String r = "";
+            String id = "";
+            WebSocketValueUpdateListener listener = null;
+            SensorState state = null;
+            JsonElement stateElement = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "e":
+                        event = reader.nextString();
+                        break;
+                    case "r":
+                        r = reader.nextString();
+                        break;
+                    case "id":
+                        id = reader.nextString();
+                        break;
+                    case "state":
+                        if (r.isEmpty() || id.isEmpty()) {
+                            // routing fields not known yet, keep the state until the whole event is read
+                            stateElement = parser.parse(reader);
+                        } else {
+                            listener = getListener(r, id);
+                            if (listener != null) {
+                                state = gson.fromJson(reader, SensorState.class);
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+
+            if (!"changed".equals(event)) {
+                return;
+            }
+            if (stateElement != null) {
+                listener = getListener(r, id);
+                if (listener != null) {
+                    state = gson.fromJson(stateElement, SensorState.class);
+                }
+            }
+            if (listener != null && state != null) {
+                dispatchedEvents.incrementAndGet();
+                listener.websocketUpdate(id, state);
+            }
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            logger.debug("Invalid websocket message '{}': {}", message, e.getMessage());
         }
     }
 
+    private @Nullable WebSocketValueUpdateListener getListener(String resource, String id) {
+        return "sensors".equals(resource) ? valueListener.get(id) : null;
+    }
+
+    /**
+     * Returns the number of events received on this connection.
+     */
+    public long getReceivedEvents() {
+        return receivedEvents.get();
+    }
+
+    /**
+     * Returns the number of events passed to a registered listener.
+     */
+    public long getDispatchedEvents() {
+        return dispatchedEvents.get();
+    }
+
     @OnWebSocketError
     public void onError(Throwable cause) {
         connected = false;
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.deconz.internal.netutils;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.deconz.internal.dto.SensorState;
+
+import com.google.gson.Gson;
+
+/**
+ * Tests the streaming parser of the events received by the {@link WebSocketConnection}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class WebSocketConnectionTest {
+
+    private final List<String> updatedSensors = new ArrayList<>();
+    private final List<SensorState> updatedStates = new ArrayList<>();
+
+    private WebSocketConnection connection;
+
+    @Before
+    public void setUp() {
+        connection = new WebSocketConnection(new WebSocketConnectionListener() {
+            @Override
+            public void connectionError(Throwable e) {
+            }
+
+            @Override
+            public void connectionEstablished() {
+            }
+
+            @Override
+            public void connectionLost(String reason) {
+            }
+        }, new WebSocketClient(), new Gson());
+        WebSocketValueUpdateListener listener = (sensorID, newState) -> {
+            updatedSensors.add(sensorID);
+            updatedStates.add(newState);
+        };
+        connection.registerValueListener("1", listener);
+        connection.registerValueListener("2", listener);
+    }
+
+    @Test
+    public void sortedEventIsDispatched() {
+        connection.onMessage("{\"e\":\"changed\",\"id\":\"1\",\"r\":\"sensors\","
+                + "\"state\":{\"lastupdated\":\"2019-05-01T10:00:00\",\"presence\":true},\"t\":\"event\"}");
+
+        assertEquals(1, updatedSensors.size());
+        assertEquals("1", updatedSensors.get(0));
+        assertEquals(Boolean.TRUE, updatedStates.get(0).presence);
+        assertEquals("2019-05-01T10:00:00", updatedStates.get(0).lastupdated);
+        assertEquals(1, connection.getDispatchedEvents());
+    }
+
+    @Test
+    public void fieldsAreReadInAnyOrder() {
+        connection.onMessage("{\"t\":\"event\",\"r\":\"sensors\",\"e\":\"changed\",\"id\":\"2\","
+                + "\"state\":{\"temperature\":2150}}");
+        connection.onMessage("{\"id\":\"1\",\"t\":\"event\",\"e\":\"changed\",\"r\":\"sensors\","
+                + "\"state\":{\"open\":false}}");
+
+        assertEquals(2, updatedSensors.size());
+        assertEquals("2", updatedSensors.get(0));
+        assertEquals(Float.valueOf(2150), updatedStates.get(0).temperature);
+        assertEquals("1", updatedSensors.get(1));
+        assertEquals(Boolean.FALSE, updatedStates.get(1).open);
+    }
+
+    @Test
+    public void stateBeforeRoutingFieldsIsDispatched() {
+        connection.onMessage("{\"state\":{\"buttonevent\":1002},\"e\":\"changed\",\"r\":\"sensors\",\"id\":\"1\"}");
+        connection.onMessage("{\"r\":\"sensors\",\"state\":{\"buttonevent\":2002},\"e\":\"changed\",\"id\":\"2\"}");
+
+        assertEquals(2, updatedSensors.size());
+        assertEquals("1", updatedSensors.get(0));
+        assertEquals(Integer.valueOf(1002), updatedStates.get(0).buttonevent);
+        assertEquals("2", updatedSensors.get(1));
+        assertEquals(Integer.valueOf(2002), updatedStates.get(1).buttonevent);
+    }
+
+    @Test
+    public void otherResourcesAreDropped() {
+        connection.onMessage("{\"e\":\"changed\",\"id\":\"1\",\"r\":\"lights\",\"state\":{\"on\":true}}");
+        connection.onMessage("{\"state\":{\"on\":true},\"e\":\"changed\",\"r\":\"groups\",\"id\":\"2\"}");
+
+        assertTrue(updatedSensors.isEmpty());
+        assertEquals(2, connection.getReceivedEvents());
+        assertEquals(0, connection.getDispatchedEvents());
+    }
+
+    @Test
+    public void unregisteredSensorIsDropped() {
+        connection.onMessage("{\"e\":\"changed\",\"id\":\"3\",\"r\":\"sensors\",\"state\":{\"presence\":true}}");
+
+        assertTrue(updatedSensors.isEmpty());
+    }
+
+    @Test
+    public void otherEventsAreIgnored() {
+        connection.onMessage("{\"e\":\"added\",\"id\":\"1\",\"r\":\"sensors\",\"state\":{\"presence\":true}}");
+        connection.onMessage("{\"state\":{\"presence\":true},\"id\":\"2\",\"r\":\"sensors\",\"e\":\"deleted\"}");
+        connection.onMessage("{\"id\":\"1\",\"r\":\"sensors\",\"state\":{\"presence\":true}}");
+
+        assertTrue(updatedSensors.isEmpty());
+        assertEquals(3, connection.getReceivedEvents());
+    }
+
+    @Test
+    public void invalidMessageIsIgnored() {
+        connection.onMessage("{\"e\":\"changed\",\"id\":\"1\",\"r\":\"sensors\",\"state\":{\"presence\":");
+        connection.onMessage("[]");
+
+        assertTrue(updatedSensors.isEmpty());
+        assertEquals(2, connection.getReceivedEvents());
+    }
+}
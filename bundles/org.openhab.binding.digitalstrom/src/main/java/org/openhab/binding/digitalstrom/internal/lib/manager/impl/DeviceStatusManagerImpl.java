@@ -18,6 +18,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -85,7 +86,16 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
      * Contains all supported event-types.
      */
     public static final List<String> SUPPORTED_EVENTS = Arrays.asList(EventNames.DEVICE_SENSOR_VALUE,
-            EventNames.DEVICE_BINARY_INPUT_EVENT);
+            EventNames.DEVICE_BINARY_INPUT_EVENT, EventNames.MODEL_READY);
+
+    /**
+     * Interval in milliseconds to reload the whole structure, if the digitalSTROM-Server does not send a
+     * {@link EventNames#MODEL_READY} event, e.g. because the event subscription was lost. Presence, name and output
+     * mode changes of devices without a {@link EventNames#MODEL_READY} event are also detected by this reload only.
+     */
+    public static final long STRUCTURE_RELOAD_INTERVAL = 60000;
+    // the dSS needs some time between two scene calls
+    private static final long SCENE_CALL_INTERVAL = 1000;
 
     private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(Config.THREADPOOL_NAME);
     private ScheduledFuture<?> pollingScheduler;
@@ -115,8 +125,15 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
     private final List<TrashDevice> trashDevices = new LinkedList<TrashDevice>();
 
     private long lastBinCheck = 0;
+    // set by a structure change event, the structure is reloaded by the next polling
+    private volatile boolean structureChanged = false;
     private ManagerStates state = ManagerStates.STOPPED;
 
+    private final Object sceneCallLock = new Object();
+    private long nextSceneCall = 0;
+    // scene calls which wait for their time slot, they are cancelled when the manager stops
+    private final List<ScheduledFuture<?>> delayedSceneCalls = new LinkedList<>();
+
     private int tempConsumption = 0;
     private int tempEnergyMeter = 0;
     private int tempEnergyMeterWs = 0;
@@ -233,6 +250,7 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
     private class PollingRunnable implements Runnable {
         private boolean devicesLoaded = false;
         private long nextSensorUpdate = 0;
+        private long nextStructureReload = 0;
 
         @Override
         public void run() {
@@ -244,14 +262,6 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
                     stateChanged(ManagerStates.INITIALIZING);
                 }
             }
-            HashMap<DSID, Device> tempDeviceMap;
-            if (strucMan.getDeviceMap() != null) {
-                tempDeviceMap = (HashMap<DSID, Device>) strucMan.getDeviceMap();
-            } else {
-                tempDeviceMap = new HashMap<DSID, Device>();
-            }
-
-            List<Device> currentDeviceList = getDetailedDevices();
 
             // update the current total power consumption
             if (nextSensorUpdate <= System.currentTimeMillis()) {
@@ -273,6 +283,62 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
                 nextSensorUpdate = System.currentTimeMillis() + config.getTotalPowerUpdateInterval();
             }
 
+            if (!devicesLoaded || structureChanged || nextStructureReload <= System.currentTimeMillis()) {
+                structureChanged = false;
+                nextStructureReload = System.currentTimeMillis() + STRUCTURE_RELOAD_INTERVAL;
+                updateStructure();
+            } else {
+                // the structure has not changed, so only the commands of the known devices have to be sent
+                for (Device device : strucMan.getDeviceMap().values()) {
+                    if (device.isPresent()) {
+                        checkDeviceStateUpdates(device);
+                    }
+                }
+            }
+
+            if (!devicesLoaded && strucMan.getDeviceMap() != null) {
+                if (!strucMan.getDeviceMap().values().isEmpty()) {
+                    logger.debug("Devices loaded");
+                    devicesLoaded = true;
+                    setInizialStateWithLastCallScenes();
+                    stateChanged(ManagerStates.RUNNING);
+                } else {
+                    logger.debug("No devices found");
+                }
+            }
+
+            if (!sceneMan.scenesGenerated() && devicesLoaded
+                    && !sceneMan.getManagerState().equals(ManagerStates.GENERATING_SCENES)) {
+                logger.debug("{}", sceneMan.getManagerState());
+                sceneMan.generateScenes();
+            }
+
+            if (!trashDevices.isEmpty() && (lastBinCheck + config.getBinCheckTime() < System.currentTimeMillis())) {
+                for (TrashDevice trashDevice : trashDevices) {
+                    if (trashDevice.isTimeToDelete(Calendar.getInstance().get(Calendar.DAY_OF_YEAR))) {
+                        logger.debug("Found trashDevice that have to delete!");
+                        trashDevices.remove(trashDevice);
+                        logger.debug("Delete trashDevice: {}", trashDevice.getDevice().getDSID().getValue());
+                    }
+                }
+                lastBinCheck = System.currentTimeMillis();
+            }
+        }
+
+        /**
+         * Loads the detailed devices of the whole apartment and compares them with the known devices to find added,
+         * changed and removed devices.
+         */
+        private void updateStructure() {
+            HashMap<DSID, Device> tempDeviceMap;
+            if (strucMan.getDeviceMap() != null) {
+                tempDeviceMap = (HashMap<DSID, Device>) strucMan.getDeviceMap();
+            } else {
+                tempDeviceMap = new HashMap<DSID, Device>();
+            }
+
+            List<Device> currentDeviceList = getDetailedDevices();
+
             while (!currentDeviceList.isEmpty()) {
                 Device currentDevice = currentDeviceList.remove(0);
                 DSID currentDeviceDSID = currentDevice.getDSID();
@@ -282,32 +348,7 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
                     checkDeviceConfig(currentDevice, eshDevice);
 
                     if (eshDevice.isPresent()) {
-                        // check device state updates
-                        while (!eshDevice.isDeviceUpToDate()) {
-                            DeviceStateUpdate deviceStateUpdate = eshDevice.getNextDeviceUpdateState();
-                            if (deviceStateUpdate != null) {
-                                switch (deviceStateUpdate.getType()) {
-                                    case DeviceStateUpdate.OUTPUT:
-                                    case DeviceStateUpdate.SLAT_ANGLE_INCREASE:
-                                    case DeviceStateUpdate.SLAT_ANGLE_DECREASE:
-                                        filterCommand(deviceStateUpdate, eshDevice);
-                                        break;
-                                    case DeviceStateUpdate.UPDATE_SCENE_CONFIG:
-                                    case DeviceStateUpdate.UPDATE_SCENE_OUTPUT:
-                                        updateSceneData(eshDevice, deviceStateUpdate);
-                                        break;
-                                    case DeviceStateUpdate.UPDATE_OUTPUT_VALUE:
-                                        if (deviceStateUpdate.getValueAsInteger() > -1) {
-                                            readOutputValue(eshDevice);
-                                        } else {
-                                            removeSensorJob(eshDevice, deviceStateUpdate);
-                                        }
-                                        break;
-                                    default:
-                                        sendComandsToDSS(eshDevice, deviceStateUpdate);
-                                }
-                            }
-                        }
+                        checkDeviceStateUpdates(eshDevice);
                     }
 
                 } else {
@@ -352,23 +393,6 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
                 }
             }
 
-            if (!devicesLoaded && strucMan.getDeviceMap() != null) {
-                if (!strucMan.getDeviceMap().values().isEmpty()) {
-                    logger.debug("Devices loaded");
-                    devicesLoaded = true;
-                    setInizialStateWithLastCallScenes();
-                    stateChanged(ManagerStates.RUNNING);
-                } else {
-                    logger.debug("No devices found");
-                }
-            }
-
-            if (!sceneMan.scenesGenerated() && devicesLoaded
-                    && !sceneMan.getManagerState().equals(ManagerStates.GENERATING_SCENES)) {
-                logger.debug("{}", sceneMan.getManagerState());
-                sceneMan.generateScenes();
-            }
-
             for (Device device : tempDeviceMap.values()) {
                 logger.debug("Found removed devices.");
 
@@ -389,16 +413,33 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
                             "The device-Discovery is not registrated, can't inform device discovery about removed device.");
                 }
             }
+        }
 
-            if (!trashDevices.isEmpty() && (lastBinCheck + config.getBinCheckTime() < System.currentTimeMillis())) {
-                for (TrashDevice trashDevice : trashDevices) {
-                    if (trashDevice.isTimeToDelete(Calendar.getInstance().get(Calendar.DAY_OF_YEAR))) {
-                        logger.debug("Found trashDevice that have to delete!");
-                        trashDevices.remove(trashDevice);
-                        logger.debug("Delete trashDevice: {}", trashDevice.getDevice().getDSID().getValue());
+        private void checkDeviceStateUpdates(Device device) {
+            while (!device.isDeviceUpToDate()) {
+                DeviceStateUpdate deviceStateUpdate = device.getNextDeviceUpdateState();
+                if (deviceStateUpdate != null) {
+                    switch (deviceStateUpdate.getType()) {
+                        case DeviceStateUpdate.OUTPUT:
+                        case DeviceStateUpdate.SLAT_ANGLE_INCREASE:
+                        case DeviceStateUpdate.SLAT_ANGLE_DECREASE:
+                            filterCommand(deviceStateUpdate, device);
+                            break;
+                        case DeviceStateUpdate.UPDATE_SCENE_CONFIG:
+                        case DeviceStateUpdate.UPDATE_SCENE_OUTPUT:
+                            updateSceneData(device, deviceStateUpdate);
+                            break;
+                        case DeviceStateUpdate.UPDATE_OUTPUT_VALUE:
+                            if (deviceStateUpdate.getValueAsInteger() > -1) {
+                                readOutputValue(device);
+                            } else {
+                                removeSensorJob(device, deviceStateUpdate);
+                            }
+                            break;
+                        default:
+                            sendComandsToDSS(device, deviceStateUpdate);
                     }
                 }
-                lastBinCheck = System.currentTimeMillis();
             }
         }
 
@@ -567,6 +608,13 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
         if (eventListener != null) {
             eventListener.removeEventHandler(this);
         }
+        synchronized (sceneCallLock) {
+            for (ScheduledFuture<?> sceneCall : delayedSceneCalls) {
+                sceneCall.cancel(false);
+            }
+            delayedSceneCalls.clear();
+            nextSceneCall = 0;
+        }
     }
 
     /**
@@ -659,51 +707,61 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
         strucMan.updateDevice(newDevice);
     }
 
-    private long lastSceneCall = 0;
-    private long sleepTime = 0;
-
     @Override
-    public synchronized void sendSceneComandsToDSS(InternalScene scene, boolean call_undo) {
+    public void sendSceneComandsToDSS(final InternalScene scene, final boolean call_undo) {
         if (scene != null) {
-            if (lastSceneCall + 1000 > System.currentTimeMillis()) {
-                sleepTime = System.currentTimeMillis() - lastSceneCall;
-                try {
-                    Thread.sleep(sleepTime);
-                } catch (InterruptedException e) {
-                    logger.debug("An InterruptedException occurred", e);
+            synchronized (sceneCallLock) {
+                // each call reserves the next free time slot, so scene calls keep their order without blocking
+                long now = System.currentTimeMillis();
+                long sceneCall = Math.max(now, nextSceneCall);
+                nextSceneCall = sceneCall + SCENE_CALL_INTERVAL;
+                long delay = sceneCall - now;
+                if (delay > 0) {
+                    delayedSceneCalls.removeIf(Future::isDone);
+                    delayedSceneCalls.add(scheduler.schedule(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            callScene(scene, call_undo);
+                        }
+                    }, delay, TimeUnit.MILLISECONDS));
+                    return;
                 }
             }
-            lastSceneCall = System.currentTimeMillis();
-            boolean requestSuccessful = false;
-            if (scene.getZoneID() == 0) {
-                if (call_undo) {
-                    logger.debug("{} {} {}", scene.getGroupID(), scene.getSceneID(),
-                            ApartmentSceneEnum.getApartmentScene(scene.getSceneID()));
-                    requestSuccessful = this.digitalSTROMClient.callApartmentScene(connMan.getSessionToken(),
-                            scene.getGroupID(), null, ApartmentSceneEnum.getApartmentScene(scene.getSceneID()), false);
-                } else {
-                    requestSuccessful = this.digitalSTROMClient.undoApartmentScene(connMan.getSessionToken(),
-                            scene.getGroupID(), null, ApartmentSceneEnum.getApartmentScene(scene.getSceneID()));
-                }
+            callScene(scene, call_undo);
+        }
+    }
+
+    private void callScene(InternalScene scene, boolean call_undo) {
+        boolean requestSuccessful = false;
+        if (scene.getZoneID() == 0) {
+            if (call_undo) {
+                logger.debug("{} {} {}", scene.getGroupID(), scene.getSceneID(),
+                        ApartmentSceneEnum.getApartmentScene(scene.getSceneID()));
+                requestSuccessful = this.digitalSTROMClient.callApartmentScene(connMan.getSessionToken(),
+                        scene.getGroupID(), null, ApartmentSceneEnum.getApartmentScene(scene.getSceneID()), false);
             } else {
-                if (call_undo) {
-                    requestSuccessful = this.digitalSTROMClient.callZoneScene(connMan.getSessionToken(),
-                            scene.getZoneID(), null, scene.getGroupID(), null, SceneEnum.getScene(scene.getSceneID()),
-                            false);
-                } else {
-                    requestSuccessful = this.digitalSTROMClient.undoZoneScene(connMan.getSessionToken(),
-                            scene.getZoneID(), null, scene.getGroupID(), null, SceneEnum.getScene(scene.getSceneID()));
-                }
+                requestSuccessful = this.digitalSTROMClient.undoApartmentScene(connMan.getSessionToken(),
+                        scene.getGroupID(), null, ApartmentSceneEnum.getApartmentScene(scene.getSceneID()));
+            }
+        } else {
+            if (call_undo) {
+                requestSuccessful = this.digitalSTROMClient.callZoneScene(connMan.getSessionToken(),
+                        scene.getZoneID(), null, scene.getGroupID(), null, SceneEnum.getScene(scene.getSceneID()),
+                        false);
+            } else {
+                requestSuccessful = this.digitalSTROMClient.undoZoneScene(connMan.getSessionToken(),
+                        scene.getZoneID(), null, scene.getGroupID(), null, SceneEnum.getScene(scene.getSceneID()));
             }
+        }
 
-            logger.debug("Was the scene call succsessful?: {}", requestSuccessful);
-            if (requestSuccessful) {
-                this.sceneMan.addEcho(scene.getID());
-                if (call_undo) {
-                    scene.activateScene();
-                } else {
-                    scene.deactivateScene();
-                }
+        logger.debug("Was the scene call succsessful?: {}", requestSuccessful);
+        if (requestSuccessful) {
+            this.sceneMan.addEcho(scene.getID());
+            if (call_undo) {
+                scene.activateScene();
+            } else {
+                scene.deactivateScene();
             }
         }
     }
@@ -1188,8 +1246,9 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
             tempConsumption = 0;
             for (CachedMeteringValue value : cachedConsumptionMeteringValues) {
                 tempConsumption += value.getValue();
-                if (strucMan.getCircuitByDSID(value.getDsid()) != null) {
-                    strucMan.getCircuitByDSID(value.getDsid()).addMeteringValue(value);
+                Circuit circuit = strucMan.getCircuitByDSID(value.getDsid());
+                if (circuit != null) {
+                    circuit.addMeteringValue(value);
                 }
             }
         }
@@ -1216,8 +1275,9 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
             tempEnergyMeter = 0;
             for (CachedMeteringValue value : cachedEnergyMeteringValues) {
                 tempEnergyMeter += value.getValue();
-                if (strucMan.getCircuitByDSID(value.getDsid()) != null) {
-                    strucMan.getCircuitByDSID(value.getDsid()).addMeteringValue(value);
+                Circuit circuit = strucMan.getCircuitByDSID(value.getDsid());
+                if (circuit != null) {
+                    circuit.addMeteringValue(value);
                 }
             }
         }
@@ -1232,8 +1292,9 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
             tempEnergyMeterWs = 0;
             for (CachedMeteringValue value : cachedEnergyMeteringValues) {
                 tempEnergyMeterWs += value.getValue();
-                if (strucMan.getCircuitByDSID(value.getDsid()) != null) {
-                    strucMan.getCircuitByDSID(value.getDsid()).addMeteringValue(value);
+                Circuit circuit = strucMan.getCircuitByDSID(value.getDsid());
+                if (circuit != null) {
+                    circuit.addMeteringValue(value);
                 }
             }
         }
@@ -1281,6 +1342,11 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
 
     @Override
     public void handleEvent(EventItem eventItem) {
+        if (EventNames.MODEL_READY.equals(eventItem.getName())) {
+            logger.debug("Detect {} eventItem, the structure will be reloaded", eventItem.getName());
+            structureChanged = true;
+            return;
+        }
         if (EventNames.DEVICE_SENSOR_VALUE.equals(eventItem.getName())
                 || EventNames.DEVICE_BINARY_INPUT_EVENT.equals(eventItem.getName())) {
             logger.debug("Detect {} eventItem = {}", eventItem.getName(), eventItem.toString());
@@ -31,6 +31,8 @@ import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.util.Base64;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
@@ -82,6 +84,8 @@ public class HttpTransportImpl implements HttpTransport {
 
     private final Logger logger = LoggerFactory.getLogger(HttpTransportImpl.class);
     private static final short MAY_A_NEW_SESSION_TOKEN_IS_NEEDED = 1;
+    // the JVM keeps up to five idle connections per server alive, so more parallel requests would not reuse them
+    private static final int MAX_PARALLEL_REQUESTS = 5;
 
     private String uri;
 
@@ -92,6 +96,8 @@ public class HttpTransportImpl implements HttpTransport {
 
     private ConnectionManager connectionManager;
 
+    private final Semaphore requestPermits = new Semaphore(MAX_PARALLEL_REQUESTS, true);
+
     private String cert;
     private SSLSocketFactory sslSocketFactory;
     private final HostnameVerifier hostnameVerifier = new HostnameVerifier() {
@@ -247,47 +253,57 @@ public class HttpTransportImpl implements HttpTransport {
         // execute the next time, by TimeOutExceptions. By other exceptions the checkConnection() method handles it in
         // max 1 second.
         String response = null;
+        int responseCode;
         HttpsURLConnection connection = null;
+        boolean permitAcquired = false;
         try {
             String correctedRequest = checkSessionToken(request);
+            permitAcquired = requestPermits.tryAcquire(connectTimeout + readTimeout, TimeUnit.MILLISECONDS);
+            if (!permitAcquired) {
+                logger.debug("No connection to the digitalSTROM-Server is free for the request {}", request);
+                return null;
+            }
             connection = getConnection(correctedRequest, connectTimeout, readTimeout);
-            if (connection != null) {
-                connection.connect();
-                final int responseCode = connection.getResponseCode();
-                if (responseCode != HttpURLConnection.HTTP_FORBIDDEN) {
-                    if (responseCode == HttpURLConnection.HTTP_INTERNAL_ERROR) {
-                        response = IOUtils.toString(connection.getErrorStream());
-                    } else {
-                        response = IOUtils.toString(connection.getInputStream());
-                    }
-                    if (response != null) {
-                        if (!response.contains("Authentication failed")) {
-                            if (loginCounter > 0) {
-                                connectionManager.checkConnection(responseCode);
-                            }
-                            loginCounter = 0;
-                        } else {
-                            connectionManager.checkConnection(ConnectionManager.AUTHENTIFICATION_PROBLEM);
-                            loginCounter++;
-                        }
-                    }
-
-                }
-                connection.disconnect();
-                if (response == null && connectionManager != null
-                        && loginCounter <= MAY_A_NEW_SESSION_TOKEN_IS_NEEDED) {
-                    if (responseCode == HttpURLConnection.HTTP_FORBIDDEN) {
-                        execute(addSessionToken(correctedRequest, connectionManager.getNewSessionToken()),
-                                connectTimeout, readTimeout);
-                        loginCounter++;
-                    } else {
+            if (connection == null) {
+                return null;
+            }
+            connection.connect();
+            responseCode = connection.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_FORBIDDEN) {
+                readResponse(connection.getErrorStream());
+            } else if (responseCode == HttpURLConnection.HTTP_INTERNAL_ERROR) {
+                response = readResponse(connection.getErrorStream());
+            } else {
+                response = readResponse(connection.getInputStream());
+            }
+            // the response is read completely, so the connection is kept alive for the next request
+            connection = null;
+            requestPermits.release();
+            permitAcquired = false;
+
+            if (response != null) {
+                if (!response.contains("Authentication failed")) {
+                    if (loginCounter > 0) {
                         connectionManager.checkConnection(responseCode);
-                        loginCounter++;
-                        return null;
                     }
+                    loginCounter = 0;
+                } else {
+                    connectionManager.checkConnection(ConnectionManager.AUTHENTIFICATION_PROBLEM);
+                    loginCounter++;
                 }
-                return response;
             }
+            if (response == null && connectionManager != null && loginCounter <= MAY_A_NEW_SESSION_TOKEN_IS_NEEDED) {
+                if (responseCode == HttpURLConnection.HTTP_FORBIDDEN) {
+                    response = execute(addSessionToken(correctedRequest, connectionManager.getNewSessionToken()),
+                            connectTimeout, readTimeout);
+                    loginCounter++;
+                } else {
+                    connectionManager.checkConnection(responseCode);
+                    loginCounter++;
+                    return null;
+                }
+            }
+            return response;
         } catch (SocketTimeoutException e) {
             informConnectionManager(ConnectionManager.SOCKET_TIMEOUT_EXCEPTION);
         } catch (java.net.ConnectException e) {
@@ -301,14 +317,40 @@ public class HttpTransportImpl implements HttpTransport {
             if (connectionManager != null) {
                 informConnectionManager(ConnectionManager.GENERAL_EXCEPTION);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } finally {
             if (connection != null) {
+                // a connection in an unknown state must not be reused
                 connection.disconnect();
             }
+            if (permitAcquired) {
+                requestPermits.release();
+            }
         }
         return null;
     }
 
+    /**
+     * Reads a response stream completely and closes it. Closing instead of disconnecting the
+     * {@link HttpsURLConnection} returns the underlying connection to the keep-alive cache of the JVM, so following
+     * requests do not need a new TCP connection and SSL handshake.
+     *
+     * @param stream to read, can be null
+     * @return the response or null, if the stream is null
+     * @throws IOException if the stream can not be read
+     */
+    private String readResponse(InputStream stream) throws IOException {
+        if (stream == null) {
+            return null;
+        }
+        try {
+            return IOUtils.toString(stream);
+        } finally {
+            stream.close();
+        }
+    }
+
     private boolean informConnectionManager(int code) {
         if (connectionManager != null && loginCounter < MAY_A_NEW_SESSION_TOKEN_IS_NEEDED) {
             connectionManager.checkConnection(code);
@@ -374,17 +416,21 @@ public class HttpTransportImpl implements HttpTransport {
 
     @Override
     public int checkConnection(String testRequest) {
+        HttpsURLConnection connection = null;
         try {
-            HttpsURLConnection connection = getConnection(testRequest, connectTimeout, readTimeout);
+            connection = getConnection(testRequest, connectTimeout, readTimeout);
             if (connection != null) {
                 connection.connect();
-                if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
-                    if (IOUtils.toString(connection.getInputStream()).contains("Authentication failed")) {
-                        return ConnectionManager.AUTHENTIFICATION_PROBLEM;
-                    }
+                int responseCode = connection.getResponseCode();
+                String response = readResponse(responseCode < HttpURLConnection.HTTP_BAD_REQUEST
+                        ? connection.getInputStream()
+                        : connection.getErrorStream());
+                connection = null;
+                if (responseCode == HttpURLConnection.HTTP_OK && response != null
+                        && response.contains("Authentication failed")) {
+                    return ConnectionManager.AUTHENTIFICATION_PROBLEM;
                 }
-                connection.disconnect();
-                return connection.getResponseCode();
+                return responseCode;
             } else {
                 return ConnectionManager.GENERAL_EXCEPTION;
             }
@@ -398,6 +444,10 @@ public class HttpTransportImpl implements HttpTransport {
             return ConnectionManager.UNKNOWN_HOST_EXCEPTION;
         } catch (IOException e) {
             return ConnectionManager.GENERAL_EXCEPTION;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
         }
     }
 
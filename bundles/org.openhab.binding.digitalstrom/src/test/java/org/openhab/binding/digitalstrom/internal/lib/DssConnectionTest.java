@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.digitalstrom.internal.lib;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.digitalstrom.internal.lib.config.Config;
+import org.openhab.binding.digitalstrom.internal.lib.listener.ConnectionListener;
+import org.openhab.binding.digitalstrom.internal.lib.manager.ConnectionManager;
+import org.openhab.binding.digitalstrom.internal.lib.manager.impl.DeviceStatusManagerImpl;
+import org.openhab.binding.digitalstrom.internal.lib.serverconnection.DsAPI;
+import org.openhab.binding.digitalstrom.internal.lib.serverconnection.HttpTransport;
+import org.openhab.binding.digitalstrom.internal.lib.serverconnection.impl.DsAPIImpl;
+import org.openhab.binding.digitalstrom.internal.lib.serverconnection.impl.HttpTransportImpl;
+import org.openhab.binding.digitalstrom.internal.lib.structure.scene.InternalScene;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+/**
+ * Tests the connection reuse and the re-login of the {@link HttpTransportImpl} and the pacing of scene calls in the
+ * {@link DeviceStatusManagerImpl}, using a local HTTPS server instead of a digitalSTROM-Server.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class DssConnectionTest {
+
+    private static final char[] KEYSTORE_PASSWORD = "secret".toCharArray();
+    private static final String EXPIRED_TOKEN = "expired";
+    private static final String NEW_TOKEN = "renewed";
+
+    private final List<Request> requests = new ArrayList<>();
+
+    private HttpsServer server;
+    private StubConnectionManager connectionManager;
+
+    private static class Request {
+        private final String query;
+        private final int remotePort;
+        private final long time;
+
+        private Request(String query, int remotePort) {
+            this.query = query;
+            this.remotePort = remotePort;
+            this.time = System.nanoTime();
+        }
+
+        private String getParameter(String name) {
+            return StringUtils.substringBefore(StringUtils.substringAfter(query, name + "="), "&");
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        try (InputStream input = DssConnectionTest.class.getResourceAsStream("localhost.jks")) {
+            keyStore.load(input, KEYSTORE_PASSWORD);
+        }
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keyStore, KEYSTORE_PASSWORD);
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagers.getKeyManagers(), null, null);
+
+        server = HttpsServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+        server.createContext("/json/", this::respond);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        // the transport accepts all certificates, so the self signed certificate of the test server is accepted
+        connectionManager = new StubConnectionManager(
+                new Config("localhost:" + server.getAddress().getPort(), null, null, null));
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        Request request = new Request(exchange.getRequestURI().getQuery(), exchange.getRemoteAddress().getPort());
+        synchronized (requests) {
+            requests.add(request);
+        }
+        boolean expired = EXPIRED_TOKEN.equals(request.getParameter("token"));
+        byte[] body = (expired ? "{\"ok\":false,\"message\":\"not logged in\"}" : "{\"ok\":true,\"result\":{}}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(expired ? 403 : 200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private List<Request> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    @Test
+    public void testConnectionIsReused() {
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(connectionManager.getHttpTransport().execute("/json/apartment/getName"));
+        }
+
+        Set<Integer> remotePorts = new HashSet<>();
+        getRequests().forEach(request -> remotePorts.add(request.remotePort));
+        assertEquals(5, getRequests().size());
+        assertEquals("all requests use the same connection", 1, remotePorts.size());
+    }
+
+    @Test
+    public void testRequestIsRetriedAfterLogin() {
+        connectionManager.sessionToken = EXPIRED_TOKEN;
+
+        String response = connectionManager.getHttpTransport().execute("/json/apartment/getName");
+
+        assertEquals("{\"ok\":true,\"result\":{}}", response);
+        assertEquals(1, connectionManager.newSessionTokens.get());
+        List<Request> sentRequests = getRequests();
+        assertEquals(2, sentRequests.size());
+        assertEquals(EXPIRED_TOKEN, sentRequests.get(0).getParameter("token"));
+        assertEquals(NEW_TOKEN, sentRequests.get(1).getParameter("token"));
+    }
+
+    @Test
+    public void testSceneCallsKeepTheirOrderAndInterval() throws InterruptedException {
+        DeviceStatusManagerImpl deviceStatusManager = new DeviceStatusManagerImpl(connectionManager);
+        List<InternalScene> scenes = Arrays.asList(new InternalScene(1, (short) 1, (short) 5, null),
+                new InternalScene(1, (short) 1, (short) 17, null), new InternalScene(1, (short) 1, (short) 18, null));
+        try {
+            for (InternalScene scene : scenes) {
+                deviceStatusManager.sendSceneComandsToDSS(scene, true);
+            }
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (getRequests().size() < scenes.size()) {
+                assertTrue("scene calls are not sent", System.currentTimeMillis() < deadline);
+                Thread.sleep(10);
+            }
+        } finally {
+            deviceStatusManager.stop();
+        }
+
+        List<Request> sentRequests = getRequests();
+        for (int i = 0; i < scenes.size(); i++) {
+            assertEquals(scenes.get(i).getSceneID().toString(), sentRequests.get(i).getParameter("sceneNumber"));
+            assertTrue(scenes.get(i).isActive());
+            if (i > 0) {
+                // allow for the time the first request needs to reach the server
+                long interval = TimeUnit.NANOSECONDS.toMillis(sentRequests.get(i).time - sentRequests.get(i - 1).time);
+                assertTrue("scene calls only " + interval + " ms apart", interval >= 900);
+            }
+        }
+    }
+
+    /**
+     * A {@link ConnectionManager} with a fixed session token, which counts the requested new session tokens.
+     */
+    private static class StubConnectionManager implements ConnectionManager {
+        private final Config config;
+        private final HttpTransport transport;
+        private final AtomicInteger newSessionTokens = new AtomicInteger();
+        private volatile String sessionToken = "valid";
+
+        private StubConnectionManager(Config config) {
+            this.config = config;
+            this.transport = new HttpTransportImpl(this, true);
+        }
+
+        @Override
+        public HttpTransport getHttpTransport() {
+            return transport;
+        }
+
+        @Override
+        public DsAPI getDigitalSTROMAPI() {
+            return new DsAPIImpl(transport);
+        }
+
+        @Override
+        public boolean checkConnection() {
+            return true;
+        }
+
+        @Override
+        public String getSessionToken() {
+            return sessionToken;
+        }
+
+        @Override
+        public String getApplicationToken() {
+            return null;
+        }
+
+        @Override
+        public void registerConnectionListener(ConnectionListener connectionListener) {
+        }
+
+        @Override
+        public void unregisterConnectionListener() {
+        }
+
+        @Override
+        public boolean removeApplicationToken() {
+            return false;
+        }
+
+        @Override
+        public void updateConfig(String hostAddress, String username, String password, String applicationToken) {
+        }
+
+        @Override
+        public void updateConfig(Config config) {
+        }
+
+        @Override
+        public Config getConfig() {
+            return config;
+        }
+
+        @Override
+        public void configHasBeenUpdated() {
+        }
+
+        @Override
+        public String getNewSessionToken() {
+            newSessionTokens.incrementAndGet();
+            sessionToken = NEW_TOKEN;
+            return sessionToken;
+        }
+
+        @Override
+        public boolean checkConnection(int code) {
+            return true;
+        }
+
+        @Override
+        public boolean connectionEstablished() {
+            return true;
+        }
+    }
+}
@@ -18,7 +18,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.core.library.types.OnOffType;
@@ -32,6 +31,7 @@ import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.thing.binding.ThingHandlerService;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.dmx.action.DmxActions;
+import org.openhab.binding.dmx.internal.DmxFrameClock.FrameTask;
 import org.openhab.binding.dmx.internal.action.FadeAction;
 import org.openhab.binding.dmx.internal.action.ResumeAction;
 import org.openhab.binding.dmx.internal.config.DmxBridgeHandlerConfiguration;
@@ -51,13 +51,18 @@ import org.slf4j.LoggerFactory;
 public abstract class DmxBridgeHandler extends BaseBridgeHandler {
     public static final int DEFAULT_REFRESH_RATE = 20;
 
+    /**
+     * the frame clock shared by all bridges
+     */
+    private static final DmxFrameClock FRAME_CLOCK = new DmxFrameClock();
+
     private final Logger logger = LoggerFactory.getLogger(DmxBridgeHandler.class);
 
     protected Universe universe;
 
-    private ScheduledFuture<?> senderJob;
-    private boolean isMuted = false;
-    private int refreshTime = 1000 / DEFAULT_REFRESH_RATE;
+    private FrameTask senderJob;
+    private volatile boolean isMuted = false;
+    private long refreshTime = TimeUnit.SECONDS.toNanos(1) / DEFAULT_REFRESH_RATE;
 
     public DmxBridgeHandler(Bridge dmxBridge) {
         super(dmxBridge);
@@ -156,15 +161,17 @@ public abstract class DmxBridgeHandler extends BaseBridgeHandler {
             uninstallScheduler();
         }
         if (refreshTime > 0) {
-            senderJob = scheduler.scheduleAtFixedRate(() -> {
-                logger.trace("runnable packet sender for universe {} called, state {}/{}", universe.getUniverseId(),
-                        getThing().getStatus(), isMuted);
+            senderJob = FRAME_CLOCK.register(this.thing.getUID().toString(), () -> {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("runnable packet sender for universe {} called, state {}/{}",
+                            universe.getUniverseId(), getThing().getStatus(), isMuted);
+                }
                 if (!isMuted) {
                     sendDmxData();
                 } else {
                     logger.trace("bridge {} is muted", getThing().getUID());
                 }
-            }, 1, refreshTime, TimeUnit.MILLISECONDS);
+            }, refreshTime);
             logger.trace("started scheduler for thing {}", this.thing.getUID());
         } else {
             logger.info("refresh disabled for thing {}", this.thing.getUID());
@@ -176,9 +183,7 @@ public abstract class DmxBridgeHandler extends BaseBridgeHandler {
      */
     protected void uninstallScheduler() {
         if (senderJob != null) {
-            if (!senderJob.isCancelled()) {
-                senderJob.cancel(true);
-            }
+            FRAME_CLOCK.unregister(senderJob);
             senderJob = null;
             closeConnection();
             logger.trace("stopping scheduler for thing {}", this.thing.getUID());
@@ -202,12 +207,13 @@ public abstract class DmxBridgeHandler extends BaseBridgeHandler {
 
         int refreshRate = configuration.refreshrate;
         if (refreshRate > 0) {
-            refreshTime = (int) (1000.0 / refreshRate);
+            refreshTime = TimeUnit.SECONDS.toNanos(1) / refreshRate;
         } else {
             refreshTime = 0;
         }
 
-        logger.debug("set refreshTime to {} ms in thing {}", refreshTime, this.thing.getUID());
+        logger.debug("set refreshTime to {} us in thing {}", TimeUnit.NANOSECONDS.toMicros(refreshTime),
+                this.thing.getUID());
 
         installScheduler();
     }
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dmx.internal;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link DmxFrameClock} triggers the output of all DMX bridges from a single thread. The frames of all universes
+ * with the same refresh rate are sent together and do not depend on the load of the shared scheduler.
+ *
+ * The thread is started with the first registered frame task and stops after the last one is unregistered.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class DmxFrameClock {
+    private static final long STATISTICS_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private final Logger logger = LoggerFactory.getLogger(DmxFrameClock.class);
+
+    private final List<FrameTask> tasks = new CopyOnWriteArrayList<>();
+    private final LongSupplier nanoTime;
+    private final boolean startThread;
+    private Thread thread;
+
+    public DmxFrameClock() {
+        this(System::nanoTime, true);
+    }
+
+    /**
+     * constructor for tests, which drive the clock with {@link #runFrames()} instead of the thread
+     *
+     * @param nanoTime the time source in ns
+     * @param startThread true if the thread is started with the first registered task
+     */
+    DmxFrameClock(LongSupplier nanoTime, boolean startThread) {
+        this.nanoTime = nanoTime;
+        this.startThread = startThread;
+    }
+
+    /**
+     * a periodic task of the frame clock
+     */
+    public class FrameTask {
+        private final String name;
+        private final Runnable runnable;
+        private final long period;
+        private long deadline;
+
+        private long statisticsStart;
+        private int frames;
+        private long totalJitter;
+        private long maxJitter;
+
+        private FrameTask(String name, Runnable runnable, long period, long now) {
+            this.name = name;
+            this.runnable = runnable;
+            this.period = period;
+            this.deadline = now + period;
+            this.statisticsStart = now;
+        }
+
+        private void run(long now) {
+            long jitter = now - deadline;
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                logger.warn("frame task {} failed: {}", name, e.getMessage(), e);
+            }
+
+            frames++;
+            totalJitter += jitter;
+            maxJitter = Math.max(maxJitter, jitter);
+            deadline += period;
+            long end = nanoTime.getAsLong();
+            if (end - deadline >= 0) {
+                // more than a frame late, skip the missed frames instead of sending them in a burst
+                deadline = end + period;
+            }
+
+            if (now - statisticsStart >= STATISTICS_INTERVAL) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("{}: {} frames/s, jitter {} us average, {} us max", name,
+                            frames * TimeUnit.SECONDS.toNanos(1) / (now - statisticsStart),
+                            TimeUnit.NANOSECONDS.toMicros(totalJitter / frames),
+                            TimeUnit.NANOSECONDS.toMicros(maxJitter));
+                }
+                statisticsStart = now;
+                frames = 0;
+                totalJitter = 0;
+                maxJitter = 0;
+            }
+        }
+
+        /**
+         * get the time the next frame of this task is due
+         *
+         * @return the deadline in ns
+         */
+        long getDeadline() {
+            return deadline;
+        }
+    }
+
+    /**
+     * register a task that is run once per frame
+     *
+     * @param name the name of the task used in log messages
+     * @param runnable the task
+     * @param period the time between two frames in ns
+     * @return the registered task, needed for unregistering
+     */
+    public synchronized FrameTask register(String name, Runnable runnable, long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        FrameTask task = new FrameTask(name, runnable, period, nanoTime.getAsLong());
+        tasks.add(task);
+        if (startThread) {
+            if (thread == null) {
+                thread = new Thread(this::run, "OH-binding-dmx-frameclock");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MAX_PRIORITY);
+                thread.start();
+            } else {
+                LockSupport.unpark(thread);
+            }
+        }
+        logger.trace("registered frame task {} with period {} ns", name, period);
+        return task;
+    }
+
+    /**
+     * unregister a task, a frame that is currently sent is completed
+     *
+     * @param task the task returned by {@link #register(String, Runnable, long)}
+     */
+    public synchronized void unregister(FrameTask task) {
+        tasks.remove(task);
+        if (tasks.isEmpty() && thread != null) {
+            LockSupport.unpark(thread);
+            thread = null;
+        }
+        logger.trace("unregistered frame task {}", task.name);
+    }
+
+    private synchronized boolean isRunning(Thread current) {
+        return thread == current;
+    }
+
+    private void run() {
+        Thread current = Thread.currentThread();
+        while (isRunning(current)) {
+            long delay = runFrames() - nanoTime.getAsLong();
+            if (delay > 0) {
+                LockSupport.parkNanos(this, delay);
+            }
+        }
+        logger.trace("frame clock stopped");
+    }
+
+    /**
+     * run all tasks whose frame is due, in the order of registration
+     *
+     * @return the time in ns the next frame is due
+     */
+    long runFrames() {
+        long next = nanoTime.getAsLong() + STATISTICS_INTERVAL;
+        for (FrameTask task : tasks) {
+            long now = nanoTime.getAsLong();
+            if (now - task.deadline >= 0) {
+                task.run(now);
+            }
+            if (task.deadline - next < 0) {
+                next = task.deadline;
+            }
+        }
+        return next;
+    }
+}
@@ -15,7 +15,7 @@ package org.openhab.binding.dmx.internal.dmxoverethernet;
 import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
-import java.net.SocketException;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -43,6 +43,7 @@ public abstract class DmxOverEthernetHandler extends DmxBridgeHandler {
     protected boolean refreshAlways = false;
 
     DatagramSocket socket = null;
+    private DatagramPacket sendPacket;
     private long lastSend = 0;
     private int repeatCounter = 0;
     private int sequenceNo = 0;
@@ -51,21 +52,16 @@ public abstract class DmxOverEthernetHandler extends DmxBridgeHandler {
     protected void openConnection() {
         if (getThing().getStatus() != ThingStatus.ONLINE) {
             try {
+                socket = createSocket();
                 if (senderNode.getAddress() == null) {
-                    if (senderNode.getPort() == 0) {
-                        socket = new DatagramSocket();
-                        senderNode.setInetAddress(socket.getLocalAddress());
-                        senderNode.setPort(socket.getLocalPort());
-                    } else {
-                        socket = new DatagramSocket(senderNode.getPort());
-                        senderNode.setInetAddress(socket.getLocalAddress());
-                    }
-                } else {
-                    socket = new DatagramSocket(senderNode.getPort(), senderNode.getAddress());
+                    senderNode.setInetAddress(socket.getLocalAddress());
+                }
+                if (senderNode.getPort() == 0) {
+                    senderNode.setPort(socket.getLocalPort());
                 }
                 updateStatus(ThingStatus.ONLINE);
                 logger.debug("opened socket {} in bridge {}", senderNode, this.thing.getUID());
-            } catch (SocketException e) {
+            } catch (IOException e) {
                 logger.debug("could not open socket {} in bridge {}: {}", senderNode, this.thing.getUID(),
                         e.getMessage());
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, "opening UDP socket failed");
@@ -73,6 +69,16 @@ public abstract class DmxOverEthernetHandler extends DmxBridgeHandler {
         }
     }
 
+    /**
+     * create the socket for sending, bound to the sender node
+     *
+     * @return an unconnected socket
+     * @throws IOException if the socket could not be opened
+     */
+    protected DatagramSocket createSocket() throws IOException {
+        return new DatagramSocket(new InetSocketAddress(senderNode.getAddress(), senderNode.getPort()));
+    }
+
     @Override
     protected void closeConnection() {
         if (socket != null) {
@@ -101,15 +107,20 @@ public abstract class DmxOverEthernetHandler extends DmxBridgeHandler {
                 repeatCounter++;
             }
             if (needsSending) {
-                packetTemplate.setPayload(universe.getBuffer(), universe.getBufferSize());
+                packetTemplate.setPayload(universe.getFrame(), universe.getBufferSize());
                 packetTemplate.setSequence(sequenceNo);
-                DatagramPacket sendPacket = new DatagramPacket(packetTemplate.getRawPacket(),
-                        packetTemplate.getPacketLength());
+                // the packet wraps the raw packet of the template and is reused for all frames
+                if (sendPacket == null || sendPacket.getData() != packetTemplate.getRawPacket()) {
+                    sendPacket = new DatagramPacket(packetTemplate.getRawPacket(), packetTemplate.getPacketLength());
+                } else {
+                    sendPacket.setLength(packetTemplate.getPacketLength());
+                }
                 for (IpNode receiverNode : receiverNodes) {
                     sendPacket.setAddress(receiverNode.getAddress());
                     sendPacket.setPort(receiverNode.getPort());
-                    logger.trace("sending packet with length {} to {}", packetTemplate.getPacketLength(),
-                            receiverNode.toString());
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("sending packet with length {} to {}", sendPacket.getLength(), receiverNode);
+                    }
                     try {
                         socket.send(sendPacket);
                     } catch (IOException e) {
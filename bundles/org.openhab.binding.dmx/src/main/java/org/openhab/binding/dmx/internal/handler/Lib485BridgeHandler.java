@@ -16,10 +16,16 @@ import static org.openhab.binding.dmx.internal.DmxBindingConstants.THING_TYPE_LI
 
 import java.io.IOException;
 import java.net.Socket;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ThingStatus;
@@ -36,6 +42,9 @@ import org.slf4j.LoggerFactory;
  * The {@link Lib485BridgeHandler} is responsible for communication with
  * an Lib485 instance
  *
+ * The frames are written by a sender thread of the bridge, so a stalled TCP connection does not block the frame
+ * clock of all bridges. A frame that is not written before the next one is due is dropped.
+ *
  * @author Jan N. Klug - Initial contribution
  */
 
@@ -48,8 +57,18 @@ public class Lib485BridgeHandler extends DmxBridgeHandler {
     private final Logger logger = LoggerFactory.getLogger(Lib485BridgeHandler.class);
     private final Map<IpNode, Socket> receiverNodes = new HashMap<IpNode, Socket>();
 
+    private final ExecutorService sender;
+    private final AtomicReference<byte[]> pendingFrame = new AtomicReference<>();
+    private final AtomicBoolean senderScheduled = new AtomicBoolean();
+
     public Lib485BridgeHandler(Bridge lib485Bridge) {
         super(lib485Bridge);
+        String threadName = "OH-binding-dmx-lib485-" + lib485Bridge.getUID().getId();
+        sender = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
@@ -102,11 +121,35 @@ public class Lib485BridgeHandler extends DmxBridgeHandler {
         if (getThing().getStatus() == ThingStatus.ONLINE) {
             long now = System.currentTimeMillis();
             universe.calculateBuffer(now);
+            byte[] frame = Arrays.copyOf(universe.getFrame(), universe.getBufferSize());
+            if (pendingFrame.getAndSet(frame) != null) {
+                logger.trace("dropped stale frame in {}", this.thing.getUID());
+            }
+        }
+        if (senderScheduled.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::sendPendingFrame);
+            } catch (RejectedExecutionException e) {
+                senderScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * write the latest frame to all receivers or reconnect, runs on the sender thread
+     */
+    private void sendPendingFrame() {
+        senderScheduled.set(false);
+        if (getThing().getStatus() == ThingStatus.ONLINE) {
+            byte[] frame = pendingFrame.getAndSet(null);
+            if (frame == null) {
+                return;
+            }
             for (IpNode receiverNode : receiverNodes.keySet()) {
                 Socket socket = receiverNodes.get(receiverNode);
                 if (socket.isConnected()) {
                     try {
-                        socket.getOutputStream().write(universe.getBuffer());
+                        socket.getOutputStream().write(frame);
                     } catch (IOException e) {
                         logger.debug("Could not send to {} in {}: {}", receiverNode, this.thing.getUID(),
                                 e.getMessage());
@@ -119,6 +162,7 @@ public class Lib485BridgeHandler extends DmxBridgeHandler {
                 }
             }
         } else {
+            pendingFrame.set(null);
             openConnection();
         }
     }
@@ -158,4 +202,10 @@ public class Lib485BridgeHandler extends DmxBridgeHandler {
         updateConfiguration();
     }
 
+    @Override
+    public void dispose() {
+        super.dispose();
+        sender.shutdownNow();
+    }
+
 }
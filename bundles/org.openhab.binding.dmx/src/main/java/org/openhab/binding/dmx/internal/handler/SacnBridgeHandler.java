@@ -14,6 +14,10 @@ package org.openhab.binding.dmx.internal.handler;
 
 import static org.openhab.binding.dmx.internal.DmxBindingConstants.THING_TYPE_SACN_BRIDGE;
 
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Set;
@@ -44,6 +48,7 @@ public class SacnBridgeHandler extends DmxOverEthernetHandler {
 
     private final Logger logger = LoggerFactory.getLogger(SacnBridgeHandler.class);
     private final UUID senderUUID;
+    private boolean multicast = false;
 
     public SacnBridgeHandler(Bridge sacnBridge) {
         super(sacnBridge);
@@ -58,7 +63,8 @@ public class SacnBridgeHandler extends DmxOverEthernetHandler {
         packetTemplate.setUniverse(universe.getUniverseId());
 
         receiverNodes.clear();
-        if ((configuration.mode.equals("unicast"))) {
+        multicast = !configuration.mode.equals("unicast");
+        if (!multicast) {
             if (configuration.address.isEmpty()) {
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
                         "Could not initialize unicast sender (address not set)");
@@ -92,6 +98,20 @@ public class SacnBridgeHandler extends DmxOverEthernetHandler {
         logger.debug("updated configuration for sACN/E1.31 bridge {}", this.thing.getUID());
     }
 
+    @Override
+    protected DatagramSocket createSocket() throws IOException {
+        if (!multicast) {
+            return super.createSocket();
+        }
+        MulticastSocket multicastSocket = new MulticastSocket(
+                new InetSocketAddress(senderNode.getAddress(), senderNode.getPort()));
+        if (senderNode.getAddress() != null) {
+            // send the multicast packets from the configured interface instead of the default route
+            multicastSocket.setInterface(senderNode.getAddress());
+        }
+        return multicastSocket;
+    }
+
     @Override
     public void initialize() {
         logger.debug("initializing sACN/E1.31 bridge {}", this.thing.getUID());
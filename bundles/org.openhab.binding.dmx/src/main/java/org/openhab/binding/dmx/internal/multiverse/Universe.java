@@ -13,9 +13,9 @@
 package org.openhab.binding.dmx.internal.multiverse;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.smarthome.core.thing.Thing;
 import org.slf4j.Logger;
@@ -25,6 +25,9 @@ import org.slf4j.LoggerFactory;
  * The {@link Universe} represents a single DMX universes with all its channels and provides a buffer for sending by the
  * bridges
  *
+ * The buffer is calculated and sent by the same thread. The channel list is copied on changes, so that the calculation
+ * does not need to lock it.
+ *
  * @author Jan N. Klug - Initial contribution
  */
 public class Universe {
@@ -33,19 +36,18 @@ public class Universe {
     public static final int DEFAULT_REFRESH_TIME = 1000;
 
     private final Logger logger = LoggerFactory.getLogger(Universe.class);
-    private final ReentrantLock universeLock = new ReentrantLock();
 
     private int universeId;
     private int bufferSize = MIN_UNIVERSE_SIZE;
 
-    private final short[] buffer = new short[MAX_UNIVERSE_SIZE];
+    private final byte[] buffer = new byte[MAX_UNIVERSE_SIZE];
     private final short[] cie1931Curve = new short[DmxChannel.MAX_VALUE << 8 + 1];
 
     private long bufferChanged;
     private int refreshTime = DEFAULT_REFRESH_TIME;
 
-    private final List<DmxChannel> channels = new ArrayList<DmxChannel>();
-    private final List<Integer> applyCurve = new ArrayList<Integer>();
+    private final List<DmxChannel> channels = new CopyOnWriteArrayList<DmxChannel>();
+    private final boolean[] applyCurve = new boolean[MAX_UNIVERSE_SIZE + 1];
 
     /**
      * universe constructor
@@ -92,21 +94,15 @@ public class Universe {
      * @param thing the thing to unregister
      */
     public synchronized void unregisterChannels(Thing thing) {
-        universeLock.lock();
-        try {
-            Iterator<DmxChannel> channelIterator = channels.iterator();
-
-            while (channelIterator.hasNext()) {
-                DmxChannel channel = channelIterator.next();
-                channel.unregisterThing(thing);
-                if (!channel.hasRegisteredThings()) {
-                    channelIterator.remove();
-                    logger.trace("Removing channel {}, no more things", channel);
-                }
+        List<DmxChannel> unusedChannels = new ArrayList<>();
+        for (DmxChannel channel : channels) {
+            channel.unregisterThing(thing);
+            if (!channel.hasRegisteredThings()) {
+                unusedChannels.add(channel);
+                logger.trace("Removing channel {}, no more things", channel);
             }
-        } finally {
-            universeLock.unlock();
         }
+        channels.removeAll(unusedChannels);
     }
 
     /**
@@ -116,14 +112,9 @@ public class Universe {
      */
     private void addChannel(DmxChannel channel) throws IllegalArgumentException {
         if (universeId == channel.getUniverseId()) {
-            universeLock.lock();
-            try {
-                channels.add(channel);
-                if (channel.getChannelId() > bufferSize) {
-                    bufferSize = channel.getChannelId();
-                }
-            } finally {
-                universeLock.unlock();
+            channels.add(channel);
+            if (channel.getChannelId() > bufferSize) {
+                bufferSize = channel.getChannelId();
             }
         } else {
             throw new IllegalArgumentException(
@@ -177,44 +168,40 @@ public class Universe {
      * @param time the timestamp used for calculation
      */
     public void calculateBuffer(long time) {
-        universeLock.lock();
-        try {
-            for (DmxChannel channel : channels) {
-                logger.trace("calculating new value for {}", channel);
-                int channelId = channel.getChannelId();
-                int vx = channel.getNewHiResValue(time);
-                int value;
-                if (applyCurve.contains(channelId)) {
-                    value = cie1931Curve[vx];
-                } else {
-                    value = vx >> 8;
-                }
-                if (buffer[channelId - 1] != value) {
-                    buffer[channelId - 1] = (short) value;
-                    bufferChanged = time;
-                }
+        for (DmxChannel channel : channels) {
+            logger.trace("calculating new value for {}", channel);
+            int channelId = channel.getChannelId();
+            int vx = channel.getNewHiResValue(time);
+            int value;
+            if (applyCurve[channelId]) {
+                value = cie1931Curve[vx];
+            } else {
+                value = vx >> 8;
+            }
+            if ((buffer[channelId - 1] & 0xFF) != value) {
+                buffer[channelId - 1] = (byte) value;
+                bufferChanged = time;
             }
-        } finally {
-            universeLock.unlock();
         }
     }
 
     /**
-     * get the full universe buffer
+     * get a copy of the universe buffer
      *
      * @return byte array with channel values
      */
     public byte[] getBuffer() {
-        byte[] b = new byte[bufferSize];
-        universeLock.lock();
-        try {
-            for (int i = 0; i < bufferSize; i++) {
-                b[i] = (byte) buffer[i];
-            }
-        } finally {
-            universeLock.unlock();
-        }
-        return b;
+        return Arrays.copyOf(buffer, bufferSize);
+    }
+
+    /**
+     * get the universe buffer itself for sending, only valid until the next call of
+     * {@link #calculateBuffer(long)}
+     *
+     * @return byte array with channel values, the first {@link #getBufferSize()} bytes are used
+     */
+    public byte[] getFrame() {
+        return buffer;
     }
 
     /**
@@ -223,11 +210,15 @@ public class Universe {
      * @param listString
      */
     public void setDimCurveChannels(String listString) {
-        applyCurve.clear();
+        List<Integer> curveChannels = new ArrayList<>();
         for (BaseDmxChannel channel : BaseDmxChannel.fromString(listString, universeId)) {
-            applyCurve.add(channel.getChannelId());
+            curveChannels.add(channel.getChannelId());
+        }
+        Arrays.fill(applyCurve, false);
+        for (int channelId : curveChannels) {
+            applyCurve[channelId] = true;
         }
-        logger.debug("applying dim curve in universe {} to channels {}", universeId, applyCurve);
+        logger.debug("applying dim curve in universe {} to channels {}", universeId, curveChannels);
     }
 
     /**
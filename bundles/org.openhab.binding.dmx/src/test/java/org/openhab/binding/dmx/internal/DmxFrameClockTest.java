@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dmx.internal;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.dmx.internal.DmxFrameClock.FrameTask;
+
+/**
+ * Tests cases for {@link DmxFrameClock}, checks the order and the deadlines of the frames of universes at the DMX
+ * rate of 44 Hz with a simulated time source
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class DmxFrameClockTest {
+    private static final long PERIOD = TimeUnit.SECONDS.toNanos(1) / 44;
+
+    private final AtomicLong time = new AtomicLong(1000);
+    private final List<String> frames = new ArrayList<>();
+    private DmxFrameClock clock;
+
+    @Before
+    public void setUp() {
+        clock = new DmxFrameClock(time::get, false);
+    }
+
+    private FrameTask register(String name, long period) {
+        return clock.register(name, () -> frames.add(name), period);
+    }
+
+    private long runFramesAt(long offset) {
+        time.set(1000 + offset);
+        return clock.runFrames() - 1000;
+    }
+
+    @Test
+    public void framesAreSentInRegistrationOrder() {
+        FrameTask first = register("universe 1", PERIOD);
+        FrameTask second = register("universe 2", 2 * PERIOD);
+        assertThat(first.getDeadline() - 1000, is(PERIOD));
+        assertThat(second.getDeadline() - 1000, is(2 * PERIOD));
+
+        // no frame is due yet
+        assertThat(runFramesAt(PERIOD - 1), is(PERIOD));
+        assertThat(frames.isEmpty(), is(true));
+
+        assertThat(runFramesAt(PERIOD), is(2 * PERIOD));
+        assertThat(frames, is(Arrays.asList("universe 1")));
+
+        assertThat(runFramesAt(2 * PERIOD), is(3 * PERIOD));
+        assertThat(frames, is(Arrays.asList("universe 1", "universe 1", "universe 2")));
+        assertThat(first.getDeadline() - 1000, is(3 * PERIOD));
+        assertThat(second.getDeadline() - 1000, is(4 * PERIOD));
+    }
+
+    @Test
+    public void deadlinesDoNotDependOnLateFrames() {
+        FrameTask task = register("universe 1", PERIOD);
+
+        // a frame sent late does not shift the following deadlines
+        assertThat(runFramesAt(PERIOD + PERIOD / 2), is(2 * PERIOD));
+        assertThat(runFramesAt(2 * PERIOD), is(3 * PERIOD));
+        assertThat(frames.size(), is(2));
+        assertThat(task.getDeadline() - 1000, is(3 * PERIOD));
+    }
+
+    @Test
+    public void missedFramesAreSkipped() {
+        FrameTask task = clock.register("slow universe", () -> {
+            frames.add("slow universe");
+            if (frames.size() == 1) {
+                // the first frame blocks for 5 periods
+                time.addAndGet(5 * PERIOD);
+            }
+        }, PERIOD);
+
+        // the missed frames are not sent in a burst, the next frame is due one period after the slow one
+        assertThat(runFramesAt(PERIOD), is(7 * PERIOD));
+        assertThat(task.getDeadline() - 1000, is(7 * PERIOD));
+        assertThat(runFramesAt(6 * PERIOD), is(7 * PERIOD));
+        assertThat(frames.size(), is(1));
+        assertThat(runFramesAt(7 * PERIOD), is(8 * PERIOD));
+        assertThat(frames.size(), is(2));
+    }
+
+    @Test
+    public void unregisteredTaskIsNotRun() {
+        FrameTask first = register("universe 1", PERIOD);
+        register("universe 2", PERIOD);
+        clock.unregister(first);
+
+        assertThat(runFramesAt(PERIOD), is(2 * PERIOD));
+        assertThat(frames, is(Arrays.asList("universe 2")));
+    }
+
+    @Test
+    public void threadRunsRegisteredTasks() throws InterruptedException {
+        DmxFrameClock threadClock = new DmxFrameClock();
+        CountDownLatch sent = new CountDownLatch(3);
+        FrameTask task = threadClock.register("universe 1", sent::countDown, PERIOD);
+        try {
+            assertThat(sent.await(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            threadClock.unregister(task);
+        }
+    }
+}
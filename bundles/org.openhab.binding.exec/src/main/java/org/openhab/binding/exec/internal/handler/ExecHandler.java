@@ -42,6 +42,7 @@ import org.eclipse.smarthome.core.transform.TransformationHelper;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
+import org.openhab.io.transport.exec.CommandWorkerPool;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
 import org.slf4j.Logger;
@@ -66,12 +67,15 @@ public class ExecHandler extends BaseThingHandler {
     public static final String COMMAND = "command";
     public static final String TRANSFORM = "transform";
     public static final String AUTORUN = "autorun";
+    public static final String WORKER = "worker";
+    public static final String POOL_SIZE = "poolSize";
 
     // RegEx to extract a parse a function String <code>'(.*?)\((.*)\)'</code>
     private static final Pattern EXTRACT_FUNCTION_PATTERN = Pattern.compile("(.*?)\\((.*)\\)");
 
     private @Nullable ScheduledFuture<?> executionJob;
     private @Nullable String lastInput;
+    private @Nullable CommandWorkerPool workerPool;
 
     private static Runtime rt = Runtime.getRuntime();
 
@@ -110,6 +114,17 @@ public class ExecHandler extends BaseThingHandler {
 
     @Override
     public void initialize() {
+        String commandLine = (String) getConfig().get(COMMAND);
+        Boolean worker = (Boolean) getConfig().get(WORKER);
+        if (workerPool == null && worker != null && worker.booleanValue() && commandLine != null
+                && !commandLine.isEmpty()) {
+            int poolSize = 1;
+            if (((BigDecimal) getConfig().get(POOL_SIZE)) != null) {
+                poolSize = ((BigDecimal) getConfig().get(POOL_SIZE)).intValue();
+            }
+            workerPool = CommandWorkerPool.acquire(commandLine, poolSize);
+        }
+
         if (executionJob == null || executionJob.isCancelled()) {
             if (((BigDecimal) getConfig().get(INTERVAL)) != null
                     && ((BigDecimal) getConfig().get(INTERVAL)).intValue() > 0) {
@@ -128,6 +143,11 @@ public class ExecHandler extends BaseThingHandler {
             executionJob.cancel(true);
             executionJob = null;
         }
+        CommandWorkerPool pool = workerPool;
+        if (pool != null) {
+            pool.release();
+            workerPool = null;
+        }
     }
 
     protected Runnable periodicExecutionRunnable = new Runnable() {
@@ -144,6 +164,12 @@ public class ExecHandler extends BaseThingHandler {
             if (commandLine != null && !commandLine.isEmpty()) {
                 updateState(RUN, OnOffType.ON);
 
+                CommandWorkerPool pool = workerPool;
+                if (pool != null) {
+                    executeWorker(pool, commandLine, timeOut);
+                    return;
+                }
+
                 // For some obscure reason, when using Apache Common Exec, or using a straight implementation of
                 // Runtime.Exec(), on Mac OS X (Yosemite and El Capitan), there seems to be a lock race condition
                 // randomly appearing (on UNIXProcess) *when* one tries to gobble up the stdout and sterr output of the
@@ -246,6 +272,39 @@ public class ExecHandler extends BaseThingHandler {
 
     };
 
+    /**
+     * Passes the input value as request to a worker of the command line and updates the channels with its response.
+     */
+    private void executeWorker(CommandWorkerPool pool, String commandLine, int timeOut) {
+        String request = lastInput != null ? lastInput : "";
+        logger.trace("The request '{}' will be sent to a worker of '{}'", request, commandLine);
+
+        String response;
+        try {
+            response = pool.execute(request, timeOut);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            updateState(RUN, OnOffType.OFF);
+            return;
+        } catch (Exception e) {
+            logger.warn("An exception occurred while executing '{}' in a worker : '{}'", commandLine, e.getMessage());
+            updateState(RUN, OnOffType.OFF);
+            updateState(OUTPUT, new StringType(e.getMessage()));
+            return;
+        }
+
+        updateState(RUN, OnOffType.OFF);
+        updateState(EXIT, new DecimalType(0));
+
+        String transformation = (String) getConfig().get(TRANSFORM);
+        if (transformation != null && transformation.length() > 0) {
+            response = transformResponse(response, transformation);
+        }
+
+        updateState(OUTPUT, new StringType(response));
+        updateState(LAST_EXECUTION, new DateTimeType(ZonedDateTime.now()));
+    }
+
     protected @Nullable String transformResponse(String response, String transformation) {
         String transformedResponse;
 
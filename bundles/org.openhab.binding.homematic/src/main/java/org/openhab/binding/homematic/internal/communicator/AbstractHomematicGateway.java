@@ -383,16 +383,36 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                         loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
                         loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
                     } else {
+                        // load the datapoints of all uncached channels of the device at once
+                        List<HmChannel> channelsToLoad = new ArrayList<HmChannel>();
+                        Set<String> channelIdsToLoad = new HashSet<String>();
+                        for (HmChannel channel : device.getChannels()) {
+                            if (!isClonedFromPreviousChannel(channel)) {
+                                String channelId = getChannelId(channel);
+                                if (!datapointsByChannelIdCache.containsKey(channelId)
+                                        && channelIdsToLoad.add(channelId)) {
+                                    channelsToLoad.add(channel);
+                                }
+                            }
+                        }
+                        logger.trace("  Loading datapoints into {} channels", channelsToLoad.size());
+                        addChannelDatapoints(channelsToLoad, HmParamsetType.MASTER);
+                        addChannelDatapoints(channelsToLoad, HmParamsetType.VALUES);
+
                         for (HmChannel channel : device.getChannels()) {
                             logger.trace("  Loading channel {}", channel);
                             // speed up metadata generation a little bit for equal channels in the gateway devices
-                            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
-                                    || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
+                            if (isClonedFromPreviousChannel(channel)) {
                                 HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
                                 cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
+                            } else if (channelsToLoad.contains(channel)) {
+                                // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
+                                // the data point set might change depending on the selected mode.
+                                if (!channel.isReconfigurable()) {
+                                    datapointsByChannelIdCache.put(getChannelId(channel), channel.getDatapoints());
+                                }
                             } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
+                                String channelId = getChannelId(channel);
                                 Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
                                 if (cachedDatapoints != null) {
                                     // clone all datapoints
@@ -426,6 +446,36 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         initialized = true;
     }
 
+    /**
+     * Returns true, if the datapoints of the channel are cloned from the previous channel of the same virtual device.
+     */
+    private boolean isClonedFromPreviousChannel(HmChannel channel) {
+        String deviceType = channel.getDevice().getType();
+        return (DEVICE_TYPE_VIRTUAL.equals(deviceType) || DEVICE_TYPE_VIRTUAL_WIRED.equals(deviceType))
+                && channel.getNumber() > 1;
+    }
+
+    /**
+     * Returns the id of the channel type, channels with the same id have the same datapoints.
+     */
+    private String getChannelId(HmChannel channel) {
+        return String.format("%s:%s:%s", channel.getDevice().getType(), channel.getDevice().getFirmware(),
+                channel.getNumber());
+    }
+
+    /**
+     * Loads all datapoints of the paramset for the channels of one device from the gateway, batched in one request if
+     * possible. Channels which can't be loaded in the batch are loaded one by one.
+     */
+    protected void addChannelDatapoints(List<HmChannel> channels, HmParamsetType paramsetType) throws IOException {
+        if (!channels.isEmpty()) {
+            HmInterface hmInterface = channels.get(0).getDevice().getHmInterface();
+            for (HmChannel channel : getRpcClient(hmInterface).addChannelDatapoints(channels, paramsetType)) {
+                addChannelDatapoints(channel, paramsetType);
+            }
+        }
+    }
+
     /**
      * Loads all datapoints from the gateway.
      */
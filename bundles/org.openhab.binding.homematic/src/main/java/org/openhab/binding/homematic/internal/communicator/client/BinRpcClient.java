@@ -63,7 +63,7 @@ public class BinRpcClient extends RpcClient<byte[]> {
      * Sends a BIN-RPC message and parses the response to see if there was an error.
      */
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client BinRpcRequest:\n{}", request);
         }
@@ -76,9 +76,7 @@ public class BinRpcClient extends RpcClient<byte[]> {
     private Object[] sendMessage(int port, RpcRequest<byte[]> request, int rpcRetryCounter) throws IOException {
         BinRpcMessage resp = null;
         try {
-            Socket socket = socketHandler.getSocket(port);
-            socket.getOutputStream().write(request.createMessage());
-            resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
+            resp = sendAndReceive(port, request);
             return new RpcResponseParser(request).parse(resp.getResponseData());
         } catch (UnknownRpcFailureException | UnknownParameterSetException rpcEx) {
             // throw immediately, don't retry the message
@@ -90,7 +88,6 @@ public class BinRpcClient extends RpcClient<byte[]> {
                 rpcRetryCounter++;
                 logger.debug("BinRpcMessage socket failure, sending message again {}/{}", rpcRetryCounter,
                         MAX_RPC_RETRY);
-                socketHandler.removeSocket(port);
                 return sendMessage(port, request, rpcRetryCounter);
             }
         } finally {
@@ -100,4 +97,25 @@ public class BinRpcClient extends RpcClient<byte[]> {
         }
     }
 
+    /**
+     * Sends the message on a pooled socket and reads the response. The socket is handed back to the pool if the
+     * roundtrip was successful, otherwise it is closed.
+     */
+    private BinRpcMessage sendAndReceive(int port, RpcRequest<byte[]> request) throws IOException {
+        Socket socket = socketHandler.getSocket(port);
+        boolean successful = false;
+        try {
+            socket.getOutputStream().write(request.createMessage());
+            BinRpcMessage resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
+            successful = true;
+            return resp;
+        } finally {
+            if (successful) {
+                socketHandler.returnSocket(port, socket);
+            } else {
+                socketHandler.removeSocket(port, socket);
+            }
+        }
+    }
+
 }
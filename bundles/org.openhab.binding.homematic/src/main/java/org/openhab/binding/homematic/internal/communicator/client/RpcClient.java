@@ -13,12 +13,17 @@
 package org.openhab.binding.homematic.internal.communicator.client;
 
 import static org.openhab.binding.homematic.internal.HomematicBindingConstants.*;
+import static org.openhab.binding.homematic.internal.misc.HomematicConstants.RPC_METHODNAME_SYSTEM_MULTICALL;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.homematic.internal.HomematicBindingConstants;
@@ -33,6 +38,8 @@ import org.openhab.binding.homematic.internal.communicator.parser.GetValueParser
 import org.openhab.binding.homematic.internal.communicator.parser.HomegearLoadDeviceNamesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListBidcosInterfacesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListDevicesParser;
+import org.openhab.binding.homematic.internal.communicator.parser.RpcResponseParser;
+import org.openhab.binding.homematic.internal.communicator.parser.RpcResponseParser.RpcFaultException;
 import org.openhab.binding.homematic.internal.communicator.parser.RssiInfoParser;
 import org.openhab.binding.homematic.internal.model.HmChannel;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
@@ -54,6 +61,7 @@ public abstract class RpcClient<T> {
     protected static final int MAX_RPC_RETRY = 1;
 
     protected HomematicConfig config;
+    private final Set<Integer> multicallUnsupportedPorts = ConcurrentHashMap.newKeySet();
 
     public RpcClient(HomematicConfig config) {
         this.config = config;
@@ -83,6 +91,7 @@ public abstract class RpcClient<T> {
      * Register a callback for the specified interface where the Homematic gateway can send its events.
      */
     public void init(HmInterface hmInterface, String clientId) throws IOException {
+        multicallUnsupportedPorts.remove(config.getRpcPort(hmInterface));
         RpcRequest<T> request = createRpcRequest("init");
         request.addArg(getRpcCallbackUrl());
         request.addArg(clientId);
@@ -182,6 +191,38 @@ public abstract class RpcClient<T> {
         new GetParamsetDescriptionParser(channel, paramsetType).parse(sendMessage(config.getRpcPort(channel), request));
     }
 
+    /**
+     * Loads all datapoint metadata of the paramset into the given channels of one device with a single
+     * system.multicall request. Returns the channels which could not be loaded this way, they have to be loaded with
+     * {@link #addChannelDatapoints(HmChannel, HmParamsetType)}.
+     */
+    public List<HmChannel> addChannelDatapoints(List<HmChannel> channels, HmParamsetType paramsetType)
+            throws IOException {
+        List<HmChannel> callChannels = new ArrayList<>();
+        List<List<Object>> calls = new ArrayList<>();
+        for (HmChannel channel : channels) {
+            if (!isConfigurationChannel(channel) || paramsetType == HmParamsetType.MASTER) {
+                callChannels.add(channel);
+                calls.add(Arrays.asList(getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel),
+                        paramsetType.toString()));
+            }
+        }
+        if (callChannels.isEmpty()) {
+            return callChannels;
+        }
+
+        List<Object[]> results = multicall(config.getRpcPort(callChannels.get(0)), "getParamsetDescription", calls);
+        List<HmChannel> failedChannels = new ArrayList<>();
+        for (int i = 0; i < callChannels.size(); i++) {
+            if (results.get(i) == null) {
+                failedChannels.add(callChannels.get(i));
+            } else {
+                new GetParamsetDescriptionParser(callChannels.get(i), paramsetType).parse(results.get(i));
+            }
+        }
+        return failedChannels;
+    }
+
     /**
      * Sets all datapoint values for the given channel.
      */
@@ -217,9 +258,92 @@ public abstract class RpcClient<T> {
      * exception.
      */
     private void setChannelDatapointValues(HmChannel channel) throws IOException {
+        List<HmDatapoint> datapoints = new ArrayList<>();
+        List<List<Object>> calls = new ArrayList<>();
         for (HmDatapoint dp : channel.getDatapoints()) {
-            getDatapointValue(dp);
+            if (isValueLoadable(dp)) {
+                datapoints.add(dp);
+                calls.add(Arrays.asList(getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel),
+                        dp.getName()));
+            }
+        }
+        if (datapoints.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> results = multicall(config.getRpcPort(channel), "getValue", calls);
+        for (int i = 0; i < datapoints.size(); i++) {
+            if (results.get(i) == null) {
+                getDatapointValue(datapoints.get(i));
+            } else {
+                new GetValueParser(datapoints.get(i)).parse(results.get(i));
+            }
+        }
+    }
+
+    /**
+     * Sends all calls of the same method as one system.multicall request. Returns the response data for each call in
+     * the same order, or null for calls which failed and have to be repeated with single requests. If the gateway
+     * does not support system.multicall on the port, all calls are reported as failed.
+     */
+    private List<Object[]> multicall(int port, String methodName, List<List<Object>> calls) {
+        List<Object[]> results = new ArrayList<>(calls.size());
+        if (calls.size() > 1 && !multicallUnsupportedPorts.contains(port)) {
+            List<Map<String, Object>> multicall = new ArrayList<>(calls.size());
+            for (List<Object> params : calls) {
+                Map<String, Object> call = new HashMap<>();
+                call.put("methodName", methodName);
+                call.put("params", params);
+                multicall.add(call);
+            }
+            RpcRequest<T> request = createRpcRequest(RPC_METHODNAME_SYSTEM_MULTICALL);
+            request.addArg(multicall);
+
+            try {
+                Object[] response = sendMessage(port, request);
+                if (!(response[0] instanceof Object[]) || ((Object[]) response[0]).length != calls.size()) {
+                    throw new RpcFaultException("Unexpected multicall response");
+                }
+                for (Object callResult : (Object[]) response[0]) {
+                    Object[] data = callResult instanceof Object[] ? (Object[]) callResult
+                            : new Object[] { callResult };
+                    try {
+                        results.add(new RpcResponseParser(request).parse(data));
+                    } catch (IOException ex) {
+                        logger.debug("Call {} in multicall failed: {}", methodName, ex.getMessage());
+                        results.add(null);
+                    }
+                }
+                return results;
+            } catch (IOException ex) {
+                if (isFault(ex)) {
+                    logger.debug("Can't use {} on port {}, sending single requests: {}",
+                            RPC_METHODNAME_SYSTEM_MULTICALL, port, ex.getMessage());
+                    multicallUnsupportedPorts.add(port);
+                } else {
+                    logger.debug("{} on port {} failed, sending single requests: {}", RPC_METHODNAME_SYSTEM_MULTICALL,
+                            port, ex.getMessage());
+                }
+                results.clear();
+            }
+        }
+        for (int i = 0; i < calls.size(); i++) {
+            results.add(null);
         }
+        return results;
+    }
+
+    /**
+     * Returns true if the gateway answered the request with a fault, false if the request failed on the network.
+     */
+    private boolean isFault(IOException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RpcFaultException || cause instanceof UnknownRpcFailureException
+                    || cause instanceof UnknownParameterSetException) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -349,7 +473,7 @@ public abstract class RpcClient<T> {
      * @throws IOException If there is a problem while communicating to the gateway
      */
     public void getDatapointValue(HmDatapoint dp) throws IOException {
-        if (dp.isReadable() && !dp.isVirtual() && dp.getParamsetType() == HmParamsetType.VALUES) {
+        if (isValueLoadable(dp)) {
             RpcRequest<T> request = createRpcRequest("getValue");
             request.addArg(getRpcAddress(dp.getChannel().getDevice().getAddress()) + getChannelSuffix(dp.getChannel()));
             request.addArg(dp.getName());
@@ -357,6 +481,13 @@ public abstract class RpcClient<T> {
         }
     }
 
+    /**
+     * Returns true, if the value of the datapoint can be loaded with getValue.
+     */
+    private boolean isValueLoadable(HmDatapoint dp) {
+        return dp.isReadable() && !dp.isVirtual() && dp.getParamsetType() == HmParamsetType.VALUES;
+    }
+
     /**
      * Sets the value of a system variable on a Homegear gateway.
      */
@@ -15,22 +15,29 @@ package org.openhab.binding.homematic.internal.communicator.client;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple socket cache class.
+ * Pool of persistent sockets per port. Each socket is used by one request at a time, up to
+ * {@link #MAX_CONNECTIONS_PER_PORT} requests can be in flight to the same interface concurrently.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class SocketHandler {
     private final Logger logger = LoggerFactory.getLogger(SocketHandler.class);
 
-    private Map<Integer, SocketInfo> socketsPerPort = new HashMap<Integer, SocketInfo>();
+    public static final int MAX_CONNECTIONS_PER_PORT = 4;
+
+    private Map<Integer, SocketPool> poolsPerPort = new ConcurrentHashMap<Integer, SocketPool>();
     private HomematicConfig config;
 
     public SocketHandler(HomematicConfig config) {
@@ -38,56 +45,135 @@ public class SocketHandler {
     }
 
     /**
-     * Returns a socket for the given port, (re)creates it if required.
+     * Borrows a healthy socket for the given port, (re)creates it if required. Blocks until a socket is available. The
+     * socket must be handed back with {@link #returnSocket(int, Socket)} or {@link #removeSocket(int, Socket)}.
      */
     public Socket getSocket(int port) throws IOException {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo == null) {
+        SocketPool pool = poolsPerPort.computeIfAbsent(port, p -> new SocketPool());
+        try {
+            if (!pool.permits.tryAcquire(config.getTimeout(), TimeUnit.SECONDS)) {
+                throw new IOException("No free connection available for port " + port);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a connection on port " + port);
+        }
+
+        try {
+            SocketInfo socketInfo;
+            while ((socketInfo = pool.idleSockets.pollFirst()) != null) {
+                if (isHealthy(port, socketInfo)) {
+                    logger.trace("Returning socket for port {}", port);
+                    return socketInfo.getSocket();
+                }
+                closeSilent(socketInfo.getSocket());
+            }
+
             logger.trace("Creating new socket for port {}", port);
             Socket socket = new Socket();
             socket.setSoTimeout(config.getTimeout() * 1000);
             socket.setReuseAddress(true);
             socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
-            socketInfo = new SocketInfo(socket);
-            socketsPerPort.put(port, socketInfo);
-        } else {
-            boolean isMaxAliveReached = System.currentTimeMillis()
-                    - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
+            pool.created.put(socket, new SocketInfo(socket));
+            return socket;
+        } catch (IOException | RuntimeException ex) {
+            pool.permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Hands a socket back to the pool after a successful request.
+     */
+    public void returnSocket(int port, Socket socket) {
+        SocketPool pool = poolsPerPort.get(port);
+        SocketInfo socketInfo = pool == null ? null : pool.created.get(socket);
+        if (socketInfo == null) {
+            // the pool has been flushed while the socket was borrowed
+            closeSilent(socket);
+            return;
+        }
+        try {
+            pool.idleSockets.offerFirst(socketInfo);
+        } finally {
+            pool.permits.release();
+        }
+    }
 
-            if (isMaxAliveReached) {
-                logger.debug("Max alive time reached for socket on port {}", port);
-                removeSocket(port);
-                return getSocket(port);
+    /**
+     * Closes a borrowed socket after a failed request and removes it from the pool.
+     */
+    public void removeSocket(int port, Socket socket) {
+        logger.trace("Closing Socket on port {}", port);
+        SocketPool pool = poolsPerPort.get(port);
+        try {
+            closeSilent(socket);
+        } finally {
+            if (pool != null && pool.created.remove(socket) != null) {
+                pool.permits.release();
             }
-            logger.trace("Returning socket for port {}", port);
         }
-        return socketInfo.getSocket();
     }
 
     /**
-     * Removes the socket for the given port from the cache.
+     * Closes all idle sockets for the given port.
      */
     public void removeSocket(int port) {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo != null) {
+        SocketPool pool = poolsPerPort.get(port);
+        if (pool != null) {
+            closeIdleSockets(port, pool);
+        }
+    }
+
+    private void closeIdleSockets(int port, SocketPool pool) {
+        SocketInfo socketInfo;
+        while ((socketInfo = pool.idleSockets.pollFirst()) != null) {
             logger.trace("Closing Socket on port {}", port);
-            socketsPerPort.remove(port);
+            pool.created.remove(socketInfo.getSocket());
             closeSilent(socketInfo.getSocket());
         }
     }
 
     /**
-     * Removes all cached sockets.
+     * Removes all cached sockets. Sockets which are borrowed by a running request are closed when they are handed
+     * back.
      */
     public void flush() {
-        synchronized (SocketHandler.class) {
-            Integer[] portsToRemove = socketsPerPort.keySet().toArray(new Integer[0]);
-            for (Integer key : portsToRemove) {
-                removeSocket(key);
+        for (Integer port : poolsPerPort.keySet()) {
+            SocketPool pool = poolsPerPort.remove(port);
+            if (pool != null) {
+                closeIdleSockets(port, pool);
             }
         }
     }
 
+    /**
+     * Checks if a pooled socket can be reused.
+     */
+    private boolean isHealthy(int port, SocketInfo socketInfo) {
+        Socket socket = socketInfo.getSocket();
+        if (System.currentTimeMillis() - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000L)) {
+            logger.debug("Max alive time reached for socket on port {}", port);
+        } else if (socket.isClosed() || !socket.isConnected() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+            logger.debug("Socket on port {} has been closed", port);
+        } else {
+            try {
+                if (socket.getInputStream().available() == 0) {
+                    return true;
+                }
+                // unexpected data, the connection is out of sync
+                logger.debug("Discarding socket on port {} with pending data", port);
+            } catch (IOException ex) {
+                logger.debug("Socket on port {} is broken: {}", port, ex.getMessage());
+            }
+        }
+        SocketPool pool = poolsPerPort.get(port);
+        if (pool != null) {
+            pool.created.remove(socket);
+        }
+        return false;
+    }
+
     /**
      * Silently closes the given socket.
      */
@@ -98,4 +184,13 @@ public class SocketHandler {
             // ignore
         }
     }
+
+    /**
+     * The sockets of one port.
+     */
+    private static class SocketPool {
+        private final Semaphore permits = new Semaphore(MAX_CONNECTIONS_PER_PORT);
+        private final Deque<SocketInfo> idleSockets = new LinkedBlockingDeque<SocketInfo>();
+        private final Map<Socket, SocketInfo> created = new ConcurrentHashMap<Socket, SocketInfo>();
+    }
 }
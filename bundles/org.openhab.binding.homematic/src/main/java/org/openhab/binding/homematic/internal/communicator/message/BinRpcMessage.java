@@ -19,6 +19,7 @@ import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,7 +30,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +41,13 @@ import org.slf4j.LoggerFactory;
 public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private final Logger logger = LoggerFactory.getLogger(BinRpcMessage.class);
 
+    private static final int HEADER_LENGTH = 8;
+    /**
+     * Upper bound for the length of a received message. Even the newDevices callback of a CCU with hundreds of
+     * devices stays far below.
+     */
+    public static final int MAX_MESSAGE_LENGTH = 32 * 1024 * 1024;
+
     public enum TYPE {
         REQUEST,
         RESPONSE
@@ -49,6 +56,8 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private Object[] messageData;
     private byte binRpcData[];
     private int offset;
+    private int start;
+    private int end;
 
     private String methodName;
     private TYPE type;
@@ -74,34 +83,76 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      */
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
         this.encoding = encoding;
-        byte sig[] = new byte[8];
+        byte sig[] = new byte[HEADER_LENGTH];
         int length = is.read(sig, 0, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading signature");
         }
-        validateBinXSignature(sig);
+        validateBinXSignature(sig, 0);
         length = is.read(sig, 4, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading message length");
         }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte payload[] = new byte[datasize];
-        int offset = 0;
+        int datasize = validateMessageLength(HEADER_LENGTH + (long) getInt(sig, 4)) - HEADER_LENGTH;
+        byte message[] = new byte[HEADER_LENGTH + datasize];
+        System.arraycopy(sig, 0, message, 0, HEADER_LENGTH);
+        int offset = HEADER_LENGTH;
         int currentLength;
 
-        while (offset < datasize && (currentLength = is.read(payload, offset, datasize - offset)) != -1) {
+        while (offset < message.length && (currentLength = is.read(message, offset, message.length - offset)) != -1) {
             offset += currentLength;
         }
-        if (offset != datasize) {
-            throw new EOFException("Only " + offset + " bytes received while reading message payload, expected "
-                    + datasize + " bytes");
+        if (offset != message.length) {
+            throw new EOFException("Only " + (offset - HEADER_LENGTH)
+                    + " bytes received while reading message payload, expected " + datasize + " bytes");
+        }
+        decodeMessage(message, 0, message.length, methodHeader);
+    }
+
+    /**
+     * Decodes a BIN-RPC message in place from the given heap buffer. The buffer must be positioned at the start of the
+     * message and contain the complete message (see {@link #getMessageLength(ByteBuffer)}). After decoding, the
+     * position of the buffer is advanced behind the message. The decoded message keeps no reference to the buffer, so
+     * the buffer can be reused immediately.
+     */
+    public BinRpcMessage(ByteBuffer buffer, boolean methodHeader, String encoding) throws IOException {
+        this.encoding = encoding;
+        int messageLength = getMessageLength(buffer);
+        if (messageLength < 0 || buffer.remaining() < messageLength) {
+            throw new EOFException("Only " + buffer.remaining() + " bytes available for message");
+        }
+        int messageStart = buffer.arrayOffset() + buffer.position();
+        decodeMessage(buffer.array(), messageStart, messageStart + messageLength, methodHeader);
+        buffer.position(buffer.position() + messageLength);
+        binRpcData = null;
+    }
+
+    /**
+     * Returns the total length of the BIN-RPC message starting at the current position of the buffer, or -1 if the
+     * header is not yet complete. The position of the buffer is not changed.
+     *
+     * @throws IOException if the header has no BinX signature or an invalid message length
+     */
+    public static int getMessageLength(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_LENGTH) {
+            return -1;
+        }
+        int position = buffer.position();
+        if (buffer.get(position) != 'B' || buffer.get(position + 1) != 'i' || buffer.get(position + 2) != 'n') {
+            throw new UnsupportedEncodingException("No BinX signature");
+        }
+        return validateMessageLength(HEADER_LENGTH + (long) buffer.getInt(position + 4));
+    }
+
+    private static int validateMessageLength(long messageLength) throws IOException {
+        if (messageLength < HEADER_LENGTH || messageLength > MAX_MESSAGE_LENGTH) {
+            throw new IOException("Invalid BIN-RPC message length " + messageLength);
         }
-        byte[] message = ArrayUtils.addAll(sig, payload);
-        decodeMessage(message, methodHeader);
+        return (int) messageLength;
     }
 
-    private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
-        if (sig[0] != 'B' || sig[1] != 'i' || sig[2] != 'n') {
+    private static void validateBinXSignature(byte[] sig, int position) throws UnsupportedEncodingException {
+        if (sig[position] != 'B' || sig[position + 1] != 'i' || sig[position + 2] != 'n') {
             throw new UnsupportedEncodingException("No BinX signature");
         }
     }
@@ -114,14 +165,16 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         if (message.length < 8) {
             throw new EOFException("Only " + message.length + " bytes received");
         }
-        validateBinXSignature(message);
-        decodeMessage(message, methodHeader);
+        validateBinXSignature(message, 0);
+        decodeMessage(message, 0, message.length, methodHeader);
     }
 
-    private void decodeMessage(byte[] message, boolean methodHeader) throws IOException {
+    private void decodeMessage(byte[] message, int start, int end, boolean methodHeader) throws IOException {
         binRpcData = message;
+        this.start = start;
+        this.end = end;
 
-        offset = 8;
+        offset = start + HEADER_LENGTH;
 
         if (methodHeader) {
             methodName = readString();
@@ -135,9 +188,9 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     private void generateResponseData() throws IOException {
-        offset = 8 + (methodName != null ? methodName.length() + 8 : 0);
+        offset = start + HEADER_LENGTH + (methodName != null ? methodName.length() + 8 : 0);
         List<Object> values = new ArrayList<>();
-        while (offset < binRpcData.length) {
+        while (offset < end) {
             values.add(readRpcValue());
         }
         messageData = values.toArray();
@@ -197,15 +250,28 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     // read rpc values
-    private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(binRpcData, offset, bi, 0, 4);
+    private void checkAvailable(int length) throws EOFException {
+        if (length < 0 || length > end - offset) {
+            throw new EOFException("Invalid length " + length + " at offset " + (offset - start)
+                    + " of BIN-RPC message with " + (end - start) + " bytes");
+        }
+    }
+
+    private int readInt() throws EOFException {
+        checkAvailable(4);
+        int value = getInt(binRpcData, offset);
         offset += 4;
-        return (new BigInteger(bi)).intValue();
+        return value;
     }
 
-    private String readString() throws UnsupportedEncodingException {
+    private static int getInt(byte[] data, int position) {
+        return (data[position] << 24) | ((data[position + 1] & 0xff) << 16) | ((data[position + 2] & 0xff) << 8)
+                | (data[position + 3] & 0xff);
+    }
+
+    private String readString() throws IOException {
         int len = readInt();
+        checkAvailable(len);
         offset += len;
         return new String(binRpcData, offset - len, len, encoding);
     }
@@ -216,6 +282,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             case 1:
                 return new Integer(readInt());
             case 2:
+                checkAvailable(1);
                 return binRpcData[offset++] != 0 ? Boolean.TRUE : Boolean.FALSE;
             case 3:
                 return readString();
@@ -228,7 +295,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
                 return new Date(readInt() * 1000);
             case 0x100:
                 // Array
-                int numElements = readInt();
+                int numElements = readElementCount(4);
                 Collection<Object> array = new ArrayList<>();
                 while (numElements-- > 0) {
                     array.add(readRpcValue());
@@ -236,7 +303,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
                 return array.toArray();
             case 0x101:
                 // Struct
-                numElements = readInt();
+                numElements = readElementCount(8);
                 Map<String, Object> struct = new TreeMap<>();
                 while (numElements-- > 0) {
                     String name = readString();
@@ -245,13 +312,24 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
                 return struct;
 
             default:
-                for (int i = 0; i < binRpcData.length; i++) {
+                for (int i = start; i < end; i++) {
                     logger.info("{} {}", Integer.toHexString(binRpcData[i]), (char) binRpcData[i]);
                 }
                 throw new IOException("Unknown data type " + type);
         }
     }
 
+    /**
+     * Reads the number of elements of an array or struct, each element needs at least the given number of bytes.
+     */
+    private int readElementCount(int minElementLength) throws IOException {
+        int numElements = readInt();
+        if (numElements < 0 || numElements > (end - offset) / minElementLength) {
+            throw new IOException("Invalid element count " + numElements + " in BIN-RPC message");
+        }
+        return numElements;
+    }
+
     private void setInt(int position, int value) {
         int temp = offset;
         offset = position;
@@ -370,7 +448,13 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public String toString() {
         try {
+            if (binRpcData == null) {
+                // decoded in place from a shared buffer, only the decoded data is available
+                return RpcUtils.dumpRpcMessage(methodName, messageData);
+            }
             trimBinRpcData();
+            start = 0;
+            end = binRpcData.length;
             generateResponseData();
             return RpcUtils.dumpRpcMessage(methodName, messageData);
         } catch (Exception e) {
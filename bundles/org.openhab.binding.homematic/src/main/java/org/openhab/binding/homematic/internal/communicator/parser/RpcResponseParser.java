@@ -48,11 +48,22 @@ public class RpcResponseParser extends CommonRpcParser<Object[], Object[]> {
                     } else if (faultCode.intValue() == -3 && StringUtils.equals("Unknown paramset", faultString)) {
                         throw new UnknownParameterSetException(faultMessage);
                     }
-                    throw new IOException(faultMessage);
+                    throw new RpcFaultException(faultMessage);
                 }
             }
             return message;
         }
         throw new IOException("Unknown Result: " + message);
     }
+
+    /**
+     * Exception if the RPC call returns a fault response, which is not handled by a more specific exception.
+     */
+    public static class RpcFaultException extends IOException {
+        private static final long serialVersionUID = 2468306729136781735L;
+
+        public RpcFaultException(String message) {
+            super(message);
+        }
+    }
 }
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simple pool of read buffers for BIN-RPC connections. Only buffers with the default capacity are pooled, buffers
+ * which had to be enlarged for big messages (e.g. newDevices) are left to the garbage collector.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class BinRpcBufferPool {
+    public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 32;
+
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    /**
+     * Returns a cleared buffer from the pool or allocates a new one.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+        }
+        pooled.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer with at least the given capacity, which contains the remaining data of the given buffer. The
+     * returned buffer is in write mode.
+     */
+    public ByteBuffer enlarge(ByteBuffer buffer, int minCapacity) {
+        long capacity = Math.max(buffer.capacity(), 1);
+        while (capacity < minCapacity) {
+            capacity *= 2;
+        }
+        ByteBuffer enlarged = ByteBuffer.allocate((int) Math.min(capacity, Integer.MAX_VALUE));
+        enlarged.put(buffer);
+        release(buffer);
+        return enlarged;
+    }
+
+    /**
+     * Gives the buffer back to the pool.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() == DEFAULT_BUFFER_SIZE && pooled.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            buffers.offer(buffer);
+        } else if (buffer.capacity() == DEFAULT_BUFFER_SIZE) {
+            pooled.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Holds the state of a persistent BIN-RPC callback connection from a Homematic gateway.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class BinRpcConnection {
+    private final SocketChannel channel;
+    private ByteBuffer readBuffer;
+    private ByteBuffer writeBuffer;
+    private long lastActivity;
+
+    public BinRpcConnection(SocketChannel channel, ByteBuffer readBuffer) {
+        this.channel = channel;
+        this.readBuffer = readBuffer;
+        this.lastActivity = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the channel of the connection.
+     */
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Returns the buffer which receives the data from the gateway, it is always in write mode between reads.
+     */
+    public ByteBuffer getReadBuffer() {
+        return readBuffer;
+    }
+
+    /**
+     * Replaces the read buffer, e.g. with an enlarged one.
+     */
+    public void setReadBuffer(ByteBuffer readBuffer) {
+        this.readBuffer = readBuffer;
+    }
+
+    /**
+     * Returns the pending response data or null if there is nothing to write.
+     */
+    public ByteBuffer getWriteBuffer() {
+        return writeBuffer;
+    }
+
+    /**
+     * Sets the pending response data.
+     */
+    public void setWriteBuffer(ByteBuffer writeBuffer) {
+        this.writeBuffer = writeBuffer;
+    }
+
+    /**
+     * Marks the connection as active.
+     */
+    public void touch() {
+        lastActivity = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the timestamp of the last read or write on the connection.
+     */
+    public long getLastActivity() {
+        return lastActivity;
+    }
+}
@@ -14,28 +14,52 @@ package org.openhab.binding.homematic.internal.communicator.server;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Waits for a message from the Homematic gateway and starts the RpcCallbackHandler to handle the message.
+ * Waits for messages from the Homematic gateway on persistent connections. All connections are multiplexed on one
+ * selector, messages are decoded directly from pooled buffers and the method calls are handled in the RPC thread pool.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcNetworkService implements Runnable {
+    private final Logger logger = LoggerFactory.getLogger(BinRpcNetworkService.class);
+
     private static final byte BIN_EMPTY_STRING[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 0, 3, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_ARRAY[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 1, 0, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_EVENT_LIST[] = { 'B', 'i', 'n', 1, 0, 0, 0, 21, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0,
             3, 0, 0, 0, 5, 'e', 'v', 'e', 'n', 't' };
 
     private static final String RPC_POOL_NAME = "homematicRpc";
-    private ServerSocket serverSocket;
-    private boolean accept = true;
+    private static final long SELECT_TIMEOUT = 1000;
+    private static final long SHUTDOWN_TIMEOUT = 5000;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final BinRpcBufferPool bufferPool = new BinRpcBufferPool();
+    private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean accept = true;
+    private volatile boolean running = false;
+    private final CountDownLatch stopped = new CountDownLatch(1);
     private HomematicConfig config;
     private RpcResponseHandler<byte[]> rpcResponseHandler;
 
@@ -45,9 +69,17 @@ public class BinRpcNetworkService implements Runnable {
     public BinRpcNetworkService(RpcEventListener listener, HomematicConfig config) throws IOException {
         this.config = config;
 
-        serverSocket = new ServerSocket();
-        serverSocket.setReuseAddress(true);
-        serverSocket.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException ex) {
+            closeSilent();
+            throw ex;
+        }
 
         this.rpcResponseHandler = new RpcResponseHandler<byte[]>(listener) {
 
@@ -74,31 +106,239 @@ public class BinRpcNetworkService implements Runnable {
     }
 
     /**
-     * Listening for events and starts the callbackHandler if a event received.
+     * Returns the local port the server is listening on.
+     */
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Dispatches the events of all connections until the service is shut down.
      */
     @Override
     public void run() {
-        while (accept) {
+        running = true;
+        try {
+            while (accept) {
+                selector.select(SELECT_TIMEOUT);
+                Runnable task;
+                while ((task = selectorTasks.poll()) != null) {
+                    task.run();
+                }
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            acceptConnection();
+                        } else if (key.isReadable()) {
+                            readMessages(key);
+                        } else if (key.isWritable()) {
+                            writeResponse(key);
+                        }
+                    } catch (IOException ex) {
+                        logger.debug("Closing BIN-RPC connection: {}", ex.getMessage());
+                        closeConnection(key);
+                    } catch (RuntimeException ex) {
+                        // only this connection is affected, the other connections are still served
+                        logger.warn("Closing BIN-RPC connection: {}", ex.getMessage(), ex);
+                        closeConnection(key);
+                    }
+                }
+                closeIdleConnections();
+            }
+        } catch (IOException | ClosedSelectorException ex) {
+            if (accept) {
+                logger.warn("BIN-RPC server stopped unexpectedly: {}", ex.getMessage(), ex);
+            }
+        } finally {
+            closeSilent();
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Registers a new connection from the gateway.
+     */
+    private void acceptConnection() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel != null) {
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new BinRpcConnection(channel, bufferPool.acquire()));
+        }
+    }
+
+    /**
+     * Reads the available data and decodes all complete messages. While the messages are handled, no further data is
+     * read from the connection, the gateway waits for the response anyway.
+     */
+    private void readMessages(SelectionKey key) throws IOException {
+        BinRpcConnection connection = (BinRpcConnection) key.attachment();
+        if (connection.getChannel().read(connection.getReadBuffer()) < 0) {
+            closeConnection(key);
+            return;
+        }
+        connection.touch();
+
+        ByteBuffer buffer = connection.getReadBuffer();
+        buffer.flip();
+        List<BinRpcMessage> messages = new ArrayList<>();
+        int messageLength;
+        while ((messageLength = BinRpcMessage.getMessageLength(buffer)) >= 0
+                && buffer.remaining() >= messageLength) {
+            messages.add(new BinRpcMessage(buffer, true, config.getEncoding()));
+        }
+        buffer.compact();
+        if (messageLength > buffer.capacity()) {
+            buffer.flip();
+            connection.setReadBuffer(bufferPool.enlarge(buffer, messageLength));
+        }
+
+        if (!messages.isEmpty()) {
+            key.interestOps(0);
+            ThreadPoolManager.getPool(RPC_POOL_NAME).execute(() -> handleMessages(key, messages));
+        }
+    }
+
+    /**
+     * Handles the method calls and schedules the response for writing.
+     */
+    private void handleMessages(SelectionKey key, List<BinRpcMessage> messages) {
+        BinRpcConnection connection = (BinRpcConnection) key.attachment();
+        try {
+            List<byte[]> results = new ArrayList<>(messages.size());
+            int length = 0;
+            for (BinRpcMessage message : messages) {
+                logger.trace("Event BinRpcMessage: {}", message);
+                byte[] returnValue = rpcResponseHandler.handleMethodCall(message.getMethodName(),
+                        message.getResponseData());
+                if (returnValue != null) {
+                    results.add(returnValue);
+                    length += returnValue.length;
+                }
+            }
+            ByteBuffer response = ByteBuffer.allocate(length);
+            for (byte[] result : results) {
+                response.put(result);
+            }
+            response.flip();
+            executeOnSelector(() -> {
+                if (key.isValid()) {
+                    connection.setWriteBuffer(response);
+                    key.interestOps(response.hasRemaining() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+                }
+            });
+        } catch (Exception ex) {
+            logger.warn("{}", ex.getMessage(), ex);
+            executeOnSelector(() -> closeConnection(key));
+        }
+    }
+
+    /**
+     * Writes the pending response, switches back to reading when everything has been written.
+     */
+    private void writeResponse(SelectionKey key) throws IOException {
+        BinRpcConnection connection = (BinRpcConnection) key.attachment();
+        ByteBuffer response = connection.getWriteBuffer();
+        if (response != null) {
+            connection.getChannel().write(response);
+            connection.touch();
+            if (response.hasRemaining()) {
+                return;
+            }
+            connection.setWriteBuffer(null);
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    /**
+     * Closes connections the gateway has not used within the max alive time.
+     */
+    private void closeIdleConnections() {
+        long maxIdle = config.getSocketMaxAlive() * 1000L;
+        long now = System.currentTimeMillis();
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && key.attachment() instanceof BinRpcConnection && key.interestOps() != 0) {
+                BinRpcConnection connection = (BinRpcConnection) key.attachment();
+                if (now - connection.getLastActivity() > maxIdle) {
+                    logger.trace("Max alive time reached for BIN-RPC connection");
+                    closeConnection(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the task in the selector thread.
+     */
+    private void executeOnSelector(Runnable task) {
+        selectorTasks.offer(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Closes the connection and gives its buffer back to the pool.
+     */
+    private void closeConnection(SelectionKey key) {
+        key.cancel();
+        if (key.attachment() instanceof BinRpcConnection) {
+            BinRpcConnection connection = (BinRpcConnection) key.attachment();
             try {
-                Socket cs = serverSocket.accept();
-                BinRpcResponseHandler rpcHandler = new BinRpcResponseHandler(cs, rpcResponseHandler, config);
-                ThreadPoolManager.getPool(RPC_POOL_NAME).execute(rpcHandler);
-            } catch (IOException ex) {
+                connection.getChannel().close();
+            } catch (IOException ioe) {
                 // ignore
             }
+            if (connection.getReadBuffer() != null) {
+                bufferPool.release(connection.getReadBuffer());
+                connection.setReadBuffer(null);
+            }
         }
     }
 
     /**
-     * Stops the listening.
+     * Closes all connections, the server channel and the selector.
      */
-    public void shutdown() {
-        accept = false;
+    private void closeSilent() {
+        try {
+            if (selector.isOpen()) {
+                for (SelectionKey key : selector.keys()) {
+                    closeConnection(key);
+                }
+                selector.close();
+            }
+        } catch (IOException | ClosedSelectorException ex) {
+            // ignore
+        }
         try {
-            serverSocket.close();
+            serverChannel.close();
         } catch (IOException ioe) {
             // ignore
         }
     }
 
+    /**
+     * Stops the listening. Returns after the server socket has been closed, so the port can be bound again
+     * immediately.
+     */
+    public void shutdown() {
+        accept = false;
+        selector.wakeup();
+        if (running) {
+            try {
+                if (stopped.await(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+                logger.warn("BIN-RPC server did not stop within {} ms", SHUTDOWN_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        closeSilent();
+    }
+
 }
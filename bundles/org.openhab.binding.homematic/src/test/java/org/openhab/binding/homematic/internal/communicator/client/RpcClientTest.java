@@ -19,12 +19,15 @@ import static org.openhab.binding.homematic.test.util.DimmerHelper.*;
 import static org.openhab.binding.homematic.test.util.RpcClientMockImpl.*;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.smarthome.test.java.JavaTest;
 import org.junit.Before;
 import org.junit.Test;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
 import org.openhab.binding.homematic.internal.communicator.message.XmlRpcRequest;
+import org.openhab.binding.homematic.internal.communicator.parser.RpcResponseParser.RpcFaultException;
 import org.openhab.binding.homematic.internal.model.HmChannel;
 import org.openhab.binding.homematic.internal.model.HmParamsetType;
 import org.openhab.binding.homematic.test.util.RpcClientMockImpl;
@@ -95,6 +98,52 @@ public class RpcClientTest extends JavaTest {
         assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_NAME), is(0));
     }
 
+    @Test
+    public void paramsetDescriptionsOfChannelsAreLoadedWithOneMulticall() throws IOException {
+        List<HmChannel> channels = Arrays.asList(createDimmerDummyChannel(), createDimmerHmChannel());
+
+        List<HmChannel> failedChannels = rpcClient.addChannelDatapoints(channels, HmParamsetType.MASTER);
+
+        assertThat(failedChannels.isEmpty(), is(true));
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(1));
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_DESCRIPTION_NAME), is(0));
+    }
+
+    @Test
+    public void valuesParamsetDescriptionIsNotBatchedForDummyChannel() throws IOException {
+        List<HmChannel> channels = Arrays.asList(createDimmerDummyChannel(), createDimmerHmChannel());
+
+        List<HmChannel> failedChannels = rpcClient.addChannelDatapoints(channels, HmParamsetType.VALUES);
+
+        // a single remaining call is not worth a multicall
+        assertThat(failedChannels.size(), is(1));
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(0));
+    }
+
+    @Test
+    public void multicallIsUsedAgainAfterNetworkError() throws IOException {
+        List<HmChannel> channels = Arrays.asList(createDimmerDummyChannel(), createDimmerHmChannel());
+        rpcClient.multicallException = new IOException("Read timed out");
+
+        assertThat(rpcClient.addChannelDatapoints(channels, HmParamsetType.MASTER).size(), is(2));
+
+        rpcClient.multicallException = null;
+        assertThat(rpcClient.addChannelDatapoints(channels, HmParamsetType.MASTER).isEmpty(), is(true));
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(2));
+    }
+
+    @Test
+    public void multicallIsNotUsedAgainAfterFault() throws IOException {
+        List<HmChannel> channels = Arrays.asList(createDimmerDummyChannel(), createDimmerHmChannel());
+        rpcClient.multicallException = new RpcFaultException("-1 Method not found");
+
+        assertThat(rpcClient.addChannelDatapoints(channels, HmParamsetType.MASTER).size(), is(2));
+
+        rpcClient.multicallException = null;
+        assertThat(rpcClient.addChannelDatapoints(channels, HmParamsetType.MASTER).size(), is(2));
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(1));
+    }
+
     @Test
     public void burstRxModeIsConfiguredAsParameterOnRequest() throws IOException {
         RpcRequest<String> request = new XmlRpcRequest("setValue");
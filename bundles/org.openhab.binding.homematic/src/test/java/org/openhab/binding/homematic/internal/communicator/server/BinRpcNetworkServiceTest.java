@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.openhab.binding.homematic.test.util.BinRpcLoadGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for {@link BinRpcNetworkService}, also reports the events per second of replayed multicall bursts.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class BinRpcNetworkServiceTest {
+    private final Logger logger = LoggerFactory.getLogger(BinRpcNetworkServiceTest.class);
+
+    private static final String LOCALHOST = "127.0.0.1";
+
+    private final AtomicInteger events = new AtomicInteger();
+    private HomematicConfig config;
+    private BinRpcNetworkService networkService;
+    private BinRpcLoadGenerator loadGenerator;
+
+    @Before
+    public void setup() throws IOException {
+        config = new HomematicConfig();
+        config.setBindAddress(LOCALHOST);
+        config.setBinCallbackPort(0);
+        startNetworkService();
+    }
+
+    private void startNetworkService() throws IOException {
+        networkService = new BinRpcNetworkService(new RpcEventListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                events.incrementAndGet();
+            }
+
+            @Override
+            public void newDevices(List<String> adresses) {
+            }
+
+            @Override
+            public void deleteDevices(List<String> addresses) {
+            }
+        }, config);
+        new Thread(networkService, "HomematicRpcServerTest").start();
+        loadGenerator = new BinRpcLoadGenerator(LOCALHOST, networkService.getLocalPort());
+    }
+
+    @After
+    public void tearDown() {
+        networkService.shutdown();
+    }
+
+    @Test
+    public void singleEventIsDelivered() throws IOException {
+        List<byte[]> bursts = new ArrayList<>();
+        bursts.add(BinRpcLoadGenerator.createMulticallBurst("test", 1));
+
+        loadGenerator.replay(bursts, 1);
+
+        assertThat(events.get(), is(1));
+    }
+
+    @Test
+    public void largeBurstExceedingBufferIsDelivered() throws IOException {
+        List<byte[]> bursts = new ArrayList<>();
+        bursts.add(BinRpcLoadGenerator.createMulticallBurst("test", 2000));
+
+        loadGenerator.replay(bursts, 2);
+
+        assertThat(events.get(), is(4000));
+    }
+
+    @Test
+    public void multicallBurstsAreDeliveredOnPersistentConnection() throws IOException {
+        List<byte[]> bursts = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            bursts.add(BinRpcLoadGenerator.createMulticallBurst("test", i * 20));
+        }
+
+        long millis = loadGenerator.replay(bursts, 50);
+
+        assertThat(events.get(), is(50 * 1100));
+        logger.info("Replayed {} events in {} ms ({} events/s)", events.get(), millis,
+                millis > 0 ? events.get() * 1000L / millis : events.get());
+    }
+
+    @Test
+    public void invalidMessageLengthClosesConnection() throws IOException {
+        assertThat(sendHeader(Integer.MAX_VALUE), is(-1));
+        assertThat(sendHeader(-1), is(-1));
+
+        List<byte[]> bursts = new ArrayList<>();
+        bursts.add(BinRpcLoadGenerator.createMulticallBurst("test", 1));
+        loadGenerator.replay(bursts, 1);
+
+        assertThat(events.get(), is(1));
+    }
+
+    @Test
+    public void malformedMessageClosesOnlyItsConnection() throws IOException {
+        // the method name is longer than the message
+        assertThat(sendRequest(ByteBuffer.allocate(8).putInt(1000).putInt(0).array()), is(-1));
+        // a string value is longer than the message
+        assertThat(sendRequest(ByteBuffer.allocate(17).putInt(1).put((byte) 'x').putInt(1).putInt(3)
+                .putInt(Integer.MAX_VALUE).array()), is(-1));
+        // an array has more elements than the message can contain
+        assertThat(sendRequest(ByteBuffer.allocate(17).putInt(1).put((byte) 'x').putInt(1).putInt(0x100)
+                .putInt(Integer.MAX_VALUE).array()), is(-1));
+
+        List<byte[]> bursts = new ArrayList<>();
+        bursts.add(BinRpcLoadGenerator.createMulticallBurst("test", 1));
+        loadGenerator.replay(bursts, 1);
+
+        assertThat(events.get(), is(1));
+    }
+
+    @Test
+    public void portCanBeBoundAgainAfterShutdown() throws IOException {
+        config.setBinCallbackPort(networkService.getLocalPort());
+        networkService.shutdown();
+        startNetworkService();
+
+        List<byte[]> bursts = new ArrayList<>();
+        bursts.add(BinRpcLoadGenerator.createMulticallBurst("test", 1));
+        loadGenerator.replay(bursts, 1);
+
+        assertThat(networkService.getLocalPort(), is(config.getBinCallbackPort()));
+        assertThat(events.get(), is(1));
+    }
+
+    /**
+     * Sends a BIN-RPC request header with the given data length and returns the first byte read from the server.
+     */
+    private int sendHeader(int dataLength) throws IOException {
+        return send(ByteBuffer.allocate(8).put(new byte[] { 'B', 'i', 'n', 0 }).putInt(dataLength).array());
+    }
+
+    /**
+     * Sends a BIN-RPC request with the given data and returns the first byte read from the server.
+     */
+    private int sendRequest(byte[] data) throws IOException {
+        return send(ByteBuffer.allocate(8 + data.length).put(new byte[] { 'B', 'i', 'n', 0 }).putInt(data.length)
+                .put(data).array());
+    }
+
+    private int send(byte[] message) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.setSoTimeout(10000);
+            socket.connect(new InetSocketAddress(LOCALHOST, networkService.getLocalPort()));
+            socket.getOutputStream().write(message);
+            InputStream is = socket.getInputStream();
+            return is.read();
+        }
+    }
+}
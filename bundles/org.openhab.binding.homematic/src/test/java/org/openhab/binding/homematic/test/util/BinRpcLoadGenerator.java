@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.test.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+
+/**
+ * Replays recorded or generated BIN-RPC callback bursts (e.g. system.multicall messages from a CCU) against a BIN-RPC
+ * server over one persistent connection, like a Homematic gateway does.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class BinRpcLoadGenerator {
+    private static final String ENCODING = "ISO-8859-1";
+
+    private final String host;
+    private final int port;
+
+    public BinRpcLoadGenerator(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Creates a system.multicall message with the given number of LEVEL events, like a CCU sends them.
+     */
+    public static byte[] createMulticallBurst(String interfaceId, int events) {
+        List<Object> calls = new ArrayList<>();
+        for (int i = 0; i < events; i++) {
+            List<Object> params = new ArrayList<>();
+            params.add(interfaceId);
+            params.add(String.format("NEQ%07d:1", i));
+            params.add("LEVEL");
+            params.add(Double.valueOf((i % 100) / 100.0));
+
+            Map<String, Object> call = new TreeMap<>();
+            call.put("methodName", "event");
+            call.put("params", params);
+            calls.add(call);
+        }
+        BinRpcMessage message = new BinRpcMessage("system.multicall", ENCODING);
+        message.addArg(calls);
+        return message.createMessage();
+    }
+
+    /**
+     * Sends all bursts the given number of times and waits for each response. Returns the elapsed time in
+     * milliseconds.
+     */
+    public long replay(List<byte[]> bursts, int repetitions) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.setSoTimeout(10000);
+            socket.connect(new InetSocketAddress(host, port));
+            OutputStream os = socket.getOutputStream();
+            InputStream is = socket.getInputStream();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                for (byte[] burst : bursts) {
+                    os.write(burst);
+                    new BinRpcMessage(is, false, ENCODING);
+                }
+            }
+            return (System.nanoTime() - start) / 1000000;
+        }
+    }
+}
@@ -13,8 +13,11 @@
 package org.openhab.binding.homematic.test.util;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
@@ -28,8 +31,10 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
     public static final String GET_PARAMSET_DESCRIPTION_NAME = "getParamsetDescription";
     public static final String GET_PARAMSET_NAME = "getParamset";
+    public static final String SYSTEM_MULTICALL_NAME = "system.multicall";
 
     public Map<String, Integer> numberOfCalls = new HashMap<String, Integer>();
+    public IOException multicallException;
 
     public RpcClientMockImpl() throws IOException {
         this(new HomematicConfig());
@@ -38,7 +43,8 @@ public class RpcClientMockImpl extends RpcClient<String> {
     public RpcClientMockImpl(HomematicConfig config) throws IOException {
         super(config);
 
-        Arrays.asList(GET_PARAMSET_DESCRIPTION_NAME, GET_PARAMSET_NAME).forEach(method -> numberOfCalls.put(method, 0));
+        Arrays.asList(GET_PARAMSET_DESCRIPTION_NAME, GET_PARAMSET_NAME, SYSTEM_MULTICALL_NAME)
+                .forEach(method -> numberOfCalls.put(method, 0));
     }
 
     @Override
@@ -47,9 +53,24 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
         increaseNumberOfCalls(methodName);
 
+        if (SYSTEM_MULTICALL_NAME.equals(methodName)) {
+            if (multicallException != null) {
+                throw multicallException;
+            }
+            return mockMulticallResponse(((MockRpcRequest) request).args);
+        }
         return mockResponse();
     }
 
+    private Object[] mockMulticallResponse(List<Object> args) {
+        Collection<?> calls = (Collection<?>) args.get(0);
+        Object[] results = new Object[calls.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = mockResponse();
+        }
+        return new Object[] { results };
+    }
+
     private void increaseNumberOfCalls(String methodName) {
         Integer currentNumber = numberOfCalls.get(methodName);
         if (currentNumber == null) {
@@ -67,23 +88,31 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
     @Override
     protected RpcRequest<String> createRpcRequest(String methodName) {
-        return new RpcRequest<String>() {
+        return new MockRpcRequest(methodName);
+    }
 
-            @Override
-            public void addArg(Object arg) {
-            }
+    private static class MockRpcRequest implements RpcRequest<String> {
+        private final String methodName;
+        private final List<Object> args = new ArrayList<>();
 
-            @Override
-            public String createMessage() {
-                return null;
-            }
+        private MockRpcRequest(String methodName) {
+            this.methodName = methodName;
+        }
 
-            @Override
-            public String getMethodName() {
-                return methodName;
-            }
+        @Override
+        public void addArg(Object arg) {
+            args.add(arg);
+        }
 
-        };
+        @Override
+        public String createMessage() {
+            return null;
+        }
+
+        @Override
+        public String getMethodName() {
+            return methodName;
+        }
     }
 
     @Override
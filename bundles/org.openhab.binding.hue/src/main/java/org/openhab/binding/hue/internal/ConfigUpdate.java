@@ -40,6 +40,26 @@ public class ConfigUpdate {
         return commands.stream().map(c -> c.toJson()).collect(joining(",", "{", "}"));
     }
 
+    /**
+     * Adds the commands of a newer update to this update. Commands of this update which are overridden by the newer
+     * update are removed.
+     *
+     * @param update the newer update
+     */
+    public void merge(ConfigUpdate update) {
+        for (Command command : update.commands) {
+            commands.removeIf(c -> overrides(command, c));
+            commands.add(command);
+        }
+    }
+
+    /**
+     * Returns true, if the newer command overrides the older one.
+     */
+    protected boolean overrides(Command newer, Command older) {
+        return newer.key.equals(older.key);
+    }
+
     /**
      * Returns the message delay recommended by Philips
      * Regarding to this article: https://developers.meethue.com/documentation/hue-system-performance
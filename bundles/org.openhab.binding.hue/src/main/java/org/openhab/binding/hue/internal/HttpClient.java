@@ -20,10 +20,20 @@ import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -37,39 +47,142 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class HttpClient {
+    private static final Pattern LIGHT_STATE_PATTERN = Pattern.compile("^(.*/)lights/([^/]+)/state$");
+    private static final long GROUP_COMMAND_INTERVAL = 1000;
+
     private int timeout = 1000;
     private final Logger logger = LoggerFactory.getLogger(HttpClient.class);
-    private final LinkedList<AsyncPutParameters> commandsQueue = new LinkedList<>();
+    private final Map<String, AsyncPutParameters> commandsQueue = new LinkedHashMap<>();
+    private @Nullable LightGroupResolver lightGroupResolver;
     private @Nullable Future<?> job;
+    private long nextCommandTime;
+    private long nextGroupCommandTime;
+
+    /**
+     * Resolves the group which contains exactly the given lights, used to fuse equal light state updates into one
+     * group action.
+     */
+    public interface LightGroupResolver {
+        /**
+         * Returns the id of the group which contains exactly the given lights, or null if there is none.
+         */
+        @Nullable
+        String getGroupId(Set<String> lightIds);
+    }
+
+    public void setLightGroupResolver(@Nullable LightGroupResolver lightGroupResolver) {
+        this.lightGroupResolver = lightGroupResolver;
+    }
+
+    /**
+     * Sends the oldest pending command and schedules the next one after the delay recommended for the sent command.
+     * The bridge handles only about one group command per second, so light commands are fused into a group command
+     * at most once per second and are sent one by one in between.
+     */
+    private void executeCommand(ScheduledExecutorService scheduler) {
+        long delay = 0;
+        try {
+            AsyncPutParameters command;
+            synchronized (commandsQueue) {
+                Iterator<AsyncPutParameters> it = commandsQueue.values().iterator();
+                if (!it.hasNext()) {
+                    return;
+                }
+                command = it.next();
+                it.remove();
+            }
 
-    @SuppressWarnings({ "null", "unused" })
-    private void executeCommands() {
-        while (true) {
+            String body = command.getBody();
+            delay = command.getDelay();
+            List<AsyncPutParameters> fusedCommands = new ArrayList<>();
+            String address = null;
+            if (System.currentTimeMillis() >= nextGroupCommandTime) {
+                address = getFusedGroupAddress(command, body, fusedCommands);
+            }
+            if (address == null) {
+                address = command.address;
+            } else {
+                nextGroupCommandTime = System.currentTimeMillis() + GROUP_COMMAND_INTERVAL;
+            }
+
+            logger.debug("Async sending put to address: {} delay: {} body: {}", address, delay, body);
             try {
-                long delayTime = 0;
-                synchronized (commandsQueue) {
-                    AsyncPutParameters payloadCallbackPair = commandsQueue.poll();
-                    if (payloadCallbackPair != null) {
-                        logger.debug("Async sending put to address: {} delay: {} body: {}", payloadCallbackPair.address,
-                                payloadCallbackPair.delay, payloadCallbackPair.body);
-                        try {
-                            Result result = put(payloadCallbackPair.address, payloadCallbackPair.body);
-                            payloadCallbackPair.future.complete(result);
-                        } catch (IOException e) {
-                            payloadCallbackPair.future.completeExceptionally(e);
-                        }
-                        delayTime = payloadCallbackPair.delay;
-                    } else {
-                        return;
-                    }
+                Result result = put(address, body);
+                command.complete(result);
+                fusedCommands.forEach(fusedCommand -> fusedCommand.complete(result));
+            } catch (IOException | RuntimeException e) {
+                command.completeExceptionally(e);
+                fusedCommands.forEach(fusedCommand -> fusedCommand.completeExceptionally(e));
+            }
+        } finally {
+            scheduleNextCommand(scheduler, delay);
+        }
+    }
+
+    private void scheduleNextCommand(ScheduledExecutorService scheduler, long delay) {
+        synchronized (commandsQueue) {
+            nextCommandTime = System.currentTimeMillis() + delay;
+            job = null;
+            if (!commandsQueue.isEmpty()) {
+                try {
+                    job = scheduler.schedule(() -> executeCommand(scheduler), delay, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // retried with the next queued command
+                    logger.debug("Could not schedule the next command: {}", e.getMessage());
                 }
-                Thread.sleep(delayTime);
-            } catch (InterruptedException e) {
-                logger.debug("commandExecutorThread was interrupted", e);
             }
         }
     }
 
+    /**
+     * If other lights with exactly the same state update are pending and a group contains exactly these lights, the
+     * pending commands are removed from the queue and the address of the group action is returned.
+     */
+    private @Nullable String getFusedGroupAddress(AsyncPutParameters command, String body,
+            List<AsyncPutParameters> fusedCommands) {
+        LightGroupResolver resolver = lightGroupResolver;
+        Matcher matcher = LIGHT_STATE_PATTERN.matcher(command.address);
+        if (resolver == null || !matcher.matches()) {
+            return null;
+        }
+
+        Map<String, AsyncPutParameters> candidates = new LinkedHashMap<>();
+        synchronized (commandsQueue) {
+            for (AsyncPutParameters pending : commandsQueue.values()) {
+                Matcher pendingMatcher = LIGHT_STATE_PATTERN.matcher(pending.address);
+                if (pendingMatcher.matches() && pendingMatcher.group(1).equals(matcher.group(1))
+                        && body.equals(pending.getBody())) {
+                    candidates.put(pendingMatcher.group(2), pending);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        Set<String> lightIds = new HashSet<>(candidates.keySet());
+        lightIds.add(matcher.group(2));
+        String groupId = resolver.getGroupId(lightIds);
+        if (groupId == null) {
+            return null;
+        }
+
+        synchronized (commandsQueue) {
+            for (AsyncPutParameters candidate : candidates.values()) {
+                // the command may have been changed by a newer update in the meantime
+                if (commandsQueue.get(candidate.address) != candidate || !body.equals(candidate.getBody())) {
+                    fusedCommands.forEach(fusedCommand -> commandsQueue.put(fusedCommand.address, fusedCommand));
+                    fusedCommands.clear();
+                    return null;
+                }
+                commandsQueue.remove(candidate.address);
+                fusedCommands.add(candidate);
+            }
+        }
+        logger.debug("Fusing state updates of lights {} into group {}", lightIds, groupId);
+        return matcher.group(1) + "groups/" + groupId + "/action";
+    }
+
     public void setTimeout(int timeout) {
         this.timeout = timeout;
     }
@@ -86,22 +199,27 @@ public class HttpClient {
         return doNetwork(address, "PUT", body);
     }
 
-    public CompletableFuture<Result> putAsync(String address, String body, long delay,
-            ScheduledExecutorService scheduler) {
-        AsyncPutParameters asyncPutParameters = new AsyncPutParameters(address, body, delay);
+    /**
+     * Queues the update for the given address. A pending update for the same address is merged with the newer one, so
+     * only the latest state is sent. Commands are sent in order, paced by the delay recommended for each command.
+     */
+    public CompletableFuture<Result> putAsync(String address, ConfigUpdate update, ScheduledExecutorService scheduler) {
+        CompletableFuture<Result> future = new CompletableFuture<>();
 
         synchronized (commandsQueue) {
-            if (commandsQueue.isEmpty()) {
-                commandsQueue.offer(asyncPutParameters);
-                if (job == null || job.isDone()) {
-                    job = scheduler.submit(this::executeCommands);
-                }
+            AsyncPutParameters pending = commandsQueue.get(address);
+            if (pending != null) {
+                pending.merge(update, future);
             } else {
-                commandsQueue.offer(asyncPutParameters);
+                commandsQueue.put(address, new AsyncPutParameters(address, update, future));
+            }
+            if (job == null) {
+                long delay = Math.max(0, nextCommandTime - System.currentTimeMillis());
+                job = scheduler.schedule(() -> executeCommand(scheduler), delay, TimeUnit.MILLISECONDS);
             }
         }
 
-        return asyncPutParameters.future;
+        return future;
     }
 
     public Result delete(String address) throws IOException {
@@ -158,17 +276,52 @@ public class HttpClient {
         }
     }
 
+    /**
+     * A pending update for one address, holds all merged updates and the futures of their callers.
+     */
     public final class AsyncPutParameters {
         public final String address;
-        public final String body;
-        public final CompletableFuture<Result> future;
-        public final long delay;
+        private final List<ConfigUpdate> updates = new ArrayList<>();
+        private final List<CompletableFuture<Result>> futures = new ArrayList<>();
+        private @Nullable ConfigUpdate mergedUpdate;
 
-        public AsyncPutParameters(String address, String body, long delay) {
+        public AsyncPutParameters(String address, ConfigUpdate update, CompletableFuture<Result> future) {
             this.address = address;
-            this.body = body;
-            this.future = new CompletableFuture<>();
-            this.delay = delay;
+            merge(update, future);
+        }
+
+        private synchronized void merge(ConfigUpdate update, CompletableFuture<Result> future) {
+            updates.add(update);
+            futures.add(future);
+            mergedUpdate = null;
+        }
+
+        private synchronized ConfigUpdate getMergedUpdate() {
+            ConfigUpdate merged = mergedUpdate;
+            if (merged == null) {
+                merged = updates.get(0) instanceof StateUpdate ? new StateUpdate() : new ConfigUpdate();
+                for (ConfigUpdate update : updates) {
+                    merged.merge(update);
+                }
+                mergedUpdate = merged;
+            }
+            return merged;
+        }
+
+        public String getBody() {
+            return getMergedUpdate().toJson();
+        }
+
+        public long getDelay() {
+            return getMergedUpdate().getMessageDelay();
+        }
+
+        private void complete(Result result) {
+            futures.forEach(future -> future.complete(result));
+        }
+
+        private void completeExceptionally(Throwable e) {
+            futures.forEach(future -> future.completeExceptionally(e));
         }
     }
 }
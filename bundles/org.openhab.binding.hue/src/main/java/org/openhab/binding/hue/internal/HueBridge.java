@@ -23,11 +23,15 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -62,6 +66,7 @@ public class HueBridge {
     private final Logger logger = LoggerFactory.getLogger(HueBridge.class);
 
     private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss";
+    private static final long GROUP_CACHE_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
 
     private final String ip;
     private final String baseUrl;
@@ -74,6 +79,13 @@ public class HueBridge {
     @Nullable
     private Config cachedConfig;
 
+    private Map<Set<String>, String> cachedGroupIdsByLights = new HashMap<>();
+    private long cachedGroupsExpiry;
+    private boolean loadingGroups;
+
+    private final IncrementalObjectParser<FullLight> fullLightParser = new IncrementalObjectParser<>(FullLight.class);
+    private final IncrementalObjectParser<FullSensor> sensorParser = new IncrementalObjectParser<>(FullSensor.class);
+
     /**
      * Connect with a bridge as a new user.
      *
@@ -93,6 +105,7 @@ public class HueBridge {
         }
         this.baseUrl = baseUrl;
         this.scheduler = scheduler;
+        this.http.setLightGroupResolver(this::getCachedGroupIdOfLights);
     }
 
     /**
@@ -172,14 +185,20 @@ public class HueBridge {
 
     /**
      * Returns a list of lights known to the bridge.
+     * Lights that did not change since the previous call are returned as the same instance.
      *
      * @return list of known lights as {@link FullLight}s
      * @throws UnauthorizedException thrown if the user no longer exists
      */
     public List<FullLight> getFullLights() throws IOException, ApiException {
         if (ApiVersionUtils.supportsFullLights(getVersion())) {
-            Type gsonType = FullLight.GSON_TYPE;
-            return getTypedLights(gsonType);
+            requireAuthentication();
+
+            Result result = http.get(getRelativeURL("lights"));
+
+            handleErrors(result);
+
+            return parseIncrementally(fullLightParser, "lights", result.getBody());
         } else {
             return getFullConfig().getLights();
         }
@@ -216,7 +235,8 @@ public class HueBridge {
     }
 
     /**
-     * Returns a list of sensors known to the bridge
+     * Returns a list of sensors known to the bridge.
+     * Sensors that did not change since the previous call are returned as the same instance.
      *
      * @return list of sensors
      * @throws UnauthorizedException thrown if the user no longer exists
@@ -228,16 +248,16 @@ public class HueBridge {
 
         handleErrors(result);
 
-        Map<String, FullSensor> sensorMap = safeFromJson(result.getBody(), FullSensor.GSON_TYPE);
-        ArrayList<FullSensor> sensorList = new ArrayList<>();
-
-        for (String id : sensorMap.keySet()) {
-            FullSensor sensor = sensorMap.get(id);
-            sensor.setId(id);
-            sensorList.add(sensor);
-        }
+        return parseIncrementally(sensorParser, "sensors", result.getBody());
+    }
 
-        return sensorList;
+    private <T extends HueObject> List<T> parseIncrementally(IncrementalObjectParser<T> parser, String resource,
+            String body) throws ApiException {
+        List<T> objects = parser.parse(body, gson);
+        logger.trace("Polled {} {} ({} bytes) in {} us: {} changed, {} unchanged", objects.size(), resource,
+                body.length(), TimeUnit.NANOSECONDS.toMicros(parser.getLastParseTimeNanos()),
+                parser.getLastParsedCount(), parser.getLastReusedCount());
+        return objects;
     }
 
     /**
@@ -358,9 +378,7 @@ public class HueBridge {
     public CompletableFuture<Result> setLightState(FullLight light, StateUpdate update) {
         requireAuthentication();
 
-        String body = update.toJson();
-        return http.putAsync(getRelativeURL("lights/" + enc(light.getId()) + "/state"), body, update.getMessageDelay(),
-                scheduler);
+        return http.putAsync(getRelativeURL("lights/" + enc(light.getId()) + "/state"), update, scheduler);
     }
 
     /**
@@ -376,9 +394,7 @@ public class HueBridge {
     public CompletableFuture<Result> setSensorState(FullSensor sensor, StateUpdate update) {
         requireAuthentication();
 
-        String body = update.toJson();
-        return http.putAsync(getRelativeURL("sensors/" + enc(sensor.getId()) + "/state"), body, update.getMessageDelay(),
-                scheduler);
+        return http.putAsync(getRelativeURL("sensors/" + enc(sensor.getId()) + "/state"), update, scheduler);
     }    
     
     /**
@@ -393,9 +409,47 @@ public class HueBridge {
     public CompletableFuture<Result> updateSensorConfig(FullSensor sensor, ConfigUpdate update) {
         requireAuthentication();
 
-        String body = update.toJson();
-        return http.putAsync(getRelativeURL("sensors/" + enc(sensor.getId()) + "/config"), body,
-                update.getMessageDelay(), scheduler);
+        return http.putAsync(getRelativeURL("sensors/" + enc(sensor.getId()) + "/config"), update, scheduler);
+    }
+
+    /**
+     * Returns the id of the group which contains exactly the given lights. The group memberships are cached for a few
+     * minutes. This is called while sending queued commands, so an expired cache is reloaded in the background and
+     * the lights are updated one by one until the group memberships are known.
+     *
+     * @param lightIds ids of the lights
+     * @return id of the group or null if there is no such group or the groups are not loaded yet
+     */
+    private synchronized @Nullable String getCachedGroupIdOfLights(Set<String> lightIds) {
+        if (System.currentTimeMillis() > cachedGroupsExpiry && !loadingGroups) {
+            loadingGroups = true;
+            scheduler.execute(this::loadGroupIdsByLights);
+        }
+        return cachedGroupIdsByLights.get(lightIds);
+    }
+
+    private void loadGroupIdsByLights() {
+        Map<Set<String>, String> groupIdsByLights = new HashMap<>();
+        try {
+            requireAuthentication();
+            Result result = http.get(getRelativeURL("groups"));
+            handleErrors(result);
+
+            Map<String, FullGroup> groupMap = safeFromJson(result.getBody(), FullGroup.GSON_TYPE);
+            for (Map.Entry<String, FullGroup> entry : groupMap.entrySet()) {
+                Set<String> groupLightIds = new HashSet<>(Util.lightsToIds(entry.getValue().getLights()));
+                if (groupLightIds.size() > 1) {
+                    groupIdsByLights.putIfAbsent(groupLightIds, entry.getKey());
+                }
+            }
+        } catch (IOException | ApiException | RuntimeException e) {
+            logger.debug("Could not load groups of the Hue bridge: {}", e.getMessage());
+        }
+        synchronized (this) {
+            cachedGroupIdsByLights = groupIdsByLights;
+            cachedGroupsExpiry = System.currentTimeMillis() + GROUP_CACHE_TIMEOUT;
+            loadingGroups = false;
+        }
     }
 
     /**
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.hue.internal.exceptions.ApiException;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Parses the id-to-object maps returned by the <code>lights</code> and <code>sensors</code> resources of the bridge
+ * incrementally.
+ * <p>
+ * The response is scanned once to locate the JSON text of every object and to compute a fingerprint of it. Only
+ * objects whose fingerprint differs from the previous poll are bound by Gson; unchanged objects are returned as the
+ * very same instance that was returned before, so callers can skip comparing them with a cheap identity check.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class IncrementalObjectParser<T extends HueObject> {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Class<T> type;
+    private Map<String, ParsedObject<T>> lastObjects = new HashMap<>();
+
+    private int lastParsedCount;
+    private int lastReusedCount;
+    private long lastParseTimeNanos;
+
+    private static class ParsedObject<T> {
+        final long fingerprint;
+        final T object;
+
+        ParsedObject(long fingerprint, T object) {
+            this.fingerprint = fingerprint;
+            this.object = object;
+        }
+    }
+
+    public IncrementalObjectParser(Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Parses a JSON object mapping ids to objects of the configured type.
+     *
+     * @param json response body of the bridge
+     * @param gson gson instance used to bind changed objects
+     * @return all objects of the response, with unchanged objects reused from the previous call
+     * @throws ApiException if the response is not a JSON object of objects
+     */
+    public synchronized List<T> parse(String json, Gson gson) throws ApiException {
+        long start = System.nanoTime();
+        Map<String, ParsedObject<T>> objects = new HashMap<>();
+        List<T> result = new ArrayList<>();
+        int parsed = 0;
+
+        int pos = skipWhitespace(json, 0);
+        pos = expect(json, pos, '{');
+        pos = skipWhitespace(json, pos);
+        if (pos < json.length() && json.charAt(pos) == '}') {
+            pos++;
+        } else {
+            while (true) {
+                pos = expect(json, pos, '"');
+                int keyEnd = skipString(json, pos);
+                String id = json.substring(pos, keyEnd - 1);
+                pos = skipWhitespace(json, keyEnd);
+                pos = expect(json, pos, ':');
+                int valueStart = skipWhitespace(json, pos);
+                int valueEnd = skipValue(json, valueStart);
+                long fingerprint = fingerprint(json, valueStart, valueEnd);
+
+                ParsedObject<T> last = lastObjects.get(id);
+                T object;
+                if (last != null && last.fingerprint == fingerprint) {
+                    object = last.object;
+                } else {
+                    object = bind(json.substring(valueStart, valueEnd), gson);
+                    object.setId(id);
+                    parsed++;
+                }
+                objects.put(id, new ParsedObject<>(fingerprint, object));
+                result.add(object);
+
+                pos = skipWhitespace(json, valueEnd);
+                if (pos < json.length() && json.charAt(pos) == ',') {
+                    pos = skipWhitespace(json, pos + 1);
+                } else {
+                    pos = expect(json, pos, '}');
+                    break;
+                }
+            }
+        }
+        if (skipWhitespace(json, pos) != json.length()) {
+            throw unexpected("trailing data at position " + pos);
+        }
+
+        lastObjects = objects;
+        lastParsedCount = parsed;
+        lastReusedCount = result.size() - parsed;
+        lastParseTimeNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Forgets all objects, so the next call to {@link #parse(String, Gson)} binds every object again.
+     */
+    public synchronized void reset() {
+        lastObjects = new HashMap<>();
+    }
+
+    /**
+     * @return number of objects bound by Gson during the last call to {@link #parse(String, Gson)}
+     */
+    public int getLastParsedCount() {
+        return lastParsedCount;
+    }
+
+    /**
+     * @return number of unchanged objects reused during the last call to {@link #parse(String, Gson)}
+     */
+    public int getLastReusedCount() {
+        return lastReusedCount;
+    }
+
+    /**
+     * @return duration of the last call to {@link #parse(String, Gson)} in nanoseconds
+     */
+    public long getLastParseTimeNanos() {
+        return lastParseTimeNanos;
+    }
+
+    private T bind(String json, Gson gson) throws ApiException {
+        T object;
+        try {
+            object = gson.fromJson(json, type);
+        } catch (JsonParseException e) {
+            throw unexpected(e.getMessage());
+        }
+        if (object == null) {
+            throw unexpected("null object");
+        }
+        return object;
+    }
+
+    private static long fingerprint(String json, int start, int end) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ json.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static int skipWhitespace(String json, int pos) {
+        while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int expect(String json, int pos, char c) throws ApiException {
+        if (pos >= json.length() || json.charAt(pos) != c) {
+            throw unexpected("expected '" + c + "' at position " + pos);
+        }
+        return pos + 1;
+    }
+
+    /**
+     * Returns the position after the closing quote of a string whose opening quote precedes <code>pos</code>.
+     */
+    private static int skipString(String json, int pos) throws ApiException {
+        while (pos < json.length()) {
+            char c = json.charAt(pos++);
+            if (c == '\\') {
+                pos++;
+            } else if (c == '"') {
+                return pos;
+            }
+        }
+        throw unexpected("unterminated string");
+    }
+
+    /**
+     * Returns the position after the object starting at <code>pos</code>.
+     */
+    private static int skipValue(String json, int pos) throws ApiException {
+        pos = expect(json, pos, '{');
+        int depth = 1;
+        while (pos < json.length()) {
+            char c = json.charAt(pos++);
+            if (c == '"') {
+                pos = skipString(json, pos);
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (--depth == 0) {
+                    return pos;
+                }
+            }
+        }
+        throw unexpected("unterminated object");
+    }
+
+    private static ApiException unexpected(@Nullable String detail) {
+        return new ApiException("API returned unexpected result: " + detail);
+    }
+}
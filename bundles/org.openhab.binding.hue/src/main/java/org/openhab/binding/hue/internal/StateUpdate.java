@@ -28,6 +28,43 @@ public class StateUpdate extends ConfigUpdate {
     private Integer colorTemperature;
     private Integer brightness;
 
+    @Override
+    public void merge(ConfigUpdate update) {
+        super.merge(update);
+        if (update instanceof StateUpdate) {
+            StateUpdate stateUpdate = (StateUpdate) update;
+            if (stateUpdate.colorTemperature != null) {
+                colorTemperature = stateUpdate.colorTemperature;
+            }
+            if (stateUpdate.brightness != null) {
+                brightness = stateUpdate.brightness;
+            }
+        }
+    }
+
+    @Override
+    protected boolean overrides(Command newer, Command older) {
+        // a newer color of another color mode replaces the older color completely
+        String newerColorMode = getColorMode(newer.key);
+        String olderColorMode = getColorMode(older.key);
+        return super.overrides(newer, older)
+                || (newerColorMode != null && olderColorMode != null && !newerColorMode.equals(olderColorMode));
+    }
+
+    private static String getColorMode(String key) {
+        switch (key) {
+            case "xy":
+                return "xy";
+            case "ct":
+                return "ct";
+            case "hue":
+            case "sat":
+                return "hs";
+            default:
+                return null;
+        }
+    }
+
     /**
      * Turn light on.
      *
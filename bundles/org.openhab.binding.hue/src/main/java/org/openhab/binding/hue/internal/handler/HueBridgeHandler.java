@@ -184,6 +184,10 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
                 String sensorId = sensor.getId();
                 if (lastSensorStateCopy.containsKey(sensorId)) {
                     final FullSensor lastFullSensor = lastSensorStateCopy.remove(sensorId);
+                    if (lastFullSensor == sensor) {
+                        // unchanged since the last poll
+                        continue;
+                    }
                     final Map<String, Object> lastFullSensorState = lastFullSensor.getState();
                     lastSensorStates.put(sensorId, sensor);
                     if (!lastFullSensorState.equals(sensor.getState())) {
@@ -229,6 +233,10 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
                 final String lightId = fullLight.getId();
                 if (lastLightStateCopy.containsKey(lightId)) {
                     final FullLight lastFullLight = lastLightStateCopy.remove(lightId);
+                    if (lastFullLight == fullLight) {
+                        // unchanged since the last poll
+                        continue;
+                    }
                     final State lastFullLightState = lastFullLight.getState();
                     lastLightStates.put(lightId, fullLight);
                     if (!isEqual(lastFullLightState, fullLight.getState())) {
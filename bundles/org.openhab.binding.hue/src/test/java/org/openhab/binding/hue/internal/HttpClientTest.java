@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.hue.internal.HttpClient.Result;
+
+/**
+ * Tests the coalescing, group fusion and pacing of queued commands in {@link HttpClient}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class HttpClientTest {
+    private static final String BASE_URL = "http://bridge/api/user/";
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private volatile @Nullable RuntimeException failure;
+    private ScheduledExecutorService scheduler;
+    private HttpClient httpClient;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        httpClient = new HttpClient() {
+            @Override
+            protected Result doNetwork(String address, String requestMethod, @Nullable String body)
+                    throws IOException {
+                requests.add(address.substring(BASE_URL.length()) + " " + body);
+                RuntimeException e = failure;
+                if (e != null) {
+                    failure = null;
+                    throw e;
+                }
+                return new Result("[]", 200);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void pendingUpdateIsReplacedByNewerUpdate() throws Exception {
+        // keep the scheduler busy, so all updates are queued before the first one is sent
+        CompletableFuture<Void> blocker = new CompletableFuture<>();
+        scheduler.execute(() -> blocker.join());
+
+        CompletableFuture<Result> first = httpClient.putAsync(BASE_URL + "lights/1/state",
+                new StateUpdate().turnOn().setBrightness(10), scheduler);
+        CompletableFuture<Result> second = httpClient.putAsync(BASE_URL + "lights/1/state",
+                new StateUpdate().setBrightness(100), scheduler);
+        blocker.complete(null);
+
+        first.get(1, TimeUnit.SECONDS);
+        second.get(1, TimeUnit.SECONDS);
+        assertThat(requests.size(), is(1));
+        assertThat(requests.get(0), is("lights/1/state {\"on\":true,\"bri\":100}"));
+    }
+
+    @Test
+    public void newerColorModeReplacesOlderColor() throws Exception {
+        CompletableFuture<Void> blocker = new CompletableFuture<>();
+        scheduler.execute(() -> blocker.join());
+
+        httpClient.putAsync(BASE_URL + "lights/1/state", new StateUpdate().setHue(100).setSat(200), scheduler);
+        CompletableFuture<Result> future = httpClient.putAsync(BASE_URL + "lights/1/state",
+                new StateUpdate().setColorTemperature(300), scheduler);
+        blocker.complete(null);
+
+        future.get(1, TimeUnit.SECONDS);
+        assertThat(requests.get(0), is("lights/1/state {\"ct\":300}"));
+    }
+
+    @Test
+    public void equalUpdatesOfGroupLightsAreFused() throws Exception {
+        httpClient.setLightGroupResolver(lightIds -> lightIds.size() == 3 ? "7" : null);
+        CompletableFuture<Void> blocker = new CompletableFuture<>();
+        scheduler.execute(() -> blocker.join());
+
+        List<CompletableFuture<Result>> futures = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            futures.add(httpClient.putAsync(BASE_URL + "lights/" + i + "/state", new StateUpdate().turnOff(),
+                    scheduler));
+        }
+        blocker.complete(null);
+
+        for (CompletableFuture<Result> future : futures) {
+            future.get(1, TimeUnit.SECONDS);
+        }
+        assertThat(requests.size(), is(1));
+        assertThat(requests.get(0), is("groups/7/action {\"on\":false}"));
+    }
+
+    @Test
+    public void updatesAreNotFusedWithoutMatchingGroup() throws Exception {
+        httpClient.setLightGroupResolver(lightIds -> null);
+        CompletableFuture<Void> blocker = new CompletableFuture<>();
+        scheduler.execute(() -> blocker.join());
+
+        CompletableFuture<Result> first = httpClient.putAsync(BASE_URL + "lights/1/state",
+                new StateUpdate().turnOff(), scheduler);
+        CompletableFuture<Result> second = httpClient.putAsync(BASE_URL + "lights/2/state",
+                new StateUpdate().turnOff(), scheduler);
+        blocker.complete(null);
+
+        first.get(1, TimeUnit.SECONDS);
+        second.get(1, TimeUnit.SECONDS);
+        assertThat(requests.size(), is(2));
+    }
+
+    @Test
+    public void groupCommandsArePacedSeparately() throws Exception {
+        httpClient.setLightGroupResolver(lightIds -> lightIds.size() == 2 ? "7" : null);
+        CompletableFuture<Void> blocker = new CompletableFuture<>();
+        scheduler.execute(() -> blocker.join());
+
+        List<CompletableFuture<Result>> futures = new ArrayList<>();
+        futures.add(httpClient.putAsync(BASE_URL + "lights/1/state", new StateUpdate().turnOff(), scheduler));
+        futures.add(httpClient.putAsync(BASE_URL + "lights/2/state", new StateUpdate().turnOff(), scheduler));
+        futures.add(httpClient.putAsync(BASE_URL + "lights/3/state", new StateUpdate().turnOn(), scheduler));
+        futures.add(httpClient.putAsync(BASE_URL + "lights/4/state", new StateUpdate().turnOn(), scheduler));
+        blocker.complete(null);
+
+        for (CompletableFuture<Result> future : futures) {
+            future.get(1, TimeUnit.SECONDS);
+        }
+        // the second group command would be sent within a second of the first one
+        assertThat(requests, is(Arrays.asList("groups/7/action {\"on\":false}", "lights/3/state {\"on\":true}",
+                "lights/4/state {\"on\":true}")));
+    }
+
+    @Test
+    public void failedRequestDoesNotStopTheQueue() throws Exception {
+        failure = new IllegalStateException("failed request");
+        CompletableFuture<Void> blocker = new CompletableFuture<>();
+        scheduler.execute(() -> blocker.join());
+
+        CompletableFuture<Result> first = httpClient.putAsync(BASE_URL + "lights/1/state",
+                new StateUpdate().turnOff(), scheduler);
+        CompletableFuture<Result> second = httpClient.putAsync(BASE_URL + "lights/2/state",
+                new StateUpdate().turnOff(), scheduler);
+        blocker.complete(null);
+
+        try {
+            first.get(1, TimeUnit.SECONDS);
+            fail("the failed request must complete the future exceptionally");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(IllegalStateException.class)));
+        }
+        second.get(1, TimeUnit.SECONDS);
+
+        // the queue is scheduled again after the failure
+        httpClient.putAsync(BASE_URL + "lights/3/state", new StateUpdate().turnOff(), scheduler).get(1,
+                TimeUnit.SECONDS);
+        assertThat(requests.size(), is(3));
+    }
+}
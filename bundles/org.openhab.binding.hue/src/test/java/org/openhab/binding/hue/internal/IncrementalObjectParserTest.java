@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.binding.hue.internal.exceptions.ApiException;
+
+import com.google.gson.Gson;
+
+/**
+ * Tests the incremental parsing of polled lights and sensors in {@link IncrementalObjectParser}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class IncrementalObjectParserTest {
+    private static final String LIGHT_1 = "{\"state\": {\"on\": true, \"bri\": 100}, \"name\": \"Hue {1}\"}";
+    private static final String LIGHT_1_CHANGED = "{\"state\": {\"on\": true, \"bri\": 200}, \"name\": \"Hue {1}\"}";
+    private static final String LIGHT_2 = "{\"state\": {\"on\": false, \"xy\": [0.3, 0.2]}, \"name\": \"Hue \\\"2\\\"\"}";
+
+    private final Gson gson = new Gson();
+    private final IncrementalObjectParser<FullLight> parser = new IncrementalObjectParser<>(FullLight.class);
+
+    @Test
+    public void unchangedObjectsAreReused() throws ApiException {
+        List<FullLight> first = parser.parse("{\"1\": " + LIGHT_1 + ", \"2\": " + LIGHT_2 + "}", gson);
+        List<FullLight> second = parser.parse("{\"1\": " + LIGHT_1_CHANGED + ", \"2\": " + LIGHT_2 + "}", gson);
+
+        assertThat(first.size(), is(2));
+        assertThat(second.size(), is(2));
+        assertThat(second.get(0).getId(), is("1"));
+        assertThat(second.get(0), is(not(sameInstance(first.get(0)))));
+        assertThat(second.get(0).getState().getBrightness(), is(200));
+        assertThat(second.get(1), is(sameInstance(first.get(1))));
+        assertThat(second.get(1).getName(), is("Hue \"2\""));
+        assertThat(parser.getLastParsedCount(), is(1));
+        assertThat(parser.getLastReusedCount(), is(1));
+    }
+
+    @Test
+    public void removedObjectsAreNotReturned() throws ApiException {
+        parser.parse("{\"1\": " + LIGHT_1 + ", \"2\": " + LIGHT_2 + "}", gson);
+        List<FullLight> lights = parser.parse("{\"2\": " + LIGHT_2 + "}", gson);
+
+        assertThat(lights.size(), is(1));
+        assertThat(lights.get(0).getId(), is("2"));
+        assertThat(parser.parse("{}", gson).isEmpty(), is(true));
+    }
+
+    @Test(expected = ApiException.class)
+    public void malformedResponseIsRejected() throws ApiException {
+        parser.parse("{\"1\": " + LIGHT_1, gson);
+    }
+}
@@ -12,22 +12,19 @@
  */
 package org.openhab.binding.lifx.internal;
 
-import static org.openhab.binding.lifx.internal.LifxBindingConstants.PACKET_INTERVAL;
 import static org.openhab.binding.lifx.internal.fields.MACAddress.BROADCAST_ADDRESS;
 import static org.openhab.binding.lifx.internal.util.LifxMessageUtil.randomSourceId;
-import static org.openhab.binding.lifx.internal.util.LifxSelectorUtil.*;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -38,14 +35,16 @@ import org.openhab.binding.lifx.internal.listener.LifxResponsePacketListener;
 import org.openhab.binding.lifx.internal.protocol.GetServiceRequest;
 import org.openhab.binding.lifx.internal.protocol.Packet;
 import org.openhab.binding.lifx.internal.protocol.StateServiceResponse;
-import org.openhab.binding.lifx.internal.util.LifxNetworkUtil;
-import org.openhab.binding.lifx.internal.util.LifxSelectorUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The {@link LifxLightCommunicationHandler} is responsible for the communications with a light.
  *
+ * Packets are sent and received with the binding-wide {@link LifxSelectorLoop}, which routes the responses of the
+ * light to this handler by its source identifier. The received packets are handled in the order of receipt on the
+ * scheduler of the light, so the selector loop is not blocked by a light that waits for sending follow-up requests.
+ *
  * @author Wouter Born - Extracted class from LifxLightHandler
  */
 @NonNullByDefault
@@ -63,18 +62,25 @@ public class LifxLightCommunicationHandler {
 
     private int service;
     private int unicastPort;
-    private final int broadcastPort = LifxNetworkUtil.getNewBroadcastPort();
-
-    private @Nullable ScheduledFuture<?> networkJob;
 
-    private @Nullable MACAddress macAddress;
-    private @Nullable InetSocketAddress host;
+    private volatile @Nullable MACAddress macAddress;
+    private volatile @Nullable InetSocketAddress host;
     private boolean broadcastEnabled;
 
-    private @Nullable Selector selector;
-    private @Nullable SelectionKey broadcastKey;
-    private @Nullable SelectionKey unicastKey;
-    private @Nullable LifxSelectorContext selectorContext;
+    private @Nullable LifxSelectorLoop selectorLoop;
+
+    private final Queue<ReceivedPacket> receivedPackets = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean receivedPacketsScheduled = new AtomicBoolean();
+
+    private static class ReceivedPacket {
+        private final Packet packet;
+        private final InetSocketAddress address;
+
+        private ReceivedPacket(Packet packet, InetSocketAddress address) {
+            this.packet = packet;
+            this.address = address;
+        }
+    }
 
     public LifxLightCommunicationHandler(LifxLightContext context) {
         this.logId = context.getLogId();
@@ -102,26 +108,17 @@ public class LifxLightCommunicationHandler {
             logger.debug("{} : Starting communication handler", logId);
             logger.debug("{} : Using '{}' as source identifier", logId, Long.toString(sourceId, 16));
 
-            ScheduledFuture<?> localNetworkJob = networkJob;
-            if (localNetworkJob == null || localNetworkJob.isCancelled()) {
-                networkJob = scheduler.scheduleWithFixedDelay(this::receiveAndHandlePackets, 0, PACKET_INTERVAL,
-                        TimeUnit.MILLISECONDS);
-            }
-
             currentLightState.setOffline();
 
-            Selector localSelector = Selector.open();
-            selector = localSelector;
+            if (selectorLoop == null) {
+                LifxSelectorLoop localSelectorLoop = LifxSelectorLoop.acquire();
+                localSelectorLoop.register(sourceId, macAddress, this::receivePacket);
+                selectorLoop = localSelectorLoop;
+            }
 
             if (isBroadcastEnabled()) {
-                broadcastKey = openBroadcastChannel(selector, logId, broadcastPort);
-                selectorContext = new LifxSelectorContext(localSelector, sourceId, sequenceNumberSupplier, logId, host,
-                        macAddress, broadcastKey, unicastKey);
                 broadcastPacket(new GetServiceRequest());
             } else {
-                unicastKey = openUnicastChannel(selector, logId, host);
-                selectorContext = new LifxSelectorContext(localSelector, sourceId, sequenceNumberSupplier, logId, host,
-                        macAddress, broadcastKey, unicastKey);
                 sendPacket(new GetServiceRequest());
             }
         } catch (IOException e) {
@@ -136,17 +133,12 @@ public class LifxLightCommunicationHandler {
         try {
             lock.lock();
 
-            ScheduledFuture<?> localNetworkJob = networkJob;
-            if (localNetworkJob != null && !localNetworkJob.isCancelled()) {
-                localNetworkJob.cancel(true);
-                networkJob = null;
+            LifxSelectorLoop localSelectorLoop = selectorLoop;
+            if (localSelectorLoop != null) {
+                localSelectorLoop.unregister(sourceId);
+                localSelectorLoop.release();
+                selectorLoop = null;
             }
-
-            closeSelector(selector, logId);
-            selector = null;
-            broadcastKey = null;
-            unicastKey = null;
-            selectorContext = null;
         } finally {
             lock.unlock();
         }
@@ -160,25 +152,64 @@ public class LifxLightCommunicationHandler {
         return macAddress;
     }
 
-    public void receiveAndHandlePackets() {
+    /**
+     * Queues a packet received by the selector loop and schedules its handling, if the queue is not handled already.
+     */
+    private void receivePacket(Packet packet, InetSocketAddress address) {
+        receivedPackets.add(new ReceivedPacket(packet, address));
+        if (receivedPacketsScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::handleReceivedPackets);
+            } catch (RejectedExecutionException e) {
+                receivedPacketsScheduled.set(false);
+                logger.debug("{} : Dropping received packets, the scheduler is shut down", logId);
+                receivedPackets.clear();
+            }
+        }
+    }
+
+    private void handleReceivedPackets() {
+        do {
+            ReceivedPacket received;
+            while ((received = receivedPackets.poll()) != null) {
+                handlePacket(received.packet, received.address);
+            }
+            receivedPacketsScheduled.set(false);
+            // a packet queued after the last poll and before resetting the flag has not been scheduled
+        } while (!receivedPackets.isEmpty() && receivedPacketsScheduled.compareAndSet(false, true));
+    }
+
+    private void handlePacket(Packet packet, InetSocketAddress address) {
+        boolean notifyListeners = false;
         try {
             lock.lock();
-            Selector localSelector = selector;
-            if (localSelector == null || !localSelector.isOpen()) {
-                logger.debug("{} : Unable to receive and handle packets with null or closed selector", logId);
-            } else {
-                LifxSelectorUtil.receiveAndHandlePackets(localSelector, logId,
-                        (packet, address) -> handlePacket(packet, address));
-            }
+            notifyListeners = handlePacketLocked(packet, address);
         } catch (Exception e) {
-            logger.error("{} while receiving a packet from the light ({}): {}", e.getClass().getSimpleName(), logId,
+            logger.error("{} while handling a packet from the light ({}): {}", e.getClass().getSimpleName(), logId,
                     e.getMessage());
         } finally {
             lock.unlock();
         }
+
+        // Listeners are notified without holding the lock to prevent deadlock.
+        if (notifyListeners) {
+            for (LifxResponsePacketListener listener : responsePacketListeners) {
+                try {
+                    listener.handleResponsePacket(packet);
+                } catch (RuntimeException e) {
+                    logger.error("{} while handling a packet from the light ({}): {}", e.getClass().getSimpleName(),
+                            logId, e.getMessage());
+                }
+            }
+        }
     }
 
-    private void handlePacket(Packet packet, InetSocketAddress address) {
+    /**
+     * Handles a received packet.
+     *
+     * @return true if the response packet listeners have to be notified about the packet
+     */
+    private boolean handlePacketLocked(Packet packet, InetSocketAddress address) {
         boolean packetFromConfiguredMAC = macAddress != null && (packet.getTarget().equals(macAddress));
         boolean packetFromConfiguredHost = host != null && (address.equals(host));
         boolean broadcastPacket = packet.getTarget().equals(BROADCAST_ADDRESS);
@@ -196,11 +227,11 @@ public class LifxLightCommunicationHandler {
                     macAddress = discoveredAddress;
                     currentLightState.setOnline(discoveredAddress);
 
-                    LifxSelectorContext context = selectorContext;
-                    if (context != null) {
-                        context.setMACAddress(macAddress);
+                    LifxSelectorLoop localSelectorLoop = selectorLoop;
+                    if (localSelectorLoop != null) {
+                        localSelectorLoop.updateMACAddress(sourceId, discoveredAddress);
                     }
-                    return;
+                    return false;
                 } else if (macAddress != null && macAddress.equals(discoveredAddress)) {
                     boolean newHost = host == null || !address.equals(host);
                     boolean newPort = unicastPort != (int) response.getPort();
@@ -214,35 +245,17 @@ public class LifxLightCommunicationHandler {
                             logger.warn("Light ({}) service with ID '{}' is currently not available", logId, service);
                             currentLightState.setOfflineByCommunicationError();
                         } else {
+                            // packets are sent to the new host on the shared unicast channel of the selector loop
                             this.host = new InetSocketAddress(address.getAddress(), unicastPort);
-
-                            try {
-                                cancelKey(unicastKey, logId);
-                                unicastKey = openUnicastChannel(selector, logId, host);
-
-                                LifxSelectorContext context = selectorContext;
-                                if (context != null) {
-                                    context.setHost(host);
-                                    context.setUnicastKey(unicastKey);
-                                }
-                            } catch (IOException e) {
-                                logger.warn("{} while opening the unicast channel of the light ({}): {}",
-                                        e.getClass().getSimpleName(), logId, e.getMessage());
-                                currentLightState.setOfflineByCommunicationError();
-                                return;
-                            }
-
                             currentLightState.setOnline();
                         }
                     }
                 }
             }
 
-            // Listeners are notified in a separate thread for better concurrency and to prevent deadlock.
-            scheduler.schedule(() -> {
-                responsePacketListeners.forEach(listener -> listener.handleResponsePacket(packet));
-            }, 0, TimeUnit.MILLISECONDS);
+            return true;
         }
+        return false;
     }
 
     public boolean isBroadcastEnabled() {
@@ -250,34 +263,32 @@ public class LifxLightCommunicationHandler {
     }
 
     public void broadcastPacket(Packet packet) {
-        wrappedPacketSend((s, p) -> LifxSelectorUtil.broadcastPacket(s, p), packet);
+        LifxSelectorLoop localSelectorLoop = selectorLoop;
+        if (localSelectorLoop != null) {
+            packet.setSource(sourceId);
+            packet.setSequence(sequenceNumberSupplier.get());
+            handleSendResult(localSelectorLoop.broadcastPacket(packet, logId));
+        }
     }
 
     public void sendPacket(Packet packet) {
-        if (host != null) {
-            wrappedPacketSend((s, p) -> LifxSelectorUtil.sendPacket(s, p), packet);
-        }
+        packet.setSequence(sequenceNumberSupplier.get());
+        resendPacket(packet);
     }
 
     public void resendPacket(Packet packet) {
-        if (host != null) {
-            wrappedPacketSend((s, p) -> LifxSelectorUtil.resendPacket(s, p), packet);
+        LifxSelectorLoop localSelectorLoop = selectorLoop;
+        InetSocketAddress localHost = host;
+        if (localSelectorLoop != null && localHost != null) {
+            packet.setSource(sourceId);
+            packet.setTarget(macAddress);
+            handleSendResult(localSelectorLoop.sendPacket(packet, localHost, logId));
         }
     }
 
-    private void wrappedPacketSend(BiFunction<LifxSelectorContext, Packet, Boolean> function, Packet packet) {
-        LifxSelectorContext localSelectorContext = selectorContext;
-        if (localSelectorContext != null) {
-            boolean result = false;
-            try {
-                lock.lock();
-                result = function.apply(localSelectorContext, packet);
-            } finally {
-                lock.unlock();
-                if (!result) {
-                    currentLightState.setOfflineByCommunicationError();
-                }
-            }
+    private void handleSendResult(boolean result) {
+        if (!result) {
+            currentLightState.setOfflineByCommunicationError();
         }
     }
 
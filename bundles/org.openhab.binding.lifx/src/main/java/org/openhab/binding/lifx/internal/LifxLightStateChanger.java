@@ -57,6 +57,10 @@ import org.slf4j.LoggerFactory;
  * light so the change the actual light state to that of the {@code pendingLightState}. When the light does not
  * acknowledge a packet, it resends it (max 3 times).
  *
+ * Packets are sent by a job that is only scheduled when a packet is due, i.e. when a new packet is pending or when the
+ * acknowledge interval of a sent packet elapses. Packets are not sent more often than once every
+ * {@link LifxBindingConstants#PACKET_INTERVAL} to the light.
+ *
  * @author Wouter Born - Extracted class from LifxLightHandler, added logic for handling packet loss
  */
 @NonNullByDefault
@@ -84,6 +88,9 @@ public class LifxLightStateChanger implements LifxLightStateListener {
     private final ReentrantLock lock = new ReentrantLock();
 
     private @Nullable ScheduledFuture<?> sendJob;
+    private long sendJobDeadline;
+    private long lastPacketSend;
+    private boolean started;
 
     private Map<Integer, @Nullable List<PendingPacket>> pendingPacketsMap = new ConcurrentHashMap<>();
 
@@ -101,6 +108,10 @@ public class LifxLightStateChanger implements LifxLightStateListener {
             long millisSinceLastSend = System.currentTimeMillis() - lastSend;
             return millisSinceLastSend > PACKET_ACKNOWLEDGE_INTERVAL;
         }
+
+        private long getDueTime() {
+            return sendCount == 0 ? 0 : lastSend + PACKET_ACKNOWLEDGE_INTERVAL + 1;
+        }
     }
 
     public LifxLightStateChanger(LifxLightContext context, LifxLightCommunicationHandler communicationHandler) {
@@ -115,9 +126,12 @@ public class LifxLightStateChanger implements LifxLightStateListener {
     private void sendPendingPackets() {
         try {
             lock.lock();
+            sendJob = null;
 
             removeFailedPackets();
-            PendingPacket pendingPacket = findPacketToSend();
+            // a job that was replaced while it was waiting for the lock must not exceed the packet rate
+            boolean packetIntervalElapsed = System.currentTimeMillis() - lastPacketSend >= PACKET_INTERVAL;
+            PendingPacket pendingPacket = packetIntervalElapsed ? findPacketToSend() : null;
 
             if (pendingPacket != null) {
                 Packet packet = pendingPacket.packet;
@@ -133,12 +147,50 @@ public class LifxLightStateChanger implements LifxLightStateListener {
                 }
                 pendingPacket.lastSend = System.currentTimeMillis();
                 pendingPacket.sendCount++;
+                lastPacketSend = pendingPacket.lastSend;
             }
         } catch (Exception e) {
             logger.error("Error occurred while sending packet", e);
         } finally {
-            lock.unlock();
+            try {
+                scheduleSendJob();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Schedules the send job at the time the next pending packet is due. Must be called while holding the lock.
+     */
+    private void scheduleSendJob() {
+        if (!started) {
+            return;
         }
+
+        long dueTime = Long.MAX_VALUE;
+        for (List<PendingPacket> pendingPackets : pendingPacketsMap.values()) {
+            if (pendingPackets != null) {
+                for (PendingPacket pendingPacket : pendingPackets) {
+                    dueTime = Math.min(dueTime, pendingPacket.getDueTime());
+                }
+            }
+        }
+        if (dueTime == Long.MAX_VALUE) {
+            return;
+        }
+        dueTime = Math.max(dueTime, lastPacketSend + PACKET_INTERVAL);
+
+        ScheduledFuture<?> localSendJob = sendJob;
+        if (localSendJob != null) {
+            if (sendJobDeadline <= dueTime) {
+                return;
+            }
+            localSendJob.cancel(false);
+        }
+        sendJobDeadline = dueTime;
+        sendJob = scheduler.schedule(this::sendPendingPackets, Math.max(0, dueTime - System.currentTimeMillis()),
+                TimeUnit.MILLISECONDS);
     }
 
     public void start() {
@@ -146,11 +198,8 @@ public class LifxLightStateChanger implements LifxLightStateListener {
             lock.lock();
             communicationHandler.addResponsePacketListener(this::handleResponsePacket);
             pendingLightState.addListener(this);
-            ScheduledFuture<?> localSendJob = sendJob;
-            if (localSendJob == null || localSendJob.isCancelled()) {
-                sendJob = scheduler.scheduleWithFixedDelay(this::sendPendingPackets, 0, PACKET_INTERVAL,
-                        TimeUnit.MILLISECONDS);
-            }
+            started = true;
+            scheduleSendJob();
         } catch (Exception e) {
             logger.error("Error occurred while starting send packets job", e);
         } finally {
@@ -163,6 +212,7 @@ public class LifxLightStateChanger implements LifxLightStateListener {
             lock.lock();
             communicationHandler.removeResponsePacketListener(this::handleResponsePacket);
             pendingLightState.removeListener(this);
+            started = false;
             ScheduledFuture<?> localSendJob = sendJob;
             if (localSendJob != null && !localSendJob.isCancelled()) {
                 localSendJob.cancel(true);
@@ -210,6 +260,7 @@ public class LifxLightStateChanger implements LifxLightStateListener {
             } else {
                 pendingPackets.addAll(newPendingPackets);
             }
+            scheduleSendJob();
         } finally {
             lock.unlock();
         }
@@ -222,6 +273,7 @@ public class LifxLightStateChanger implements LifxLightStateListener {
         try {
             lock.lock();
             pendingPacketsMap.put(packetType, pendingPackets);
+            scheduleSendJob();
         } finally {
             lock.unlock();
         }
@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.lifx.internal;
+
+import static org.openhab.binding.lifx.internal.util.LifxNetworkUtil.isRemoteAddress;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.lifx.internal.fields.MACAddress;
+import org.openhab.binding.lifx.internal.protocol.Packet;
+import org.openhab.binding.lifx.internal.util.LifxNetworkUtil;
+import org.openhab.binding.lifx.internal.util.LifxSelectorUtil;
+import org.openhab.binding.lifx.internal.util.LifxThrottlingUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link LifxSelectorLoop} is a single binding-wide thread that receives the packets of all lights.
+ *
+ * All lights share one broadcast and one unicast channel. The loop thread blocks in {@link Selector#select()} until a
+ * packet is received, so it does not wake up while the lights are idle. Received packets are demultiplexed by the
+ * source identifier of the light handler that sent the request. Packets without a source identifier are
+ * demultiplexed by the MAC address of the light. The consumers are called by the loop thread and must not block, so
+ * they hand the packets over to the thread of the light. Packets are sent by the calling threads, which are throttled
+ * per light by the {@link LifxThrottlingUtil}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class LifxSelectorLoop {
+
+    private static final int MIN_BUFFER_SIZE = 1500;
+
+    private static @Nullable LifxSelectorLoop instance;
+    private static int references;
+
+    private final Logger logger = LoggerFactory.getLogger(LifxSelectorLoop.class);
+
+    private final Selector selector;
+    private final DatagramChannel broadcastChannel;
+    private final DatagramChannel unicastChannel;
+    private final SelectionKey broadcastKey;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final Map<Long, Registration> sourceRegistrations = new ConcurrentHashMap<>();
+    private final Map<MACAddress, Registration> macRegistrations = new ConcurrentHashMap<>();
+
+    private static class Registration {
+        private final BiConsumer<Packet, InetSocketAddress> consumer;
+        private @Nullable MACAddress macAddress;
+
+        private Registration(BiConsumer<Packet, InetSocketAddress> consumer, @Nullable MACAddress macAddress) {
+            this.consumer = consumer;
+            this.macAddress = macAddress;
+        }
+    }
+
+    @SuppressWarnings("resource")
+    LifxSelectorLoop(int broadcastPort) throws IOException {
+        selector = Selector.open();
+        try {
+            broadcastChannel = DatagramChannel.open(StandardProtocolFamily.INET)
+                    .setOption(StandardSocketOptions.SO_REUSEADDR, true)
+                    .setOption(StandardSocketOptions.SO_BROADCAST, true);
+            broadcastChannel.configureBlocking(false);
+            broadcastChannel.bind(new InetSocketAddress(broadcastPort));
+            broadcastKey = broadcastChannel.register(selector, SelectionKey.OP_READ);
+
+            unicastChannel = DatagramChannel.open(StandardProtocolFamily.INET);
+            unicastChannel.configureBlocking(false);
+            unicastChannel.bind(new InetSocketAddress(0));
+            unicastChannel.register(selector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            LifxSelectorUtil.closeSelector(selector, "Selector loop");
+            throw e;
+        }
+
+        logger.debug("Started selector loop with broadcast port {} and unicast port {}",
+                broadcastChannel.socket().getLocalPort(), unicastChannel.socket().getLocalPort());
+
+        thread = new Thread(this::run, "OH-binding-lifx-selector");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the binding-wide selector loop and starts it, if it is not running.
+     *
+     * @return the selector loop, which has to be released with {@link #release()}
+     * @throws IOException if the channels of the loop can not be opened
+     */
+    public static synchronized LifxSelectorLoop acquire() throws IOException {
+        LifxSelectorLoop loop = instance;
+        if (loop == null) {
+            loop = new LifxSelectorLoop(LifxNetworkUtil.getNewBroadcastPort());
+            instance = loop;
+        }
+        references++;
+        return loop;
+    }
+
+    /**
+     * Releases the selector loop. The loop is stopped, when it is not used anymore.
+     */
+    public void release() {
+        synchronized (LifxSelectorLoop.class) {
+            if (instance != this || --references > 0) {
+                return;
+            }
+            instance = null;
+        }
+        stop();
+    }
+
+    void stop() {
+        running = false;
+        LifxSelectorUtil.closeSelector(selector, "Selector loop");
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.debug("Stopped selector loop");
+    }
+
+    /**
+     * Registers a consumer for the packets of a light.
+     *
+     * @param sourceId the source identifier used by the light handler for sending packets
+     * @param macAddress the MAC address of the light or null if it is not known yet
+     * @param consumer the consumer of the received packets, which is called by the loop thread and must not block
+     */
+    public void register(long sourceId, @Nullable MACAddress macAddress,
+            BiConsumer<Packet, InetSocketAddress> consumer) {
+        Registration registration = new Registration(consumer, macAddress);
+        sourceRegistrations.put(sourceId, registration);
+        if (macAddress != null) {
+            macRegistrations.put(macAddress, registration);
+        }
+    }
+
+    /**
+     * Updates the MAC address of a light, when it is discovered by the light handler.
+     */
+    public void updateMACAddress(long sourceId, MACAddress macAddress) {
+        Registration registration = sourceRegistrations.get(sourceId);
+        if (registration != null) {
+            MACAddress oldMacAddress = registration.macAddress;
+            if (oldMacAddress != null) {
+                macRegistrations.remove(oldMacAddress, registration);
+            }
+            registration.macAddress = macAddress;
+            macRegistrations.put(macAddress, registration);
+        }
+    }
+
+    public void unregister(long sourceId) {
+        Registration registration = sourceRegistrations.remove(sourceId);
+        if (registration != null) {
+            MACAddress macAddress = registration.macAddress;
+            if (macAddress != null) {
+                macRegistrations.remove(macAddress, registration);
+            }
+        }
+    }
+
+    /**
+     * Broadcasts a packet to all networks. The source and sequence number of the packet have to be set.
+     *
+     * @return true if the packet was sent on all networks
+     */
+    public boolean broadcastPacket(Packet packet, String logId) {
+        boolean success = true;
+        try {
+            LifxThrottlingUtil.lock();
+            for (InetSocketAddress address : LifxNetworkUtil.getBroadcastAddresses()) {
+                success = success && sendPacket(broadcastChannel, packet, address, logId);
+            }
+        } finally {
+            LifxThrottlingUtil.unlock();
+        }
+        return success;
+    }
+
+    /**
+     * Sends a packet to a light. The source, target and sequence number of the packet have to be set.
+     *
+     * @return true if the packet was sent
+     */
+    public boolean sendPacket(Packet packet, InetSocketAddress address, String logId) {
+        try {
+            LifxThrottlingUtil.lock(packet.getTarget());
+            return sendPacket(unicastChannel, packet, address, logId);
+        } finally {
+            LifxThrottlingUtil.unlock(packet.getTarget());
+        }
+    }
+
+    private boolean sendPacket(DatagramChannel channel, Packet packet, InetSocketAddress address, String logId) {
+        try {
+            if (logger.isTraceEnabled()) {
+                logger.trace(
+                        "{} : Sending packet type '{}' to '{}' for '{}' with sequence '{}' and source '{}'",
+                        new Object[] { logId, packet.getClass().getSimpleName(), address.toString(),
+                                packet.getTarget().getHex(), packet.getSequence(),
+                                Long.toString(packet.getSource(), 16) });
+            }
+            // a datagram is either sent completely or not at all, when the send buffer is full
+            return channel.send(packet.bytes(), address) > 0;
+        } catch (IOException e) {
+            logger.debug("{} while sending a packet to the light ({}): {}", e.getClass().getSimpleName(), logId,
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    private void run() {
+        ByteBuffer readBuffer = ByteBuffer.allocate(Math.max(MIN_BUFFER_SIZE, LifxNetworkUtil.getBufferSize()));
+        while (running) {
+            try {
+                selector.select();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (key.isValid() && key.isReadable()) {
+                        receivePackets(key, readBuffer);
+                    }
+                }
+            } catch (Exception e) {
+                if (running) {
+                    logger.debug("{} in selector loop: {}", e.getClass().getSimpleName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void receivePackets(SelectionKey key, ByteBuffer readBuffer) throws IOException {
+        DatagramChannel channel = (DatagramChannel) key.channel();
+        InetSocketAddress address;
+        readBuffer.clear();
+        while ((address = (InetSocketAddress) channel.receive(readBuffer)) != null) {
+            // broadcasts of this host are received too
+            if (key != broadcastKey || isRemoteAddress(address.getAddress())) {
+                try {
+                    LifxSelectorUtil.supplyParsedPacketToConsumer(readBuffer, address, this::dispatchPacket,
+                            "Selector loop");
+                } catch (RuntimeException e) {
+                    logger.debug("{} while handling a packet from '{}': {}", e.getClass().getSimpleName(), address,
+                            e.getMessage());
+                }
+            }
+            readBuffer.clear();
+        }
+    }
+
+    private void dispatchPacket(Packet packet, InetSocketAddress address) {
+        Registration registration = packet.getSource() != 0 ? sourceRegistrations.get(packet.getSource())
+                : macRegistrations.get(packet.getTarget());
+        if (registration != null) {
+            registration.consumer.accept(packet, address);
+        } else {
+            logger.trace("Ignoring packet type '{}' from '{}' with source '{}'", packet.getClass().getSimpleName(),
+                    address, Long.toString(packet.getSource(), 16));
+        }
+    }
+}
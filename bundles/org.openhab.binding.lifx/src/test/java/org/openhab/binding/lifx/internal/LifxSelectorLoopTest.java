@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.lifx.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.lifx.internal.fields.MACAddress;
+import org.openhab.binding.lifx.internal.protocol.AcknowledgementResponse;
+import org.openhab.binding.lifx.internal.protocol.GetServiceRequest;
+import org.openhab.binding.lifx.internal.protocol.Packet;
+import org.openhab.binding.lifx.internal.protocol.StateServiceResponse;
+
+/**
+ * Tests the {@link LifxSelectorLoop} with a simulated light that answers requests on the loopback interface.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class LifxSelectorLoopTest {
+
+    private static final int HEADER_LENGTH = 36;
+    private static final int LIGHT_PORT = 56700;
+    private static final long TIMEOUT = 2000;
+
+    private static final MACAddress MAC1 = new MACAddress("D073D5000001", true);
+    private static final MACAddress MAC2 = new MACAddress("D073D5000002", true);
+
+    private LifxSelectorLoop loop;
+    private DatagramChannel light;
+    private InetSocketAddress lightAddress;
+
+    @Before
+    public void setUp() throws IOException {
+        loop = new LifxSelectorLoop(0);
+        light = DatagramChannel.open();
+        light.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        lightAddress = (InetSocketAddress) light.getLocalAddress();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        loop.stop();
+        light.close();
+    }
+
+    /**
+     * Receives a request and answers with a state service response and an acknowledgement, like a light does.
+     *
+     * @param responseSource the source identifier of the responses, a light copies the one of the request
+     */
+    private void answerRequest(long responseSource) throws IOException {
+        ByteBuffer request = ByteBuffer.allocate(1500);
+        InetSocketAddress sender = (InetSocketAddress) light.receive(request);
+        assertNotNull(sender);
+        assertTrue(request.position() >= HEADER_LENGTH);
+        byte[] header = new byte[HEADER_LENGTH];
+        request.flip();
+        request.get(header);
+
+        ByteBuffer service = response(header, StateServiceResponse.TYPE, 5, responseSource);
+        service.put((byte) 1).putInt(LIGHT_PORT);
+        service.flip();
+        light.send(service, sender);
+
+        ByteBuffer ack = response(header, AcknowledgementResponse.TYPE, 0, responseSource);
+        ack.flip();
+        light.send(ack, sender);
+    }
+
+    private static ByteBuffer response(byte[] requestHeader, int type, int payloadLength, long source) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + payloadLength).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(requestHeader);
+        buffer.putShort(0, (short) (HEADER_LENGTH + payloadLength));
+        buffer.putInt(4, (int) source);
+        buffer.putShort(32, (short) type);
+        return buffer;
+    }
+
+    private Packet sendRequest(long source, MACAddress target, int sequence) {
+        Packet packet = new GetServiceRequest();
+        packet.setSource(source);
+        packet.setTarget(target);
+        packet.setSequence(sequence);
+        assertTrue(loop.sendPacket(packet, lightAddress, target.getHex()));
+        return packet;
+    }
+
+    private static Packet poll(BlockingQueue<Packet> queue) throws InterruptedException {
+        Packet packet = queue.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertNotNull("No packet received", packet);
+        return packet;
+    }
+
+    @Test
+    public void responsesAreRoutedBySource() throws Exception {
+        BlockingQueue<Packet> light1Packets = new LinkedBlockingQueue<>();
+        BlockingQueue<Packet> light2Packets = new LinkedBlockingQueue<>();
+        loop.register(0x1111, MAC1, (packet, address) -> light1Packets.add(packet));
+        loop.register(0x2222, MAC2, (packet, address) -> light2Packets.add(packet));
+
+        sendRequest(0x2222, MAC2, 7);
+        answerRequest(0x2222);
+
+        Packet service = poll(light2Packets);
+        assertTrue(service instanceof StateServiceResponse);
+        assertEquals(LIGHT_PORT, ((StateServiceResponse) service).getPort());
+        assertEquals(MAC2, service.getTarget());
+
+        Packet ack = poll(light2Packets);
+        assertTrue(ack instanceof AcknowledgementResponse);
+        assertEquals(7, ack.getSequence());
+        assertTrue(light1Packets.isEmpty());
+    }
+
+    @Test
+    public void responsesWithoutSourceAreRoutedByMACAddress() throws Exception {
+        BlockingQueue<Packet> light1Packets = new LinkedBlockingQueue<>();
+        BlockingQueue<Packet> light2Packets = new LinkedBlockingQueue<>();
+        loop.register(0x1111, null, (packet, address) -> light1Packets.add(packet));
+        loop.register(0x2222, MAC2, (packet, address) -> light2Packets.add(packet));
+        loop.updateMACAddress(0x1111, MAC1);
+
+        sendRequest(0x1111, MAC1, 3);
+        answerRequest(0);
+
+        assertTrue(poll(light1Packets) instanceof StateServiceResponse);
+        assertEquals(3, poll(light1Packets).getSequence());
+        assertTrue(light2Packets.isEmpty());
+    }
+
+    @Test
+    public void unregisteredLightsDoNotReceivePackets() throws Exception {
+        BlockingQueue<Packet> light1Packets = new LinkedBlockingQueue<>();
+        BlockingQueue<Packet> light2Packets = new LinkedBlockingQueue<>();
+        loop.register(0x1111, MAC1, (packet, address) -> light1Packets.add(packet));
+        loop.register(0x2222, MAC2, (packet, address) -> light2Packets.add(packet));
+        loop.unregister(0x1111);
+
+        sendRequest(0x1111, MAC1, 1);
+        answerRequest(0x1111);
+        sendRequest(0x2222, MAC2, 2);
+        answerRequest(0x2222);
+
+        // the packets of the second light are received after the ignored packets of the first light
+        poll(light2Packets);
+        assertEquals(2, poll(light2Packets).getSequence());
+        assertTrue(light1Packets.isEmpty());
+    }
+}
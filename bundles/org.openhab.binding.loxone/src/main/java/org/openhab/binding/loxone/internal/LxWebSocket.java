@@ -18,8 +18,6 @@ import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.InetAddress;
 import java.net.URL;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -235,27 +233,17 @@ public class LxWebSocket {
             } else {
                 // data expected now
                 switch (header.getType()) {
-                    case EVENT_TABLE_OF_VALUE_STATES:
+                    case EVENT_TABLE_OF_VALUE_STATES: {
                         stopResponseTimeout();
-                        while (length > 0) {
-                            Double value = ByteBuffer.wrap(data, offset + 16, 8).order(ByteOrder.LITTLE_ENDIAN)
-                                    .getDouble();
-                            thingHandler.updateStateValue(new LxUuid(data, offset), value);
-                            offset += 24;
-                            length -= 24;
-                        }
+                        int events = thingHandler.updateValueStates(data, offset, length);
+                        logger.trace("[{}] Processed {} value state events", debugId, events);
                         break;
-                    case EVENT_TABLE_OF_TEXT_STATES:
-                        while (length > 0) {
-                            // unused today at (offset + 16): iconUuid
-                            int textLen = ByteBuffer.wrap(data, offset + 32, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
-                            String value = new String(data, offset + 36, textLen);
-                            int size = 36 + (textLen % 4 > 0 ? textLen + 4 - (textLen % 4) : textLen);
-                            thingHandler.updateStateValue(new LxUuid(data, offset), value);
-                            offset += size;
-                            length -= size;
-                        }
+                    }
+                    case EVENT_TABLE_OF_TEXT_STATES: {
+                        int events = thingHandler.updateTextStates(data, offset, length);
+                        logger.trace("[{}] Processed {} text state events", debugId, events);
                         break;
+                    }
                     case KEEPALIVE_RESPONSE:
                     case TEXT_MESSAGE:
                     default:
@@ -58,20 +58,46 @@ public class LxState {
         return uuid;
     }
 
+    /**
+     * Gets the control to which this state belongs
+     *
+     * @return state's control
+     */
+    public LxControl getControl() {
+        return control;
+    }
+
     /**
      * Sets current value of the control's state
      *
      * @param value current state's value to set
      */
     public void setStateValue(Object value) {
-        logger.debug("State set ({},{}) control ({},{}) value={}", uuid, name, control.getUuid(), control.getName(),
-                value);
+        if (logger.isDebugEnabled()) {
+            logger.debug("State set ({},{}) control ({},{}) value={}", uuid, name, control.getUuid(),
+                    control.getName(), value);
+        }
         if (value != null && !value.equals(this.stateValue)) {
             this.stateValue = value;
             control.onStateChange(this);
         }
     }
 
+    /**
+     * Sets current numeric value of the control's state. The value is boxed only if it differs from the current
+     * value, so repeated updates with an unchanged value do not create any objects.
+     *
+     * @param value current state's value to set
+     */
+    public void setStateValue(double value) {
+        Object current = this.stateValue;
+        if (current instanceof Double
+                && Double.doubleToLongBits((Double) current) == Double.doubleToLongBits(value)) {
+            return;
+        }
+        setStateValue(Double.valueOf(value));
+    }
+
     /**
      * Gets current value of the control's state
      *
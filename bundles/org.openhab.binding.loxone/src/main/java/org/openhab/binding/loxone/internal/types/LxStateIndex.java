@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal.types;
+
+import java.util.Arrays;
+
+/**
+ * An index of control states ({@link LxState}) by the binary representation of their UUID.
+ * <p>
+ * State with a unique UUID can be configured in many controls and each control can even have a different name of the
+ * state. The index returns all states with the same UUID, so the updates received for this UUID can be passed to all
+ * controls that have it configured.
+ * <p>
+ * The index is an open addressing hash table with linear probing, keyed by the two longs of the UUID. This allows a
+ * lookup directly with the values read from a binary event table, without creating any {@link LxUuid} objects.
+ * Arrays of states returned by the index are never modified, adding or removing a state replaces the array.
+ *
+ * @author openHAB Contributors - Initial contribution
+ *
+ */
+public class LxStateIndex {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private long[] msbs;
+    private long[] lsbs;
+    private LxState[][] states;
+    private int size;
+
+    /**
+     * Create an empty index
+     */
+    public LxStateIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Add a state to the index. A state of the same control with the same UUID is replaced. States with UUIDs without a
+     * binary representation are not indexed, as they are never received in event tables.
+     *
+     * @param state state to add
+     */
+    public void add(LxState state) {
+        LxUuid uuid = state.getUuid();
+        if (uuid == null || !uuid.isBinary()) {
+            return;
+        }
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        int slot = find(msb, lsb);
+        LxState[] existing = states[slot];
+        if (existing == null) {
+            msbs[slot] = msb;
+            lsbs[slot] = lsb;
+            states[slot] = new LxState[] { state };
+            if (++size * 2 > states.length) {
+                rehash(states.length * 2);
+            }
+            return;
+        }
+        LxUuid controlUuid = state.getControl().getUuid();
+        for (int i = 0; i < existing.length; i++) {
+            if (existing[i].getControl().getUuid().equals(controlUuid)) {
+                LxState[] replaced = existing.clone();
+                replaced[i] = state;
+                states[slot] = replaced;
+                return;
+            }
+        }
+        LxState[] extended = Arrays.copyOf(existing, existing.length + 1);
+        extended[existing.length] = state;
+        states[slot] = extended;
+    }
+
+    /**
+     * Remove a state from the index
+     *
+     * @param state state to remove
+     */
+    public void remove(LxState state) {
+        LxUuid uuid = state.getUuid();
+        if (uuid == null || !uuid.isBinary()) {
+            return;
+        }
+        int slot = find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        LxState[] existing = states[slot];
+        if (existing == null) {
+            return;
+        }
+        LxUuid controlUuid = state.getControl().getUuid();
+        for (int i = 0; i < existing.length; i++) {
+            if (existing[i].getControl().getUuid().equals(controlUuid)) {
+                if (existing.length == 1) {
+                    delete(slot);
+                } else {
+                    LxState[] reduced = new LxState[existing.length - 1];
+                    System.arraycopy(existing, 0, reduced, 0, i);
+                    System.arraycopy(existing, i + 1, reduced, i, existing.length - i - 1);
+                    states[slot] = reduced;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get all states with a UUID
+     *
+     * @param msb most significant bits of the UUID
+     * @param lsb least significant bits of the UUID
+     * @return states with this UUID or null if there is none, the returned array must not be modified
+     */
+    public LxState[] get(long msb, long lsb) {
+        return states[find(msb, lsb)];
+    }
+
+    /**
+     * Get all states with a UUID
+     *
+     * @param uuid UUID of the state
+     * @return states with this UUID or null if there is none, the returned array must not be modified
+     */
+    public LxState[] get(LxUuid uuid) {
+        if (!uuid.isBinary()) {
+            return null;
+        }
+        return get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Get number of different UUIDs in the index
+     *
+     * @return number of UUIDs
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all states from the index
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        msbs = new long[capacity];
+        lsbs = new long[capacity];
+        states = new LxState[capacity][];
+        size = 0;
+    }
+
+    private int slot(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h & (states.length - 1);
+    }
+
+    /**
+     * Find the slot of a UUID, which is either the slot with this UUID or the empty slot where it can be inserted.
+     */
+    private int find(long msb, long lsb) {
+        int mask = states.length - 1;
+        int slot = slot(msb, lsb);
+        while (states[slot] != null && (msbs[slot] != msb || lsbs[slot] != lsb)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Delete a slot and shift back the following entries of the probe sequence to keep them reachable.
+     */
+    private void delete(int slot) {
+        int mask = states.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (states[next] != null) {
+            int home = slot(msbs[next], lsbs[next]);
+            // an entry can fill the hole, if its home slot is not cyclically between the hole and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                msbs[hole] = msbs[next];
+                lsbs[hole] = lsbs[next];
+                states[hole] = states[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        states[hole] = null;
+        msbs[hole] = 0;
+        lsbs[hole] = 0;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldMsbs = msbs;
+        long[] oldLsbs = lsbs;
+        LxState[][] oldStates = states;
+        int oldSize = size;
+        allocate(capacity);
+        for (int i = 0; i < oldStates.length; i++) {
+            if (oldStates[i] != null) {
+                int slot = find(oldMsbs[i], oldLsbs[i]);
+                msbs[slot] = oldMsbs[i];
+                lsbs[slot] = oldLsbs[i];
+                states[slot] = oldStates[i];
+            }
+        }
+        size = oldSize;
+    }
+}
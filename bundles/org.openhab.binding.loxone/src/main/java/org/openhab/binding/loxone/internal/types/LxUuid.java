@@ -13,8 +13,6 @@
 package org.openhab.binding.loxone.internal.types;
 
 import java.lang.reflect.Type;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -33,6 +31,10 @@ import com.google.gson.JsonParseException;
 public class LxUuid {
     private final String uuid;
     private final String uuidOriginal;
+    // binary representation of the UUID, as sent by the Miniserver in event tables
+    private final long msb;
+    private final long lsb;
+    private final boolean binary;
 
     public static final JsonDeserializer<LxUuid> DESERIALIZER = new JsonDeserializer<LxUuid>() {
         @Override
@@ -54,17 +56,54 @@ public class LxUuid {
     public LxUuid(String uuid) {
         uuidOriginal = uuid;
         this.uuid = init(uuid);
+        // UUIDs of states are in format 0f1e4a1f-0305-1f5b-ffff403fb0c34b9e, other objects may have a suffix
+        boolean binary = false;
+        long msb = 0;
+        long lsb = 0;
+        if (uuid.length() == 35 && uuid.charAt(8) == '-' && uuid.charAt(13) == '-' && uuid.charAt(18) == '-') {
+            try {
+                msb = Long.parseLong(uuid.substring(0, 8), 16) << 32 | Long.parseLong(uuid.substring(9, 13), 16) << 16
+                        | Long.parseLong(uuid.substring(14, 18), 16);
+                lsb = Long.parseUnsignedLong(uuid.substring(19), 16);
+                binary = true;
+            } catch (NumberFormatException e) {
+                msb = 0;
+                lsb = 0;
+            }
+        }
+        this.msb = msb;
+        this.lsb = lsb;
+        this.binary = binary;
     }
 
-    public LxUuid(byte data[], int offset) {
-        String id = String.format("%08x-%04x-%04x-%02x%02x%02x%02x%02x%02x%02x%02x",
-                ByteBuffer.wrap(data, offset, 4).order(ByteOrder.LITTLE_ENDIAN).getInt(),
-                ByteBuffer.wrap(data, offset + 4, 2).order(ByteOrder.LITTLE_ENDIAN).getShort(),
-                ByteBuffer.wrap(data, offset + 6, 2).order(ByteOrder.LITTLE_ENDIAN).getShort(), data[offset + 8],
-                data[offset + 9], data[offset + 10], data[offset + 11], data[offset + 12], data[offset + 13],
-                data[offset + 14], data[offset + 15]);
-        uuidOriginal = id;
-        this.uuid = init(id);
+    /**
+     * Reads the most significant bits of an UUID in a binary message. The first three fields of the UUID are
+     * transmitted in little endian byte order.
+     *
+     * @param data   buffer with the received message
+     * @param offset offset of the UUID in the buffer
+     * @return first 64 bits of the UUID
+     */
+    public static long getMostSignificantBits(byte data[], int offset) {
+        return (data[offset + 3] & 0xFFL) << 56 | (data[offset + 2] & 0xFFL) << 48 | (data[offset + 1] & 0xFFL) << 40
+                | (data[offset] & 0xFFL) << 32 | (data[offset + 5] & 0xFFL) << 24 | (data[offset + 4] & 0xFFL) << 16
+                | (data[offset + 7] & 0xFFL) << 8 | (data[offset + 6] & 0xFFL);
+    }
+
+    /**
+     * Reads the least significant bits of an UUID in a binary message. The last field of the UUID is transmitted as a
+     * sequence of bytes.
+     *
+     * @param data   buffer with the received message
+     * @param offset offset of the UUID in the buffer
+     * @return last 64 bits of the UUID
+     */
+    public static long getLeastSignificantBits(byte data[], int offset) {
+        long lsb = 0;
+        for (int i = offset + 8; i < offset + 16; i++) {
+            lsb = lsb << 8 | (data[i] & 0xFFL);
+        }
+        return lsb;
     }
 
     private String init(String uuid) {
@@ -96,6 +135,33 @@ public class LxUuid {
         return uuid;
     }
 
+    /**
+     * Checks if the UUID has a binary representation, which is the case for all UUIDs used in event tables.
+     *
+     * @return true if the UUID can be received in binary form
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * Returns the most significant bits of the binary representation.
+     *
+     * @return first 64 bits of the UUID or 0 if the UUID has no binary representation
+     */
+    public long getMostSignificantBits() {
+        return msb;
+    }
+
+    /**
+     * Returns the least significant bits of the binary representation.
+     *
+     * @return last 64 bits of the UUID or 0 if the UUID has no binary representation
+     */
+    public long getLeastSignificantBits() {
+        return lsb;
+    }
+
     /**
      * Returns an original string that was used to create UUID.
      *
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal.types;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decoder of event tables received from Loxone Miniserver on a websocket connection.
+ * <p>
+ * The Miniserver sends a table with values of all states after updates are enabled and tables with changed states
+ * afterwards. Events are decoded in place in the received buffer and the state UUIDs are looked up in a
+ * {@link LxStateIndex} by their binary representation. Numeric values equal to the current state value are skipped
+ * without creating any objects.
+ *
+ * @author openHAB Contributors - Initial contribution
+ *
+ */
+public class LxWsEventTable {
+    private static final int UUID_SIZE = 16;
+    private static final int VALUE_EVENT_SIZE = UUID_SIZE + 8;
+    private static final int TEXT_EVENT_HEADER_SIZE = UUID_SIZE + UUID_SIZE + 4;
+
+    private LxWsEventTable() {
+    }
+
+    /**
+     * Decode an event table of value states and update the states in the index. Each event consists of a state UUID
+     * and a little endian double value.
+     *
+     * @param index  index of states to update
+     * @param data   buffer with the received message
+     * @param offset offset of the event table in the buffer
+     * @param length length of the event table
+     * @return number of events in the table
+     * @throws IndexOutOfBoundsException if the event table is malformed
+     */
+    public static int updateValueStates(LxStateIndex index, byte[] data, int offset, int length)
+            throws IndexOutOfBoundsException {
+        int events = 0;
+        int end = offset + length;
+        for (int pos = offset; pos + VALUE_EVENT_SIZE <= end; pos += VALUE_EVENT_SIZE) {
+            events++;
+            LxState[] states = index.get(LxUuid.getMostSignificantBits(data, pos),
+                    LxUuid.getLeastSignificantBits(data, pos));
+            if (states != null) {
+                double value = Double.longBitsToDouble(readLittleEndianLong(data, pos + UUID_SIZE));
+                for (LxState state : states) {
+                    state.setStateValue(value);
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Decode an event table of text states and update the states in the index. Each event consists of a state UUID,
+     * an icon UUID, a little endian text length and the text padded to a multiple of four bytes.
+     *
+     * @param index  index of states to update
+     * @param data   buffer with the received message
+     * @param offset offset of the event table in the buffer
+     * @param length length of the event table
+     * @return number of events in the table
+     * @throws IndexOutOfBoundsException if the event table is malformed
+     */
+    public static int updateTextStates(LxStateIndex index, byte[] data, int offset, int length)
+            throws IndexOutOfBoundsException {
+        int events = 0;
+        int end = offset + length;
+        int pos = offset;
+        while (pos + TEXT_EVENT_HEADER_SIZE <= end) {
+            events++;
+            // unused today at (pos + 16): iconUuid
+            int textLen = readLittleEndianInt(data, pos + UUID_SIZE + UUID_SIZE);
+            if (textLen < 0 || pos + TEXT_EVENT_HEADER_SIZE + textLen > end) {
+                throw new IndexOutOfBoundsException("Text state length " + textLen + " exceeds event table");
+            }
+            LxState[] states = index.get(LxUuid.getMostSignificantBits(data, pos),
+                    LxUuid.getLeastSignificantBits(data, pos));
+            if (states != null) {
+                String value = new String(data, pos + TEXT_EVENT_HEADER_SIZE, textLen, StandardCharsets.UTF_8);
+                for (LxState state : states) {
+                    state.setStateValue(value);
+                }
+            }
+            pos += TEXT_EVENT_HEADER_SIZE + ((textLen + 3) & ~3);
+        }
+        return events;
+    }
+
+    private static int readLittleEndianInt(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | (data[offset + 1] & 0xFF) << 8 | (data[offset + 2] & 0xFF) << 16
+                | (data[offset + 3] & 0xFF) << 24;
+    }
+
+    private static long readLittleEndianLong(byte[] data, int offset) {
+        return (readLittleEndianInt(data, offset) & 0xFFFFFFFFL)
+                | (long) readLittleEndianInt(data, offset + 4) << 32;
+    }
+}
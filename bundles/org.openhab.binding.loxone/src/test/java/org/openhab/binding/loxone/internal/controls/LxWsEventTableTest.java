@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal.controls;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.loxone.internal.types.LxState;
+import org.openhab.binding.loxone.internal.types.LxStateIndex;
+import org.openhab.binding.loxone.internal.types.LxUuid;
+import org.openhab.binding.loxone.internal.types.LxWsEventTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test class for {@link LxWsEventTable} and {@link LxStateIndex}
+ * <p>
+ * Event tables are built from all states of the test Miniserver configuration and replayed the same way the
+ * Miniserver sends them: a table with all values after connecting and tables with the same or changed values
+ * afterwards.
+ *
+ * @author openHAB Contributors - Initial contribution
+ *
+ */
+public class LxWsEventTableTest {
+    private static final int REPLAYS = 2000;
+
+    private final Logger logger = LoggerFactory.getLogger(LxWsEventTableTest.class);
+
+    private List<LxState> states;
+    private List<LxUuid> uuids;
+    private LxStateIndex index;
+
+    @Before
+    public void setup() {
+        LxServerHandlerDummy handler = new LxServerHandlerDummy();
+        handler.loadConfiguration();
+        states = new ArrayList<>();
+        handler.controls.values().forEach(control -> addStates(control));
+
+        Set<LxUuid> unique = new LinkedHashSet<>();
+        index = new LxStateIndex();
+        states.forEach(state -> {
+            index.add(state);
+            if (state.getUuid().isBinary()) {
+                unique.add(state.getUuid());
+            }
+        });
+        uuids = new ArrayList<>(unique);
+        assertFalse(uuids.isEmpty());
+        assertEquals(uuids.size(), index.size());
+    }
+
+    private void addStates(LxControl control) {
+        states.addAll(control.getStates().values());
+        control.getSubControls().values().forEach(subControl -> addStates(subControl));
+    }
+
+    private static void putUuid(ByteBuffer buffer, LxUuid uuid) {
+        long msb = uuid.getMostSignificantBits();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt((int) (msb >>> 32)).putShort((short) (msb >>> 16)).putShort((short) msb);
+        buffer.order(ByteOrder.BIG_ENDIAN).putLong(uuid.getLeastSignificantBits());
+    }
+
+    private byte[] valueTable(double value) {
+        ByteBuffer buffer = ByteBuffer.allocate(uuids.size() * 24);
+        uuids.forEach(uuid -> {
+            putUuid(buffer, uuid);
+            buffer.order(ByteOrder.LITTLE_ENDIAN).putDouble(value);
+        });
+        return buffer.array();
+    }
+
+    private static byte[] textTable(LxUuid[] uuids, String[] texts) {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        for (int i = 0; i < uuids.length; i++) {
+            byte[] text = texts[i].getBytes(StandardCharsets.UTF_8);
+            putUuid(buffer, uuids[i]);
+            putUuid(buffer, uuids[i]);
+            buffer.order(ByteOrder.LITTLE_ENDIAN).putInt(text.length).put(text);
+            while (buffer.position() % 4 != 0) {
+                buffer.put((byte) 0);
+            }
+        }
+        byte[] table = new byte[buffer.position()];
+        buffer.rewind();
+        buffer.get(table);
+        return table;
+    }
+
+    private LxState stateOf(LxUuid uuid) {
+        LxState[] found = index.get(uuid);
+        assertNotNull(found);
+        return found[0];
+    }
+
+    @Test
+    public void testBinaryUuid() {
+        LxUuid uuid = new LxUuid("0b734138-03ac-03f0-ffff403fb0c34b9e");
+        byte[] data = new byte[] { 0x38, 0x41, 0x73, 0x0b, (byte) 0xac, 0x03, (byte) 0xf0, 0x03, (byte) 0xff,
+                (byte) 0xff, 0x40, 0x3f, (byte) 0xb0, (byte) 0xc3, 0x4b, (byte) 0x9e };
+        assertTrue(uuid.isBinary());
+        assertEquals(uuid.getMostSignificantBits(), LxUuid.getMostSignificantBits(data, 0));
+        assertEquals(uuid.getLeastSignificantBits(), LxUuid.getLeastSignificantBits(data, 0));
+        assertFalse(new LxUuid("1076668f-0101-7076-ffff403fb0c34b9e-M1").isBinary());
+    }
+
+    @Test
+    public void testValueTable() {
+        byte[] table = valueTable(1.0);
+        assertEquals(uuids.size(), LxWsEventTable.updateValueStates(index, table, 0, table.length));
+        states.stream().filter(state -> state.getUuid().isBinary())
+                .forEach(state -> assertEquals(1.0, state.getStateValue()));
+
+        // unchanged values must not be set again
+        List<Object> values = new ArrayList<>();
+        uuids.forEach(uuid -> values.add(stateOf(uuid).getStateValue()));
+        LxWsEventTable.updateValueStates(index, table, 0, table.length);
+        for (int i = 0; i < uuids.size(); i++) {
+            assertSame(values.get(i), stateOf(uuids.get(i)).getStateValue());
+        }
+
+        table = valueTable(2.5);
+        LxWsEventTable.updateValueStates(index, table, 0, table.length);
+        uuids.forEach(uuid -> assertEquals(2.5, stateOf(uuid).getStateValue()));
+    }
+
+    @Test
+    public void testTextTable() {
+        LxUuid[] textUuids = new LxUuid[] { uuids.get(0), uuids.get(1) };
+        byte[] table = textTable(textUuids, new String[] { "Text", "Longer text" });
+        assertEquals(2, LxWsEventTable.updateTextStates(index, table, 0, table.length));
+        assertEquals("Text", stateOf(textUuids[0]).getStateValue());
+        assertEquals("Longer text", stateOf(textUuids[1]).getStateValue());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testMalformedTextTable() {
+        byte[] table = textTable(new LxUuid[] { uuids.get(0) }, new String[] { "Text" });
+        LxWsEventTable.updateTextStates(index, table, 0, table.length - 4);
+    }
+
+    @Test
+    public void testIndexRemove() {
+        // remove states of every second UUID to shift entries in the probe sequences
+        for (int i = 0; i < uuids.size(); i += 2) {
+            LxUuid uuid = uuids.get(i);
+            states.stream().filter(state -> uuid.equals(state.getUuid())).forEach(state -> index.remove(state));
+            assertNull(index.get(uuid));
+        }
+        for (int i = 1; i < uuids.size(); i += 2) {
+            LxUuid uuid = uuids.get(i);
+            LxState[] found = index.get(uuid);
+            assertNotNull(found);
+            assertTrue(Arrays.stream(found).allMatch(state -> uuid.equals(state.getUuid())));
+        }
+        states.forEach(state -> index.remove(state));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testReplay() {
+        byte[][] tables = new byte[][] { valueTable(0.0), valueTable(0.0), valueTable(1.0), valueTable(1.0) };
+        for (byte[] table : tables) {
+            LxWsEventTable.updateValueStates(index, table, 0, table.length);
+        }
+
+        long start = System.nanoTime();
+        long events = 0;
+        for (int i = 0; i < REPLAYS; i++) {
+            byte[] table = tables[i % tables.length];
+            events += LxWsEventTable.updateValueStates(index, table, 0, table.length);
+        }
+        long duration = System.nanoTime() - start;
+
+        assertEquals((long) REPLAYS * uuids.size(), events);
+        logger.debug("Replayed {} events of {} states in {} ms, {} ns per event", events, uuids.size(),
+                TimeUnit.NANOSECONDS.toMillis(duration), duration / events);
+    }
+}
@@ -13,80 +13,111 @@
 package org.openhab.binding.miio.internal;
 
 import java.io.UnsupportedEncodingException;
-import java.security.InvalidAlgorithmParameterException;
-import java.security.InvalidKeyException;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
-import javax.crypto.IllegalBlockSizeException;
-import javax.crypto.NoSuchPaddingException;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
 /**
  * The {@link MiIoCrypto} is responsible for creating Xiaomi messages.
+ * <p>
+ * The key and initialization vector derived from a token are cached, and the digest and cipher instances are reused
+ * per thread, as they are needed for every message sent to or received from a device.
  *
  * @author Marcel Verpaalen - Initial contribution
  */
 public class MiIoCrypto {
 
-    public static byte[] md5(byte[] source) throws MiIoCryptoException {
-        try {
-            MessageDigest m = MessageDigest.getInstance("MD5");
-            return m.digest(source);
-        } catch (NoSuchAlgorithmException e) {
-            throw new MiIoCryptoException(e.getMessage());
+    private static final Map<String, TokenKey> TOKEN_KEYS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<MessageDigest> MD5_DIGESTS = new ThreadLocal<>();
+    private static final ThreadLocal<Cipher> AES_CIPHERS = new ThreadLocal<>();
+
+    private static class TokenKey {
+        private final SecretKeySpec key;
+        private final IvParameterSpec iv;
+
+        private TokenKey(byte[] key, byte[] iv) {
+            this.key = new SecretKeySpec(key, "AES");
+            this.iv = new IvParameterSpec(iv);
+        }
+    }
+
+    private static MessageDigest md5Digest() throws MiIoCryptoException {
+        MessageDigest digest = MD5_DIGESTS.get();
+        if (digest == null) {
+            try {
+                digest = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new MiIoCryptoException(e.getMessage());
+            }
+            MD5_DIGESTS.set(digest);
         }
+        return digest;
+    }
+
+    private static Cipher aesCipher() throws GeneralSecurityException {
+        Cipher cipher = AES_CIPHERS.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+            AES_CIPHERS.set(cipher);
+        }
+        return cipher;
+    }
+
+    private static TokenKey tokenKey(byte[] token) throws MiIoCryptoException {
+        String hex = Utils.getHex(token);
+        TokenKey tokenKey = TOKEN_KEYS.get(hex);
+        if (tokenKey == null) {
+            tokenKey = new TokenKey(md5(token), iv(token));
+            TOKEN_KEYS.put(hex, tokenKey);
+        }
+        return tokenKey;
+    }
+
+    public static byte[] md5(byte[] source) throws MiIoCryptoException {
+        return md5Digest().digest(source);
     }
 
     public static byte[] iv(byte[] token) throws MiIoCryptoException {
+        MessageDigest m = md5Digest();
+        byte[] ivbuf = new byte[32];
+        System.arraycopy(m.digest(token), 0, ivbuf, 0, 16);
+        System.arraycopy(token, 0, ivbuf, 16, 16);
+        return m.digest(ivbuf);
+    }
+
+    private static byte[] doFinal(int mode, byte[] text, SecretKeySpec keySpec, IvParameterSpec vector)
+            throws MiIoCryptoException {
         try {
-            MessageDigest m = MessageDigest.getInstance("MD5");
-            byte[] ivbuf = new byte[32];
-            System.arraycopy(m.digest(token), 0, ivbuf, 0, 16);
-            System.arraycopy(token, 0, ivbuf, 16, 16);
-            return m.digest(ivbuf);
-        } catch (NoSuchAlgorithmException e) {
+            Cipher cipher = aesCipher();
+            cipher.init(mode, keySpec, vector);
+            return cipher.doFinal(text);
+        } catch (GeneralSecurityException e) {
             throw new MiIoCryptoException(e.getMessage());
         }
     }
 
     public static byte[] encrypt(byte[] cipherText, byte[] key, byte[] iv) throws MiIoCryptoException {
-        try {
-            IvParameterSpec vector = new IvParameterSpec(iv);
-            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-            SecretKeySpec keySpec = new SecretKeySpec(key, "AES");
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec, vector);
-            byte[] encrypted = cipher.doFinal(cipherText);
-            return encrypted;
-        } catch (InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException
-                | InvalidAlgorithmParameterException | IllegalBlockSizeException | BadPaddingException e) {
-            throw new MiIoCryptoException(e.getMessage());
-        }
+        return doFinal(Cipher.ENCRYPT_MODE, cipherText, new SecretKeySpec(key, "AES"), new IvParameterSpec(iv));
     }
 
     public static byte[] encrypt(byte[] text, byte[] token) throws MiIoCryptoException {
-        return encrypt(text, md5(token), iv(token));
+        TokenKey tokenKey = tokenKey(token);
+        return doFinal(Cipher.ENCRYPT_MODE, text, tokenKey.key, tokenKey.iv);
     }
 
     public static byte[] decrypt(byte[] cipherText, byte[] key, byte[] iv) throws MiIoCryptoException {
-        try {
-            IvParameterSpec vector = new IvParameterSpec(iv);
-            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-            SecretKeySpec keySpec = new SecretKeySpec(key, "AES");
-            cipher.init(Cipher.DECRYPT_MODE, keySpec, vector);
-            byte[] crypted = cipher.doFinal(cipherText);
-            return (crypted);
-        } catch (InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException
-                | InvalidAlgorithmParameterException | IllegalBlockSizeException | BadPaddingException e) {
-            throw new MiIoCryptoException(e.getMessage());
-        }
+        return doFinal(Cipher.DECRYPT_MODE, cipherText, new SecretKeySpec(key, "AES"), new IvParameterSpec(iv));
     }
 
     public static byte[] decrypt(byte[] cipherText, byte[] token) throws MiIoCryptoException {
-        return decrypt(cipherText, md5(token), iv(token));
+        TokenKey tokenKey = tokenKey(token);
+        return doFinal(Cipher.DECRYPT_MODE, cipherText, tokenKey.key, tokenKey.iv);
     }
 
     public static String decryptToken(byte[] cipherText) throws MiIoCryptoException {
@@ -101,8 +132,7 @@ public class MiIoCrypto {
             } catch (UnsupportedEncodingException e) {
                 return new String(decrypted).trim();
             }
-        } catch (InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException | IllegalBlockSizeException
-                | BadPaddingException e) {
+        } catch (GeneralSecurityException e) {
             throw new MiIoCryptoException(e.getMessage());
         }
     }
@@ -301,6 +301,8 @@ public abstract class MiIoAbstractHandler extends BaseThingHandler implements Mi
                     miioCom.registerListener(this);
                     return miioCom;
                 }
+                // the connection is not kept, so it must not stay registered at the transport
+                miioCom.close();
             }
             logger.debug("Ping response from device {} at {} FAILED", configuration.deviceId, configuration.host);
             disconnectedNoResponse();
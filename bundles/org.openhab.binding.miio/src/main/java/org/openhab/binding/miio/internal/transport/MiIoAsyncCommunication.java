@@ -13,20 +13,25 @@
 package org.openhab.binding.miio.internal.transport;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.net.SocketException;
-import java.net.SocketTimeoutException;
-import java.util.Arrays;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.Calendar;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.openhab.binding.miio.internal.Message;
@@ -47,36 +52,48 @@ import com.google.gson.JsonSyntaxException;
 
 /**
  * The {@link MiIoAsyncCommunication} is responsible for communications with the Mi IO devices
+ * <p>
+ * Messages are sent and received with the {@link MiIoTransport} shared by all devices. Responses are matched to the
+ * pending commands by their message id, so up to {@link #MAX_PENDING} commands can be sent to a device before a
+ * response is received. Further commands are queued until a response is received or a command times out. The
+ * listeners are informed in the order of the responses on a thread of the binding thread pool.
  *
  * @author Marcel Verpaalen - Initial contribution
  */
 public class MiIoAsyncCommunication {
 
-    private static final int MSG_BUFFER_SIZE = 2048;
+    private static final int MAX_PENDING = 3;
+    private static final int PING_RETRIES = 3;
 
     private final Logger logger = LoggerFactory.getLogger(MiIoAsyncCommunication.class);
 
     private final String ip;
     private final byte[] token;
     private byte[] deviceId;
-    private DatagramSocket socket;
+    private InetSocketAddress address;
+    private MiIoTransport transport;
 
     private List<MiIoMessageListener> listeners = new CopyOnWriteArrayList<>();
 
     private AtomicInteger id = new AtomicInteger(-1);
-    private int timeDelta;
+    private volatile int timeDelta;
     private int timeStamp;
     private final JsonParser parser;
-    private MessageSenderThread senderThread;
-    private boolean connected;
-    private ThingStatusDetail status;
-    private int errorCounter;
+    private volatile boolean connected;
+    private volatile ThingStatusDetail status;
+    private volatile int errorCounter;
     private int timeout;
-    private boolean needPing = true;
+    private volatile boolean needPing = true;
+    private volatile CompletableFuture<Message> pingResponse;
     private static final int MAX_ERRORS = 3;
     private static final int MAX_ID = 15000;
 
     private ConcurrentLinkedQueue<MiIoSendCommand> concurrentLinkedQueue = new ConcurrentLinkedQueue<MiIoSendCommand>();
+    private final Map<Integer, MiIoSendCommand> pendingCommands = new ConcurrentHashMap<>();
+
+    private final ExecutorService notifier = ThreadPoolManager.getPool(MiIoBindingConstants.BINDING_ID);
+    private final Queue<Runnable> notifications = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean notifying = new AtomicBoolean();
 
     public MiIoAsyncCommunication(String ip, byte[] token, byte[] did, int id, int timeout) {
         this.ip = ip;
@@ -85,8 +102,11 @@ public class MiIoAsyncCommunication {
         this.timeout = timeout;
         setId(id);
         parser = new JsonParser();
-        senderThread = new MessageSenderThread();
-        senderThread.start();
+        try {
+            startReceiver();
+        } catch (IOException e) {
+            logger.debug("Could not start receiving messages from {}: {}", ip, e.getMessage());
+        }
     }
 
     protected List<MiIoMessageListener> getListeners() {
@@ -95,13 +115,17 @@ public class MiIoAsyncCommunication {
 
     /**
      * Registers a {@link MiIoMessageListener} to be called back, when data is received.
-     * If no {@link MessageSenderThread} exists, when the method is called, it is being set up.
+     * If the device is not registered at the {@link MiIoTransport}, when the method is called, it is being registered.
      *
      * @param listener {@link MiIoMessageListener} to be called back
      */
     public synchronized void registerListener(MiIoMessageListener listener) {
         needPing = true;
-        startReceiver();
+        try {
+            startReceiver();
+        } catch (IOException e) {
+            logger.debug("Could not start receiving messages from {}: {}", ip, e.getMessage());
+        }
         if (!getListeners().contains(listener)) {
             logger.trace("Adding socket listener {}", listener);
             getListeners().add(listener);
@@ -110,7 +134,7 @@ public class MiIoAsyncCommunication {
 
     /**
      * Unregisters a {@link MiIoMessageListener}. If there are no listeners left,
-     * the {@link MessageSenderThread} is being closed.
+     * the device is unregistered from the {@link MiIoTransport}.
      *
      * @param listener {@link MiIoMessageListener} to be unregistered
      */
@@ -149,6 +173,7 @@ public class MiIoAsyncCommunication {
             if (needPing) {
                 sendPing(ip);
             }
+            sendQueuedCommands();
             return cmdId;
         } catch (JsonSyntaxException e) {
             logger.warn("Send command '{}' with parameters {} -> {} (Device: {}) gave error {}", command, params, ip,
@@ -157,134 +182,214 @@ public class MiIoAsyncCommunication {
         }
     }
 
-    MiIoSendCommand sendMiIoSendCommand(MiIoSendCommand miIoSendCommand) {
-        String errorMsg = "Unknown Error while sending command";
+    /**
+     * Sends queued commands as long as less than {@link #MAX_PENDING} commands wait for a response.
+     */
+    private synchronized void sendQueuedCommands() {
+        MiIoTransport localTransport = transport;
+        if (localTransport == null) {
+            return;
+        }
+        while (pendingCommands.size() < MAX_PENDING) {
+            MiIoSendCommand command = concurrentLinkedQueue.poll();
+            if (command == null) {
+                return;
+            }
+            try {
+                byte[] encr = MiIoCrypto.encrypt(command.getCommandString().getBytes(), token);
+                timeStamp = (int) TimeUnit.MILLISECONDS.toSeconds(Calendar.getInstance().getTime().getTime());
+                byte[] sendMsg = Message.createMsgData(encr, token, deviceId, timeStamp + timeDelta);
+                pendingCommands.put(command.getId(), command);
+                logger.trace("Connection {} -> {}", command.getCommandString(), ip);
+                if (!localTransport.send(getAddress(), sendMsg)) {
+                    throw new IOException("Send buffer is full");
+                }
+                localTransport.schedule(timeout, () -> commandTimedOut(command));
+            } catch (MiIoCryptoException | IOException e) {
+                logger.debug("Send command '{}'  -> {} (Device: {}) gave error {}", command.getCommandString(), ip,
+                        Utils.getHex(deviceId), e.getMessage());
+                pendingCommands.remove(command.getId());
+                setErrorResponse(command, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Handles a message received from the device. Called on the event loop thread of the {@link MiIoTransport}.
+     *
+     * @param raw the received message
+     */
+    void handleMessage(byte[] raw) {
+        if (raw.length < 32) {
+            logger.trace("Reponse length <32 : {}", raw.length);
+            return;
+        }
+        Message miIoResponse = new Message(raw);
+        timeStamp = (int) TimeUnit.MILLISECONDS.toSeconds(Calendar.getInstance().getTime().getTime());
+        timeDelta = miIoResponse.getTimestampAsInt() - timeStamp;
+        logger.trace("Message Details:{} ", miIoResponse.toSting());
+
+        if (miIoResponse.getLength() <= 32) {
+            CompletableFuture<Message> localPingResponse = pingResponse;
+            if (localPingResponse != null) {
+                localPingResponse.complete(miIoResponse);
+            }
+            return;
+        }
+        if (!miIoResponse.isChecksumValid()) {
+            logger.debug("Message from device {} at {} has invalid checksum", Utils.getHex(deviceId), ip);
+            return;
+        }
+
         String decryptedResponse = "";
         try {
-            decryptedResponse = sendCommand(miIoSendCommand.getCommandString(), token, ip, deviceId);
+            decryptedResponse = new String(MiIoCrypto.decrypt(miIoResponse.getData(), token), StandardCharsets.UTF_8)
+                    .trim();
+            logger.trace("Received response from {}: {}", ip, decryptedResponse);
             // hack due to avoid invalid json errors from some misbehaving device firmwares
             decryptedResponse = decryptedResponse.replace(",,", ",");
-            JsonElement response;
-            response = parser.parse(decryptedResponse);
-            if (response.isJsonObject()) {
-                logger.trace("Received  JSON message {}", response.toString());
-                miIoSendCommand.setResponse(response.getAsJsonObject());
-                return miIoSendCommand;
-            } else {
-                errorMsg = "Received message is invalid JSON";
-                logger.debug("{}: {}", errorMsg, decryptedResponse);
+            JsonElement response = parser.parse(decryptedResponse);
+            if (!response.isJsonObject() || !response.getAsJsonObject().has("id")) {
+                logger.debug("Received message is invalid JSON: {}", decryptedResponse);
+                return;
+            }
+            MiIoSendCommand command = pendingCommands.remove(response.getAsJsonObject().get("id").getAsInt());
+            if (command == null) {
+                logger.debug("Received response from {} for unknown or timed out command: {}", ip,
+                        decryptedResponse);
+                return;
+            }
+            logger.trace("Received  JSON message {}", response.toString());
+            command.setResponse(response.getAsJsonObject());
+            if (errorCounter > 0) {
+                errorCounter = 0;
+                status = ThingStatusDetail.NONE;
+                updateStatus(ThingStatus.ONLINE, status);
+            }
+            if (!connected) {
+                pingSuccess();
             }
-        } catch (MiIoCryptoException | IOException e) {
-            logger.debug("Send command '{}'  -> {} (Device: {}) gave error {}", miIoSendCommand.getCommandString(), ip,
+            notifyListeners(command);
+        } catch (MiIoCryptoException | RuntimeException e) {
+            logger.warn("Could not parse '{}' <- {} (Device: {}) gave error {}", decryptedResponse, ip,
                     Utils.getHex(deviceId), e.getMessage());
-            errorMsg = e.getMessage();
-        } catch (JsonSyntaxException e) {
-            logger.warn("Could not parse '{}' <- {} (Device: {}) gave error {}", decryptedResponse,
-                    miIoSendCommand.getCommandString(), Utils.getHex(deviceId), e.getMessage());
-            errorMsg = "Received message is invalid JSON";
         }
-        JsonObject erroResp = new JsonObject();
-        erroResp.addProperty("error", errorMsg);
-        miIoSendCommand.setResponse(erroResp);
-        return miIoSendCommand;
+        sendQueuedCommands();
     }
 
-    public synchronized void startReceiver() {
-        if (senderThread == null) {
-            senderThread = new MessageSenderThread();
+    private void commandTimedOut(MiIoSendCommand command) {
+        if (pendingCommands.remove(command.getId()) == null) {
+            return;
         }
-        if (!senderThread.isAlive()) {
-            senderThread.start();
+        logger.debug("No response from device {} at {} for command {}.", Utils.getHex(deviceId), ip,
+                command.getCommandString());
+        needPing = true;
+        errorCounter++;
+        if (errorCounter > MAX_ERRORS) {
+            status = ThingStatusDetail.CONFIGURATION_ERROR;
+            // the ping waits for a response, so it must not run on the event loop thread
+            inform(() -> {
+                try {
+                    sendPing(ip);
+                } catch (IOException e) {
+                    logger.debug("Ping {} ({}) failed: {}", Utils.getHex(deviceId), ip, e.getMessage());
+                }
+            });
         }
+        setErrorResponse(command, "No Response");
+        sendQueuedCommands();
     }
 
-    /**
-     * The {@link MessageSenderThread} is responsible for consuming messages from the queue and sending these to the
-     * device
-     *
-     */
-    private class MessageSenderThread extends Thread {
-        public MessageSenderThread() {
-            super("Mi IO MessageSenderThread");
-            setDaemon(true);
-        }
+    private void setErrorResponse(MiIoSendCommand command, String errorMsg) {
+        JsonObject erroResp = new JsonObject();
+        erroResp.addProperty("error", errorMsg);
+        command.setResponse(erroResp);
+        notifyListeners(command);
+    }
 
-        @Override
-        public void run() {
-            logger.debug("Starting Mi IO MessageSenderThread");
-            while (!interrupted()) {
+    private void notifyListeners(MiIoSendCommand command) {
+        inform(() -> {
+            for (MiIoMessageListener listener : listeners) {
+                logger.trace("inform listener {}, data {} from {}", listener, command.getCommandString(),
+                        command.getResponse());
                 try {
-                    if (concurrentLinkedQueue.isEmpty()) {
-                        Thread.sleep(100);
-                        continue;
-                    }
-                    MiIoSendCommand queuedMessage = concurrentLinkedQueue.remove();
-                    MiIoSendCommand miIoSendCommand = sendMiIoSendCommand(queuedMessage);
-                    for (MiIoMessageListener listener : listeners) {
-                        logger.trace("inform listener {}, data {} from {}", listener, queuedMessage, miIoSendCommand);
-                        try {
-                            listener.onMessageReceived(miIoSendCommand);
-                        } catch (Exception e) {
-                            logger.debug("Could not inform listener {}: {}: ", listener, e.getMessage(), e);
-                        }
-                    }
-                } catch (NoSuchElementException e) {
-                    // ignore
-                } catch (InterruptedException e) {
-                    // That's our signal to stop
-                    break;
+                    listener.onMessageReceived(command);
                 } catch (Exception e) {
-                    logger.warn("Error while polling/sending message", e);
+                    logger.debug("Could not inform listener {}: {}: ", listener, e.getMessage(), e);
                 }
             }
-            logger.debug("Finished Mi IO MessageSenderThread");
+        });
+    }
+
+    /**
+     * Runs the notifications of this device one after another on the binding thread pool.
+     */
+    private void inform(Runnable notification) {
+        notifications.add(notification);
+        if (notifying.compareAndSet(false, true)) {
+            notifier.execute(this::runNotifications);
         }
     }
 
-    private String sendCommand(String command, byte[] token, String ip, byte[] deviceId)
-            throws MiIoCryptoException, IOException {
-        byte[] encr;
-        encr = MiIoCrypto.encrypt(command.getBytes(), token);
-        timeStamp = (int) TimeUnit.MILLISECONDS.toSeconds(Calendar.getInstance().getTime().getTime());
-        byte[] sendMsg = Message.createMsgData(encr, token, deviceId, timeStamp + timeDelta);
-        Message miIoResponseMsg = sendData(sendMsg, ip);
-        if (miIoResponseMsg == null) {
-            if (logger.isTraceEnabled()) {
-                logger.trace("No response from device {} at {} for command {}.\r\n{}", Utils.getHex(deviceId), ip,
-                        command, (new Message(sendMsg)).toSting());
-            } else {
-                logger.debug("No response from device {} at {} for command {}.", Utils.getHex(deviceId), ip, command);
+    private void runNotifications() {
+        do {
+            Runnable notification;
+            while ((notification = notifications.poll()) != null) {
+                notification.run();
             }
-            errorCounter++;
-            if (errorCounter > MAX_ERRORS) {
-                status = ThingStatusDetail.CONFIGURATION_ERROR;
-                sendPing(ip);
+            notifying.set(false);
+        } while (!notifications.isEmpty() && notifying.compareAndSet(false, true));
+    }
+
+    /**
+     * Registers the device at the shared {@link MiIoTransport}, if it is not registered yet.
+     *
+     * @throws IOException if the address of the device can not be resolved or the transport can not be started
+     */
+    public synchronized void startReceiver() throws IOException {
+        if (transport == null) {
+            MiIoTransport localTransport = MiIoTransport.acquire();
+            try {
+                localTransport.register(getAddress().getAddress(), this);
+            } catch (IOException e) {
+                localTransport.release();
+                throw e;
             }
-            return "{\"error\":\"No Response\"}";
-        }
-        if (!miIoResponseMsg.isChecksumValid()) {
-            return "{\"error\":\"Message has invalid checksum\"}";
+            transport = localTransport;
         }
-        if (errorCounter > 0) {
-            errorCounter = 0;
-            status = ThingStatusDetail.NONE;
-            updateStatus(ThingStatus.ONLINE, status);
-        }
-        if (!connected) {
-            pingSuccess();
+    }
+
+    private InetSocketAddress getAddress() throws IOException {
+        InetSocketAddress localAddress = address;
+        if (localAddress == null) {
+            localAddress = new InetSocketAddress(InetAddress.getByName(ip), MiIoBindingConstants.PORT);
+            address = localAddress;
         }
-        String decryptedResponse = new String(MiIoCrypto.decrypt(miIoResponseMsg.getData(), token), "UTF-8").trim();
-        logger.trace("Received response from {}: {}", ip, decryptedResponse);
-        return decryptedResponse;
+        return localAddress;
     }
 
     public Message sendPing(String ip) throws IOException {
-        for (int i = 0; i < 3; i++) {
+        startReceiver();
+        InetSocketAddress pingAddress = new InetSocketAddress(InetAddress.getByName(ip), MiIoBindingConstants.PORT);
+        for (int i = 0; i < PING_RETRIES; i++) {
             logger.debug("Sending Ping {} ({})", Utils.getHex(deviceId), ip);
-            Message resp = sendData(MiIoBindingConstants.DISCOVER_STRING, ip);
-            if (resp != null) {
+            CompletableFuture<Message> response = new CompletableFuture<>();
+            pingResponse = response;
+            MiIoTransport localTransport = transport;
+            if (localTransport == null || !localTransport.send(pingAddress, MiIoBindingConstants.DISCOVER_STRING)) {
+                break;
+            }
+            try {
+                Message resp = response.get(timeout, TimeUnit.MILLISECONDS);
                 pingSuccess();
                 return resp;
+            } catch (TimeoutException e) {
+                logger.debug("Communication error for Mi device at {}: no ping response within {} ms", ip, timeout);
+            } catch (ExecutionException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
         }
         pingFail();
@@ -300,6 +405,7 @@ public class MiIoAsyncCommunication {
 
     private void pingSuccess() {
         logger.debug("Ping {} ({}) success", Utils.getHex(deviceId), ip);
+        needPing = false;
         if (!connected) {
             connected = true;
             status = ThingStatusDetail.NONE;
@@ -315,72 +421,29 @@ public class MiIoAsyncCommunication {
     }
 
     private void updateStatus(ThingStatus status, ThingStatusDetail statusDetail) {
-        for (MiIoMessageListener listener : listeners) {
-            logger.trace("inform listener {}, data {} from {}", listener, status, statusDetail);
-            try {
-                listener.onStatusUpdated(status, statusDetail);
-            } catch (Exception e) {
-                logger.debug("Could not inform listener {}: {}", listener, e.getMessage(), e);
+        inform(() -> {
+            for (MiIoMessageListener listener : listeners) {
+                logger.trace("inform listener {}, data {} from {}", listener, status, statusDetail);
+                try {
+                    listener.onStatusUpdated(status, statusDetail);
+                } catch (Exception e) {
+                    logger.debug("Could not inform listener {}: {}", listener, e.getMessage(), e);
+                }
             }
-        }
+        });
     }
 
-    private Message sendData(byte[] sendMsg, String ip) throws IOException {
-        byte[] response = comms(sendMsg, ip);
-        if (response.length >= 32) {
-            Message miIoResponse = new Message(response);
-            timeStamp = (int) TimeUnit.MILLISECONDS.toSeconds(Calendar.getInstance().getTime().getTime());
-            timeDelta = miIoResponse.getTimestampAsInt() - timeStamp;
-            logger.trace("Message Details:{} ", miIoResponse.toSting());
-            return miIoResponse;
-        } else {
-            logger.trace("Reponse length <32 : {}", response.length);
-            return null;
-        }
-    }
-
-    private synchronized byte[] comms(byte[] message, String ip) throws IOException {
-        InetAddress ipAddress = InetAddress.getByName(ip);
-        DatagramSocket clientSocket = getSocket();
-        DatagramPacket receivePacket = new DatagramPacket(new byte[MSG_BUFFER_SIZE], MSG_BUFFER_SIZE);
-        try {
-            logger.trace("Connection {}:{}", ip, clientSocket.getLocalPort());
-            byte[] sendData = new byte[MSG_BUFFER_SIZE];
-            sendData = message;
-            DatagramPacket sendPacket = new DatagramPacket(sendData, sendData.length, ipAddress,
-                    MiIoBindingConstants.PORT);
-            clientSocket.send(sendPacket);
-            sendPacket.setData(new byte[MSG_BUFFER_SIZE]);
-            clientSocket.receive(receivePacket);
-            byte[] response = Arrays.copyOfRange(receivePacket.getData(), receivePacket.getOffset(),
-                    receivePacket.getOffset() + receivePacket.getLength());
-            return response;
-        } catch (SocketTimeoutException e) {
-            logger.debug("Communication error for Mi device at {}: {}", ip, e.getMessage());
-            needPing = true;
-            return new byte[0];
-        }
-    }
-
-    private DatagramSocket getSocket() throws SocketException {
-        if (socket == null || socket.isClosed()) {
-            socket = new DatagramSocket();
-            socket.setSoTimeout(timeout);
-            return socket;
-        } else {
-            return socket;
-        }
-    }
-
-    public void close() {
-        try {
-            if (socket != null) {
-                socket.close();
+    public synchronized void close() {
+        MiIoTransport localTransport = transport;
+        if (localTransport != null) {
+            InetSocketAddress localAddress = address;
+            if (localAddress != null) {
+                localTransport.unregister(localAddress.getAddress(), this);
             }
-            senderThread.interrupt();
-        } catch (SecurityException e) {
-            logger.debug("Error while closing: {} ", e.getMessage());
+            localTransport.release();
+            transport = null;
         }
+        pendingCommands.clear();
     }
 
     /**
@@ -415,6 +478,6 @@ public class MiIoAsyncCommunication {
     }
 
     public int getQueueLength() {
-        return concurrentLinkedQueue.size();
+        return concurrentLinkedQueue.size() + pendingCommands.size();
     }
 }
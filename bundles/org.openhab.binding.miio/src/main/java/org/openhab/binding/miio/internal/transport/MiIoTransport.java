@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.miio.internal.transport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link MiIoTransport} sends and receives the messages of all Mi IO devices on a single datagram channel.
+ * <p>
+ * One event loop thread blocks on the channel until a message is received or a timeout of a pending request expires.
+ * Received messages are passed to the {@link MiIoAsyncCommunication} registered for the address of the sender.
+ * Messages and timeouts are handled on the event loop thread, so handling them must not block.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class MiIoTransport {
+
+    private static final int MSG_BUFFER_SIZE = 2048;
+
+    private static @Nullable MiIoTransport instance;
+    private static int references;
+
+    private final Logger logger = LoggerFactory.getLogger(MiIoTransport.class);
+
+    private final Selector selector;
+    private final DatagramChannel channel;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final Map<InetAddress, MiIoAsyncCommunication> devices = new ConcurrentHashMap<>();
+    private final DelayQueue<Timeout> timeouts = new DelayQueue<>();
+
+    private static class Timeout implements Delayed {
+        private final long deadline;
+        private final Runnable action;
+
+        private Timeout(long deadline, Runnable action) {
+            this.deadline = deadline;
+            this.action = action;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return other instanceof Timeout ? Long.compare(deadline, ((Timeout) other).deadline) : 0;
+        }
+    }
+
+    private MiIoTransport() throws IOException {
+        selector = Selector.open();
+        try {
+            channel = DatagramChannel.open();
+            channel.configureBlocking(false);
+            channel.bind(null);
+            channel.register(selector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            selector.close();
+            throw e;
+        }
+        thread = new Thread(this::run, "OH-binding-miio-transport");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the transport shared by all devices and starts it, if it is not running.
+     *
+     * @return the transport, which has to be released with {@link #release()}
+     * @throws IOException if the channel can not be opened
+     */
+    public static synchronized MiIoTransport acquire() throws IOException {
+        MiIoTransport transport = instance;
+        if (transport == null) {
+            transport = new MiIoTransport();
+            instance = transport;
+        }
+        references++;
+        return transport;
+    }
+
+    /**
+     * Releases the transport. The event loop is stopped, when no device uses it anymore.
+     */
+    public void release() {
+        synchronized (MiIoTransport.class) {
+            if (instance != this || --references > 0) {
+                return;
+            }
+            instance = null;
+        }
+        running = false;
+        try {
+            selector.close();
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Error while closing the Mi IO transport: {}", e.getMessage());
+        }
+    }
+
+    public void register(InetAddress address, MiIoAsyncCommunication device) {
+        MiIoAsyncCommunication previous = devices.put(address, device);
+        if (previous != null && previous != device) {
+            logger.debug("Replacing the registration of another device at {}", address.getHostAddress());
+        }
+    }
+
+    public void unregister(InetAddress address, MiIoAsyncCommunication device) {
+        devices.remove(address, device);
+    }
+
+    /**
+     * Sends a message to a device. The message is either sent completely or not at all.
+     *
+     * @return true if the message was sent
+     * @throws IOException if the channel is closed or the message can not be sent
+     */
+    public boolean send(InetSocketAddress address, byte[] message) throws IOException {
+        return channel.send(ByteBuffer.wrap(message), address) > 0;
+    }
+
+    /**
+     * Runs an action on the event loop thread after a timeout.
+     *
+     * @param timeout the timeout in milliseconds
+     * @param action the action, which must not block
+     */
+    public void schedule(long timeout, Runnable action) {
+        Timeout entry = new Timeout(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout), action);
+        timeouts.add(entry);
+        if (timeouts.peek() == entry) {
+            // the event loop has to wait for a shorter time
+            selector.wakeup();
+        }
+    }
+
+    private void run() {
+        logger.debug("Starting Mi IO transport on port {}", channel.socket().getLocalPort());
+        ByteBuffer buffer = ByteBuffer.allocate(MSG_BUFFER_SIZE);
+        while (running) {
+            try {
+                Timeout next = timeouts.peek();
+                long wait = next == null ? 0 : Math.max(1, next.getDelay(TimeUnit.MILLISECONDS) + 1);
+                if (selector.select(wait) > 0) {
+                    selector.selectedKeys().clear();
+                    receive(buffer);
+                }
+                Timeout expired;
+                while ((expired = timeouts.poll()) != null) {
+                    expired.action.run();
+                }
+            } catch (ClosedSelectorException e) {
+                break;
+            } catch (Exception e) {
+                if (running) {
+                    logger.warn("Error in the Mi IO transport", e);
+                }
+            }
+        }
+        logger.debug("Finished Mi IO transport");
+    }
+
+    private void receive(ByteBuffer buffer) throws IOException {
+        InetSocketAddress address;
+        buffer.clear();
+        while ((address = (InetSocketAddress) channel.receive(buffer)) != null) {
+            buffer.flip();
+            byte[] message = new byte[buffer.remaining()];
+            buffer.get(message);
+            buffer.clear();
+
+            MiIoAsyncCommunication device = devices.get(address.getAddress());
+            if (device == null) {
+                logger.trace("Ignoring message from unknown device at {}", address);
+                continue;
+            }
+            try {
+                device.handleMessage(message);
+            } catch (RuntimeException e) {
+                logger.debug("Error while handling a message from {}: {}", address, e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.miio.internal.transport;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeNoException;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.miio.internal.Message;
+import org.openhab.binding.miio.internal.MiIoBindingConstants;
+import org.openhab.binding.miio.internal.MiIoCrypto;
+import org.openhab.binding.miio.internal.MiIoCryptoException;
+import org.openhab.binding.miio.internal.MiIoMessageListener;
+import org.openhab.binding.miio.internal.MiIoSendCommand;
+import org.openhab.binding.miio.internal.Utils;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests the {@link MiIoTransport} and the {@link MiIoAsyncCommunication} with a simulated device on the loopback
+ * interface.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class MiIoTransportTest {
+
+    private static final byte[] TOKEN = Utils.hexStringToByteArray("00112233445566778899aabbccddeeff");
+    private static final byte[] DEVICE_ID = Utils.hexStringToByteArray("01020304");
+    private static final String IP = "127.0.0.1";
+    private static final int TIMEOUT = 2000;
+
+    private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    private final BlockingQueue<MiIoSendCommand> responses = new LinkedBlockingQueue<>();
+
+    private DatagramSocket device;
+    private Thread deviceThread;
+    private MiIoAsyncCommunication communication;
+
+    private final MiIoMessageListener listener = new MiIoMessageListener() {
+        @Override
+        public void onMessageReceived(MiIoSendCommand cmd) {
+            responses.add(cmd);
+        }
+
+        @Override
+        public void onStatusUpdated(ThingStatus status, ThingStatusDetail statusDetail) {
+        }
+    };
+
+    /**
+     * A command received by the simulated device.
+     */
+    private static class Request {
+        private final int id;
+        private final SocketAddress sender;
+
+        private Request(int id, SocketAddress sender) {
+            this.id = id;
+            this.sender = sender;
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        try {
+            device = new DatagramSocket(MiIoBindingConstants.PORT, InetAddress.getByName(IP));
+        } catch (SocketException e) {
+            assumeNoException("the port of the simulated device is in use", e);
+        }
+        deviceThread = new Thread(this::runDevice, "miio-test-device");
+        deviceThread.setDaemon(true);
+        deviceThread.start();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (communication != null) {
+            communication.unregisterListener(listener);
+        }
+        if (device != null) {
+            device.close();
+            // the port is released when the device thread stops receiving
+            deviceThread.join(TIMEOUT);
+        }
+    }
+
+    /**
+     * Answers pings like a device does and queues the received commands, which are answered by the tests.
+     */
+    private void runDevice() {
+        byte[] buffer = new byte[2048];
+        try {
+            while (true) {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                device.receive(packet);
+                byte[] raw = Arrays.copyOf(packet.getData(), packet.getLength());
+                if (raw.length == 32) {
+                    send(new byte[0], packet.getSocketAddress());
+                } else {
+                    String command = new String(MiIoCrypto.decrypt(new Message(raw).getData(), TOKEN),
+                            StandardCharsets.UTF_8).trim();
+                    int id = new JsonParser().parse(command).getAsJsonObject().get("id").getAsInt();
+                    requests.add(new Request(id, packet.getSocketAddress()));
+                }
+            }
+        } catch (IOException | MiIoCryptoException e) {
+            // the socket is closed at the end of the test
+        }
+    }
+
+    private void send(byte[] data, SocketAddress address) throws IOException, MiIoCryptoException {
+        byte[] message = Message.createMsgData(data, TOKEN, DEVICE_ID,
+                (int) TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+        device.send(new DatagramPacket(message, message.length, address));
+    }
+
+    private void answer(Request request, String result) throws IOException, MiIoCryptoException {
+        String response = "{\"id\":" + request.id + ",\"result\":[\"" + result + "\"]}";
+        send(MiIoCrypto.encrypt(response.getBytes(StandardCharsets.UTF_8), TOKEN), request.sender);
+    }
+
+    private Request receiveRequest() throws InterruptedException {
+        Request request = requests.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertNotNull("no command received by the device", request);
+        return request;
+    }
+
+    private MiIoSendCommand receiveResponse() throws InterruptedException {
+        MiIoSendCommand response = responses.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertNotNull("no response received by the listener", response);
+        return response;
+    }
+
+    private void startCommunication(int timeout) {
+        communication = new MiIoAsyncCommunication(IP, TOKEN, DEVICE_ID, 0, timeout);
+        communication.registerListener(listener);
+    }
+
+    @Test
+    public void responsesAreMatchedToCommandsById() throws Exception {
+        startCommunication(TIMEOUT);
+        int first = communication.queueCommand("get_prop", "[\"power\"]");
+        int second = communication.queueCommand("get_prop", "[\"mode\"]");
+
+        Request firstRequest = receiveRequest();
+        Request secondRequest = receiveRequest();
+        assertEquals(first, firstRequest.id);
+        assertEquals(second, secondRequest.id);
+
+        // the device answers out of order
+        answer(secondRequest, "auto");
+        answer(firstRequest, "on");
+
+        MiIoSendCommand response = receiveResponse();
+        assertEquals(second, response.getId());
+        assertEquals("auto", response.getResult().getAsJsonArray().get(0).getAsString());
+        response = receiveResponse();
+        assertEquals(first, response.getId());
+        assertEquals("on", response.getResult().getAsJsonArray().get(0).getAsString());
+        assertEquals(0, communication.getQueueLength());
+    }
+
+    @Test
+    public void commandWithoutResponseTimesOut() throws Exception {
+        startCommunication(200);
+        int id = communication.queueCommand("get_prop", "[\"power\"]");
+        Request request = receiveRequest();
+
+        MiIoSendCommand response = receiveResponse();
+        assertEquals(id, response.getId());
+        assertTrue(response.isError());
+        JsonObject error = response.getResponse();
+        assertEquals("No Response", error.get("error").getAsString());
+        assertEquals(0, communication.getQueueLength());
+
+        // a late response is ignored
+        answer(request, "on");
+        int next = communication.queueCommand("get_prop", "[\"mode\"]");
+        answer(receiveRequest(), "auto");
+        assertEquals(next, receiveResponse().getId());
+        assertTrue(responses.isEmpty());
+    }
+}
@@ -30,6 +30,7 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.generic.mapping.MqttTopicRouter;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +55,7 @@ public class ChannelState implements MqttMessageSubscriber {
 
     // Runtime variables
     private @Nullable MqttBrokerConnection connection;
+    private @Nullable MqttTopicRouter topicRouter;
     protected final List<ChannelStateTransformation> transformationsIn = new ArrayList<>();
     protected final List<ChannelStateTransformation> transformationsOut = new ArrayList<>();
     private @Nullable ChannelStateUpdateListener channelStateUpdateListener;
@@ -241,7 +243,12 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     public CompletableFuture<@Nullable Void> stop() {
         final MqttBrokerConnection connection = this.connection;
-        if (connection != null && StringUtils.isNotBlank(config.stateTopic)) {
+        final MqttTopicRouter topicRouter = this.topicRouter;
+        if (topicRouter != null && StringUtils.isNotBlank(config.stateTopic)) {
+            topicRouter.unsubscribe(config.stateTopic, this);
+            internalStop();
+            return CompletableFuture.completedFuture(null);
+        } else if (connection != null && StringUtils.isNotBlank(config.stateTopic)) {
             return connection.unsubscribe(config.stateTopic, this).thenRun(this::internalStop);
         } else {
             internalStop();
@@ -276,8 +283,33 @@ public class ChannelState implements MqttMessageSubscriber {
         return null;
     }
 
+    /**
+     * Receive the state topic via the given router instead of subscribing to it on the broker connection. Only
+     * possible if the state topic contains no wildcards. An existing subscription is moved on the next
+     * {@link #start(MqttBrokerConnection, ScheduledExecutorService, int)} call.
+     *
+     * @param topicRouter A router for a topic tree containing the state topic, or null to subscribe directly.
+     */
+    public void setTopicRouter(@Nullable MqttTopicRouter topicRouter) {
+        final MqttTopicRouter previousRouter = this.topicRouter;
+        if (previousRouter == topicRouter) {
+            return;
+        }
+        final MqttBrokerConnection connection = this.connection;
+        if (hasSubscribed) {
+            if (previousRouter != null) {
+                previousRouter.unsubscribe(config.stateTopic, this);
+            } else if (connection != null) {
+                connection.unsubscribe(config.stateTopic, this);
+            }
+            hasSubscribed = false;
+        }
+        this.topicRouter = topicRouter;
+    }
+
     /**
      * Subscribes to the state topic on the given connection and informs about updates on the given listener.
+     * If a topic router has been set, the state topic is subscribed to on the router instead of the connection.
      *
      * @param connection A broker connection
      * @param scheduler A scheduler to realize the timeout
@@ -301,7 +333,11 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         this.future = new CompletableFuture<>();
-        connection.subscribe(config.stateTopic, this).thenRun(() -> {
+        final MqttTopicRouter topicRouter = this.topicRouter;
+        final CompletableFuture<Boolean> subscribeFuture = topicRouter != null
+                ? topicRouter.subscribe(config.stateTopic, this)
+                : connection.subscribe(config.stateTopic, this);
+        subscribeFuture.thenRun(() -> {
             hasSubscribed = true;
             logger.debug("Subscribed channel {} to topic: {}", this.channelUID, config.stateTopic);
             if (timeout > 0 && !future.isDone()) {
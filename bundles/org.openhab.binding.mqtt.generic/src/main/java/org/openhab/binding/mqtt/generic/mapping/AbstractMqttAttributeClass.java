@@ -107,6 +107,7 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
     protected transient AttributeChanged attributeChangedListener = (b, c, d, e, f) -> {
     };
     private transient boolean complete = false;
+    private transient @Nullable MqttTopicRouter topicRouter;
 
     /**
      * Implement this interface to be notified of an updated field.
@@ -140,12 +141,7 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
      */
     public CompletableFuture<@Nullable Void> unsubscribe() {
         final MqttBrokerConnection connection = this.connection.get();
-        if (connection == null) {
-            subscriptions.clear();
-            return CompletableFuture.completedFuture(null);
-        }
-
-        final CompletableFuture<?>[] futures = subscriptions.stream().map(m -> connection.unsubscribe(m.topic, m))
+        final CompletableFuture<?>[] futures = subscriptions.stream().map(m -> m.unsubscribe(connection))
                 .toArray(CompletableFuture[]::new);
         subscriptions.clear();
         return CompletableFuture.allOf(futures);
@@ -188,14 +184,32 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
             };
         }
 
-        subscriptions = getAllFields(getFieldsOf().getClass()).stream().filter(AbstractMqttAttributeClass::filterField)
-                .map(this::mapFieldToSubscriber).collect(Collectors.toList());
+        subscriptions = FieldBinding.of(getFieldsOf().getClass()).stream().map(this::mapFieldToSubscriber)
+                .collect(Collectors.toList());
 
         final CompletableFuture<?>[] futures = subscriptions.stream()
                 .map(m -> m.subscribeAndReceive(connection, timeout)).toArray(CompletableFuture[]::new);
         return CompletableFuture.allOf(startFuture, CompletableFuture.allOf(futures));
     }
 
+    /**
+     * Receive the attribute topics via the given router on the next call of
+     * {@link #subscribeAndReceive(MqttBrokerConnection, ScheduledExecutorService, String, AttributeChanged, int)},
+     * instead of subscribing to each attribute topic on the broker connection.
+     *
+     * @param topicRouter A router for a topic tree containing the base topic, or null to subscribe directly.
+     */
+    public void setTopicRouter(@Nullable MqttTopicRouter topicRouter) {
+        this.topicRouter = topicRouter;
+    }
+
+    /**
+     * Return the topic router set by {@link #setTopicRouter(MqttTopicRouter)}.
+     */
+    public @Nullable MqttTopicRouter getTopicRouter() {
+        return topicRouter;
+    }
+
     /**
      * Return fields of the given class as well as all super classes.
      *
@@ -226,26 +240,21 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
      * Maps the given field to a newly created {@link SubscribeFieldToMQTTtopic}.
      * Requires the scheduler of this class to be set.
      *
-     * @param field A field
+     * @param binding A field binding
      * @return A newly created {@link SubscribeFieldToMQTTtopic}.
      */
-    protected SubscribeFieldToMQTTtopic mapFieldToSubscriber(Field field) {
+    protected SubscribeFieldToMQTTtopic mapFieldToSubscriber(FieldBinding binding) {
         final ScheduledExecutorService scheduler = this.scheduler.get();
         if (scheduler == null) {
             throw new IllegalStateException("No scheduler set!");
         }
 
-        MandatoryField mandatoryField = field.getAnnotation(MandatoryField.class);
-        @SuppressWarnings("null")
-        boolean mandatory = mandatoryField != null;
-
-        TopicPrefix topicUsesPrefix = field.getAnnotation(TopicPrefix.class);
-        @SuppressWarnings("null")
-        String localPrefix = (topicUsesPrefix != null) ? topicUsesPrefix.value() : prefix;
-
-        final String topic = basetopic + "/" + localPrefix + field.getName();
+        final String localPrefix = binding.prefix;
+        final String topic = basetopic + "/" + (localPrefix != null ? localPrefix : prefix) + binding.name;
 
-        return createSubscriber(scheduler, field, topic, mandatory);
+        SubscribeFieldToMQTTtopic subscriber = createSubscriber(scheduler, binding.field, topic, binding.mandatory);
+        subscriber.setTopicRouter(topicRouter);
+        return subscriber;
     }
 
     /**
@@ -259,7 +268,7 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
      */
     public SubscribeFieldToMQTTtopic createSubscriber(ScheduledExecutorService scheduler, Field field, String topic,
             boolean mandatory) {
-        return new SubscribeFieldToMQTTtopic(scheduler, field, this, topic, mandatory);
+        return new SubscribeFieldToMQTTtopic(scheduler, FieldBinding.of(field), this, topic, mandatory);
     }
 
     /**
@@ -291,6 +300,15 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
      */
     @Override
     public void fieldChanged(Field field, Object value) {
+        fieldChanged(FieldBinding.of(field), value);
+    }
+
+    /**
+     * One of the observed MQTT topics got a new value. Apply this to the given field now
+     * and propagate the changed value event.
+     */
+    @Override
+    public void fieldChanged(FieldBinding binding, Object value) {
         // This object holds only a weak reference to connection and scheduler.
         // Attribute classes should perform an unsubscribe when a connection is lost.
         // We fail the future exceptionally here if that didn't happen so that everyone knows.
@@ -303,12 +321,12 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
         // Set field. It is not a reason to fail the future exceptionally if a field could not be set.
         // But at least issue a warning to the log.
         try {
-            field.set(getFieldsOf(), value);
+            binding.set(getFieldsOf(), value);
             final boolean newComplete = !subscriptions.stream().anyMatch(s -> s.isMandatory() && !s.hasReceivedValue());
-            attributeChangedListener.attributeChanged(field.getName(), value, connection, scheduler, newComplete);
+            attributeChangedListener.attributeChanged(binding.name, value, connection, scheduler, newComplete);
             complete = newComplete;
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            logger.warn("Could not assign value {} to field {}", value, field, e);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Could not assign value {} to field {}", value, binding, e);
         }
     }
 
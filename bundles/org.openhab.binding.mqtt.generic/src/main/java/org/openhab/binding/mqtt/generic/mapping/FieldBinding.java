@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.mapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The binding of a single field of an attribute class to its MQTT topic.
+ * <p>
+ * All annotations of the field are resolved once, and values are assigned through a {@link MethodHandle} instead of
+ * {@link Field#set(Object, Object)}. The bindings of an attribute class are computed on first use and shared by all
+ * instances of that class, see {@link #of(Class)}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public final class FieldBinding {
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<List<FieldBinding>> BINDINGS = new ClassValue<List<FieldBinding>>() {
+        @Override
+        protected List<FieldBinding> computeValue(Class<?> clazz) {
+            return Collections.unmodifiableList(AbstractMqttAttributeClass.getAllFields(clazz).stream()
+                    .filter(AbstractMqttAttributeClass::filterField).map(FieldBinding::new)
+                    .collect(Collectors.toList()));
+        }
+    };
+
+    public final Field field;
+    public final String name;
+    public final Class<?> type;
+    public final boolean mandatory;
+    /** The topic prefix of the field annotation, which overwrites the prefix of the class */
+    public final @Nullable String prefix;
+    public final @Nullable MQTTvalueTransform transform;
+    private final MethodHandle setter;
+
+    private FieldBinding(Field field) {
+        this.field = field;
+        this.name = field.getName();
+        this.type = field.getType();
+        this.mandatory = field.getAnnotation(MandatoryField.class) != null;
+        TopicPrefix topicPrefix = field.getAnnotation(TopicPrefix.class);
+        this.prefix = topicPrefix != null ? topicPrefix.value() : null;
+        this.transform = field.getAnnotation(MQTTvalueTransform.class);
+        this.setter = createSetter(field);
+    }
+
+    private static MethodHandle createSetter(Field field) {
+        try {
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException | SecurityException e) {
+            throw new IllegalArgumentException("Field " + field + " is not writable", e);
+        }
+    }
+
+    /**
+     * Returns the bindings of all non-final, non-transient and non-static fields of the given class and its super
+     * classes.
+     *
+     * @param clazz An attribute class
+     * @return An unmodifiable list of bindings. The same list is returned on every call for the same class.
+     */
+    public static List<FieldBinding> of(Class<?> clazz) {
+        return BINDINGS.get(clazz);
+    }
+
+    /**
+     * Returns the binding of the given field.
+     *
+     * @param field A field
+     * @return The binding of the field
+     */
+    public static FieldBinding of(Field field) {
+        for (FieldBinding binding : of(field.getDeclaringClass())) {
+            if (binding.field.equals(field)) {
+                return binding;
+            }
+        }
+        return new FieldBinding(field);
+    }
+
+    /**
+     * Assigns a value to the field of the given object.
+     *
+     * @param target The object holding the field
+     * @param value The new value, which must be assignable to the field type or be its wrapper type
+     * @throws IllegalArgumentException If the value cannot be assigned to the field
+     */
+    public void set(Object target, Object value) throws IllegalArgumentException {
+        try {
+            setter.invokeExact(target, value);
+        } catch (ClassCastException | NullPointerException e) {
+            throw new IllegalArgumentException(e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return field.toString();
+    }
+}
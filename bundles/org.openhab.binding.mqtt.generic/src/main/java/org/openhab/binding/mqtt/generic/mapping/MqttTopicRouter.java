@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.mapping;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+
+/**
+ * Receives a whole topic tree, like "homie/device/#", with a single broker subscription and routes the messages
+ * locally to the subscribers of the individual topics.
+ * <p>
+ * The last payload of a topic is kept, because the retained messages of the tree are delivered right after
+ * subscribing, which is usually before the subscribers of nested topics are known. A subscriber that subscribes later
+ * receives the kept payload immediately, just like a broker would deliver a retained message. Payloads are only kept
+ * for topics that have a subscriber or are expected to get one, so other messages of the tree do not accumulate.
+ * <p>
+ * Each topic can have a single subscriber only. Topics which are routed must not be subscribed to on the broker
+ * connection as well, because overlapping subscriptions may deliver the same message twice.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class MqttTopicRouter implements MqttMessageSubscriber {
+    private final String topicFilter;
+    private final Predicate<String> expectedTopics;
+    private final Map<String, MqttMessageSubscriber> subscribers = new HashMap<>();
+    private final Map<String, byte[]> payloads = new HashMap<>();
+    private @Nullable MqttBrokerConnection connection;
+
+    /**
+     * Creates a router for the given topic tree.
+     *
+     * @param topicFilter A topic filter like "homie/device/#"
+     * @param expectedTopics Accepts the topics without a subscriber yet, whose last payload has to be kept
+     */
+    public MqttTopicRouter(String topicFilter, Predicate<String> expectedTopics) {
+        this.topicFilter = topicFilter;
+        this.expectedTopics = expectedTopics;
+    }
+
+    /**
+     * Subscribes to the topic tree.
+     *
+     * @param connection A broker connection
+     * @return A future that completes with true if subscribing worked
+     */
+    public CompletableFuture<Boolean> start(MqttBrokerConnection connection) {
+        this.connection = connection;
+        return connection.subscribe(topicFilter, this);
+    }
+
+    /**
+     * Unsubscribes from the topic tree and removes all subscribers and kept payloads.
+     *
+     * @return A future that completes as soon as the unsubscription has been performed.
+     */
+    public CompletableFuture<Boolean> stop() {
+        synchronized (this) {
+            subscribers.clear();
+            payloads.clear();
+        }
+        final MqttBrokerConnection connection = this.connection;
+        this.connection = null;
+        if (connection == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return connection.unsubscribe(topicFilter, this);
+    }
+
+    /**
+     * Adds the subscriber of a topic within the topic tree. If a payload has been received for the topic before, it
+     * is passed to the subscriber before this method returns.
+     *
+     * @param topic The topic
+     * @param subscriber The subscriber, replacing the existing subscriber of the topic if any
+     * @return A completed future, to be interchangeable with {@link MqttBrokerConnection#subscribe}
+     */
+    public CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber) {
+        final byte[] payload;
+        synchronized (this) {
+            subscribers.put(topic, subscriber);
+            payload = payloads.get(topic);
+        }
+        if (payload != null) {
+            subscriber.processMessage(topic, payload);
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Removes the subscriber of a topic. The kept payload is dropped too, unless the topic is expected to get a
+     * subscriber again.
+     *
+     * @param topic The topic
+     * @param subscriber The subscriber. Nothing happens if the topic has a different subscriber.
+     */
+    public synchronized void unsubscribe(String topic, MqttMessageSubscriber subscriber) {
+        if (subscribers.remove(topic, subscriber) && !expectedTopics.test(topic)) {
+            payloads.remove(topic);
+        }
+    }
+
+    @Override
+    public void processMessage(String topic, byte[] payload) {
+        final MqttMessageSubscriber subscriber;
+        synchronized (this) {
+            subscriber = subscribers.get(topic);
+            if (payload.length == 0) {
+                payloads.remove(topic);
+            } else if (subscriber != null || expectedTopics.test(topic)) {
+                payloads.put(topic, payload);
+            }
+        }
+        if (subscriber != null) {
+            subscriber.processMessage(topic, payload);
+        }
+    }
+}
@@ -41,18 +41,28 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
     private final Logger logger = LoggerFactory.getLogger(SubscribeFieldToMQTTtopic.class);
     protected CompletableFuture<@Nullable Void> future = new CompletableFuture<>();
     public final Field field;
+    public final FieldBinding binding;
     public final FieldChanged changeConsumer;
     public final String topic;
     private final ScheduledExecutorService scheduler;
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private final boolean mandatory;
     private boolean receivedValue = false;
+    private @Nullable MqttTopicRouter topicRouter;
 
     /**
      * Implement this interface to be notified of an updated field.
      */
     public interface FieldChanged {
         void fieldChanged(Field field, Object value);
+
+        /**
+         * Called instead of {@link #fieldChanged(Field, Object)} by a {@link SubscribeFieldToMQTTtopic}. Implement
+         * this method to assign the value via {@link FieldBinding#set(Object, Object)}.
+         */
+        default void fieldChanged(FieldBinding binding, Object value) {
+            fieldChanged(binding.field, value);
+        }
     }
 
     /**
@@ -67,8 +77,24 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
      */
     public SubscribeFieldToMQTTtopic(ScheduledExecutorService scheduler, Field field, FieldChanged fieldChangeListener,
             String topic, boolean mandatory) {
+        this(scheduler, FieldBinding.of(field), fieldChangeListener, topic, mandatory);
+    }
+
+    /**
+     * Create a {@link SubscribeFieldToMQTTtopic}.
+     *
+     * @param scheduler A scheduler to realize subscription timeouts.
+     * @param binding The destination field binding.
+     * @param fieldChangeListener A listener for field changes. This is only called if the received value
+     *            could successfully be converted to the field type.
+     * @param topic The MQTT topic.
+     * @param mandatory True of this field is a mandatory one. A timeout will cause a future to complete exceptionally.
+     */
+    public SubscribeFieldToMQTTtopic(ScheduledExecutorService scheduler, FieldBinding binding,
+            FieldChanged fieldChangeListener, String topic, boolean mandatory) {
         this.scheduler = scheduler;
-        this.field = field;
+        this.field = binding.field;
+        this.binding = binding;
         this.changeConsumer = fieldChangeListener;
         this.topic = topic;
         this.mandatory = mandatory;
@@ -142,22 +168,22 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
         String valueStr = new String(payload, StandardCharsets.UTF_8);
 
         // Check if there is a manipulation annotation attached to the field
-        final MQTTvalueTransform transform = field.getAnnotation(MQTTvalueTransform.class);
+        final MQTTvalueTransform transform = binding.transform;
         Object value;
         if (transform != null) {
             // Add a prefix/suffix to the value
             valueStr = transform.prefix() + valueStr + transform.suffix();
             // Split the value if the field is an array. Convert numbers/enums if necessary.
-            value = field.getType().isArray() ? valueStr.split(transform.splitCharacter())
-                    : numberConvert(valueStr, field.getType());
-        } else if (field.getType().isArray()) {
+            value = binding.type.isArray() ? valueStr.split(transform.splitCharacter())
+                    : numberConvert(valueStr, binding.type);
+        } else if (binding.type.isArray()) {
             throw new IllegalArgumentException("No split character defined!");
         } else {
             // Convert numbers/enums if necessary
-            value = numberConvert(valueStr, field.getType());
+            value = numberConvert(valueStr, binding.type);
         }
         receivedValue = true;
-        changeConsumer.fieldChanged(field, value);
+        changeConsumer.fieldChanged(binding, value);
         future.complete(null);
     }
 
@@ -169,9 +195,19 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
         }
     }
 
+    /**
+     * Receive the topic via the given router instead of subscribing to it on the broker connection.
+     *
+     * @param topicRouter A router for a topic tree containing the {@link #topic}, or null to subscribe directly.
+     */
+    public void setTopicRouter(@Nullable MqttTopicRouter topicRouter) {
+        this.topicRouter = topicRouter;
+    }
+
     /**
      * Subscribe to the MQTT topic. A {@link SubscribeFieldToMQTTtopic} cannot be stopped.
      * You need to manually unsubscribe from the {@link #topic} before disposing.
+     * If a topic router has been set, the topic is subscribed to on the router instead of the connection.
      *
      * @param connection An MQTT connection.
      * @param timeout Timeout in milliseconds. The returned future completes after this time even if no message has
@@ -180,7 +216,10 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
      * @throws MqttException If an MQTT IO exception happens this exception is thrown.
      */
     public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttBrokerConnection connection, int timeout) {
-        connection.subscribe(topic, this).exceptionally(e -> {
+        final MqttTopicRouter topicRouter = this.topicRouter;
+        final CompletableFuture<Boolean> subscribeFuture = topicRouter != null ? topicRouter.subscribe(topic, this)
+                : connection.subscribe(topic, this);
+        subscribeFuture.exceptionally(e -> {
             logger.debug("Failed to subscribe to topic {}", topic, e);
             final ScheduledFuture<?> scheduledFuture = this.scheduledFuture;
             if (scheduledFuture != null) { // Cancel timeout
@@ -197,6 +236,24 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
         return future;
     }
 
+    /**
+     * Unsubscribe from the MQTT topic, on the topic router if one has been set.
+     *
+     * @param connection The MQTT connection that has been subscribed to, or null if it is gone already.
+     * @return Returns a future that completes as soon as the unsubscription has been performed.
+     */
+    public CompletableFuture<Boolean> unsubscribe(@Nullable MqttBrokerConnection connection) {
+        final MqttTopicRouter topicRouter = this.topicRouter;
+        if (topicRouter != null) {
+            topicRouter.unsubscribe(topic, this);
+            return CompletableFuture.completedFuture(true);
+        }
+        if (connection == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return connection.unsubscribe(topic, this);
+    }
+
     /**
      * Return true if the corresponding field has received a value at least once.
      */
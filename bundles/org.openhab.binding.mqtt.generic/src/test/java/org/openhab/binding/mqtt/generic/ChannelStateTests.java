@@ -37,11 +37,13 @@ import org.eclipse.smarthome.core.library.types.RawType;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.Spy;
+import org.openhab.binding.mqtt.generic.mapping.MqttTopicRouter;
 import org.openhab.binding.mqtt.generic.values.ColorValue;
 import org.openhab.binding.mqtt.generic.values.DateTimeValue;
 import org.openhab.binding.mqtt.generic.values.ImageValue;
@@ -295,4 +297,64 @@ public class ChannelStateTests {
         assertThat(value.getChannelState(), is(instanceOf(RawType.class)));
         assertThat(((RawType) value.getChannelState()).getMimeType(), is("image/jpeg"));
     }
+
+    @Test
+    public void receiveViaTopicRouterTest() throws InterruptedException, ExecutionException, TimeoutException {
+        MqttTopicRouter router = new MqttTopicRouter("#", topic -> topic.equals("state"));
+        router.start(connection);
+        verify(connection).subscribe(eq("#"), eq(router));
+
+        // A retained value received before the channel has been started is kept by the router
+        router.processMessage("state", "A TEST".getBytes());
+
+        ChannelState c = spy(new ChannelState(config, channelUID, textValue, channelStateUpdateListener));
+        c.setTopicRouter(router);
+        c.start(connection, scheduler, 100).get(50, TimeUnit.MILLISECONDS);
+        assertThat(textValue.getChannelState().toString(), is("A TEST"));
+        verify(channelStateUpdateListener, times(1)).updateChannelState(eq(channelUID), any());
+
+        // The state topic is not subscribed to on the connection, so each message is delivered exactly once
+        router.processMessage("state", "B TEST".getBytes());
+        assertThat(textValue.getChannelState().toString(), is("B TEST"));
+        verify(channelStateUpdateListener, times(2)).updateChannelState(eq(channelUID), any());
+        verify(connection, never()).subscribe(eq("state"), any());
+
+        c.stop().get();
+        router.processMessage("state", "C TEST".getBytes());
+        verify(channelStateUpdateListener, times(2)).updateChannelState(eq(channelUID), any());
+        verify(connection, never()).unsubscribe(eq("state"), any());
+    }
+
+    @Test
+    public void topicRouterKeepsExpectedPayloadsOnly() {
+        MqttTopicRouter router = new MqttTopicRouter("#", topic -> topic.startsWith("expected"));
+        MqttMessageSubscriber subscriber = mock(MqttMessageSubscriber.class);
+
+        router.processMessage("expected", "1".getBytes());
+        router.processMessage("unexpected", "2".getBytes());
+        router.processMessage("expected/removed", "3".getBytes());
+        router.processMessage("expected/removed", new byte[0]);
+
+        // A late subscriber receives the kept payload immediately
+        router.subscribe("expected", subscriber);
+        verify(subscriber).processMessage(eq("expected"), argThat(p -> Arrays.equals(p, "1".getBytes())));
+
+        // Payloads of unexpected topics are not kept, cleared payloads are not replayed
+        router.subscribe("unexpected", subscriber);
+        router.subscribe("expected/removed", subscriber);
+        verify(subscriber, times(1)).processMessage(any(), any());
+
+        // An unexpected topic is kept while it has a subscriber, and dropped when it is unsubscribed
+        router.processMessage("unexpected", "4".getBytes());
+        verify(subscriber).processMessage(eq("unexpected"), argThat(p -> Arrays.equals(p, "4".getBytes())));
+        router.unsubscribe("unexpected", subscriber);
+        router.processMessage("unexpected", "5".getBytes());
+        MqttMessageSubscriber lateSubscriber = mock(MqttMessageSubscriber.class);
+        router.subscribe("unexpected", lateSubscriber);
+        verify(lateSubscriber, never()).processMessage(any(), any());
+
+        // Only the subscriber of the topic receives a message
+        router.processMessage("other", "6".getBytes());
+        verify(subscriber, times(2)).processMessage(any(), any());
+    }
 }
@@ -23,8 +23,10 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -205,4 +207,53 @@ public class MqttTopicClassMapperTests {
 
         assertThat(future.isDone(), is(true));
     }
+
+    private static FieldBinding fieldBinding(String name) {
+        return FieldBinding.of(Attributes.class).stream().filter(b -> b.name.equals(name)).findFirst().get();
+    }
+
+    @Test
+    public void fieldBindingsAreResolvedOnce() throws NoSuchFieldException {
+        List<FieldBinding> bindings = FieldBinding.of(Attributes.class);
+        assertSame(bindings, FieldBinding.of(Attributes.class));
+        assertSame(fieldBinding("aString"), FieldBinding.of(Attributes.class.getField("aString")));
+
+        List<String> names = bindings.stream().map(b -> b.name).collect(Collectors.toList());
+        assertTrue(names.containsAll(Stream.of("aString", "aBoolean", "aLong", "aInteger", "aDecimal", "Int", "aBool",
+                "properties", "state", "datatype").collect(Collectors.toList())));
+        assertFalse(names.contains("ignoreTransient"));
+        assertFalse(names.contains("ignoreFinal"));
+
+        assertThat(fieldBinding("Int").prefix, is("a"));
+        assertThat(fieldBinding("Int").type, is(int.class));
+        assertNull(fieldBinding("aString").prefix);
+        assertNull(fieldBinding("aString").transform);
+        assertThat(fieldBinding("properties").transform.splitCharacter(), is(","));
+        assertThat(fieldBinding("datatype").transform.suffix(), is("_"));
+    }
+
+    @Test
+    public void fieldBindingSetsValues() {
+        Attributes attributes = new Attributes();
+
+        fieldBinding("aString").set(attributes, "test");
+        assertThat(attributes.aString, is("test"));
+        fieldBinding("Int").set(attributes, 10);
+        assertThat(attributes.Int, is(10));
+        fieldBinding("state").set(attributes, Attributes.ReadyState.ready);
+        assertThat(attributes.state, is(Attributes.ReadyState.ready));
+
+        try {
+            fieldBinding("Int").set(attributes, "10");
+            fail("A string must not be assignable to an int field");
+        } catch (IllegalArgumentException e) {
+            assertThat(attributes.Int, is(10));
+        }
+        try {
+            fieldBinding("aBool").set(attributes, null);
+            fail("null must not be assignable to a boolean field");
+        } catch (IllegalArgumentException e) {
+            assertThat(attributes.aBool, is(true));
+        }
+    }
 }
@@ -13,22 +13,30 @@
 package org.openhab.binding.mqtt.homeassistant.internal;
 
 import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
 import org.openhab.binding.mqtt.homeassistant.internal.util.FutureCollector;
+import org.openhab.binding.mqtt.homeassistant.internal.util.TopicTrie;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,12 +45,19 @@ import com.google.gson.Gson;
 /**
  * Responsible for subscribing to the HomeAssistant MQTT components wildcard topic, either
  * in a time limited discovery mode or as a background discovery.
+ * <p>
+ * A single wildcard subscription per base topic is used. Received messages are dispatched locally with a
+ * {@link TopicTrie} of the expected config topics, and matching component configurations are parsed on a bounded
+ * thread pool. A parsed configuration is only passed on, if no newer one was received for its topic meanwhile.
  *
  * @author David Graeff - Initial contribution
  */
 @NonNullByDefault
 public class DiscoverComponents implements MqttMessageSubscriber {
+    private static final String PARSER_POOL_NAME = "mqtt-homeassistant";
+
     private final Logger logger = LoggerFactory.getLogger(DiscoverComponents.class);
+    private final ExecutorService parserPool = ThreadPoolManager.getPool(PARSER_POOL_NAME);
     private final ThingUID thingUID;
     private final ScheduledExecutorService scheduler;
     private final ChannelStateUpdateListener updateListener;
@@ -56,6 +71,11 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     protected @NonNullByDefault({}) ComponentDiscovered discoveredListener;
     private int discoverTime;
     private Set<String> topics = new HashSet<>();
+    private final TopicTrie<HaID> configTopics = new TopicTrie<>();
+
+    // Sequence number of the latest configuration received per config topic
+    private final AtomicLong configSequence = new AtomicLong();
+    private final Map<String, Long> latestConfigs = new ConcurrentHashMap<>();
 
     /**
      * Implement this to get notified of new components
@@ -83,12 +103,38 @@ public class DiscoverComponents implements MqttMessageSubscriber {
 
     @Override
     public void processMessage(String topic, byte[] payload) {
-        if (!topic.endsWith("/config")) {
+        if (configTopics.match(topic) == null) {
+            return;
+        }
+
+        long sequence = configSequence.incrementAndGet();
+        latestConfigs.merge(topic, sequence, Math::max);
+        try {
+            parserPool.execute(() -> processConfig(topic, payload, sequence));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Configuration of HomeAssistant topic {} not processed: {}", topic, e.getMessage());
+        }
+    }
+
+    private boolean isLatestConfig(String topic, long sequence) {
+        Long latest = latestConfigs.get(topic);
+        return latest != null && latest == sequence;
+    }
+
+    private void processConfig(String topic, byte[] payload, long sequence) {
+        if (!isLatestConfig(topic, sequence)) {
+            logger.trace("Skipping outdated configuration of HomeAssistant topic {}", topic);
             return;
         }
 
-        HaID haID = new HaID(topic);
-        String config = new String(payload);
+        HaID haID;
+        try {
+            haID = new HaID(topic);
+        } catch (IllegalArgumentException e) {
+            logger.debug("Ignoring {}: {}", topic, e.getMessage());
+            return;
+        }
+        String config = new String(payload, StandardCharsets.UTF_8);
 
         AbstractComponent<?> component = null;
 
@@ -99,9 +145,17 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         if (component != null) {
             component.setConfigSeen();
 
-            logger.trace("Found HomeAssistant thing {} component {}", haID.objectID, haID.component);
-            if (discoveredListener != null) {
-                discoveredListener.componentDiscovered(haID, component);
+            // The check and the notification are atomic, so a configuration parsed later can't overtake a newer one
+            synchronized (latestConfigs) {
+                if (!isLatestConfig(topic, sequence)) {
+                    logger.trace("Dropping outdated configuration of HomeAssistant topic {}", topic);
+                    return;
+                }
+                logger.trace("Found HomeAssistant thing {} component {}", haID.objectID, haID.component);
+                final ComponentDiscovered discoveredListener = this.discoveredListener;
+                if (discoveredListener != null) {
+                    discoveredListener.componentDiscovered(haID, component);
+                }
             }
         } else {
             logger.debug("Configuration of HomeAssistant thing {} invalid: {}", haID.objectID, config);
@@ -129,13 +183,16 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     public CompletableFuture<@Nullable Void> startDiscovery(MqttBrokerConnection connection, int discoverTime,
             Set<HaID> topicDescriptions, ComponentDiscovered componentsDiscoveredListener) {
 
-        this.topics = topicDescriptions.stream().map(id -> id.getTopic("config")).collect(Collectors.toSet());
+        configTopics.clear();
+        latestConfigs.clear();
+        topicDescriptions.forEach(id -> configTopics.put(id.getTopic("config"), id));
+        this.topics = topicDescriptions.stream().map(id -> id.baseTopic + "/#").collect(Collectors.toSet());
         this.discoverTime = discoverTime;
         this.discoveredListener = componentsDiscoveredListener;
         this.connectionRef = new WeakReference<>(connection);
 
         // Subscribe to the wildcard topic and start receive MQTT retained topics
-        this.topics.parallelStream().map(t -> connection.subscribe(t, this)).collect(FutureCollector.allOf())
+        this.topics.stream().map(t -> connection.subscribe(t, this)).collect(FutureCollector.allOf())
                 .thenRun(this::subscribeSuccess).exceptionally(this::subscribeFail);
 
         return discoverFinishedFuture;
@@ -147,7 +204,7 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         if (connection != null && discoverTime > 0) {
             this.stopDiscoveryFuture = scheduler.schedule(() -> {
                 this.stopDiscoveryFuture = null;
-                this.topics.parallelStream().forEach(t -> connection.unsubscribe(t, this));
+                this.topics.forEach(t -> connection.unsubscribe(t, this));
                 this.discoveredListener = null;
                 discoverFinishedFuture.complete(null);
             }, discoverTime, TimeUnit.MILLISECONDS);
@@ -166,7 +223,7 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         this.discoveredListener = null;
         final MqttBrokerConnection connection = connectionRef.get();
         if (connection != null) {
-            this.topics.parallelStream().forEach(t -> connection.unsubscribe(t, this));
+            this.topics.forEach(t -> connection.unsubscribe(t, this));
             connectionRef.clear();
         }
         discoverFinishedFuture.completeExceptionally(e);
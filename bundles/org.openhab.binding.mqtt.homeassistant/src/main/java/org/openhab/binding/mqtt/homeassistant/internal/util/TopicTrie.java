@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Maps MQTT topic filters to values, so that the messages of a wildcard subscription can be dispatched locally.
+ * Filters may contain the MQTT wildcards <code>+</code> (exactly one level) and <code>#</code> (any remaining levels).
+ * <p>
+ * Looking up a topic walks one trie node per topic level, independent of the number of filters.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class TopicTrie<T> {
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private static class Node<T> {
+        final Map<String, Node<T>> children = new HashMap<>();
+        @Nullable
+        T value;
+        @Nullable
+        T multiLevelValue;
+    }
+
+    private Node<T> root = new Node<>();
+
+    /**
+     * Adds a topic filter. An existing value for the same filter is replaced.
+     *
+     * @param topicFilter A topic filter like "homeassistant/switch/+/config"
+     * @param value The value returned by {@link #match(String)} for matching topics
+     */
+    public synchronized void put(String topicFilter, T value) {
+        Node<T> node = root;
+        for (String level : topicFilter.split("/", -1)) {
+            if (MULTI_LEVEL_WILDCARD.equals(level)) {
+                node.multiLevelValue = value;
+                return;
+            }
+            node = node.children.computeIfAbsent(level, l -> new Node<>());
+        }
+        node.value = value;
+    }
+
+    /**
+     * Removes all topic filters.
+     */
+    public synchronized void clear() {
+        root = new Node<>();
+    }
+
+    /**
+     * Returns the value of a topic filter matching the given topic. Exact matches take precedence over wildcards.
+     *
+     * @param topic A topic of a received message
+     * @return The value or null if no filter matches
+     */
+    public synchronized @Nullable T match(String topic) {
+        return match(root, topic, 0);
+    }
+
+    private @Nullable T match(Node<T> node, String topic, int start) {
+        if (start > topic.length()) {
+            // all levels consumed
+            return node.value != null ? node.value : node.multiLevelValue;
+        }
+        int end = topic.indexOf('/', start);
+        if (end < 0) {
+            end = topic.length();
+        }
+
+        Node<T> child = node.children.get(topic.substring(start, end));
+        T result = child != null ? match(child, topic, end + 1) : null;
+        if (result == null) {
+            Node<T> wildcard = node.children.get(SINGLE_LEVEL_WILDCARD);
+            result = wildcard != null ? match(wildcard, topic, end + 1) : null;
+        }
+        return result != null ? result : node.multiLevelValue;
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.util;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link TopicTrie} class.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class TopicTrieTests {
+
+    @Test
+    public void exactMatch() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        trie.put("homeassistant/switch/name/config", "switch");
+        trie.put("homeassistant/switch/node/name/config", "node");
+
+        assertThat(trie.match("homeassistant/switch/name/config"), is("switch"));
+        assertThat(trie.match("homeassistant/switch/node/name/config"), is("node"));
+        assertThat(trie.match("homeassistant/switch/name/state"), is(nullValue()));
+        assertThat(trie.match("homeassistant/switch/name"), is(nullValue()));
+        assertThat(trie.match("homeassistant/switch/name/config/more"), is(nullValue()));
+    }
+
+    @Test
+    public void wildcards() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        trie.put("homeassistant/+/name/config", "single");
+        trie.put("homeassistant/light/#", "multi");
+        trie.put("homeassistant/light/name/config", "exact");
+
+        assertThat(trie.match("homeassistant/switch/name/config"), is("single"));
+        assertThat(trie.match("homeassistant/light/name/config"), is("exact"));
+        assertThat(trie.match("homeassistant/light/other/config"), is("multi"));
+        assertThat(trie.match("homeassistant/light"), is("multi"));
+        assertThat(trie.match("homeassistant/switch/other/config"), is(nullValue()));
+
+        trie.clear();
+        assertThat(trie.match("homeassistant/light/name/config"), is(nullValue()));
+    }
+}
@@ -28,6 +28,7 @@ import org.eclipse.smarthome.core.util.UIDUtils;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.binding.mqtt.generic.ChannelConfig;
 import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass;
+import org.openhab.binding.mqtt.generic.mapping.MqttTopicRouter;
 import org.openhab.binding.mqtt.generic.tools.ChildMap;
 import org.openhab.binding.mqtt.homie.internal.handler.HomieThingHandler;
 import org.slf4j.Logger;
@@ -64,6 +65,8 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
     private String topic = "";
     public String deviceID = "";
     private boolean initialized = false;
+    // Receives the whole device tree, null if not subscribed or the subscription failed
+    private @Nullable MqttTopicRouter topicRouter;
 
     /**
      * Creates a Homie Device structure. It consists of device attributes, device statistics and nodes.
@@ -99,6 +102,9 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      * and subscribe to all node attributes. Parse node properties. This will not subscribe
      * to properties though. If subscribing to all necessary topics worked {@link #isInitialized()} will return true.
      *
+     * The device tree is received with a single subscription to "basetopic/deviceID/#", and the attribute topics are
+     * routed locally. If that subscription fails, each attribute topic is subscribed to separately.
+     *
      * Call {@link #startChannels(MqttBrokerConnection)} subsequently.
      *
      * @param connection A broker connection
@@ -113,7 +119,19 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
             throw new IllegalStateException("You must call initialize()!");
         }
 
-        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+        final MqttTopicRouter previousRouter = topicRouter;
+        if (previousRouter != null) {
+            previousRouter.stop();
+        }
+        final MqttTopicRouter router = new MqttTopicRouter(topic + "/#", this::isTreeTopic);
+        return router.start(connection).exceptionally(e -> {
+            logger.debug("Failed to subscribe to device tree {}", topic, e);
+            return false;
+        }).thenCompose(subscribed -> {
+            topicRouter = subscribed ? router : null;
+            attributes.setTopicRouter(topicRouter);
+            return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout);
+        })
                 // On success, create all nodes and tell the handler about the ready state
                 .thenCompose(b -> attributesReceived(connection, scheduler, timeout))
                 // No matter if values have been received or not -> the subscriptions have been performed
@@ -122,6 +140,29 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
                 });
     }
 
+    /**
+     * Returns true for the topics of the device tree that are subscribed to by this device, its nodes or properties:
+     * Device attributes and statistics, node attributes, property attributes and property values.
+     *
+     * @param treeTopic A topic of the device tree
+     */
+    private boolean isTreeTopic(String treeTopic) {
+        if (!treeTopic.startsWith(topic + "/")) {
+            return false;
+        }
+        final String[] levels = treeTopic.substring(topic.length() + 1).split("/", -1);
+        switch (levels.length) {
+            case 1: // $name
+                return levels[0].startsWith("$");
+            case 2: // $stats/uptime, node/$name or the value of node/property
+                return true;
+            case 3: // node/property/$name
+                return !levels[0].startsWith("$") && levels[2].startsWith("$");
+            default:
+                return false;
+        }
+    }
+
     public CompletableFuture<@Nullable Void> attributesReceived(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout) {
         callback.readyStateChanged(attributes.state);
@@ -174,8 +215,13 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      * Unsubscribe from everything.
      */
     public CompletableFuture<@Nullable Void> stop() {
-        return attributes.unsubscribe().thenCompose(
-                b -> CompletableFuture.allOf(nodes.stream().map(n -> n.stop()).toArray(CompletableFuture[]::new)));
+        final MqttTopicRouter router = topicRouter;
+        topicRouter = null;
+        return attributes.unsubscribe()
+                .thenCompose(b -> CompletableFuture
+                        .allOf(nodes.stream().map(n -> n.stop()).toArray(CompletableFuture[]::new)))
+                .thenCompose(b -> router != null ? CompletableFuture.allOf(router.stop())
+                        : CompletableFuture.completedFuture(null));
     }
 
     /**
@@ -275,11 +321,13 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
 
     CompletableFuture<@Nullable Void> applyNodes(MqttBrokerConnection connection, ScheduledExecutorService scheduler,
             int timeout) {
-        return nodes.apply(attributes.nodes, node -> node.subscribe(connection, scheduler, timeout), this::createNode,
-                this::notifyNodeRemoved).exceptionally(e -> {
-                    logger.warn("Could not subscribe", e);
-                    return null;
-                });
+        return nodes.apply(attributes.nodes, node -> {
+            node.attributes.setTopicRouter(topicRouter);
+            return node.subscribe(connection, scheduler, timeout);
+        }, this::createNode, this::notifyNodeRemoved).exceptionally(e -> {
+            logger.warn("Could not subscribe", e);
+            return null;
+        });
     }
 
     @Override
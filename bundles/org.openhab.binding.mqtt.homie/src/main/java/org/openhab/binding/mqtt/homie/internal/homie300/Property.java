@@ -265,6 +265,8 @@ public class Property implements AttributeChanged {
         }
         // Make sure we set the callback again which might have been nulled during an stop
         channelState.setChannelStateUpdateListener(this.callback);
+        // The property value is part of the device tree, so it is received via the router of the device if there is one
+        channelState.setTopicRouter(attributes.getTopicRouter());
         return channelState.start(connection, scheduler, timeout);
     }
 
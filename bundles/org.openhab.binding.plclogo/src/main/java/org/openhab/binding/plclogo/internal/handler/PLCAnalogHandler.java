@@ -140,12 +140,17 @@ public class PLCAnalogHandler extends PLCCommonHandler {
     }
 
     @Override
-    public void setData(final byte[] data) {
+    public boolean isUpdateForced() {
+        return config.get().isUpdateForced();
+    }
+
+    @Override
+    public void setData(final byte[] data, final int offset) {
         if (!isThingOnline()) {
             return;
         }
 
-        if (data.length != getBufferLength()) {
+        if (data.length < offset + getBufferLength()) {
             logger.info("Received and configured data sizes does not match.");
             return;
         }
@@ -165,12 +170,12 @@ public class PLCAnalogHandler extends PLCCommonHandler {
             int address = getAddress(name);
             if (address != INVALID) {
                 DecimalType state = (DecimalType) getOldValue(name);
-                int value = S7.GetShortAt(data, address - getBase(name));
+                int value = S7.GetShortAt(data, offset + address - getBase(name));
                 if ((state == null) || (Math.abs(value - state.intValue()) > threshold) || force) {
                     updateChannel(channel, value);
                 }
                 if (logger.isTraceEnabled()) {
-                    int index = address - getBase(name);
+                    int index = offset + address - getBase(name);
                     logger.trace("Channel {} received [{}, {}].", channelUID, data[index], data[index + 1]);
                 }
             } else {
@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -87,41 +88,12 @@ public class PLCBridgeHandler extends BaseBridgeHandler {
 
     @Nullable
     private ScheduledFuture<?> readerJob;
-    private final Runnable dataReader = new Runnable() {
-        // Buffer for block data read operation
-        private final byte[] buffer = new byte[2048];
 
-        @Override
-        public void run() {
-            PLCLogoClient localClient = client;
-            Map<?, @Nullable Layout> memory = LOGO_MEMORY_BLOCK.get(getLogoFamily());
-            Layout layout = (memory != null) ? memory.get(MEMORY_SIZE) : null;
-            if ((layout != null) && (localClient != null)) {
-                try {
-                    int result = localClient.readDBArea(1, 0, layout.length, S7Client.S7WLByte, buffer);
-                    if (result == 0) {
-                        synchronized (handlers) {
-                            for (PLCCommonHandler handler : handlers) {
-                                int length = handler.getBufferLength();
-                                int address = handler.getStartAddress();
-                                if ((length > 0) && (address != PLCCommonHandler.INVALID)) {
-                                    handler.setData(Arrays.copyOfRange(buffer, address, address + length));
-                                } else {
-                                    logger.debug("Invalid handler {} found.", handler.getClass().getSimpleName());
-                                }
-                            }
-                        }
-                    } else {
-                        logger.debug("Can not read data from LOGO!: {}.", S7Client.ErrorText(result));
-                    }
-                } catch (Exception exception) {
-                    logger.error("Reader thread got exception: {}.", exception.getMessage());
-                }
-            } else {
-                logger.debug("Either memory block {} or LOGO! client {} is invalid.", memory, localClient);
-            }
-        }
-    };
+    // Last read memory block, handlers waiting for their first data and a running read
+    private final PLCMemoryImage<PLCCommonHandler> image = new PLCMemoryImage<>(2048,
+            PLCCommonHandler::getStartAddress, PLCCommonHandler::getBufferLength);
+    private final Set<PLCCommonHandler> pending = new HashSet<>();
+    private final AtomicBoolean reading = new AtomicBoolean();
 
     /**
      * Constructor.
@@ -217,6 +189,10 @@ public class PLCBridgeHandler extends BaseBridgeHandler {
             oldValues.clear();
         }
         config.set(getConfigAs(PLCLogoBridgeConfiguration.class));
+        synchronized (handlers) {
+            image.reset();
+            pending.addAll(handlers);
+        }
 
         boolean configured = (config.get().getLocalTSAP() != null);
         configured = configured && (config.get().getRemoteTSAP() != null);
@@ -236,7 +212,7 @@ public class PLCBridgeHandler extends BaseBridgeHandler {
             if (readerJob == null) {
                 Integer interval = config.get().getRefreshRate();
                 logger.info("Creating new reader job for {} with interval {} ms.", host, interval);
-                readerJob = scheduler.scheduleWithFixedDelay(dataReader, 100, interval, TimeUnit.MILLISECONDS);
+                readerJob = scheduler.scheduleWithFixedDelay(this::readMemory, 100, interval, TimeUnit.MILLISECONDS);
             }
             if (rtcJob == null) {
                 logger.info("Creating new RTC job for {} with interval 1 s.", host);
@@ -286,6 +262,9 @@ public class PLCBridgeHandler extends BaseBridgeHandler {
                 if (!handlers.contains(handler)) {
                     handlers.add(handler);
                 }
+                // a new handler needs the current data, independent of changes
+                pending.add(handler);
+                image.invalidateIndex();
             }
         }
     }
@@ -298,6 +277,8 @@ public class PLCBridgeHandler extends BaseBridgeHandler {
                 if (handlers.contains(handler)) {
                     handlers.remove(handler);
                 }
+                pending.remove(handler);
+                image.invalidateIndex();
             }
         }
         super.childHandlerDisposed(childHandler, childThing);
@@ -334,6 +315,61 @@ public class PLCBridgeHandler extends BaseBridgeHandler {
     protected void updateConfiguration(Configuration configuration) {
         super.updateConfiguration(configuration);
         config.set(getConfigAs(PLCLogoBridgeConfiguration.class));
+        synchronized (handlers) {
+            image.invalidate();
+        }
+    }
+
+    /**
+     * Read memory block of Siemens LOGO! and pass it to the handlers, whose memory range changed since the last read.
+     * Handlers which force updates or wait for their first data are always notified. The memory is read less often,
+     * as long as nothing changes and no handler forces updates. The LOGO! is read and the handlers are notified
+     * without holding the lock, so handlers can be added or removed meanwhile.
+     */
+    private void readMemory() {
+        if (!reading.compareAndSet(false, true)) {
+            logger.debug("Previous read of LOGO! {} is still running.", config.get().getAddress());
+            return;
+        }
+        try {
+            PLCLogoClient localClient = client;
+            Map<?, @Nullable Layout> memory = LOGO_MEMORY_BLOCK.get(getLogoFamily());
+            Layout layout = (memory != null) ? memory.get(MEMORY_SIZE) : null;
+            if ((layout == null) || (localClient == null)) {
+                logger.debug("Either memory block {} or LOGO! client {} is invalid.", memory, localClient);
+                return;
+            }
+
+            byte[] data;
+            synchronized (handlers) {
+                if (image.skipRead()) {
+                    return;
+                }
+                data = image.getBuffer();
+            }
+
+            int result = localClient.readDBArea(1, 0, layout.length, S7Client.S7WLByte, data);
+            if (result != 0) {
+                logger.debug("Can not read data from LOGO!: {}.", S7Client.ErrorText(result));
+                return;
+            }
+
+            Map<PLCCommonHandler, Integer> updates;
+            synchronized (handlers) {
+                updates = image.update(handlers, layout.length, PLCCommonHandler::isUpdateForced, pending);
+                for (PLCCommonHandler handler : updates.keySet()) {
+                    if (ThingStatus.ONLINE == handler.getThing().getStatus()) {
+                        pending.remove(handler);
+                    }
+                }
+            }
+            // the read data is the previous image now, it is not written before the next read
+            updates.forEach((handler, address) -> handler.setData(data, address));
+        } catch (Exception exception) {
+            logger.error("Reader thread got exception: {}.", exception.getMessage());
+        } finally {
+            reading.set(false);
+        }
     }
 
     /**
@@ -117,11 +117,20 @@ public abstract class PLCCommonHandler extends BaseThingHandler {
     }
 
     /**
-     * Update value channel of current thing with new data.
+     * Update value channel of current thing with new data. The data is the memory image of the LOGO! and is reused
+     * for the next read, so the handler must not keep a reference to it.
      *
-     * @param data Data value to update with
+     * @param data Memory image of the LOGO! to update with
+     * @param offset Offset of the handler data buffer in the memory image
      */
-    public abstract void setData(final byte[] data);
+    public abstract void setData(final byte[] data, final int offset);
+
+    /**
+     * Checks if the channels of current thing must be updated on every read, even if the data did not change.
+     *
+     * @return True, if the update is forced and false otherwise
+     */
+    public abstract boolean isUpdateForced();
 
     /**
      * Checks if block name is valid.
@@ -117,12 +117,17 @@ public class PLCDateTimeHandler extends PLCCommonHandler {
     }
 
     @Override
-    public void setData(final byte[] data) {
+    public boolean isUpdateForced() {
+        return config.get().isUpdateForced();
+    }
+
+    @Override
+    public void setData(final byte[] data, final int offset) {
         if (!isThingOnline()) {
             return;
         }
 
-        if (data.length != getBufferLength()) {
+        if (data.length < offset + getBufferLength()) {
             logger.info("Received and configured data sizes does not match.");
             return;
         }
@@ -139,12 +144,13 @@ public class PLCDateTimeHandler extends PLCCommonHandler {
             int address = getAddress(name);
             if (address != INVALID) {
                 DecimalType state = (DecimalType) getOldValue(name);
-                int value = S7.GetShortAt(data, address);
+                int value = S7.GetShortAt(data, offset + address);
                 if ((state == null) || (value != state.intValue()) || force) {
                     updateChannel(channel, value);
                 }
                 if (logger.isTraceEnabled()) {
-                    logger.trace("Channel {} received [{}, {}].", channel.getUID(), data[address], data[address + 1]);
+                    int index = offset + address;
+                    logger.trace("Channel {} received [{}, {}].", channel.getUID(), data[index], data[index + 1]);
                 }
             } else {
                 logger.info("Invalid channel {} found.", channel.getUID());
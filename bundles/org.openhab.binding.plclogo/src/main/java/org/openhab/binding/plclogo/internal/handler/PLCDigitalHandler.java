@@ -145,12 +145,17 @@ public class PLCDigitalHandler extends PLCCommonHandler {
     }
 
     @Override
-    public void setData(final byte[] data) {
+    public boolean isUpdateForced() {
+        return config.get().isUpdateForced();
+    }
+
+    @Override
+    public void setData(final byte[] data, final int offset) {
         if (!isThingOnline()) {
             return;
         }
 
-        if (data.length != getBufferLength()) {
+        if (data.length < offset + getBufferLength()) {
             logger.info("Received and configured data sizes does not match.");
             return;
         }
@@ -170,12 +175,12 @@ public class PLCDigitalHandler extends PLCCommonHandler {
             int address = getAddress(name);
             if ((address != INVALID) && (bit != INVALID)) {
                 DecimalType state = (DecimalType) getOldValue(name);
-                boolean value = S7.GetBitAt(data, address - getBase(name), bit);
+                boolean value = S7.GetBitAt(data, offset + address - getBase(name), bit);
                 if ((state == null) || ((value ? 1 : 0) != state.intValue()) || force) {
                     updateChannel(channel, value);
                 }
                 if (logger.isTraceEnabled()) {
-                    int buffer = (data[address - getBase(name)] & 0xFF) + 0x100;
+                    int buffer = (data[offset + address - getBase(name)] & 0xFF) + 0x100;
                     logger.trace("Channel {} received [{}].", channelUID, Integer.toBinaryString(buffer).substring(1));
                 }
             } else {
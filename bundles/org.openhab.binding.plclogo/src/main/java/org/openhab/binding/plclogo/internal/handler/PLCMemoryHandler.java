@@ -144,12 +144,17 @@ public class PLCMemoryHandler extends PLCCommonHandler {
     }
 
     @Override
-    public void setData(final byte[] data) {
+    public boolean isUpdateForced() {
+        return config.get().isUpdateForced();
+    }
+
+    @Override
+    public void setData(final byte[] data, final int offset) {
         if (!isThingOnline()) {
             return;
         }
 
-        if (data.length != getBufferLength()) {
+        if (data.length < offset + getBufferLength()) {
             logger.info("Received and configured data sizes does not match.");
             return;
         }
@@ -172,49 +177,51 @@ public class PLCMemoryHandler extends PLCCommonHandler {
 
                 if (DIGITAL_OUTPUT_ITEM.equalsIgnoreCase(type) && kind.equalsIgnoreCase(MEMORY_BYTE)) {
                     OnOffType state = (OnOffType) getOldValue(name);
-                    OnOffType value = S7.GetBitAt(data, address, getBit(name)) ? OnOffType.ON : OnOffType.OFF;
+                    OnOffType value = S7.GetBitAt(data, offset + address, getBit(name)) ? OnOffType.ON : OnOffType.OFF;
                     if ((state == null) || (value != state) || force) {
                         updateState(channelUID, value);
                         logger.debug("Channel {} accepting {} was set to {}.", channelUID, type, value);
                     }
                     if (logger.isTraceEnabled()) {
-                        int buffer = (data[address] & 0xFF) + 0x100;
+                        int buffer = (data[offset + address] & 0xFF) + 0x100;
                         logger.trace("Channel {} received [{}].", channelUID,
                                 Integer.toBinaryString(buffer).substring(1));
                     }
                 } else if (ANALOG_ITEM.equalsIgnoreCase(type) && MEMORY_BYTE.equalsIgnoreCase(kind)) {
                     Integer threshold = config.get().getThreshold();
                     DecimalType state = (DecimalType) getOldValue(name);
-                    int value = data[address];
+                    int value = data[offset + address];
                     if ((state == null) || (Math.abs(value - state.intValue()) > threshold) || force) {
                         updateState(channelUID, new DecimalType(value));
                         logger.debug("Channel {} accepting {} was set to {}.", channelUID, type, value);
                     }
                     if (logger.isTraceEnabled()) {
-                        logger.trace("Channel {} received [{}].", channelUID, data[address]);
+                        logger.trace("Channel {} received [{}].", channelUID, data[offset + address]);
                     }
                 } else if (ANALOG_ITEM.equalsIgnoreCase(type) && MEMORY_WORD.equalsIgnoreCase(kind)) {
                     Integer threshold = config.get().getThreshold();
                     DecimalType state = (DecimalType) getOldValue(name);
-                    int value = S7.GetShortAt(data, address);
+                    int value = S7.GetShortAt(data, offset + address);
                     if ((state == null) || (Math.abs(value - state.intValue()) > threshold) || force) {
                         updateState(channelUID, new DecimalType(value));
                         logger.debug("Channel {} accepting {} was set to {}.", channelUID, type, value);
                     }
                     if (logger.isTraceEnabled()) {
-                        logger.trace("Channel {} received [{}, {}].", channelUID, data[address], data[address + 1]);
+                        int index = offset + address;
+                        logger.trace("Channel {} received [{}, {}].", channelUID, data[index], data[index + 1]);
                     }
                 } else if (ANALOG_ITEM.equalsIgnoreCase(type) && MEMORY_DWORD.equalsIgnoreCase(kind)) {
                     Integer threshold = config.get().getThreshold();
                     DecimalType state = (DecimalType) getOldValue(name);
-                    int value = S7.GetDIntAt(data, address);
+                    int value = S7.GetDIntAt(data, offset + address);
                     if ((state == null) || (Math.abs(value - state.intValue()) > threshold) || force) {
                         updateState(channelUID, new DecimalType(value));
                         logger.debug("Channel {} accepting {} was set to {}.", channelUID, type, value);
                     }
                     if (logger.isTraceEnabled()) {
-                        logger.trace("Channel {} received [{}, {}, {}, {}].", channelUID, data[address],
-                                data[address + 1], data[address + 2], data[address + 3]);
+                        int index = offset + address;
+                        logger.trace("Channel {} received [{}, {}, {}, {}].", channelUID, data[index],
+                                data[index + 1], data[index + 2], data[index + 3]);
                     }
                 } else {
                     logger.debug("Channel {} will not accept {} items.", channelUID, type);
@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.plclogo.internal.handler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link PLCMemoryImage} holds the last read memory block of a Siemens LOGO! and detects, which handlers have to
+ * be updated after a new read. It is not thread safe, the {@link PLCBridgeHandler} synchronizes all calls.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+class PLCMemoryImage<H> {
+
+    // Reads without change until the reader slows down by one more refresh interval, at most by factor 8
+    static final int IDLE_CYCLES_PER_STEP = 10;
+    static final int MAX_IDLE_CYCLES = 7 * IDLE_CYCLES_PER_STEP;
+
+    private final Logger logger = LoggerFactory.getLogger(PLCMemoryImage.class);
+
+    private final ToIntFunction<H> startAddress;
+    private final ToIntFunction<H> bufferLength;
+
+    // Double buffer for block data read operation, the previous image is used for change detection
+    private byte[] buffer;
+    private byte[] previous;
+    private boolean previousValid = false;
+
+    // Number of reads without any change, used to slow down the reader
+    private int idleCycles = 0;
+    private int skipCycles = 0;
+
+    // Index of handlers by their memory range, rebuilt if handlers or configuration change
+    private final List<Range<H>> ranges = new ArrayList<>();
+    private boolean indexValid = false;
+
+    /**
+     * Memory range of the LOGO! and all handlers reading it.
+     */
+    private static class Range<H> {
+        private final int address;
+        private final int length;
+        private final List<H> handlers = new ArrayList<>();
+
+        Range(int address, int length) {
+            this.address = address;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param size Size of the memory block buffers
+     * @param startAddress Start address of the memory range of a handler, out of the memory block if unknown
+     * @param bufferLength Length of the memory range of a handler, not positive if unknown
+     */
+    PLCMemoryImage(int size, ToIntFunction<H> startAddress, ToIntFunction<H> bufferLength) {
+        this.buffer = new byte[size];
+        this.previous = new byte[size];
+        this.startAddress = startAddress;
+        this.bufferLength = bufferLength;
+    }
+
+    /**
+     * Forget the previous image and the index, so all handlers are updated by the next read.
+     */
+    void invalidate() {
+        previousValid = false;
+        indexValid = false;
+    }
+
+    /**
+     * Same as {@link #invalidate()}, but the reader does not skip any further reads, too.
+     */
+    void reset() {
+        invalidate();
+        idleCycles = 0;
+        skipCycles = 0;
+    }
+
+    /**
+     * Rebuild the index by the next read, because handlers were added or removed.
+     */
+    void invalidateIndex() {
+        indexValid = false;
+    }
+
+    /**
+     * Check, if the next read is skipped, because nothing changed for a while.
+     *
+     * @return True, if the read is skipped and false otherwise
+     */
+    boolean skipRead() {
+        if (skipCycles > 0) {
+            skipCycles--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the buffer for the next read. It is the previous image after the next {@link #update} and is not
+     * written until the read after it.
+     *
+     * @return Buffer to read the memory block to
+     */
+    byte[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Compare the read buffer with the previous image and find the handlers to update. The handlers are updated, if
+     * their memory range changed, they force updates or they wait for data. The read buffer becomes the previous
+     * image afterwards and the reader slows down, as long as nothing changes and no handler forces updates.
+     *
+     * @param handlers All handlers, used to rebuild the index
+     * @param size Size of the read memory block
+     * @param forced Tells, if a handler forces updates
+     * @param pending Handlers, which wait for data
+     * @return Handlers to update with the start address of their memory range, ordered by address
+     */
+    Map<H, Integer> update(Collection<H> handlers, int size, Predicate<H> forced, Set<H> pending) {
+        if (!indexValid) {
+            indexValid = buildIndex(handlers, size);
+        }
+
+        boolean changed = false;
+        boolean anyForced = false;
+        Map<H, Integer> updates = new LinkedHashMap<>();
+        for (Range<H> range : ranges) {
+            boolean modified = !previousValid || !isEqual(range.address, range.length);
+            changed = changed || modified;
+            for (H handler : range.handlers) {
+                boolean force = forced.test(handler);
+                anyForced = anyForced || force;
+                if (modified || force || pending.contains(handler)) {
+                    updates.put(handler, range.address);
+                }
+            }
+        }
+
+        // swap buffers, the current image is the previous one for the next read
+        byte[] image = previous;
+        previous = buffer;
+        buffer = image;
+        previousValid = true;
+
+        if (changed || anyForced) {
+            idleCycles = 0;
+        } else if (idleCycles < MAX_IDLE_CYCLES) {
+            idleCycles++;
+        }
+        skipCycles = idleCycles / IDLE_CYCLES_PER_STEP;
+        return updates;
+    }
+
+    /**
+     * Build index of handlers by memory range.
+     *
+     * @param handlers Handlers to index
+     * @param size Size of LOGO! memory block
+     * @return True, if all handlers are indexed and false otherwise
+     */
+    private boolean buildIndex(Collection<H> handlers, int size) {
+        boolean result = true;
+
+        ranges.clear();
+        for (H handler : handlers) {
+            int length = bufferLength.applyAsInt(handler);
+            int address = startAddress.applyAsInt(handler);
+            if ((length > 0) && (address >= 0) && (address <= size - length)) {
+                Range<H> range = null;
+                for (Range<H> candidate : ranges) {
+                    if ((candidate.address == address) && (candidate.length == length)) {
+                        range = candidate;
+                        break;
+                    }
+                }
+                if (range == null) {
+                    range = new Range<>(address, length);
+                    ranges.add(range);
+                }
+                range.handlers.add(handler);
+            } else {
+                // handler is not initialized yet, try again on next read
+                logger.debug("Invalid handler {} found.", handler.getClass().getSimpleName());
+                result = false;
+            }
+        }
+        ranges.sort((first, second) -> Integer.compare(first.address, second.address));
+
+        logger.debug("Indexed {} handlers in {} memory ranges.", handlers.size(), ranges.size());
+        return result;
+    }
+
+    /**
+     * Compare memory range of current and previous read.
+     *
+     * @param address Start address of memory range
+     * @param length Length of memory range
+     * @return True, if memory range is unchanged and false otherwise
+     */
+    private boolean isEqual(int address, int length) {
+        for (int i = address; i < address + length; i++) {
+            if (buffer[i] != previous[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
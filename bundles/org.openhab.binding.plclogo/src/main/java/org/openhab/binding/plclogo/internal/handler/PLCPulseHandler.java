@@ -119,12 +119,18 @@ public class PLCPulseHandler extends PLCCommonHandler {
     }
 
     @Override
-    public void setData(final byte[] data) {
+    public boolean isUpdateForced() {
+        // observed block is read on every update and may be located outside of data buffer
+        return true;
+    }
+
+    @Override
+    public void setData(final byte[] data, final int offset) {
         if (!isThingOnline()) {
             return;
         }
 
-        if (data.length != getBufferLength()) {
+        if (data.length < offset + getBufferLength()) {
             logger.info("Received and configured data sizes does not match.");
             return;
         }
@@ -145,12 +151,12 @@ public class PLCPulseHandler extends PLCCommonHandler {
             if ((address != INVALID) && (bit != INVALID) && (client != null)) {
                 DecimalType state = (DecimalType) getOldValue(channelUID.getId());
                 if (STATE_CHANNEL.equalsIgnoreCase(channelUID.getId())) {
-                    boolean value = S7.GetBitAt(data, address - getBase(name), bit);
+                    boolean value = S7.GetBitAt(data, offset + address - getBase(name), bit);
                     if ((state == null) || ((value ? 1 : 0) != state.intValue())) {
                         updateChannel(channel, value);
                     }
                     if (logger.isTraceEnabled()) {
-                        int buffer = (data[address - getBase(name)] & 0xFF) + 0x100;
+                        int buffer = (data[offset + address - getBase(name)] & 0xFF) + 0x100;
                         logger.trace("Channel {} received [{}].", channelUID,
                                 Integer.toBinaryString(buffer).substring(1));
                     }
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.plclogo.internal.handler;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests the range index and the adaptive read rate of the {@link PLCMemoryImage}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class PLCMemoryImageTest {
+
+    private static final int SIZE = 16;
+
+    private static class Handler {
+        private final int address;
+        private final int length;
+        private boolean forced;
+
+        Handler(int address, int length) {
+            this.address = address;
+            this.length = length;
+        }
+    }
+
+    private final PLCMemoryImage<Handler> image = new PLCMemoryImage<>(SIZE, handler -> handler.address,
+            handler -> handler.length);
+
+    private final Set<Handler> pending = new HashSet<>();
+
+    private Map<Handler, Integer> read(List<Handler> handlers, int address, int value) {
+        byte[] buffer = image.getBuffer();
+        Arrays.fill(buffer, (byte) 0);
+        buffer[address] = (byte) value;
+        return image.update(handlers, SIZE, handler -> handler.forced, pending);
+    }
+
+    private int countSkippedReads() {
+        int skipped = 0;
+        while (image.skipRead()) {
+            skipped++;
+        }
+        return skipped;
+    }
+
+    @Test
+    public void allHandlersAreUpdatedByFirstRead() {
+        Handler first = new Handler(4, 2);
+        Handler second = new Handler(0, 1);
+        Handler third = new Handler(4, 2);
+
+        Map<Handler, Integer> expected = new LinkedHashMap<>();
+        expected.put(second, 0);
+        expected.put(first, 4);
+        expected.put(third, 4);
+        assertEquals(expected, read(Arrays.asList(first, second, third), 0, 0));
+    }
+
+    @Test
+    public void onlyHandlersOfChangedRangeAreUpdated() {
+        Handler first = new Handler(0, 2);
+        Handler second = new Handler(4, 2);
+        Handler third = new Handler(4, 2);
+        List<Handler> handlers = Arrays.asList(first, second, third);
+        read(handlers, 0, 0);
+
+        assertTrue(read(handlers, 0, 0).isEmpty());
+
+        Map<Handler, Integer> expected = new LinkedHashMap<>();
+        expected.put(second, 4);
+        expected.put(third, 4);
+        assertEquals(expected, read(handlers, 5, 1));
+        assertTrue(read(handlers, 5, 1).isEmpty());
+
+        read(handlers, 0, 0);
+        assertEquals(Collections.singletonMap(first, 0), read(handlers, 1, 1));
+    }
+
+    @Test
+    public void forcedAndPendingHandlersAreAlwaysUpdated() {
+        Handler forced = new Handler(0, 2);
+        Handler pendingHandler = new Handler(4, 2);
+        Handler unchanged = new Handler(8, 2);
+        List<Handler> handlers = Arrays.asList(forced, pendingHandler, unchanged);
+        read(handlers, 0, 0);
+
+        forced.forced = true;
+        pending.add(pendingHandler);
+        Map<Handler, Integer> expected = new LinkedHashMap<>();
+        expected.put(forced, 0);
+        expected.put(pendingHandler, 4);
+        assertEquals(expected, read(handlers, 0, 0));
+    }
+
+    @Test
+    public void invalidHandlerIsIndexedOnNextRead() {
+        Handler valid = new Handler(0, 2);
+        Handler invalid = new Handler(Integer.MAX_VALUE, 0);
+        Handler outOfMemory = new Handler(SIZE - 1, 2);
+        List<Handler> handlers = Arrays.asList(valid, invalid, outOfMemory);
+        assertEquals(Collections.singletonMap(valid, 0), read(handlers, 0, 0));
+
+        // the handler is initialized now, the index is rebuilt, because it was incomplete
+        Handler initialized = new Handler(8, 2);
+        handlers = Arrays.asList(valid, initialized);
+        assertEquals(Collections.singletonMap(initialized, 8), read(handlers, 9, 1));
+    }
+
+    @Test
+    public void indexIsRebuiltWhenInvalidated() {
+        Handler first = new Handler(0, 2);
+        read(Collections.singletonList(first), 0, 0);
+
+        Handler added = new Handler(4, 2);
+        pending.add(added);
+        image.invalidateIndex();
+        assertEquals(Collections.singletonMap(added, 4), read(Arrays.asList(first, added), 0, 0));
+
+        image.invalidate();
+        assertEquals(2, read(Arrays.asList(first, added), 0, 0).size());
+    }
+
+    @Test
+    public void readerSlowsDownWithoutChanges() {
+        List<Handler> handlers = Collections.singletonList(new Handler(0, 2));
+        read(handlers, 0, 0);
+
+        // one more skipped read after each step of idle reads
+        for (int step = 1; step <= 7; step++) {
+            for (int i = 1; i < PLCMemoryImage.IDLE_CYCLES_PER_STEP; i++) {
+                read(handlers, 0, 0);
+                assertEquals(step - 1, countSkippedReads());
+            }
+            read(handlers, 0, 0);
+            assertEquals(step, countSkippedReads());
+        }
+
+        // at most by factor 8
+        for (int i = 0; i < 2 * PLCMemoryImage.IDLE_CYCLES_PER_STEP; i++) {
+            read(handlers, 0, 0);
+            assertEquals(7, countSkippedReads());
+        }
+
+        // a change reads at full rate again
+        read(handlers, 0, 1);
+        assertEquals(0, countSkippedReads());
+    }
+
+    @Test
+    public void forcedHandlerKeepsFullRate() {
+        Handler handler = new Handler(0, 2);
+        handler.forced = true;
+        List<Handler> handlers = Collections.singletonList(handler);
+
+        for (int i = 0; i < 2 * PLCMemoryImage.IDLE_CYCLES_PER_STEP; i++) {
+            assertEquals(Collections.singletonMap(handler, 0), read(handlers, 0, 0));
+            assertEquals(0, countSkippedReads());
+        }
+    }
+
+    @Test
+    public void resetReadsAtFullRate() {
+        List<Handler> handlers = Collections.singletonList(new Handler(0, 2));
+        for (int i = 0; i <= PLCMemoryImage.IDLE_CYCLES_PER_STEP; i++) {
+            read(handlers, 0, 0);
+        }
+        image.reset();
+        assertFalse(image.skipRead());
+        assertEquals(1, read(handlers, 0, 0).size());
+    }
+}
@@ -21,7 +21,10 @@ public class EnergyMeterConfig {
 
     private String mcastGroup;
     private Integer port;
+    private String serialNumber;
+    private String updateMode;
     private Integer pollingPeriod;
+    private Integer minUpdateInterval;
 
     public String getMcastGroup() {
         return mcastGroup;
@@ -39,6 +42,22 @@ public class EnergyMeterConfig {
         this.port = port;
     }
 
+    public String getSerialNumber() {
+        return serialNumber;
+    }
+
+    public void setSerialNumber(String serialNumber) {
+        this.serialNumber = serialNumber;
+    }
+
+    public String getUpdateMode() {
+        return updateMode;
+    }
+
+    public void setUpdateMode(String updateMode) {
+        this.updateMode = updateMode;
+    }
+
     public Integer getPollingPeriod() {
         return pollingPeriod;
     }
@@ -47,4 +66,12 @@ public class EnergyMeterConfig {
         this.pollingPeriod = pollingPeriod;
     }
 
+    public Integer getMinUpdateInterval() {
+        return minUpdateInterval;
+    }
+
+    public void setMinUpdateInterval(Integer minUpdateInterval) {
+        this.minUpdateInterval = minUpdateInterval;
+    }
+
 }
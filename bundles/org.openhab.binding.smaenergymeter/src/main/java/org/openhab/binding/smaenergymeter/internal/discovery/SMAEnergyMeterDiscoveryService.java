@@ -18,7 +18,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.config.discovery.AbstractDiscoveryService;
 import org.eclipse.smarthome.config.discovery.DiscoveryResult;
@@ -28,6 +28,8 @@ import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.openhab.binding.smaenergymeter.internal.handler.EnergyMeter;
+import org.openhab.binding.smaenergymeter.internal.handler.MulticastReceiver;
+import org.openhab.binding.smaenergymeter.internal.handler.MulticastReceiver.TelegramListener;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,13 +38,20 @@ import org.slf4j.LoggerFactory;
  * The {@link SMAEnergyMeterDiscoveryService} class implements a service
  * for discovering the SMA Energy Meter.
  *
+ * All energy meters sending to the default multicast group are discovered, the telegrams are received by the
+ * {@link MulticastReceiver} shared with the things.
+ *
  * @author Osman Basha - Initial contribution
  */
 @Component(service = DiscoveryService.class, immediate = true, configurationPid = "discovery.smaenergymeter")
-public class SMAEnergyMeterDiscoveryService extends AbstractDiscoveryService {
+public class SMAEnergyMeterDiscoveryService extends AbstractDiscoveryService implements TelegramListener {
 
     private final Logger logger = LoggerFactory.getLogger(SMAEnergyMeterDiscoveryService.class);
 
+    private final Set<String> discoveredSerialNumbers = ConcurrentHashMap.newKeySet();
+    private MulticastReceiver receiver;
+    private boolean backgroundDiscovery = false;
+
     public SMAEnergyMeterDiscoveryService() {
         super(SUPPORTED_THING_TYPES_UIDS, 15, true);
     }
@@ -55,34 +64,74 @@ public class SMAEnergyMeterDiscoveryService extends AbstractDiscoveryService {
     @Override
     protected void startBackgroundDiscovery() {
         logger.debug("Start SMAEnergyMeter background discovery");
-        scheduler.schedule(this::discover, 0, TimeUnit.SECONDS);
+        backgroundDiscovery = true;
+        discoveredSerialNumbers.clear();
+        startListening();
+    }
+
+    @Override
+    protected void stopBackgroundDiscovery() {
+        logger.debug("Stop SMAEnergyMeter background discovery");
+        backgroundDiscovery = false;
+        stopListening();
     }
 
     @Override
     public void startScan() {
         logger.debug("Start SMAEnergyMeter scan");
-        discover();
+        discoveredSerialNumbers.clear();
+        startListening();
     }
 
-    private synchronized void discover() {
-        logger.debug("Try to discover a SMA Energy Meter device");
+    @Override
+    protected synchronized void stopScan() {
+        super.stopScan();
+        if (!backgroundDiscovery) {
+            stopListening();
+        }
+    }
+
+    @Override
+    protected void deactivate() {
+        super.deactivate();
+        backgroundDiscovery = false;
+        stopListening();
+    }
 
-        EnergyMeter energyMeter = new EnergyMeter(EnergyMeter.DEFAULT_MCAST_GRP, EnergyMeter.DEFAULT_MCAST_PORT);
+    private synchronized void startListening() {
+        if (receiver != null) {
+            return;
+        }
+        logger.debug("Try to discover SMA Energy Meter devices");
         try {
-            energyMeter.update();
+            receiver = MulticastReceiver.acquire(EnergyMeter.DEFAULT_MCAST_GRP, EnergyMeter.DEFAULT_MCAST_PORT);
+            receiver.addListener(this);
         } catch (IOException e) {
-            logger.debug("No SMA Energy Meter found.");
-            logger.debug("Diagnostic: ", e);
+            logger.debug("Could not listen for SMA Energy Meters: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void stopListening() {
+        if (receiver != null) {
+            receiver.removeListener(this);
+            receiver.release();
+            receiver = null;
+        }
+    }
+
+    @Override
+    public void onTelegram(String serialNumber, byte[] telegram, int length) {
+        if (!discoveredSerialNumbers.add(serialNumber)) {
             return;
         }
 
-        logger.debug("Adding a new SMA Engergy Meter with S/N '{}' to inbox", energyMeter.getSerialNumber());
+        logger.debug("Adding a new SMA Engergy Meter with S/N '{}' to inbox", serialNumber);
         Map<String, Object> properties = new HashMap<>();
         properties.put(Thing.PROPERTY_VENDOR, "SMA");
-        properties.put(Thing.PROPERTY_SERIAL_NUMBER, energyMeter.getSerialNumber());
-        ThingUID uid = new ThingUID(THING_TYPE_ENERGY_METER, energyMeter.getSerialNumber());
+        properties.put(Thing.PROPERTY_SERIAL_NUMBER, serialNumber);
+        ThingUID uid = new ThingUID(THING_TYPE_ENERGY_METER, serialNumber);
         DiscoveryResult result = DiscoveryResultBuilder.create(uid).withProperties(properties)
-                .withLabel("SMA Energy Meter").build();
+                .withRepresentationProperty(Thing.PROPERTY_SERIAL_NUMBER).withLabel("SMA Energy Meter").build();
         thingDiscovered(result);
 
         logger.debug("Thing discovered '{}'", result);
@@ -12,99 +12,173 @@
  */
 package org.openhab.binding.smaenergymeter.internal.handler;
 
-import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.InetAddress;
-import java.net.MulticastSocket;
-import java.nio.ByteBuffer;
-import java.util.Arrays;
-import java.util.Date;
+import static org.openhab.binding.smaenergymeter.internal.SMAEnergyMeterBindingConstants.*;
 
-import org.eclipse.smarthome.core.library.types.DecimalType;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * The {@link EnergyMeter} class is responsible for communication with the SMA device
- * and extracting the data fields out of the received telegrams.
+ * The {@link EnergyMeter} class is responsible for extracting the data fields out of the telegrams
+ * received from the SMA device.
+ *
+ * The measurements of a telegram are a sequence of OBIS entries, each made of a four byte header
+ * (channel, index, type, tariff) and a value of four bytes (actual values) or eight bytes (counters).
+ * They are decoded in place and only the fields known to this class are updated.
  *
  * @author Osman Basha - Initial contribution
  */
 public class EnergyMeter {
 
-    private String multicastGroup;
-    private int port;
-
-    private String serialNumber;
-    private Date lastUpdate;
-
-    private final FieldDTO powerIn;
-    private final FieldDTO energyIn;
-    private final FieldDTO powerOut;
-    private final FieldDTO energyOut;
-
     public static final String DEFAULT_MCAST_GRP = "239.12.255.254";
     public static final int DEFAULT_MCAST_PORT = 9522;
 
-    public EnergyMeter(String multicastGroup, int port) {
-        this.multicastGroup = multicastGroup;
-        this.port = port;
-
-        powerIn = new FieldDTO(0x20, 4, 10);
-        energyIn = new FieldDTO(0x28, 8, 3600000);
-        powerOut = new FieldDTO(0x34, 4, 10);
-        energyOut = new FieldDTO(0x3C, 8, 3600000);
+    private static final int PROTOCOL_ENERGY_METER = 0x6069;
+    private static final int OFFSET_DATA_LENGTH = 0x0C;
+    private static final int OFFSET_PROTOCOL = 0x10;
+    private static final int OFFSET_SERIAL_NUMBER = 0x14;
+    private static final int OFFSET_MEASUREMENTS = 0x1C;
+
+    private static final int TYPE_ACTUAL = 4;
+    private static final int TYPE_COUNTER = 8;
+    private static final int CHANNEL_SOFTWARE_VERSION = 0x90;
+
+    private static final String[][] PHASE_CHANNELS = {
+            { CHANNEL_POWER_IN_L1, CHANNEL_POWER_OUT_L1, CHANNEL_ENERGY_IN_L1, CHANNEL_ENERGY_OUT_L1,
+                    CHANNEL_CURRENT_L1, CHANNEL_VOLTAGE_L1 },
+            { CHANNEL_POWER_IN_L2, CHANNEL_POWER_OUT_L2, CHANNEL_ENERGY_IN_L2, CHANNEL_ENERGY_OUT_L2,
+                    CHANNEL_CURRENT_L2, CHANNEL_VOLTAGE_L2 },
+            { CHANNEL_POWER_IN_L3, CHANNEL_POWER_OUT_L3, CHANNEL_ENERGY_IN_L3, CHANNEL_ENERGY_OUT_L3,
+                    CHANNEL_CURRENT_L3, CHANNEL_VOLTAGE_L3 } };
+
+    private final Map<String, FieldDTO> fields = new LinkedHashMap<>();
+    private final Map<String, FieldDTO> unmodifiableFields = Collections.unmodifiableMap(fields);
+    private final FieldDTO[] actualValues = new FieldDTO[256];
+    private final FieldDTO[] counters = new FieldDTO[256];
+
+    private long lastUpdate;
+    private long rawSoftwareVersion;
+    private String softwareVersion;
+
+    public EnergyMeter() {
+        addField(CHANNEL_POWER_IN, 1, TYPE_ACTUAL, 10);
+        addField(CHANNEL_POWER_OUT, 2, TYPE_ACTUAL, 10);
+        addField(CHANNEL_ENERGY_IN, 1, TYPE_COUNTER, 3600000);
+        addField(CHANNEL_ENERGY_OUT, 2, TYPE_COUNTER, 3600000);
+        addField(CHANNEL_POWER_FACTOR, 13, TYPE_ACTUAL, 1000);
+        addField(CHANNEL_FREQUENCY, 14, TYPE_ACTUAL, 1000);
+
+        // the measurements of phase n use the indices of the total values increased by 20 * n
+        for (int phase = 0; phase < PHASE_CHANNELS.length; phase++) {
+            int offset = 20 * (phase + 1);
+            String[] channels = PHASE_CHANNELS[phase];
+            addField(channels[0], offset + 1, TYPE_ACTUAL, 10);
+            addField(channels[1], offset + 2, TYPE_ACTUAL, 10);
+            addField(channels[2], offset + 1, TYPE_COUNTER, 3600000);
+            addField(channels[3], offset + 2, TYPE_COUNTER, 3600000);
+            addField(channels[4], offset + 11, TYPE_ACTUAL, 1000);
+            addField(channels[5], offset + 12, TYPE_ACTUAL, 1000);
+        }
     }
 
-    public void update() throws IOException {
-        byte[] bytes = new byte[600];
-        try (MulticastSocket socket = new MulticastSocket(port)) {
-            socket.setSoTimeout(5000);
-            InetAddress address = InetAddress.getByName(multicastGroup);
-            socket.joinGroup(address);
+    private void addField(String channelId, int index, int type, int divisor) {
+        FieldDTO field = new FieldDTO(index, type, divisor);
+        fields.put(channelId, field);
+        if (type == TYPE_COUNTER) {
+            counters[index] = field;
+        } else {
+            actualValues[index] = field;
+        }
+    }
 
-            DatagramPacket msgPacket = new DatagramPacket(bytes, bytes.length);
-            socket.receive(msgPacket);
+    /**
+     * get the serial number of the energy meter that sent a telegram
+     *
+     * @param bytes the received telegram
+     * @param length the length of the telegram
+     * @return the serial number or null if this is not an energy meter telegram
+     */
+    public static String getSerialNumber(byte[] bytes, int length) {
+        if (length < OFFSET_MEASUREMENTS || bytes[0] != 'S' || bytes[1] != 'M' || bytes[2] != 'A') {
+            return null;
+        }
+        if ((int) (FieldDTO.bytesToUInt32(bytes, OFFSET_PROTOCOL) >>> 16) != PROTOCOL_ENERGY_METER) {
+            // other SMA devices (i.e. inverters) use the same multicast group
+            return null;
+        }
+        return String.valueOf((int) FieldDTO.bytesToUInt32(bytes, OFFSET_SERIAL_NUMBER));
+    }
 
-            String sma = new String(Arrays.copyOfRange(bytes, 0x00, 0x03));
-            if (!sma.equals("SMA")) {
-                throw new IOException("Not a SMA telegram." + sma);
+    /**
+     * update the fields from a telegram, the telegram must have been checked with
+     * {@link #getSerialNumber(byte[], int)}
+     *
+     * @param bytes the received telegram
+     * @param length the length of the telegram
+     * @throws IOException if the telegram is truncated
+     */
+    public void update(byte[] bytes, int length) throws IOException {
+        int dataLength = (int) (FieldDTO.bytesToUInt32(bytes, OFFSET_DATA_LENGTH) >>> 16);
+        int end = Math.min(length, OFFSET_PROTOCOL + dataLength);
+
+        int offset = OFFSET_MEASUREMENTS;
+        while (offset + 4 <= end) {
+            int channel = bytes[offset] & 0xFF;
+            int index = bytes[offset + 1] & 0xFF;
+            int type = bytes[offset + 2] & 0xFF;
+            if (channel == 0 && index == 0 && type == 0) {
+                // end of the measurements
+                break;
             }
 
-            ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOfRange(bytes, 0x14, 0x18));
-            serialNumber = String.valueOf(buffer.getInt());
-
-            powerIn.updateValue(bytes);
-            energyIn.updateValue(bytes);
-            powerOut.updateValue(bytes);
-            energyOut.updateValue(bytes);
+            int valueOffset = offset + 4;
+            int valueLength = (type == TYPE_COUNTER) ? 8 : 4;
+            if (valueOffset + valueLength > end) {
+                throw new IOException("Truncated SMA telegram at offset " + offset);
+            }
 
-            lastUpdate = new Date(System.currentTimeMillis());
-        } catch (Exception e) {
-            throw new IOException(e);
+            if (channel == CHANNEL_SOFTWARE_VERSION) {
+                updateSoftwareVersion(FieldDTO.bytesToUInt32(bytes, valueOffset));
+            } else {
+                FieldDTO field = (type == TYPE_COUNTER) ? counters[index] : actualValues[index];
+                if (field != null && field.getLength() == valueLength) {
+                    field.updateValue(bytes, valueOffset);
+                }
+            }
+            offset = valueOffset + valueLength;
         }
-    }
 
-    public String getSerialNumber() {
-        return serialNumber;
+        lastUpdate = System.currentTimeMillis();
     }
 
-    public Date getLastUpdate() {
-        return lastUpdate;
-    }
-
-    public DecimalType getPowerIn() {
-        return new DecimalType(powerIn.getValue());
+    private void updateSoftwareVersion(long version) {
+        if (softwareVersion == null || version != rawSoftwareVersion) {
+            rawSoftwareVersion = version;
+            softwareVersion = String.format("%d.%d.%d.%c", (version >> 24) & 0xFF, (version >> 16) & 0xFF,
+                    (version >> 8) & 0xFF, (char) (version & 0xFF));
+        }
     }
 
-    public DecimalType getPowerOut() {
-        return new DecimalType(powerOut.getValue());
+    /**
+     * @return the time of the last update in ms or 0 if no telegram was received yet
+     */
+    public long getLastUpdate() {
+        return lastUpdate;
     }
 
-    public DecimalType getEnergyIn() {
-        return new DecimalType(energyIn.getValue());
+    /**
+     * @return the software version of the energy meter or null if it was not transmitted yet
+     */
+    public String getSoftwareVersion() {
+        return softwareVersion;
     }
 
-    public DecimalType getEnergyOut() {
-        return new DecimalType(energyOut.getValue());
+    /**
+     * @return the fields of the energy meter by channel id
+     */
+    public Map<String, FieldDTO> getFields() {
+        return unmodifiableFields;
     }
 
 }
@@ -12,9 +12,6 @@
  */
 package org.openhab.binding.smaenergymeter.internal.handler;
 
-import java.nio.ByteBuffer;
-import java.util.Arrays;
-
 /**
  * The {@link FieldDTO} class holds the data for a single field (i.e. the power purchased).
  *
@@ -22,13 +19,15 @@ import java.util.Arrays;
  */
 public class FieldDTO {
 
-    private final int address;
+    private final int index;
     private final int length;
     private final int divisor;
     private float value;
+    private boolean received;
+    private boolean changed;
 
-    public FieldDTO(int address, int length, int divisor) {
-        this.address = address;
+    public FieldDTO(int index, int length, int divisor) {
+        this.index = index;
         if ((length != 4) && (length != 8)) {
             throw new IllegalArgumentException("length should be 4 or 8 bytes");
         }
@@ -36,26 +35,66 @@ public class FieldDTO {
         this.divisor = divisor;
     }
 
+    /**
+     * @return the OBIS measurement index of this field
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
     public float getValue() {
         return value;
     }
 
-    public void updateValue(byte[] bytes) {
+    /**
+     * @return true if a value was received for this field
+     */
+    public boolean isReceived() {
+        return received;
+    }
+
+    /**
+     * @return true if the value changed since the last call of {@link #resetChanged()}
+     */
+    public boolean isChanged() {
+        return changed;
+    }
+
+    public void resetChanged() {
+        changed = false;
+    }
+
+    /**
+     * update the value from a telegram
+     *
+     * @param bytes the telegram
+     * @param offset the offset of the value in the telegram
+     */
+    public void updateValue(byte[] bytes, int offset) {
+        float newValue;
         if (length == 4) {
-            value = (float) bytesToUInt16(Arrays.copyOfRange(bytes, address, address + 4)) / divisor;
+            newValue = (float) bytesToUInt32(bytes, offset) / divisor;
         } else {
-            value = (float) bytesToUInt32(Arrays.copyOfRange(bytes, address, address + 8)) / divisor;
+            newValue = (float) bytesToUInt64(bytes, offset) / divisor;
+        }
+        if (!received || newValue != value) {
+            value = newValue;
+            received = true;
+            changed = true;
         }
     }
 
-    private int bytesToUInt16(byte[] bytes) {
-        ByteBuffer buffer = ByteBuffer.wrap(bytes);
-        return buffer.getInt();
+    static long bytesToUInt32(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFFL) << 24) | ((bytes[offset + 1] & 0xFFL) << 16)
+                | ((bytes[offset + 2] & 0xFFL) << 8) | (bytes[offset + 3] & 0xFFL);
     }
 
-    private long bytesToUInt32(byte[] bytes) {
-        ByteBuffer buffer = ByteBuffer.wrap(bytes);
-        return buffer.getLong();
+    static long bytesToUInt64(byte[] bytes, int offset) {
+        return (bytesToUInt32(bytes, offset) << 32) | bytesToUInt32(bytes, offset + 4);
     }
 
 }
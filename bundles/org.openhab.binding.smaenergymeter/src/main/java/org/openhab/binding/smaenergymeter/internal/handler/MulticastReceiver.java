@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.smaenergymeter.internal.handler;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.MulticastSocket;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link MulticastReceiver} class receives the telegrams of all SMA energy meters sending to a multicast group and
+ * dispatches them to the listeners of the sending meter.
+ *
+ * There is only one receiver per multicast group and port, it is shared by all things and the discovery service. The
+ * socket is kept open until the last user releases the receiver.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class MulticastReceiver {
+
+    /**
+     * The {@link TelegramListener} is notified about received telegrams. It is called from the receiver thread and
+     * must not keep a reference to the telegram, which is overwritten by the next one.
+     */
+    public interface TelegramListener {
+        void onTelegram(String serialNumber, byte[] telegram, int length);
+    }
+
+    private static final Map<String, MulticastReceiver> RECEIVERS = new HashMap<>();
+
+    private static final int BUFFER_SIZE = 1024;
+    private static final long RETRY_DELAY = TimeUnit.SECONDS.toMillis(5);
+
+    private final Logger logger = LoggerFactory.getLogger(MulticastReceiver.class);
+
+    private final String key;
+    private final InetAddress group;
+    private final int port;
+
+    private final Map<String, List<TelegramListener>> meterListeners = new ConcurrentHashMap<>();
+    private final List<TelegramListener> listeners = new CopyOnWriteArrayList<>();
+
+    private int references = 0;
+    private volatile boolean running = false;
+    private volatile MulticastSocket socket;
+    private Thread thread;
+
+    private MulticastReceiver(String key, InetAddress group, int port) {
+        this.key = key;
+        this.group = group;
+        this.port = port;
+    }
+
+    /**
+     * get the receiver for a multicast group, the receiver is started if necessary
+     *
+     * @param multicastGroup the IP address of the multicast group
+     * @param port the port of the multicast group
+     * @return the shared receiver, must be released with {@link #release()}
+     * @throws IOException if the multicast group is invalid
+     */
+    public static MulticastReceiver acquire(String multicastGroup, int port) throws IOException {
+        InetAddress group = InetAddress.getByName(multicastGroup);
+        if (!group.isMulticastAddress()) {
+            throw new IOException(multicastGroup + " is not a multicast address");
+        }
+        String key = group.getHostAddress() + ":" + port;
+        synchronized (RECEIVERS) {
+            MulticastReceiver receiver = RECEIVERS.get(key);
+            if (receiver == null) {
+                receiver = new MulticastReceiver(key, group, port);
+                RECEIVERS.put(key, receiver);
+                receiver.start();
+            }
+            receiver.references++;
+            return receiver;
+        }
+    }
+
+    /**
+     * release the receiver, the socket is closed if no one else uses it
+     */
+    public void release() {
+        synchronized (RECEIVERS) {
+            references--;
+            if (references == 0) {
+                RECEIVERS.remove(key);
+                stop();
+            }
+        }
+    }
+
+    /**
+     * add a listener for the telegrams of a single energy meter
+     *
+     * @param serialNumber the serial number of the energy meter
+     * @param listener the listener
+     */
+    public void addListener(String serialNumber, TelegramListener listener) {
+        meterListeners.computeIfAbsent(serialNumber, s -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * add a listener for the telegrams of all energy meters
+     *
+     * @param listener the listener
+     */
+    public void addListener(TelegramListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * remove a listener, regardless of how it was added
+     *
+     * @param listener the listener
+     */
+    public void removeListener(TelegramListener listener) {
+        listeners.remove(listener);
+        meterListeners.values().forEach(list -> list.remove(listener));
+    }
+
+    private void start() {
+        running = true;
+        thread = new Thread(this::receive, "OH-binding-smaenergymeter-" + key);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void stop() {
+        running = false;
+        MulticastSocket socket = this.socket;
+        if (socket != null) {
+            // unblocks the receiving thread
+            socket.close();
+        }
+        thread.interrupt();
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+
+        while (running) {
+            try (MulticastSocket socket = new MulticastSocket(port)) {
+                this.socket = socket;
+                if (!running) {
+                    break;
+                }
+                socket.joinGroup(group);
+                logger.debug("Listening for SMA telegrams on {}", key);
+
+                while (running) {
+                    packet.setLength(buffer.length);
+                    socket.receive(packet);
+                    dispatch(buffer, packet.getLength());
+                }
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Receiving SMA telegrams on {} failed, retrying in {} s: {}", key,
+                            TimeUnit.MILLISECONDS.toSeconds(RETRY_DELAY), e.getMessage());
+                    try {
+                        Thread.sleep(RETRY_DELAY);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            } finally {
+                this.socket = null;
+            }
+        }
+        logger.debug("Stopped listening for SMA telegrams on {}", key);
+    }
+
+    private void dispatch(byte[] telegram, int length) {
+        String serialNumber = EnergyMeter.getSerialNumber(telegram, length);
+        if (serialNumber == null) {
+            logger.trace("Ignoring telegram with length {} on {}", length, key);
+            return;
+        }
+
+        List<TelegramListener> listenersOfMeter = meterListeners.get(serialNumber);
+        if (listenersOfMeter != null) {
+            listenersOfMeter.forEach(listener -> notify(listener, serialNumber, telegram, length));
+        }
+        listeners.forEach(listener -> notify(listener, serialNumber, telegram, length));
+    }
+
+    private void notify(TelegramListener listener, String serialNumber, byte[] telegram, int length) {
+        try {
+            listener.onTelegram(serialNumber, telegram, length);
+        } catch (RuntimeException e) {
+            logger.warn("Processing the telegram of SMA Energy Meter '{}' failed", serialNumber, e);
+        }
+    }
+
+}
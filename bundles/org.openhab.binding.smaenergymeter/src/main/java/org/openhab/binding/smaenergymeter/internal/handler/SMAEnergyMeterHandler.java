@@ -15,9 +15,12 @@ package org.openhab.binding.smaenergymeter.internal.handler;
 import static org.openhab.binding.smaenergymeter.internal.SMAEnergyMeterBindingConstants.*;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
@@ -26,6 +29,7 @@ import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.openhab.binding.smaenergymeter.internal.configuration.EnergyMeterConfig;
+import org.openhab.binding.smaenergymeter.internal.handler.MulticastReceiver.TelegramListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,14 +37,30 @@ import org.slf4j.LoggerFactory;
  * The {@link SMAEnergyMeterHandler} is responsible for handling commands, which are
  * sent to one of the channels.
  *
+ * The telegrams of the energy meter are pushed by the shared {@link MulticastReceiver}. In the periodic update mode
+ * the latest values are posted once per polling period, in the live update mode changed values are posted as they
+ * are received, but not more often than the configured minimum update interval.
+ *
  * @author Osman Basha - Initial contribution
  */
-public class SMAEnergyMeterHandler extends BaseThingHandler {
+public class SMAEnergyMeterHandler extends BaseThingHandler implements TelegramListener {
+
+    private static final int DEFAULT_POLLING_PERIOD = 30;
+    private static final int DEFAULT_MIN_UPDATE_INTERVAL = 1000;
+    private static final int WATCHDOG_PERIOD = 10;
+    private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(10);
 
     private final Logger logger = LoggerFactory.getLogger(SMAEnergyMeterHandler.class);
     private EnergyMeter energyMeter;
+    private MulticastReceiver receiver;
     private ScheduledFuture<?> pollingJob;
 
+    private String serialNumber;
+    private String softwareVersion;
+    private boolean liveMode;
+    private long minUpdateInterval;
+    private long lastPublish;
+
     public SMAEnergyMeterHandler(Thing thing) {
         super(thing);
     }
@@ -49,7 +69,7 @@ public class SMAEnergyMeterHandler extends BaseThingHandler {
     public void handleCommand(ChannelUID channelUID, Command command) {
         if (command == RefreshType.REFRESH) {
             logger.debug("Refreshing {}", channelUID);
-            updateData();
+            refresh(channelUID);
         } else {
             logger.warn("This binding is a read-only binding and cannot handle commands");
         }
@@ -61,24 +81,47 @@ public class SMAEnergyMeterHandler extends BaseThingHandler {
 
         EnergyMeterConfig config = getConfigAs(EnergyMeterConfig.class);
 
+        String mcastGroup = StringUtils.isEmpty(config.getMcastGroup()) ? EnergyMeter.DEFAULT_MCAST_GRP
+                : config.getMcastGroup();
         int port = (config.getPort() == null) ? EnergyMeter.DEFAULT_MCAST_PORT : config.getPort();
-        energyMeter = new EnergyMeter(config.getMcastGroup(), port);
-        try {
-            energyMeter.update();
+        serialNumber = StringUtils.isEmpty(config.getSerialNumber())
+                ? getThing().getProperties().get(Thing.PROPERTY_SERIAL_NUMBER)
+                : config.getSerialNumber();
+        if (StringUtils.isEmpty(serialNumber)) {
+            serialNumber = null;
+        }
+        liveMode = UPDATE_MODE_LIVE.equals(config.getUpdateMode());
+        minUpdateInterval = (config.getMinUpdateInterval() == null) ? DEFAULT_MIN_UPDATE_INTERVAL
+                : config.getMinUpdateInterval();
+        softwareVersion = null;
+        lastPublish = 0;
 
-            updateProperty(Thing.PROPERTY_VENDOR, "SMA");
-            updateProperty(Thing.PROPERTY_SERIAL_NUMBER, energyMeter.getSerialNumber());
-            logger.debug("Found a SMA Energy Meter with S/N '{}'", energyMeter.getSerialNumber());
+        try {
+            receiver = MulticastReceiver.acquire(mcastGroup, port);
         } catch (IOException e) {
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.OFFLINE.CONFIGURATION_ERROR, e.getMessage());
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, e.getMessage());
             return;
         }
 
-        int pollingPeriod = (config.getPollingPeriod() == null) ? 30 : config.getPollingPeriod();
-        pollingJob = scheduler.scheduleWithFixedDelay(this::updateData, 0, pollingPeriod, TimeUnit.SECONDS);
-        logger.debug("Polling job scheduled to run every {} sec. for '{}'", pollingPeriod, getThing().getUID());
+        energyMeter = new EnergyMeter();
+        updateProperty(Thing.PROPERTY_VENDOR, "SMA");
+        updateStatus(ThingStatus.UNKNOWN);
 
-        updateStatus(ThingStatus.ONLINE);
+        if (serialNumber == null) {
+            receiver.addListener(this);
+        } else {
+            receiver.addListener(serialNumber, this);
+        }
+
+        int pollingPeriod = (config.getPollingPeriod() == null) ? DEFAULT_POLLING_PERIOD : config.getPollingPeriod();
+        int period = liveMode ? WATCHDOG_PERIOD : pollingPeriod;
+        pollingJob = scheduler.scheduleWithFixedDelay(this::updateData, period, period, TimeUnit.SECONDS);
+        if (liveMode) {
+            logger.debug("Live updates enabled with a minimum interval of {} ms for '{}'", minUpdateInterval,
+                    getThing().getUID());
+        } else {
+            logger.debug("Polling job scheduled to run every {} sec. for '{}'", pollingPeriod, getThing().getUID());
+        }
     }
 
     @Override
@@ -89,25 +132,99 @@ public class SMAEnergyMeterHandler extends BaseThingHandler {
             pollingJob.cancel(true);
             pollingJob = null;
         }
-        energyMeter = null;
+        if (receiver != null) {
+            receiver.removeListener(this);
+            receiver.release();
+            receiver = null;
+        }
+        synchronized (this) {
+            energyMeter = null;
+        }
+    }
+
+    @Override
+    public synchronized void onTelegram(String serialNumber, byte[] telegram, int length) {
+        EnergyMeter energyMeter = this.energyMeter;
+        if (energyMeter == null) {
+            return;
+        }
+
+        if (this.serialNumber == null) {
+            // without a configured serial number the first energy meter that is received is used
+            this.serialNumber = serialNumber;
+            receiver.removeListener(this);
+            receiver.addListener(serialNumber, this);
+            updateProperty(Thing.PROPERTY_SERIAL_NUMBER, serialNumber);
+            logger.debug("Found a SMA Energy Meter with S/N '{}'", serialNumber);
+        } else if (!this.serialNumber.equals(serialNumber)) {
+            return;
+        }
+
+        try {
+            energyMeter.update(telegram, length);
+        } catch (IOException e) {
+            logger.debug("Ignoring telegram of SMA Energy Meter '{}': {}", serialNumber, e.getMessage());
+            return;
+        }
+
+        if (getThing().getStatus() != ThingStatus.ONLINE) {
+            updateStatus(ThingStatus.ONLINE);
+        }
+        String version = energyMeter.getSoftwareVersion();
+        if (version != null && !version.equals(softwareVersion)) {
+            softwareVersion = version;
+            updateProperty(Thing.PROPERTY_FIRMWARE_VERSION, version);
+        }
+
+        if (liveMode) {
+            long now = energyMeter.getLastUpdate();
+            if (now - lastPublish >= minUpdateInterval) {
+                publish(energyMeter, true);
+                lastPublish = now;
+            }
+        }
     }
 
     private synchronized void updateData() {
         logger.debug("Update SMAEnergyMeter data '{}'", getThing().getUID());
 
-        try {
-            energyMeter.update();
+        EnergyMeter energyMeter = this.energyMeter;
+        if (energyMeter == null) {
+            return;
+        }
+
+        if (System.currentTimeMillis() - energyMeter.getLastUpdate() > TIMEOUT) {
+            if (getThing().getStatus() != ThingStatus.OFFLINE) {
+                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
+                        "No telegram received from the SMA Energy Meter");
+            }
+            return;
+        }
+
+        if (!liveMode) {
+            publish(energyMeter, false);
+        }
+    }
 
-            updateState(CHANNEL_POWER_IN, energyMeter.getPowerIn());
-            updateState(CHANNEL_POWER_OUT, energyMeter.getPowerOut());
-            updateState(CHANNEL_ENERGY_IN, energyMeter.getEnergyIn());
-            updateState(CHANNEL_ENERGY_OUT, energyMeter.getEnergyOut());
+    private synchronized void refresh(ChannelUID channelUID) {
+        EnergyMeter energyMeter = this.energyMeter;
+        if (energyMeter == null) {
+            return;
+        }
+
+        FieldDTO field = energyMeter.getFields().get(channelUID.getId());
+        if (field != null && field.isReceived()) {
+            updateState(channelUID, new DecimalType(field.getValue()));
+        }
+    }
 
-            if (getThing().getStatus().equals(ThingStatus.OFFLINE)) {
-                updateStatus(ThingStatus.ONLINE);
+    private void publish(EnergyMeter energyMeter, boolean changedOnly) {
+        for (Map.Entry<String, FieldDTO> entry : energyMeter.getFields().entrySet()) {
+            FieldDTO field = entry.getValue();
+            if (field.isReceived() && (!changedOnly || field.isChanged())) {
+                updateState(entry.getKey(), new DecimalType(field.getValue()));
+                field.resetChanged();
             }
-        } catch (IOException e) {
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.OFFLINE.COMMUNICATION_ERROR, e.getMessage());
         }
     }
 
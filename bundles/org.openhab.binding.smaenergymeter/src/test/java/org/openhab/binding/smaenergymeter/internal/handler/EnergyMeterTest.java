@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.smaenergymeter.internal.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.openhab.binding.smaenergymeter.internal.SMAEnergyMeterBindingConstants.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link EnergyMeter}
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class EnergyMeterTest {
+
+    private static final int SERIAL_NUMBER = 1900123456;
+
+    private ByteBuffer buffer;
+    private int lengthPosition;
+
+    private void startTelegram(int protocol) {
+        buffer = ByteBuffer.allocate(600);
+        buffer.put("SMA".getBytes()).put((byte) 0);
+        buffer.putShort((short) 0x0004).putShort((short) 0x02A0).putInt(1);
+        lengthPosition = buffer.position();
+        buffer.putShort((short) 0).putShort((short) 0x0010);
+        buffer.putShort((short) protocol).putShort((short) 0x0174).putInt(SERIAL_NUMBER).putInt(0);
+    }
+
+    private int endTelegram() {
+        buffer.putInt(0);
+        int length = buffer.position();
+        buffer.putShort(lengthPosition, (short) (length - 0x10));
+        return length;
+    }
+
+    @Test
+    public void measurementsAreDecoded() throws IOException {
+        startTelegram(0x6069);
+        buffer.putInt(0x00010400).putInt(12345);
+        buffer.putInt(0x00010800).putLong(42L * 3600000);
+        buffer.putInt(0x00020400).putInt(0);
+        buffer.putInt(0x00030400).putInt(7);
+        buffer.putInt(0x00200400).putInt(230120);
+        buffer.putInt(0x00480400).putInt(229500);
+        buffer.putInt(0x90000000).putInt(0x02001252);
+        int length = endTelegram();
+        byte[] telegram = buffer.array();
+
+        assertThat(EnergyMeter.getSerialNumber(telegram, length), is(String.valueOf(SERIAL_NUMBER)));
+
+        EnergyMeter energyMeter = new EnergyMeter();
+        energyMeter.update(telegram, length);
+        assertThat(energyMeter.getFields().get(CHANNEL_POWER_IN).getValue(), is(1234.5f));
+        assertThat(energyMeter.getFields().get(CHANNEL_ENERGY_IN).getValue(), is(42f));
+        assertThat(energyMeter.getFields().get(CHANNEL_POWER_OUT).getValue(), is(0f));
+        assertThat(energyMeter.getFields().get(CHANNEL_VOLTAGE_L1).getValue(), is(230.12f));
+        assertThat(energyMeter.getFields().get(CHANNEL_VOLTAGE_L3).getValue(), is(229.5f));
+        assertFalse(energyMeter.getFields().get(CHANNEL_VOLTAGE_L2).isReceived());
+        assertThat(energyMeter.getSoftwareVersion(), is("2.0.18.R"));
+    }
+
+    @Test
+    public void unchangedValuesAreNotMarkedChanged() throws IOException {
+        startTelegram(0x6069);
+        buffer.putInt(0x00010400).putInt(12345);
+        int length = endTelegram();
+        byte[] telegram = buffer.array();
+
+        EnergyMeter energyMeter = new EnergyMeter();
+        FieldDTO powerIn = energyMeter.getFields().get(CHANNEL_POWER_IN);
+        energyMeter.update(telegram, length);
+        assertTrue(powerIn.isChanged());
+        powerIn.resetChanged();
+        energyMeter.update(telegram, length);
+        assertFalse(powerIn.isChanged());
+    }
+
+    @Test
+    public void otherDevicesAreIgnored() {
+        startTelegram(0x6065);
+        int length = endTelegram();
+
+        assertThat(EnergyMeter.getSerialNumber(buffer.array(), length), is(nullValue()));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedTelegramIsRejected() throws IOException {
+        startTelegram(0x6069);
+        buffer.putInt(0x00010400).putInt(12345);
+        buffer.putInt(0x00010800).putLong(42L * 3600000);
+        endTelegram();
+
+        new EnergyMeter().update(buffer.array(), 40);
+    }
+
+}
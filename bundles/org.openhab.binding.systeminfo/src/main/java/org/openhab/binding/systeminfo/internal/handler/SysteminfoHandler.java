@@ -15,6 +15,7 @@ package org.openhab.binding.systeminfo.internal.handler;
 import static org.openhab.binding.systeminfo.internal.SysteminfoBindingConstants.*;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -239,7 +240,12 @@ public class SysteminfoHandler extends BaseThingHandler {
 
     }
 
-    private void publishData(Set<ChannelUID> channels) {
+    /**
+     * Publishes the linked channels of the given set. All channels are read from one snapshot of the system
+     * information, so each kind of information is queried from the OS only once.
+     */
+    private synchronized void publishData(Set<ChannelUID> channels) {
+        systeminfo.updateSnapshot();
         Iterator<ChannelUID> iter = channels.iterator();
         while (iter.hasNext()) {
             ChannelUID channeUID = iter.next();
@@ -516,7 +522,7 @@ public class SysteminfoHandler extends BaseThingHandler {
         if (thing.getStatus().equals(ThingStatus.ONLINE)) {
             if (command instanceof RefreshType) {
                 logger.debug("Refresh command received for channel {}!", channelUID);
-                publishDataForChannel(channelUID);
+                publishData(Collections.singleton(channelUID));
             } else {
                 logger.debug("Unsupported command {}! Supported commands: REFRESH", command);
             }
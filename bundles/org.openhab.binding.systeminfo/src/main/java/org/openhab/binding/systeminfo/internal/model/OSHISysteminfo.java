@@ -13,6 +13,10 @@
 package org.openhab.binding.systeminfo.internal.model;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -64,15 +68,91 @@ public class OSHISysteminfo implements SysteminfoInterface {
     private @NonNullByDefault({}) CentralProcessor cpu;
     private @NonNullByDefault({}) Sensors sensors;
 
-    // Static objects, should be recreated on each request
+    // Static objects
     private @NonNullByDefault({}) ComputerSystem computerSystem;
     private @NonNullByDefault({}) OperatingSystem operatingSystem;
-    private @NonNullByDefault({}) NetworkIF[] networks;
     private @NonNullByDefault({}) Display[] displays;
-    private @NonNullByDefault({}) OSFileStore[] fileStores;
-    private @NonNullByDefault({}) PowerSource[] powerSources;
     private @NonNullByDefault({}) HWDiskStore[] drives;
 
+    // Dynamic information, queried at most once per refresh cycle. See updateSnapshot().
+    private long cycle = 0;
+    private int queries = 0;
+    // In the current OSHI version a new query is required for the storage, network and battery values to be updated
+    private final Sample<OSFileStore[]> fileStores = new Sample<>(
+            () -> operatingSystem.getFileSystem().getFileStores());
+    private final Sample<NetworkIF[]> networks = new Sample<>(() -> {
+        NetworkIF[] interfaces = hal.getNetworkIFs();
+        for (NetworkIF network : interfaces) {
+            network.updateAttributes();
+        }
+        return interfaces;
+    });
+    private final Sample<PowerSource[]> powerSources = new Sample<>(() -> hal.getPowerSources());
+    // Total and available memory
+    private final Sample<long[]> memoryValues = new Sample<>(
+            () -> new long[] { memory.getTotal(), memory.getAvailable() });
+    // Total and used swap memory
+    private final Sample<long[]> swapValues = new Sample<>(() -> new long[] {
+            memory.getVirtualMemory().getSwapTotal(), memory.getVirtualMemory().getSwapUsed() });
+    // The 1, 5 and 15 minutes load averages
+    private final Sample<double[]> loadAverages = new Sample<>(() -> cpu.getSystemLoadAverage(3));
+    private final Sample<Double> sensorsCpuTemperature = new Sample<>(() -> sensors.getCpuTemperature());
+    private final Sample<Double> sensorsCpuVoltage = new Sample<>(() -> sensors.getCpuVoltage());
+    private final Sample<int[]> fanSpeeds = new Sample<>(() -> sensors.getFanSpeeds());
+    private final Sample<Long> uptime = new Sample<>(() -> operatingSystem.getSystemUptime());
+    private final Sample<Integer> threadCount = new Sample<>(() -> operatingSystem.getThreadCount());
+    private final Map<Integer, ProcessSample> processes = new HashMap<>();
+    // Processes that are not requested for this time are removed, e.g. after the process has ended
+    private static final long PROCESS_SAMPLE_EXPIRY = TimeUnit.HOURS.toNanos(1);
+
+    /**
+     * A value that is queried from the OS at most once per refresh cycle, when it is first requested.
+     */
+    private class Sample<T> {
+        private final Supplier<T> query;
+        private long sampledCycle = -1;
+        private @NonNullByDefault({}) T value;
+
+        Sample(Supplier<T> query) {
+            this.query = query;
+        }
+
+        T get() {
+            if (sampledCycle != cycle) {
+                value = query.get();
+                sampledCycle = cycle;
+                queries++;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * A process queried in a refresh cycle, together with its CPU usage since it was queried in an earlier cycle.
+     */
+    private static class ProcessSample {
+        final OSProcess process;
+        final long cycle;
+        final long sampleTime;
+        final long cpuTime;
+        final long upTime;
+        final double cpuUsage;
+
+        ProcessSample(OSProcess process, long cycle, @Nullable ProcessSample previous) {
+            this.process = process;
+            this.cycle = cycle;
+            this.sampleTime = System.nanoTime();
+            this.cpuTime = process.getKernelTime() + process.getUserTime();
+            this.upTime = process.getUpTime();
+            if (previous != null && upTime > previous.upTime && cpuTime >= previous.cpuTime) {
+                cpuUsage = (double) (cpuTime - previous.cpuTime) / (upTime - previous.upTime);
+            } else {
+                // First sample of this process: Use the average since the process has been started
+                cpuUsage = upTime > 0 ? (double) cpuTime / upTime : 0;
+            }
+        }
+    }
+
     public static final int PRECISION_AFTER_DECIMAL_SIGN = 1;
 
     /**
@@ -95,18 +175,21 @@ public class OSHISysteminfo implements SysteminfoInterface {
         cpu = hal.getProcessor();
         sensors = hal.getSensors();
 
-        // Static objects, should be recreated on each request. In OSHI 4.0.0. it is planned to change this mechanism -
-        // see https://github.com/oshi/oshi/issues/310
-        // TODO: Once the issue is resolved in OSHI , remove unnecessary object recreations from the public get methods
         computerSystem = hal.getComputerSystem();
         operatingSystem = systemInfo.getOperatingSystem();
-        networks = hal.getNetworkIFs();
         displays = hal.getDisplays();
-        fileStores = operatingSystem.getFileSystem().getFileStores();
-        powerSources = hal.getPowerSources();
         drives = hal.getDiskStores();
     }
 
+    @Override
+    public synchronized void updateSnapshot() {
+        logger.trace("Refresh cycle {} queried the OS {} times", cycle, queries);
+        cycle++;
+        queries = 0;
+        long now = System.nanoTime();
+        processes.values().removeIf(sample -> now - sample.sampleTime > PROCESS_SAMPLE_EXPIRY);
+    }
+
     private Object getDevice(Object @Nullable [] devices, int index) throws DeviceNotFoundException {
         if ((devices == null) || (devices.length <= index)) {
             throw new DeviceNotFoundException("Device with index: " + index + " can not be found!");
@@ -115,11 +198,22 @@ public class OSHISysteminfo implements SysteminfoInterface {
     }
 
     private OSProcess getProcess(int pid) throws DeviceNotFoundException {
-        OSProcess process = operatingSystem.getProcess(pid);
-        if (process == null) {
-            throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
+        return getProcessSample(pid).process;
+    }
+
+    private ProcessSample getProcessSample(int pid) throws DeviceNotFoundException {
+        ProcessSample sample = processes.get(pid);
+        if (sample == null || sample.cycle != cycle) {
+            OSProcess process = operatingSystem.getProcess(pid);
+            queries++;
+            if (process == null) {
+                processes.remove(pid);
+                throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
+            }
+            sample = new ProcessSample(process, cycle, sample);
+            processes.put(pid, sample);
         }
-        return process;
+        return sample;
     }
 
     @Override
@@ -175,22 +269,22 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getMemoryTotal() {
-        long totalMemory = memory.getTotal();
+        long totalMemory = memoryValues.get()[0];
         totalMemory = getSizeInMB(totalMemory);
         return new DecimalType(totalMemory);
     }
 
     @Override
     public DecimalType getMemoryAvailable() {
-        long availableMemory = memory.getAvailable();
+        long availableMemory = memoryValues.get()[1];
         availableMemory = getSizeInMB(availableMemory);
         return new DecimalType(availableMemory);
     }
 
     @Override
     public DecimalType getMemoryUsed() {
-        long totalMemory = memory.getTotal();
-        long availableMemory = memory.getAvailable();
+        long totalMemory = memoryValues.get()[0];
+        long availableMemory = memoryValues.get()[1];
         long usedMemory = totalMemory - availableMemory;
         usedMemory = getSizeInMB(usedMemory);
         return new DecimalType(usedMemory);
@@ -198,10 +292,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageTotal(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = (OSFileStore) getDevice(fileStores.get(), index);
         long totalSpace = fileStore.getTotalSpace();
         totalSpace = getSizeInMB(totalSpace);
         return new DecimalType(totalSpace);
@@ -209,10 +300,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageAvailable(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = (OSFileStore) getDevice(fileStores.get(), index);
         long freeSpace = fileStore.getUsableSpace();
         freeSpace = getSizeInMB(freeSpace);
         return new DecimalType(freeSpace);
@@ -220,10 +308,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageUsed(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = (OSFileStore) getDevice(fileStores.get(), index);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         long usedSpace = totalSpace - freeSpace;
@@ -233,10 +318,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getStorageAvailablePercent(int deviceIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
+        OSFileStore fileStore = (OSFileStore) getDevice(fileStores.get(), deviceIndex);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         if (totalSpace > 0) {
@@ -250,10 +332,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getStorageUsedPercent(int deviceIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
+        OSFileStore fileStore = (OSFileStore) getDevice(fileStores.get(), deviceIndex);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         long usedSpace = totalSpace - freeSpace;
@@ -268,31 +347,28 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public StringType getStorageName(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = (OSFileStore) getDevice(fileStores.get(), index);
         String name = fileStore.getName();
         return new StringType(name);
     }
 
     @Override
     public StringType getStorageType(int deviceIndex) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
+        OSFileStore fileStore = (OSFileStore) getDevice(fileStores.get(), deviceIndex);
         String type = fileStore.getType();
         return new StringType(type);
     }
 
     @Override
     public StringType getStorageDescription(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = (OSFileStore) getDevice(fileStores.get(), index);
         String description = fileStore.getDescription();
         return new StringType(description);
     }
 
     @Override
     public StringType getNetworkIp(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
-        NetworkIF netInterface = (NetworkIF) getDevice(networks, index);
+        NetworkIF netInterface = (NetworkIF) getDevice(networks.get(), index);
         String[] ipAddresses = netInterface.getIPv4addr();
         String ipv4 = (String) getDevice(ipAddresses, 0);
         return new StringType(ipv4);
@@ -300,14 +376,14 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public StringType getNetworkName(int index) throws DeviceNotFoundException {
-        NetworkIF netInterface = (NetworkIF) getDevice(networks, index);
+        NetworkIF netInterface = (NetworkIF) getDevice(networks.get(), index);
         String name = netInterface.getName();
         return new StringType(name);
     }
 
     @Override
     public StringType getNetworkDisplayName(int index) throws DeviceNotFoundException {
-        NetworkIF netInterface = (NetworkIF) getDevice(networks, index);
+        NetworkIF netInterface = (NetworkIF) getDevice(networks.get(), index);
         String adapterName = netInterface.getDisplayName();
         return new StringType(adapterName);
     }
@@ -330,31 +406,27 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getSensorsCpuTemperature() {
-        BigDecimal cpuTemp = new BigDecimal(sensors.getCpuTemperature());
+        BigDecimal cpuTemp = new BigDecimal(sensorsCpuTemperature.get());
         cpuTemp = cpuTemp.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return cpuTemp.signum() == 1 ? new DecimalType(cpuTemp) : null;
     }
 
     @Override
     public @Nullable DecimalType getSensorsCpuVoltage() {
-        BigDecimal cpuVoltage = new BigDecimal(sensors.getCpuVoltage());
+        BigDecimal cpuVoltage = new BigDecimal(sensorsCpuVoltage.get());
         cpuVoltage = cpuVoltage.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return cpuVoltage.signum() == 1 ? new DecimalType(cpuVoltage) : null;
     }
 
     @Override
     public @Nullable DecimalType getSensorsFanSpeed(int index) throws DeviceNotFoundException {
-        int[] fanSpeeds = sensors.getFanSpeeds();
-        int speed = (int) getDevice(ArrayUtils.toObject(fanSpeeds), index);
+        int speed = (int) getDevice(ArrayUtils.toObject(fanSpeeds.get()), index);
         return speed > 0 ? new DecimalType(speed) : null;
     }
 
     @Override
     public @Nullable DecimalType getBatteryRemainingTime(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the battery data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        powerSources = hal.getPowerSources();
-        PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
+        PowerSource powerSource = (PowerSource) getDevice(powerSources.get(), index);
         double remainingTimeInSeconds = powerSource.getTimeRemaining();
         // The getTimeRemaining() method returns (-1.0) if is calculating or (-2.0) if the time is unlimited.
         BigDecimal remainingTime = getTimeInMinutes(remainingTimeInSeconds);
@@ -363,10 +435,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getBatteryRemainingCapacity(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the battery data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        powerSources = hal.getPowerSources();
-        PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
+        PowerSource powerSource = (PowerSource) getDevice(powerSources.get(), index);
         double remainingCapacity = powerSource.getRemainingCapacity();
         BigDecimal remainingCapacityPercents = getPercentsValue(remainingCapacity);
         return new DecimalType(remainingCapacityPercents);
@@ -374,15 +443,15 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public StringType getBatteryName(int index) throws DeviceNotFoundException {
-        PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
+        PowerSource powerSource = (PowerSource) getDevice(powerSources.get(), index);
         String name = powerSource.getName();
         return new StringType(name);
     }
 
     @Override
     public @Nullable DecimalType getMemoryAvailablePercent() {
-        long availableMemory = memory.getAvailable();
-        long totalMemory = memory.getTotal();
+        long availableMemory = memoryValues.get()[1];
+        long totalMemory = memoryValues.get()[0];
         if (totalMemory > 0) {
             double freePercentDecimal = (double) availableMemory / (double) totalMemory;
             BigDecimal freePercent = getPercentsValue(freePercentDecimal);
@@ -394,8 +463,8 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getMemoryUsedPercent() {
-        long availableMemory = memory.getAvailable();
-        long totalMemory = memory.getTotal();
+        long availableMemory = memoryValues.get()[1];
+        long totalMemory = memoryValues.get()[0];
         long usedMemory = totalMemory - availableMemory;
         if (totalMemory > 0) {
             double usedPercentDecimal = (double) usedMemory / (double) totalMemory;
@@ -429,15 +498,15 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getSwapTotal() {
-        long swapTotal = memory.getVirtualMemory().getSwapTotal();
+        long swapTotal = swapValues.get()[0];
         swapTotal = getSizeInMB(swapTotal);
         return swapTotal > 0 ? new DecimalType(swapTotal) : null;
     }
 
     @Override
     public @Nullable DecimalType getSwapAvailable() {
-        long swapTotal = memory.getVirtualMemory().getSwapTotal();
-        long swapUsed = memory.getVirtualMemory().getSwapUsed();
+        long swapTotal = swapValues.get()[0];
+        long swapUsed = swapValues.get()[1];
         long swapAvaialble = swapTotal - swapUsed;
         swapAvaialble = getSizeInMB(swapAvaialble);
         return swapAvaialble > 0 ? new DecimalType(swapAvaialble) : null;
@@ -445,15 +514,15 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getSwapUsed() {
-        long swapTotal = memory.getVirtualMemory().getSwapUsed();
+        long swapTotal = swapValues.get()[1];
         swapTotal = getSizeInMB(swapTotal);
         return swapTotal > 0 ? new DecimalType(swapTotal) : null;
     }
 
     @Override
     public @Nullable DecimalType getSwapAvailablePercent() {
-        long usedSwap = memory.getVirtualMemory().getSwapUsed();
-        long totalSwap = memory.getVirtualMemory().getSwapTotal();
+        long usedSwap = swapValues.get()[1];
+        long totalSwap = swapValues.get()[0];
         long freeSwap = totalSwap - usedSwap;
         if (totalSwap > 0) {
             double freePercentDecimal = (double) freeSwap / (double) totalSwap;
@@ -466,8 +535,8 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getSwapUsedPercent() {
-        long usedSwap = memory.getVirtualMemory().getSwapUsed();
-        long totalSwap = memory.getVirtualMemory().getSwapTotal();
+        long usedSwap = swapValues.get()[1];
+        long totalSwap = swapValues.get()[0];
         if (totalSwap > 0) {
             double usedPercentDecimal = (double) usedSwap / (double) totalSwap;
             BigDecimal usedPercent = getPercentsValue(usedPercentDecimal);
@@ -542,7 +611,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
             default:
                 index = 2;
         }
-        double processorLoads[] = cpu.getSystemLoadAverage(index + 1);
+        double processorLoads[] = loadAverages.get();
         BigDecimal result = new BigDecimal(processorLoads[index]);
         result = result.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return result;
@@ -550,63 +619,47 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getCpuUptime() {
-        long seconds = operatingSystem.getSystemUptime();
+        long seconds = uptime.get();
         return new DecimalType(getTimeInMinutes(seconds));
     }
 
     @Override
     public DecimalType getCpuThreads() {
-        int threadCount = operatingSystem.getThreadCount();
+        int threadCount = this.threadCount.get();
         return new DecimalType(threadCount);
     }
 
     @Override
     public StringType getNetworkMac(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
+        NetworkIF network = (NetworkIF) getDevice(networks.get(), networkIndex);
         String mac = network.getMacaddr();
         return new StringType(mac);
     }
 
     @Override
     public DecimalType getNetworkPacketsReceived(int networkIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        NetworkIF network = (NetworkIF) getDevice(networks.get(), networkIndex);
         long packRecv = network.getPacketsRecv();
         return new DecimalType(packRecv);
     }
 
     @Override
     public DecimalType getNetworkPacketsSent(int networkIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        NetworkIF network = (NetworkIF) getDevice(networks.get(), networkIndex);
         long packSent = network.getPacketsSent();
         return new DecimalType(packSent);
     }
 
     @Override
     public DecimalType getNetworkDataSent(int networkIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        NetworkIF network = (NetworkIF) getDevice(networks.get(), networkIndex);
         long bytesSent = network.getBytesSent();
         return new DecimalType(getSizeInMB(bytesSent));
     }
 
     @Override
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        NetworkIF network = (NetworkIF) getDevice(networks.get(), networkIndex);
         long bytesRecv = network.getBytesRecv();
         return new DecimalType(getSizeInMB(bytesRecv));
     }
@@ -625,9 +678,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public @Nullable DecimalType getProcessCpuUsage(int pid) throws DeviceNotFoundException {
         if (pid > 0) {
-            OSProcess process = getProcess(pid);
-            double cpuUsageRaw = (process.getKernelTime() + process.getUserTime()) / process.getUpTime();
-            BigDecimal cpuUsage = getPercentsValue(cpuUsageRaw);
+            BigDecimal cpuUsage = getPercentsValue(getProcessSample(pid).cpuUsage);
             return new DecimalType(cpuUsage);
         } else {
             return null;
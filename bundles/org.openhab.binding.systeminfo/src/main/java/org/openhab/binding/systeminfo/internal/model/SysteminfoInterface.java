@@ -31,6 +31,12 @@ public interface SysteminfoInterface {
      */
     public void initializeSysteminfo();
 
+    /**
+     * Start a new refresh cycle. Dynamic information is queried from the OS at most once per cycle, when it is first
+     * requested, and the getters return these values until the next cycle is started.
+     */
+    public void updateSnapshot();
+
     // Operating system info
     /**
      * Get the Family of the operating system /e.g. Windows,Unix,.../
@@ -405,7 +411,8 @@ public interface SysteminfoInterface {
     public @Nullable StringType getProcessName(int pid) throws DeviceNotFoundException;
 
     /**
-     * Returns the CPU usage of the process
+     * Returns the CPU usage of the process since the previous refresh cycle, or since the start of the process in the
+     * first cycle
      *
      * @param pid - the PID of the process
      * @return - percentage value /0-100/
@@ -14,6 +14,7 @@ package org.openhab.binding.tradfri.internal;
 
 import java.net.URI;
 import java.util.LinkedList;
+import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -26,6 +27,11 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
 /**
  * The {@link TradfriCoapClient} provides some convenience features over the
  * plain {@link CoapClient} from californium.
@@ -37,6 +43,7 @@ public class TradfriCoapClient extends CoapClient {
 
     private static final long TIMEOUT = 2000;
     private static final int DEFAULT_DELAY_MILLIS = 600;
+    private static final JsonParser PARSER = new JsonParser();
     private final Logger logger = LoggerFactory.getLogger(TradfriCoapClient.class);
     private final LinkedList<PayloadCallbackPair> commandsQueue = new LinkedList<>();
     private @Nullable Future<?> job;
@@ -110,6 +117,8 @@ public class TradfriCoapClient extends CoapClient {
 
     /**
      * Asynchronously executes a PUT on the resource with a payload and provides the result to a given callback.
+     * If the last queued request has not been sent yet, the payload is merged into it, so commands received within
+     * the delay between two requests, like the color and the brightness of an HSB command, are sent together.
      *
      * @param payloadCallbackPair object which holds the payload and callback process the PUT request
      * @param scheduler scheduler to be used for sending commands
@@ -123,11 +132,62 @@ public class TradfriCoapClient extends CoapClient {
                     this.job = scheduler.submit(() -> executeCommands());
                 }
             } else {
-                this.commandsQueue.offer(payloadCallbackPair);
+                PayloadCallbackPair last = this.commandsQueue.getLast();
+                String merged = last.callback == payloadCallbackPair.callback
+                        ? mergePayloads(last.payload, payloadCallbackPair.payload)
+                        : null;
+                if (merged != null) {
+                    this.commandsQueue.removeLast();
+                    this.commandsQueue.offer(new PayloadCallbackPair(merged, payloadCallbackPair.callback));
+                } else {
+                    this.commandsQueue.offer(payloadCallbackPair);
+                }
             }
         }
     }
 
+    /**
+     * Merges two payloads of PUT requests. The values of the second payload replace the ones of the first payload.
+     * Nested objects and attribute arrays with a single object, like the light control of a bulb, are merged as well.
+     *
+     * @param first the payload of the earlier request
+     * @param second the payload of the later request
+     * @return the merged payload or null if the payloads are no JSON objects
+     */
+    static @Nullable String mergePayloads(String first, String second) {
+        try {
+            JsonElement target = PARSER.parse(first);
+            JsonElement source = PARSER.parse(second);
+            if (!target.isJsonObject() || !source.isJsonObject()) {
+                return null;
+            }
+            merge(target.getAsJsonObject(), source.getAsJsonObject());
+            return target.toString();
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+
+    private static void merge(JsonObject target, JsonObject source) {
+        for (Entry<String, JsonElement> entry : source.entrySet()) {
+            JsonElement targetValue = target.get(entry.getKey());
+            JsonElement value = entry.getValue();
+            if (targetValue != null && targetValue.isJsonObject() && value.isJsonObject()) {
+                merge(targetValue.getAsJsonObject(), value.getAsJsonObject());
+            } else if (targetValue != null && isSingleObjectArray(targetValue) && isSingleObjectArray(value)) {
+                merge(targetValue.getAsJsonArray().get(0).getAsJsonObject(),
+                        value.getAsJsonArray().get(0).getAsJsonObject());
+            } else {
+                target.add(entry.getKey(), value);
+            }
+        }
+    }
+
+    private static boolean isSingleObjectArray(JsonElement element) {
+        return element.isJsonArray() && element.getAsJsonArray().size() == 1
+                && element.getAsJsonArray().get(0).isJsonObject();
+    }
+
     @Override
     public void shutdown() {
         if (job != null) {
@@ -12,6 +12,9 @@
  */
 package org.openhab.binding.tradfri.internal;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.californium.core.CoapHandler;
@@ -65,12 +68,17 @@ public class TradfriCoapHandler implements CoapHandler {
             logger.trace("received empty CoAP response");
             return;
         }
-        logger.debug("CoAP response\noptions: {}\npayload: {}", response.getOptions(), response.getResponseText());
+        if (logger.isDebugEnabled()) {
+            logger.debug("CoAP response\noptions: {}\npayload: {}", response.getOptions(),
+                    response.getResponseText());
+        }
         if (response.isSuccess()) {
             final CoapCallback callback = this.callback;
             if (callback != null) {
                 try {
-                    callback.onUpdate(parser.parse(response.getResponseText()));
+                    // the payload is parsed without creating an intermediate string
+                    callback.onUpdate(parser.parse(new InputStreamReader(
+                            new ByteArrayInputStream(response.getPayload()), StandardCharsets.UTF_8)));
                     callback.setStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE);
                 } catch (JsonParseException e) {
                     logger.warn("Observed value is no valid json: {}, {}", response.getResponseText(), e.getMessage());
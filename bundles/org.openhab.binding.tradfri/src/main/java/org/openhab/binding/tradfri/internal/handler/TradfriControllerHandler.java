@@ -49,14 +49,13 @@ public class TradfriControllerHandler extends TradfriThingHandler {
     @Override
     public void onUpdate(JsonElement data) {
         if (active && !(data.isJsonNull())) {
-            state = new TradfriControllerData(data);
-            updateStatus(state.getReachabilityStatus() ? ThingStatus.ONLINE : ThingStatus.OFFLINE);
-
-            final TradfriControllerData state = this.state;
-
-            if (state == null) {
+            final TradfriControllerData state = new TradfriControllerData(data);
+            this.state = state;
+            if (!isChanged(state)) {
                 return;
             }
+            updateStatus(state.getReachabilityStatus() ? ThingStatus.ONLINE : ThingStatus.OFFLINE);
+
             DecimalType batteryLevel = state.getBatteryLevel();
             if (batteryLevel != null) {
                 updateState(CHANNEL_BATTERY_LEVEL, batteryLevel);
@@ -80,7 +79,7 @@ public class TradfriControllerHandler extends TradfriThingHandler {
     public void handleCommand(ChannelUID channelUID, Command command) {
         if (command instanceof RefreshType) {
             logger.debug("Refreshing channel {}", channelUID);
-            coapClient.asyncGet(this);
+            refresh();
             return;
         }
 
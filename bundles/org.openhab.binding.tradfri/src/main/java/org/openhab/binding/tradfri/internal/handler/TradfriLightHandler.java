@@ -57,6 +57,9 @@ public class TradfriLightHandler extends TradfriThingHandler {
     public void onUpdate(JsonElement data) {
         if (active && !(data.isJsonNull())) {
             TradfriLightData state = new TradfriLightData(data);
+            if (!isChanged(state)) {
+                return;
+            }
             updateStatus(state.getReachabilityStatus() ? ThingStatus.ONLINE : ThingStatus.OFFLINE);
 
             if (!state.getOnOffState()) {
@@ -117,8 +120,9 @@ public class TradfriLightHandler extends TradfriThingHandler {
     }
 
     private void setColor(HSBType hsb) {
+        // send the color and the brightness with a single request
         TradfriLightData data = new TradfriLightData();
-        data.setColor(hsb).setTransitionTime(DEFAULT_DIMMER_TRANSITION_TIME);
+        data.setColor(hsb).setBrightness(hsb.getBrightness()).setTransitionTime(DEFAULT_DIMMER_TRANSITION_TIME);
         set(data.getJsonString());
     }
 
@@ -127,7 +131,7 @@ public class TradfriLightHandler extends TradfriThingHandler {
         if (active) {
             if (command instanceof RefreshType) {
                 logger.debug("Refreshing channel {}", channelUID);
-                coapClient.asyncGet(this);
+                refresh();
                 return;
             }
 
@@ -194,7 +198,6 @@ public class TradfriLightHandler extends TradfriThingHandler {
     private void handleColorCommand(Command command) {
         if (command instanceof HSBType) {
             setColor((HSBType) command);
-            setBrightness(((HSBType) command).getBrightness());
         } else if (command instanceof OnOffType) {
             setState(((OnOffType) command));
         } else if (command instanceof PercentType) {
@@ -45,6 +45,9 @@ public class TradfriPlugHandler extends TradfriThingHandler {
     public void onUpdate(JsonElement data) {
         if (active && !(data.isJsonNull())) {
             TradfriPlugData state = new TradfriPlugData(data);
+            if (!isChanged(state)) {
+                return;
+            }
             updateStatus(state.getReachabilityStatus() ? ThingStatus.ONLINE : ThingStatus.OFFLINE);
 
             updateState(CHANNEL_POWER, state.getOnOffState() ? OnOffType.ON : OnOffType.OFF);
@@ -63,7 +66,7 @@ public class TradfriPlugHandler extends TradfriThingHandler {
         if (active) {
             if (command instanceof RefreshType) {
                 logger.debug("Refreshing channel {}", channelUID);
-                coapClient.asyncGet(this);
+                refresh();
                 return;
             }
 
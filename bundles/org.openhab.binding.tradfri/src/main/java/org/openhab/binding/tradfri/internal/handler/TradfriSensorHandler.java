@@ -46,6 +46,9 @@ public class TradfriSensorHandler extends TradfriThingHandler {
     public void onUpdate(JsonElement data) {
         if (active && !(data.isJsonNull())) {
             TradfriSensorData state = new TradfriSensorData(data);
+            if (!isChanged(state)) {
+                return;
+            }
             updateStatus(state.getReachabilityStatus() ? ThingStatus.ONLINE : ThingStatus.OFFLINE);
 
             DecimalType batteryLevel = state.getBatteryLevel();
@@ -71,7 +74,7 @@ public class TradfriSensorHandler extends TradfriThingHandler {
     public void handleCommand(ChannelUID channelUID, Command command) {
         if (command instanceof RefreshType) {
             logger.debug("Refreshing channel {}", channelUID);
-            coapClient.asyncGet(this);
+            refresh();
             return;
         }
 
@@ -55,6 +55,9 @@ public abstract class TradfriThingHandler extends BaseThingHandler implements Co
 
     private @Nullable CoapObserveRelation observeRelation;
 
+    // the last received state, used to skip notifications which do not change the device
+    private volatile @Nullable TradfriDeviceData lastState;
+
     public TradfriThingHandler(Thing thing) {
         super(thing);
     }
@@ -64,6 +67,7 @@ public abstract class TradfriThingHandler extends BaseThingHandler implements Co
     public synchronized void initialize() {
         Bridge tradfriGateway = getBridge();
         this.id = getConfigAs(TradfriDeviceConfig.class).id;
+        lastState = null;
         TradfriGatewayHandler handler = (TradfriGatewayHandler) tradfriGateway.getHandler();
 
         String uriString = handler.getGatewayURI() + "/" + id;
@@ -110,6 +114,7 @@ public abstract class TradfriThingHandler extends BaseThingHandler implements Co
     public void setStatus(ThingStatus status, ThingStatusDetail statusDetail) {
         if (active && getBridge().getStatus() != ThingStatus.OFFLINE && status != ThingStatus.ONLINE) {
             updateStatus(status, statusDetail);
+            lastState = null;
             // we are offline and lost our observe relation - let's try to establish the connection in 10 seconds again
             scheduler.schedule(() -> {
                 if (observeRelation != null) {
@@ -133,6 +138,28 @@ public abstract class TradfriThingHandler extends BaseThingHandler implements Co
         }
     }
 
+    /**
+     * Requests the current state of the device. The response updates all channels, even if the state did not change.
+     */
+    protected void refresh() {
+        lastState = null;
+        coapClient.asyncGet(this);
+    }
+
+    /**
+     * Checks whether a received state differs from the last received one. The gateway repeats the whole state of the
+     * device in every notification, also if only values are changed which are not mapped to channels or properties,
+     * like the time the device was last seen.
+     *
+     * @param state the received state
+     * @return true if the channels and properties have to be updated
+     */
+    protected boolean isChanged(TradfriDeviceData state) {
+        TradfriDeviceData last = lastState;
+        lastState = state;
+        return last == null || !state.hasSameState(last);
+    }
+
     protected void set(String payload) {
         logger.debug("Sending payload: {}", payload);
         coapClient.asyncPut(payload, this, scheduler);
@@ -14,6 +14,8 @@ package org.openhab.binding.tradfri.internal.model;
 
 import static org.openhab.binding.tradfri.internal.TradfriBindingConstants.*;
 
+import java.util.Objects;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.slf4j.Logger;
@@ -97,4 +99,16 @@ public abstract class TradfriDeviceData {
             return null;
         }
     }
+
+    /**
+     * Compares the attributes, the reachability and the general device information with another state of the device.
+     * Other values of the root node, like the time the device was last seen, are ignored.
+     *
+     * @param other the other state
+     * @return true if both states are equal
+     */
+    public boolean hasSameState(TradfriDeviceData other) {
+        return attributes.equals(other.attributes) && Objects.equals(generalInfo, other.generalInfo)
+                && getReachabilityStatus() == other.getReachabilityStatus();
+    }
 }
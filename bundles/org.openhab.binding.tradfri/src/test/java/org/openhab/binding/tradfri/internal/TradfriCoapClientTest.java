@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.tradfri.internal;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests for merging the payloads of queued requests in the {@link TradfriCoapClient}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class TradfriCoapClientTest {
+
+    @Test
+    public void testMergeLightControl() {
+        String color = "{\"3311\":[{\"5709\":29577,\"5710\":12294,\"5712\":10}],\"3\":{}}";
+        String brightness = "{\"3311\":[{\"5851\":254,\"5712\":5}],\"3\":{}}";
+        assertEquals("{\"3311\":[{\"5709\":29577,\"5710\":12294,\"5712\":5,\"5851\":254}],\"3\":{}}",
+                TradfriCoapClient.mergePayloads(color, brightness));
+    }
+
+    @Test
+    public void testLaterValueWins() {
+        String on = "{\"3311\":[{\"5850\":1}],\"3\":{}}";
+        String off = "{\"3311\":[{\"5850\":0}],\"3\":{}}";
+        assertEquals(off, TradfriCoapClient.mergePayloads(on, off));
+    }
+
+    @Test
+    public void testNoObjects() {
+        assertNull(TradfriCoapClient.mergePayloads("[1]", "{\"3311\":[{\"5850\":1}]}"));
+        assertNull(TradfriCoapClient.mergePayloads("{\"3311\":", "{\"3311\":[{\"5850\":1}]}"));
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.tradfri.internal.handler;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.openhab.binding.tradfri.internal.TradfriBindingConstants.*;
+
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
+import org.eclipse.smarthome.core.types.RefreshType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openhab.binding.tradfri.internal.TradfriCoapClient;
+import org.openhab.binding.tradfri.internal.model.TradfriLightData;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests for skipping unchanged notifications in the {@link TradfriThingHandler}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class TradfriLightHandlerTest {
+
+    private static final ThingUID THING_UID = new ThingUID(THING_TYPE_DIMMABLE_LIGHT, "65537");
+    private static final ChannelUID BRIGHTNESS = new ChannelUID(THING_UID, CHANNEL_BRIGHTNESS);
+
+    @Mock
+    private Thing thing;
+
+    @Mock
+    private ThingHandlerCallback callback;
+
+    @Mock
+    private TradfriCoapClient coapClient;
+
+    private TradfriLightHandler handler;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        when(thing.getUID()).thenReturn(THING_UID);
+        when(thing.getThingTypeUID()).thenReturn(THING_TYPE_DIMMABLE_LIGHT);
+        handler = new TradfriLightHandler(thing);
+        handler.setCallback(callback);
+        handler.coapClient = coapClient;
+        handler.active = true;
+    }
+
+    private static JsonElement light(int dimmer, int reachable, long lastSeen) {
+        return new JsonParser().parse("{\"3311\":[{\"5850\":1,\"5851\":" + dimmer
+                + "}],\"3\":{\"0\":\"IKEA of Sweden\",\"1\":\"TRADFRI bulb E27 W opal 1000lm\",\"3\":\"1.2.214\"},"
+                + "\"9003\":65537,\"9019\":" + reachable + ",\"9020\":" + lastSeen + "}");
+    }
+
+    @Test
+    public void testSameStateIgnoresLastSeen() {
+        TradfriLightData state = new TradfriLightData(light(254, 1, 1000));
+        assertTrue(state.hasSameState(new TradfriLightData(light(254, 1, 2000))));
+        assertFalse(state.hasSameState(new TradfriLightData(light(127, 1, 1000))));
+        assertFalse(state.hasSameState(new TradfriLightData(light(254, 0, 1000))));
+    }
+
+    @Test
+    public void testNotificationWithoutChangeIsSkipped() {
+        handler.onUpdate(light(254, 1, 1000));
+        verify(callback, times(1)).stateUpdated(eq(BRIGHTNESS), eq(PercentType.HUNDRED));
+
+        // only the time the device was last seen has changed
+        handler.onUpdate(light(254, 1, 2000));
+        verify(callback, times(1)).stateUpdated(eq(BRIGHTNESS), any());
+
+        handler.onUpdate(light(0, 1, 3000));
+        verify(callback, times(1)).stateUpdated(eq(BRIGHTNESS), eq(PercentType.ZERO));
+        verify(callback, times(2)).stateUpdated(eq(BRIGHTNESS), any());
+    }
+
+    @Test
+    public void testRefreshForcesUpdate() {
+        handler.onUpdate(light(254, 1, 1000));
+        verify(callback, times(1)).stateUpdated(eq(BRIGHTNESS), any());
+
+        handler.handleCommand(BRIGHTNESS, RefreshType.REFRESH);
+        verify(coapClient).asyncGet(handler);
+
+        // the response to the refresh has the same state, but updates the channels nevertheless
+        handler.onUpdate(light(254, 1, 1000));
+        verify(callback, times(2)).stateUpdated(eq(BRIGHTNESS), eq(PercentType.HUNDRED));
+    }
+}
@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -63,6 +64,11 @@ import io.moquette.interception.messages.InterceptDisconnectMessage;
 import io.moquette.interception.messages.InterceptPublishMessage;
 import io.moquette.interception.messages.InterceptSubscribeMessage;
 import io.moquette.interception.messages.InterceptUnsubscribeMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.mqtt.MqttMessageBuilders;
+import io.netty.handler.codec.mqtt.MqttPublishMessage;
+import io.netty.handler.codec.mqtt.MqttQoS;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 
@@ -85,6 +91,7 @@ public class EmbeddedBrokerService
         implements ConfigurableService, MqttConnectionObserver, MqttServiceObserver, MqttEmbeddedBrokerStartedListener {
     private final MqttService service;
     private String persistenceFilename = "";
+    private String persistenceMode = ServiceConfiguration.PERSISTENCE_MODE_FILE;
     // private NetworkServerTls networkServerTls; //TODO wait for NetworkServerTls implementation
 
     @NonNullByDefault({})
@@ -136,10 +143,80 @@ public class EmbeddedBrokerService
         }
     }
 
+    /**
+     * Passes all retained messages that the broker receives to the {@link RetainedMessageStore}.
+     */
+    @NonNullByDefault({})
+    class RetainedStoreListener implements InterceptHandler {
+        private final RetainedMessageStore store;
+
+        RetainedStoreListener(RetainedMessageStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public String getID() {
+            return "retainedstore";
+        }
+
+        @Override
+        public Class<?>[] getInterceptedMessageTypes() {
+            return new Class<?>[] { InterceptPublishMessage.class };
+        }
+
+        @Override
+        public void onConnect(InterceptConnectMessage arg0) {
+
+        }
+
+        @Override
+        public void onConnectionLost(InterceptConnectionLostMessage arg0) {
+
+        }
+
+        @Override
+        public void onDisconnect(InterceptDisconnectMessage arg0) {
+
+        }
+
+        @Override
+        public void onMessageAcknowledged(InterceptAcknowledgedMessage arg0) {
+
+        }
+
+        @Override
+        public void onPublish(InterceptPublishMessage msg) {
+            if (!msg.isRetainFlag()) {
+                return;
+            }
+            final ByteBuf buffer = msg.getPayload();
+            final byte[] payload = new byte[buffer.readableBytes()];
+            buffer.getBytes(buffer.readerIndex(), payload);
+            try {
+                store.retain(msg.getTopicName(), msg.getQos().value(), payload);
+            } catch (IOException e) {
+                logger.warn("Could not store retained message of {}", msg.getTopicName(), e);
+            }
+        }
+
+        @Override
+        public void onSubscribe(InterceptSubscribeMessage arg0) {
+
+        }
+
+        @Override
+        public void onUnsubscribe(InterceptUnsubscribeMessage arg0) {
+
+        }
+    }
+
     protected @Nullable Server server;
     private final Logger logger = LoggerFactory.getLogger(EmbeddedBrokerService.class);
     protected MqttEmbeddedBrokerDetectStart detectStart = new MqttEmbeddedBrokerDetectStart(this);
     protected BrokerMetricsListenerEx metrics = new BrokerMetricsListenerEx();
+    protected @Nullable RetainedMessageStore retainedStore;
+    protected @Nullable RetainedStoreListener retainedStoreListener;
+    private @Nullable ScheduledFuture<?> maintainFuture;
 
     private @Nullable MqttBrokerConnection connection;
 
@@ -179,10 +256,14 @@ public class EmbeddedBrokerService
                 Path path = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath();
                 Files.createDirectories(path);
                 this.persistenceFilename = path.resolve(persistenceFilename).toString();
+            } else {
+                this.persistenceFilename = persistenceFilename;
             }
+            persistenceMode = config.persistenceMode;
 
-            logger.info("Broker persistence file: {}", persistenceFilename);
+            logger.info("Broker persistence file: {} ({})", this.persistenceFilename, persistenceMode);
         } else {
+            persistenceFilename = "";
             logger.info("Using in-memory persistence. No persistence file has been set!");
         }
 
@@ -201,6 +282,7 @@ public class EmbeddedBrokerService
                 server.stopServer();
             }
             server = null;
+            closeRetainedStore();
             return;
         }
 
@@ -216,6 +298,7 @@ public class EmbeddedBrokerService
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
            logger.warn("Could not cleanly shutdown connection or server.", e);
         }
+        closeRetainedStore();
         connection = null;
     }
 
@@ -291,9 +374,19 @@ public class EmbeddedBrokerService
             logger.debug("Broker anonymous access enabled");
         }
 
-        if (!persistenceFilename.isEmpty()) { // Persistence: If not set, an in-memory database is used.
-            properties.put(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, persistenceFilename);
-            properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, "30"); // in seconds
+        // Persistence: If not set, an in-memory database is used.
+        RetainedMessageStore retainedStore = null;
+        if (!persistenceFilename.isEmpty()) {
+            if (ServiceConfiguration.PERSISTENCE_MODE_SEGMENTS.equals(persistenceMode)) {
+                // Moquette stays in-memory, the retained messages are restored from our own store
+                retainedStore = new SegmentedRetainedMessageStore(Paths.get(persistenceFilename));
+                retainedStore.open();
+                logger.info("Recovered {} retained messages ({} bytes) in {} ms", retainedStore.getRetainedCount(),
+                        retainedStore.getStoreSize(), retainedStore.getRecoveryTime());
+            } else {
+                properties.put(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, persistenceFilename);
+                properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, "30"); // in seconds
+            }
         }
 
         // We may provide ACL functionality at some point as well
@@ -316,17 +409,69 @@ public class EmbeddedBrokerService
         this.server = server;
         server.addInterceptHandler(metrics);
         ScheduledExecutorService s = new ScheduledThreadPoolExecutor(1);
+        if (retainedStore != null) {
+            startRetainedStore(server, retainedStore, s);
+        }
         detectStart.startBrokerStartedDetection(port, s);
     }
 
+    /**
+     * Publishes the recovered retained messages to the broker, and stores all retained messages that the broker
+     * receives from now on.
+     */
+    private void startRetainedStore(Server server, RetainedMessageStore retainedStore,
+            ScheduledExecutorService scheduler) {
+        this.retainedStore = retainedStore;
+        for (Map.Entry<String, RetainedMessageStore.Message> entry : retainedStore.getRetainedMessages().entrySet()) {
+            MqttPublishMessage message = MqttMessageBuilders.publish().topicName(entry.getKey()).retained(true)
+                    .qos(MqttQoS.valueOf(entry.getValue().qos)).messageId(1)
+                    .payload(Unpooled.wrappedBuffer(entry.getValue().payload)).build();
+            server.internalPublish(message, Constants.CLIENTID);
+        }
+
+        RetainedStoreListener listener = new RetainedStoreListener(retainedStore);
+        this.retainedStoreListener = listener;
+        server.addInterceptHandler(listener);
+        maintainFuture = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                retainedStore.maintain();
+            } catch (IOException e) {
+                logger.warn("Could not write retained messages", e);
+            }
+        }, 30, 30, TimeUnit.SECONDS);
+    }
+
+    private void closeRetainedStore() {
+        ScheduledFuture<?> maintainFuture = this.maintainFuture;
+        if (maintainFuture != null) {
+            maintainFuture.cancel(false);
+            this.maintainFuture = null;
+        }
+        RetainedMessageStore retainedStore = this.retainedStore;
+        if (retainedStore != null) {
+            try {
+                retainedStore.close();
+            } catch (IOException e) {
+                logger.warn("Could not close the retained message store", e);
+            }
+            this.retainedStore = null;
+        }
+        retainedStoreListener = null;
+    }
+
     public void stopEmbeddedServer() {
         Server server = this.server;
         if (server != null) {
             server.removeInterceptHandler(metrics);
+            RetainedStoreListener retainedStoreListener = this.retainedStoreListener;
+            if (retainedStoreListener != null) {
+                server.removeInterceptHandler(retainedStoreListener);
+            }
             detectStart.stopBrokerStartDetection();
             server.stopServer();
             this.server = null;
         }
+        closeRetainedStore();
     }
 
     /**
@@ -383,6 +528,14 @@ public class EmbeddedBrokerService
         return connection;
     }
 
+    /**
+     * Returns the retained message store if the "segments" persistence mode is used and the broker is running.
+     * The store provides the retained message count, store size and recovery time.
+     */
+    public @Nullable RetainedMessageStore getRetainedStore() {
+        return retainedStore;
+    }
+
     public String getPersistenceFilename() {
         return persistenceFilename;
     }
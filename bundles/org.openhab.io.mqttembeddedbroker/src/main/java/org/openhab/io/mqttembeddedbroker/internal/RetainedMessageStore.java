@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * A store for the retained messages of the embedded broker, which is used instead of the Moquette persistence file.
+ * <p>
+ * The store is opened before the broker starts. The recovered messages are published to the broker,
+ * and every retained message that the broker receives afterwards is passed to {@link #retain(String, int, byte[])}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public interface RetainedMessageStore extends Closeable {
+    /**
+     * A retained message.
+     */
+    public static class Message {
+        public final int qos;
+        public final byte[] payload;
+
+        public Message(int qos, byte[] payload) {
+            this.qos = qos;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Opens the store and recovers the retained messages.
+     *
+     * @throws IOException If the store could not be opened
+     */
+    void open() throws IOException;
+
+    /**
+     * Stores a retained message. An empty payload removes the retained message of the topic.
+     *
+     * @param topic The topic
+     * @param qos The quality of service level
+     * @param payload The payload
+     * @throws IOException If the message could not be written
+     */
+    void retain(String topic, int qos, byte[] payload) throws IOException;
+
+    /**
+     * Returns a copy of all retained messages by topic.
+     */
+    Map<String, Message> getRetainedMessages();
+
+    /**
+     * Called periodically. Flushes written messages to disk and frees the space of overwritten messages.
+     *
+     * @throws IOException If writing to the store failed
+     */
+    void maintain() throws IOException;
+
+    /**
+     * Returns the number of retained messages.
+     */
+    int getRetainedCount();
+
+    /**
+     * Returns the size of the store on disk in bytes.
+     */
+    long getStoreSize();
+
+    /**
+     * Returns the time in milliseconds it took to recover the retained messages in {@link #open()}.
+     */
+    long getRecoveryTime();
+}
@@ -0,0 +1,380 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link RetainedMessageStore} that appends every change to a segment file and keeps all retained messages in
+ * memory.
+ * <p>
+ * The segments are stored next to the given base file, with the segment number as suffix, like "mqttembedded.bin.7".
+ * A segment starts with a snapshot of all retained messages, followed by the changes since then. Recovery therefore
+ * only reads the last segment. A record consists of its length, a CRC32 checksum, the topic, the QoS and the payload;
+ * an incomplete record at the end of a segment after a crash is detected by its checksum and discarded.
+ * <p>
+ * When most of the current segment consists of overwritten messages, {@link #maintain()} writes a new segment.
+ * The new segment is written to a temporary file and renamed when complete. The previous segment is kept as a
+ * fallback in case the last one cannot be read.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class SegmentedRetainedMessageStore implements RetainedMessageStore {
+    private static final int MAGIC = 0x4F48524D;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    // Record length and checksum
+    private static final int RECORD_HEADER_SIZE = 8;
+    // Topic length and QoS
+    private static final int RECORD_FIELDS_SIZE = 3;
+    private static final String TEMP_SUFFIX = ".tmp";
+    /** Segments are only compacted if they are bigger than this */
+    private static final long MIN_COMPACTION_SIZE = 1024 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(SegmentedRetainedMessageStore.class);
+    private final Path directory;
+    private final String prefix;
+    private final Map<String, Message> messages = new HashMap<>();
+    private @Nullable FileChannel channel;
+    private long segment = 0;
+    private long segmentSize = 0;
+    // The size of the records of all retained messages, which is the size of a compacted segment
+    private long liveBytes = 0;
+    private long recoveryTime = 0;
+    private boolean unflushed = false;
+
+    /**
+     * Creates a store. Call {@link #open()} to recover the retained messages.
+     *
+     * @param baseFile The segment files are stored next to this file and named after it.
+     */
+    public SegmentedRetainedMessageStore(Path baseFile) {
+        final Path absolute = baseFile.toAbsolutePath();
+        final Path parent = absolute.getParent();
+        this.directory = parent != null ? parent : absolute;
+        this.prefix = absolute.getFileName() + ".";
+    }
+
+    @Override
+    public synchronized void open() throws IOException {
+        final long start = System.currentTimeMillis();
+        close();
+        Files.createDirectories(directory);
+        deleteTemporaryFiles();
+
+        final List<Long> segments = listSegments();
+        long recovered = 0;
+        for (int i = segments.size() - 1; i >= 0 && recovered == 0; i--) {
+            messages.clear();
+            liveBytes = 0;
+            try {
+                recover(segments.get(i));
+                recovered = segments.get(i);
+            } catch (IOException e) {
+                logger.warn("Retained message segment {} is unreadable: {}", segmentPath(segments.get(i)),
+                        e.getMessage());
+            }
+        }
+        // Unreadable segments must not be picked up by a later recovery
+        for (long number : segments) {
+            if (number > recovered) {
+                Files.deleteIfExists(segmentPath(number));
+            }
+        }
+
+        segment = recovered;
+        if (recovered == 0) {
+            compact();
+        } else {
+            final FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            this.channel = channel;
+            segmentSize = channel.size();
+        }
+        recoveryTime = System.currentTimeMillis() - start;
+    }
+
+    /**
+     * Reads all records of the given segment into the index. An incomplete record at the end is cut off the file.
+     */
+    private void recover(long number) throws IOException {
+        final Path path = segmentPath(number);
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Invalid segment header");
+        }
+
+        final CRC32 crc = new CRC32();
+        int valid = buffer.position();
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            final int length = buffer.getInt();
+            final int checksum = buffer.getInt();
+            if (length < RECORD_FIELDS_SIZE || length > buffer.remaining()) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.array(), buffer.position(), length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            final int topicLength = buffer.getShort() & 0xFFFF;
+            if (RECORD_FIELDS_SIZE + topicLength > length) {
+                break;
+            }
+            final String topic = new String(buffer.array(), buffer.position(), topicLength, UTF_8);
+            buffer.position(buffer.position() + topicLength);
+            final int qos = buffer.get();
+            final byte[] payload = new byte[length - RECORD_FIELDS_SIZE - topicLength];
+            buffer.get(payload);
+            apply(topic, topicLength, qos, payload);
+            valid = buffer.position();
+        }
+
+        if (valid < buffer.limit()) {
+            logger.info("Discarding {} bytes of an incomplete write at the end of {}", buffer.limit() - valid, path);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void retain(String topic, int qos, byte[] payload) throws IOException {
+        final Message current = messages.get(topic);
+        if (current == null ? payload.length == 0
+                : current.qos == qos && Arrays.equals(current.payload, payload)) {
+            return; // Nothing changed, for example a recovered message that has been published to the broker
+        }
+        final FileChannel channel = this.channel;
+        if (channel == null) {
+            throw new IOException("Retained message store is not open");
+        }
+
+        final byte[] topicBytes = topic.getBytes(UTF_8);
+        final ByteBuffer record = encode(topicBytes, qos, payload);
+        final int size = record.remaining();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        segmentSize += size;
+        unflushed = true;
+        apply(topic, topicBytes.length, qos, payload);
+    }
+
+    private void apply(String topic, int topicLength, int qos, byte[] payload) {
+        final Message previous = payload.length == 0 ? messages.remove(topic)
+                : messages.put(topic, new Message(qos, payload));
+        if (previous != null) {
+            liveBytes -= recordSize(topicLength, previous.payload.length);
+        }
+        if (payload.length > 0) {
+            liveBytes += recordSize(topicLength, payload.length);
+        }
+    }
+
+    private static int recordSize(int topicLength, int payloadLength) {
+        return RECORD_HEADER_SIZE + RECORD_FIELDS_SIZE + topicLength + payloadLength;
+    }
+
+    private static ByteBuffer encode(byte[] topic, int qos, byte[] payload) throws IOException {
+        if (topic.length > 0xFFFF) {
+            throw new IOException("Topic too long");
+        }
+        final int length = RECORD_FIELDS_SIZE + topic.length + payload.length;
+        final ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + length);
+        buffer.position(RECORD_HEADER_SIZE);
+        buffer.putShort((short) topic.length).put(topic).put((byte) qos).put(payload);
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), RECORD_HEADER_SIZE, length);
+        buffer.putInt(0, length).putInt(4, (int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public synchronized Map<String, Message> getRetainedMessages() {
+        return new HashMap<>(messages);
+    }
+
+    @Override
+    public synchronized void maintain() throws IOException {
+        final FileChannel channel = this.channel;
+        if (channel == null) {
+            return;
+        }
+        if (segmentSize > MIN_COMPACTION_SIZE && segmentSize > 2 * (HEADER_SIZE + liveBytes)) {
+            compact();
+        } else if (unflushed) {
+            channel.force(false);
+            unflushed = false;
+        }
+    }
+
+    /**
+     * Writes all retained messages to a new segment and continues appending to that one.
+     * All segments except the new and the previous one are deleted.
+     *
+     * @throws IOException If the new segment could not be written. The current segment is still used in that case.
+     */
+    public synchronized void compact() throws IOException {
+        final long next = segment + 1;
+        final Path temp = directory.resolve(prefix + next + TEMP_SUFFIX);
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                BufferedOutputStream out = new BufferedOutputStream(file)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            out.write(header.array());
+            for (Map.Entry<String, Message> entry : messages.entrySet()) {
+                final Message message = entry.getValue();
+                final ByteBuffer record = encode(entry.getKey().getBytes(UTF_8), message.qos, message.payload);
+                out.write(record.array(), 0, record.limit());
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        final Path path = segmentPath(next);
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+
+        final FileChannel previous = this.channel;
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.channel = channel;
+        segment = next;
+        segmentSize = channel.size();
+        unflushed = false;
+        if (previous != null) {
+            previous.close();
+        }
+
+        for (long number : listSegments()) {
+            if (number < segment - 1) {
+                Files.deleteIfExists(segmentPath(number));
+            }
+        }
+        logger.debug("Compacted retained messages into {}", path);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        final FileChannel channel = this.channel;
+        this.channel = null;
+        if (channel != null) {
+            try {
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    @Override
+    public synchronized int getRetainedCount() {
+        return messages.size();
+    }
+
+    @Override
+    public synchronized long getStoreSize() {
+        long size = 0;
+        try {
+            for (long number : listSegments()) {
+                size += Files.size(segmentPath(number));
+            }
+        } catch (IOException e) {
+            logger.debug("Could not determine the retained message store size", e);
+        }
+        return size;
+    }
+
+    @Override
+    public long getRecoveryTime() {
+        return recoveryTime;
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(prefix + number);
+    }
+
+    /**
+     * Returns the numbers of all segment files in ascending order.
+     */
+    private List<Long> listSegments() throws IOException {
+        final List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                final long number = segmentNumber(path.getFileName().toString());
+                if (number > 0) {
+                    segments.add(number);
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Removes the leftovers of a compaction that has been interrupted.
+     */
+    private void deleteTemporaryFiles() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                final String name = path.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)
+                        && segmentNumber(name.substring(0, name.length() - TEMP_SUFFIX.length())) > 0) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the segment number of the given file name or 0 if it is not a segment file.
+     */
+    private long segmentNumber(String name) {
+        if (!name.startsWith(prefix) || name.length() == prefix.length()) {
+            return 0;
+        }
+        final String suffix = name.substring(prefix.length());
+        for (int i = 0; i < suffix.length(); i++) {
+            if (!Character.isDigit(suffix.charAt(i))) {
+                return 0;
+            }
+        }
+        try {
+            return Long.parseLong(suffix);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
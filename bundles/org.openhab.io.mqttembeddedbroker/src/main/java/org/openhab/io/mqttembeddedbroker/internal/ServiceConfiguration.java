@@ -22,9 +22,15 @@ import org.eclipse.jdt.annotation.Nullable;
  */
 @NonNullByDefault
 public class ServiceConfiguration {
+    /** Retained messages are stored by Moquette in the persistence file */
+    public static final String PERSISTENCE_MODE_FILE = "file";
+    /** Retained messages are stored in append-only segment files next to the persistence file */
+    public static final String PERSISTENCE_MODE_SEGMENTS = "segments";
+
     public @Nullable Integer port;
     public Boolean secure = false;
     public String persistenceFile = "mqttembedded.bin";
+    public String persistenceMode = PERSISTENCE_MODE_FILE;
 
     public @Nullable String username;
     public @Nullable String password;
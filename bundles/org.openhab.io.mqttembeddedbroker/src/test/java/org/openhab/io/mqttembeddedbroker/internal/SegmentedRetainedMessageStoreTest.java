@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link SegmentedRetainedMessageStore}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class SegmentedRetainedMessageStoreTest {
+    private Path directory;
+    private Path baseFile;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("retained");
+        baseFile = directory.resolve("mqttembedded.bin");
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test
+    public void recoverRetainedMessages() throws IOException {
+        SegmentedRetainedMessageStore store = new SegmentedRetainedMessageStore(baseFile);
+        store.open();
+        store.retain("a", 1, "1".getBytes());
+        store.retain("b", 0, "2".getBytes());
+        store.retain("a", 1, "3".getBytes());
+        store.retain("b", 0, new byte[0]);
+        store.close();
+
+        store = new SegmentedRetainedMessageStore(baseFile);
+        store.open();
+        Map<String, RetainedMessageStore.Message> messages = store.getRetainedMessages();
+        assertThat(store.getRetainedCount(), is(1));
+        assertThat(new String(messages.get("a").payload), is("3"));
+        assertThat(messages.get("a").qos, is(1));
+        store.close();
+    }
+
+    @Test
+    public void compactKeepsLatestMessages() throws IOException {
+        SegmentedRetainedMessageStore store = new SegmentedRetainedMessageStore(baseFile);
+        store.open();
+        for (int i = 0; i < 100; i++) {
+            store.retain("topic", 0, ("value" + i).getBytes());
+        }
+        long uncompactedSize = store.getStoreSize();
+        store.compact();
+        store.compact();
+        assertTrue(store.getStoreSize() < uncompactedSize);
+        // Only the current and the previous segment are kept
+        assertFalse(Files.exists(directory.resolve("mqttembedded.bin.1")));
+        assertTrue(Files.exists(directory.resolve("mqttembedded.bin.2")));
+        assertTrue(Files.exists(directory.resolve("mqttembedded.bin.3")));
+        store.close();
+
+        store = new SegmentedRetainedMessageStore(baseFile);
+        store.open();
+        assertThat(new String(store.getRetainedMessages().get("topic").payload), is("value99"));
+        store.close();
+    }
+
+    @Test
+    public void incompleteWriteIsDiscarded() throws IOException {
+        SegmentedRetainedMessageStore store = new SegmentedRetainedMessageStore(baseFile);
+        store.open();
+        store.retain("a", 0, "intact".getBytes());
+        store.retain("b", 0, "cut off".getBytes());
+        store.close();
+
+        Path segment = directory.resolve("mqttembedded.bin.1");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        store = new SegmentedRetainedMessageStore(baseFile);
+        store.open();
+        assertThat(store.getRetainedCount(), is(1));
+        assertThat(new String(store.getRetainedMessages().get("a").payload), is("intact"));
+
+        // Appending continues after the last intact record
+        store.retain("c", 0, "new".getBytes());
+        store.close();
+        store = new SegmentedRetainedMessageStore(baseFile);
+        store.open();
+        assertThat(store.getRetainedCount(), is(2));
+        store.close();
+    }
+
+    @Test
+    public void unreadableSegmentFallsBackToPrevious() throws IOException {
+        SegmentedRetainedMessageStore store = new SegmentedRetainedMessageStore(baseFile);
+        store.open();
+        store.retain("a", 0, "1".getBytes());
+        store.compact();
+        store.close();
+
+        Files.write(directory.resolve("mqttembedded.bin.2"), new byte[] { 1, 2, 3 });
+
+        store = new SegmentedRetainedMessageStore(baseFile);
+        store.open();
+        assertThat(new String(store.getRetainedMessages().get("a").payload), is("1"));
+        store.close();
+    }
+}
@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.exec;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link CommandWorkerPool} keeps long running worker processes of a command line.
+ *
+ * Each worker reads one request line on its standard input and answers with one response line on its standard
+ * output. A worker is started on its first request and restarted on the next request, if it exited or did not
+ * answer in time. Pools are shared by all users of the same command line, like the exec Things and the exec
+ * transformation. Each user has to acquire the pool for as long as it sends requests, after the last user released
+ * the pool no worker is started anymore.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class CommandWorkerPool {
+
+    private static final Map<String, CommandWorkerPool> POOLS = new HashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger(CommandWorkerPool.class);
+
+    private final String commandLine;
+    private final List<CommandWorker> workers = new ArrayList<>();
+    private final BlockingQueue<CommandWorker> idleWorkers;
+    private int references = 0;
+    private volatile boolean released = false;
+    private volatile long lastUsed = System.currentTimeMillis();
+
+    private CommandWorkerPool(String commandLine, int size) {
+        this.commandLine = commandLine;
+        this.idleWorkers = new LinkedBlockingQueue<>();
+        for (int i = 0; i < size; i++) {
+            CommandWorker worker = new CommandWorker(i);
+            workers.add(worker);
+            idleWorkers.add(worker);
+        }
+    }
+
+    /**
+     * Returns the pool of a command line and creates it, if it does not exist yet.
+     * The size of an existing pool is not changed.
+     *
+     * @param commandLine the command line of the workers
+     * @param size the number of workers
+     * @return the pool, which must be released with {@link #release()}
+     */
+    public static CommandWorkerPool acquire(String commandLine, int size) {
+        synchronized (POOLS) {
+            CommandWorkerPool pool = POOLS.get(commandLine);
+            if (pool == null) {
+                pool = new CommandWorkerPool(commandLine, Math.max(1, size));
+                POOLS.put(commandLine, pool);
+            } else if (pool.workers.size() != size) {
+                pool.logger.debug("Using {} workers of the existing pool for '{}' instead of {}", pool.workers.size(),
+                        commandLine, size);
+            }
+            pool.references++;
+            return pool;
+        }
+    }
+
+    /**
+     * Releases the pool. The workers are stopped, when the pool is not used anymore.
+     */
+    public void release() {
+        synchronized (POOLS) {
+            if (--references > 0) {
+                return;
+            }
+            POOLS.remove(commandLine);
+            released = true;
+        }
+        for (CommandWorker worker : workers) {
+            worker.stop();
+        }
+    }
+
+    /**
+     * Returns the time of the last request to the pool.
+     *
+     * @return the time in milliseconds since the epoch
+     */
+    public long getLastUsed() {
+        return lastUsed;
+    }
+
+    /**
+     * Sends a request to an idle worker and waits for its response.
+     *
+     * @param request the request line, which must not contain line breaks
+     * @param timeout the time in milliseconds to wait for an idle worker and its response
+     * @return the response line
+     * @throws IllegalArgumentException if the request contains a line break
+     * @throws IOException if the worker can not be started or exited, or the pool has been released
+     * @throws TimeoutException if no worker is idle or the worker does not respond in time
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public String execute(String request, long timeout) throws IOException, TimeoutException, InterruptedException {
+        if (request.indexOf('\n') >= 0 || request.indexOf('\r') >= 0) {
+            // the worker would read the rest of the request as further requests and answer them out of order
+            throw new IllegalArgumentException("The request to worker '" + commandLine + "' contains a line break");
+        }
+        if (released) {
+            throw new IOException("The workers of '" + commandLine + "' have been released");
+        }
+        long start = System.currentTimeMillis();
+        lastUsed = start;
+        CommandWorker worker = idleWorkers.poll(timeout, TimeUnit.MILLISECONDS);
+        if (worker == null) {
+            throw new TimeoutException("No idle worker available after " + timeout + " ms");
+        }
+        try {
+            return worker.execute(request, Math.max(0, timeout - (System.currentTimeMillis() - start)));
+        } catch (IOException | TimeoutException | InterruptedException e) {
+            // a worker in an unknown state is restarted on its next request
+            worker.stop();
+            throw e;
+        } finally {
+            lastUsed = System.currentTimeMillis();
+            idleWorkers.add(worker);
+        }
+    }
+
+    private class CommandWorker {
+        private final int id;
+        private @Nullable Process process;
+        private @Nullable BufferedWriter input;
+        private volatile BlockingQueue<Optional<String>> responses = new LinkedBlockingQueue<>();
+
+        CommandWorker(int id) {
+            this.id = id;
+        }
+
+        String execute(String request, long timeout) throws IOException, TimeoutException, InterruptedException {
+            BufferedWriter writer = input;
+            Process localProcess = process;
+            if (writer == null || localProcess == null || !localProcess.isAlive()
+                    || responses.contains(Optional.empty())) {
+                writer = start();
+            }
+
+            BlockingQueue<Optional<String>> queue = responses;
+            queue.clear();
+            try {
+                send(writer, request);
+            } catch (IOException e) {
+                // the worker exited after its last response, so it is restarted once
+                writer = start();
+                queue = responses;
+                send(writer, request);
+            }
+
+            Optional<String> response = queue.poll(timeout, TimeUnit.MILLISECONDS);
+            if (response == null) {
+                throw new TimeoutException("Worker '" + commandLine + "' did not respond within " + timeout + " ms");
+            }
+            if (!response.isPresent()) {
+                throw new IOException("Worker '" + commandLine + "' exited");
+            }
+            return response.get();
+        }
+
+        private void send(BufferedWriter writer, String request) throws IOException {
+            writer.write(request);
+            writer.newLine();
+            writer.flush();
+        }
+
+        synchronized BufferedWriter start() throws IOException {
+            stop();
+            if (released) {
+                // the pool was released during the request, release() stops only the workers already started
+                throw new IOException("The workers of '" + commandLine + "' have been released");
+            }
+            logger.debug("Starting worker {} of '{}'", id, commandLine);
+
+            Process localProcess = Runtime.getRuntime().exec(commandLine);
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(localProcess.getOutputStream()));
+            // each process gets its own queue, so a stopped process can not answer requests of its successor
+            BlockingQueue<Optional<String>> queue = new LinkedBlockingQueue<>();
+
+            Thread reader = new Thread(() -> {
+                try (BufferedReader br = new BufferedReader(new InputStreamReader(localProcess.getInputStream()))) {
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        logger.trace("Worker {} of '{}' [OUTPUT]: '{}'", id, commandLine, line);
+                        queue.add(Optional.of(line));
+                    }
+                } catch (IOException e) {
+                    logger.debug("Reading the output of worker {} of '{}' failed: {}", id, commandLine,
+                            e.getMessage());
+                }
+                queue.add(Optional.empty());
+            }, "OH-exec-worker-" + id);
+            reader.setDaemon(true);
+            reader.start();
+
+            Thread drain = new Thread(() -> drain(localProcess.getErrorStream()), "OH-exec-worker-" + id + "-err");
+            drain.setDaemon(true);
+            drain.start();
+
+            process = localProcess;
+            input = writer;
+            responses = queue;
+            return writer;
+        }
+
+        synchronized void stop() {
+            Process localProcess = process;
+            if (localProcess != null) {
+                logger.debug("Stopping worker {} of '{}'", id, commandLine);
+                localProcess.destroyForcibly();
+            }
+            process = null;
+            input = null;
+        }
+
+        private void drain(InputStream stream) {
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(stream))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    logger.debug("Worker {} of '{}' [ERROR]: '{}'", id, commandLine, line);
+                }
+            } catch (IOException e) {
+                // the stream is closed, when the worker is stopped
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.exec;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CommandWorkerPool}, using <code>cat</code> and <code>head</code> as workers.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class CommandWorkerPoolTest {
+
+    private static final String CAT = "/bin/cat";
+    private static final long TIMEOUT = 5000;
+
+    @Before
+    public void setUp() {
+        assumeTrue(new File(CAT).canExecute());
+    }
+
+    @Test
+    public void workerAnswersRequests() throws Exception {
+        CommandWorkerPool pool = CommandWorkerPool.acquire(CAT, 1);
+        try {
+            assertThat(pool.execute("first", TIMEOUT), is("first"));
+            assertThat(pool.execute("second", TIMEOUT), is("second"));
+            assertThat(pool.execute("", TIMEOUT), is(""));
+        } finally {
+            pool.release();
+        }
+    }
+
+    @Test
+    public void poolIsSharedByCommandLine() throws Exception {
+        CommandWorkerPool pool = CommandWorkerPool.acquire(CAT, 2);
+        CommandWorkerPool sharedPool = CommandWorkerPool.acquire(CAT, 1);
+        assertThat(sharedPool, is(sameInstance(pool)));
+
+        pool.release();
+        assertThat(sharedPool.execute("still running", TIMEOUT), is("still running"));
+
+        sharedPool.release();
+        CommandWorkerPool newPool = CommandWorkerPool.acquire(CAT, 1);
+        try {
+            assertThat(newPool, is(not(sameInstance(pool))));
+        } finally {
+            newPool.release();
+        }
+    }
+
+    @Test
+    public void releasedPoolStartsNoWorker() throws Exception {
+        CommandWorkerPool pool = CommandWorkerPool.acquire(CAT, 1);
+        assertThat(pool.execute("request", TIMEOUT), is("request"));
+        pool.release();
+
+        try {
+            pool.execute("request", TIMEOUT);
+            fail("a released pool must not start a worker");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void requestWithLineBreakIsRejected() throws Exception {
+        CommandWorkerPool pool = CommandWorkerPool.acquire(CAT, 1);
+        try {
+            pool.execute("first\nsecond", TIMEOUT);
+            fail("a request with a line break must be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        } finally {
+            pool.release();
+        }
+    }
+
+    @Test
+    public void exitedWorkerIsRestarted() throws Exception {
+        // head answers one request and exits
+        CommandWorkerPool pool = CommandWorkerPool.acquire("head -n 1", 1);
+        try {
+            assertThat(pool.execute("first", TIMEOUT), is("first"));
+            String response;
+            try {
+                response = pool.execute("second", TIMEOUT);
+            } catch (IOException e) {
+                // the request was sent before the worker exited, it is restarted on the next request
+                response = pool.execute("second", TIMEOUT);
+            }
+            assertThat(response, is("second"));
+        } finally {
+            pool.release();
+        }
+    }
+
+    @Test
+    public void workerWithoutResponseTimesOut() throws Exception {
+        // sleep does not read its standard input
+        CommandWorkerPool pool = CommandWorkerPool.acquire("sleep 60", 1);
+        try {
+            pool.execute("request", 200);
+            fail("a worker without a response must time out");
+        } catch (TimeoutException e) {
+            // expected
+        } finally {
+            pool.release();
+        }
+    }
+}
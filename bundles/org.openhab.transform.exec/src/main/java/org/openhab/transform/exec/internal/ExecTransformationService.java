@@ -12,12 +12,22 @@
  */
 package org.openhab.transform.exec.internal;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.io.net.exec.ExecUtil;
+import org.openhab.io.transport.exec.CommandWorkerPool;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,14 +35,88 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * input by command line.
  *
+ * A command line with the prefix <code>worker:</code> is started once as a long running worker. The input is
+ * written as one line to its standard input and the worker answers with one line on its standard output. Workers
+ * which have not been used for {@link #IDLE_TIMEOUT} are stopped.
+ *
  * @author Pauli Anttila
  */
 @NonNullByDefault
 @Component(immediate = true, property = { "smarthome.transform=EXEC" })
 public class ExecTransformationService implements TransformationService {
 
+    private static final String WORKER_PREFIX = "worker:";
+    private static final int TIMEOUT = 5000;
+    private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+    private static final int MAX_WORKER_POOLS = 16;
+
     private final Logger logger = LoggerFactory.getLogger(ExecTransformationService.class);
 
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool("transformation");
+
+    private final Map<String, CommandWorkerPool> workerPools = new HashMap<>();
+    private @Nullable ScheduledFuture<?> evictionJob;
+
+    @Deactivate
+    protected synchronized void deactivate() {
+        ScheduledFuture<?> job = evictionJob;
+        if (job != null) {
+            job.cancel(false);
+            evictionJob = null;
+        }
+        workerPools.values().forEach(CommandWorkerPool::release);
+        workerPools.clear();
+    }
+
+    /**
+     * Returns the pool of the command line for one request. The pool is kept until it is idle or too many pools are
+     * used, but the caller gets its own reference, so the workers are not stopped during its request.
+     *
+     * @return the pool, which must be released after the request
+     */
+    private synchronized CommandWorkerPool acquireWorkerPool(String commandLine) {
+        if (workerPools.containsKey(commandLine)) {
+            return CommandWorkerPool.acquire(commandLine, 1);
+        }
+        if (workerPools.size() >= MAX_WORKER_POOLS) {
+            // release the least recently used pool
+            Map.Entry<String, CommandWorkerPool> oldest = null;
+            for (Map.Entry<String, CommandWorkerPool> entry : workerPools.entrySet()) {
+                if (oldest == null || entry.getValue().getLastUsed() < oldest.getValue().getLastUsed()) {
+                    oldest = entry;
+                }
+            }
+            if (oldest != null) {
+                logger.debug("Stopping the workers of '{}' to start '{}'", oldest.getKey(), commandLine);
+                oldest.getValue().release();
+                workerPools.remove(oldest.getKey());
+            }
+        }
+        workerPools.put(commandLine, CommandWorkerPool.acquire(commandLine, 1));
+        if (evictionJob == null) {
+            evictionJob = scheduler.scheduleWithFixedDelay(this::releaseIdleWorkerPools, 1, 1, TimeUnit.MINUTES);
+        }
+        return CommandWorkerPool.acquire(commandLine, 1);
+    }
+
+    private synchronized void releaseIdleWorkerPools() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, CommandWorkerPool>> iterator = workerPools.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, CommandWorkerPool> entry = iterator.next();
+            if (now - entry.getValue().getLastUsed() > IDLE_TIMEOUT) {
+                logger.debug("Stopping the idle workers of '{}'", entry.getKey());
+                entry.getValue().release();
+                iterator.remove();
+            }
+        }
+        ScheduledFuture<?> job = evictionJob;
+        if (workerPools.isEmpty() && job != null) {
+            job.cancel(false);
+            evictionJob = null;
+        }
+    }
+
     /**
      * Transforms the input <code>source</code> by the command line.
      *
@@ -50,8 +134,26 @@ public class ExecTransformationService implements TransformationService {
 
         long startTime = System.currentTimeMillis();
 
+        if (commandLine.startsWith(WORKER_PREFIX)) {
+            String workerCommandLine = commandLine.substring(WORKER_PREFIX.length()).trim();
+            CommandWorkerPool pool = acquireWorkerPool(workerCommandLine);
+            try {
+                String result = pool.execute(source, TIMEOUT);
+                logger.trace("worker request elapsed {} ms", System.currentTimeMillis() - startTime);
+                return result;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransformationException("interrupted while waiting for worker '" + workerCommandLine + "'");
+            } catch (Exception e) {
+                throw new TransformationException(
+                        "worker '" + workerCommandLine + "' failed to transform '" + source + "'", e);
+            } finally {
+                pool.release();
+            }
+        }
+
         String formattedCommandLine = String.format(commandLine, source);
-        String result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, 5000);
+        String result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, TIMEOUT);
         logger.trace("command line execution elapsed {} ms", System.currentTimeMillis() - startTime);
 
         return result;
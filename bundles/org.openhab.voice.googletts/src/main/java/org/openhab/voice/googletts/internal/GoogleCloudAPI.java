@@ -16,17 +16,9 @@ import static java.util.Collections.*;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
@@ -36,8 +28,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.io.FilenameUtils;
 import org.eclipse.smarthome.core.audio.AudioFormat;
+import org.eclipse.smarthome.core.audio.AudioStream;
 import org.eclipse.smarthome.io.net.http.HttpRequestBuilder;
 import org.openhab.voice.googletts.internal.protocol.AudioConfig;
 import org.openhab.voice.googletts.internal.protocol.AudioEncoding;
@@ -48,6 +40,7 @@ import org.openhab.voice.googletts.internal.protocol.SynthesizeSpeechRequest;
 import org.openhab.voice.googletts.internal.protocol.SynthesizeSpeechResponse;
 import org.openhab.voice.googletts.internal.protocol.Voice;
 import org.openhab.voice.googletts.internal.protocol.VoiceSelectionParams;
+import org.openhab.voice.ttscache.TTSCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,11 +56,6 @@ import com.google.gson.GsonBuilder;
  * @author Gabor Bicskei - Initial contribution and API
  */
 class GoogleCloudAPI {
-    /**
-     * Default encoding
-     */
-    private static final String UTF_8 = "UTF-8";
-
     /**
      * JSON content type
      */
@@ -104,9 +92,9 @@ class GoogleCloudAPI {
     private final Map<Locale, Set<GoogleTTSVoice>> voices = new HashMap<>();
 
     /**
-     * Cache folder
+     * Cache of the synthesized audio
      */
-    private File cacheFolder;
+    private final TTSCache cache;
 
     /**
      * Configuration
@@ -128,7 +116,7 @@ class GoogleCloudAPI {
      * @param cacheFolder Service cache folder
      */
     GoogleCloudAPI(File cacheFolder) {
-        this.cacheFolder = cacheFolder;
+        this.cache = new TTSCache(cacheFolder, TTSCache.DEFAULT_MAX_SIZE, 0);
     }
 
     /**
@@ -156,11 +144,7 @@ class GoogleCloudAPI {
 
         // maintain cache
         if (config.getPurgeCache() != null && config.getPurgeCache()) {
-            File[] files = cacheFolder.listFiles();
-            if (files != null && files.length > 0) {
-                Arrays.stream(files).forEach(File::delete);
-            }
-            logger.debug("Cache purged.");
+            cache.purge();
         }
     }
 
@@ -274,65 +258,52 @@ class GoogleCloudAPI {
         }
     }
 
-    byte[] synthesizeSpeech(String text, GoogleTTSVoice voice, String codec) {
-        String[] format = getFormatForCodec(codec);
-        String fileNameInCache = getUniqueFilenameForText(text, voice.getTechnicalName());
-        File audioFileInCache = new File(cacheFolder, fileNameInCache + "." + format[1]);
+    /**
+     * Returns the synthesized audio from the cache. Texts that are not cached yet are synthesized by Google.
+     *
+     * @param text Text to synthesize
+     * @param voice Voice parameter
+     * @param requestedFormat Requested audio format
+     * @return Audio stream or {@code null} if the audio could not be synthesized
+     */
+    AudioStream synthesizeSpeech(String text, GoogleTTSVoice voice, AudioFormat requestedFormat) {
+        String[] format = getFormatForCodec(requestedFormat.getCodec());
+        String fileNameInCache = TTSCache.getUniqueFilename(voice.getTechnicalName(), config.toConfigString() + text)
+                + "." + format[1];
         try {
-            // check if in cache
-            if (audioFileInCache.exists()) {
-                logger.debug("Audio file {} was found in cache.", audioFileInCache.getName());
-                return Files.readAllBytes(audioFileInCache.toPath());
-            }
-
-            // if not in cache, get audio data and put to cache
-            byte[] audio = synthesizeSpeechByGoogle(text, voice, format[0]);
-            if (audio != null) {
-                saveAudioAndTextToFile(text, audioFileInCache, audio, voice.getTechnicalName());
-            }
-            return audio;
-        } catch (FileNotFoundException ex) {
-            logger.warn("Could not write {} to cache", audioFileInCache, ex);
-            return null;
+            return cache.get(fileNameInCache, getTextFileContent(text, voice.getTechnicalName()), requestedFormat,
+                    () -> {
+                        byte[] audio = synthesizeSpeechByGoogle(text, voice, format[0]);
+                        if (audio == null) {
+                            throw new IOException("No audio returned for '" + text + "'");
+                        }
+                        return new ByteArrayInputStream(audio);
+                    });
         } catch (IOException ex) {
-            logger.error("Could not write {} to cache", audioFileInCache, ex);
+            logger.error("Could not synthesize {}", fileNameInCache, ex);
             return null;
         }
     }
 
     /**
-     * Create cache entry.
+     * Content of the text file next to a cache entry.
+     * This allows to know which contents is in which audio file.
      *
      * @param text Converted text.
-     * @param cacheFile Cache entry file.
-     * @param audio Byte array of the audio.
      * @param voiceName Used voice
-     * @throws IOException in case of file handling exceptions
      */
-    private void saveAudioAndTextToFile(String text, File cacheFile, byte[] audio, String voiceName)
-            throws IOException {
-        logger.debug("Caching audio file {}", cacheFile.getName());
-        try (FileOutputStream audioFileOutputStream = new FileOutputStream(cacheFile)) {
-            audioFileOutputStream.write(audio);
-        }
-
-        // write text to file for transparency too
-        // this allows to know which contents is in which audio file
-        String textFileName = FilenameUtils.removeExtension(cacheFile.getName()) + ".txt";
-        logger.debug("Caching text file {}", textFileName);
-        try (FileOutputStream textFileOutputStream = new FileOutputStream(new File(cacheFolder, textFileName))) {
-            // @formatter:off
-            StringBuilder sb = new StringBuilder("Config: ")
-                    .append(config.toConfigString())
-                    .append(",voice=")
-                    .append(voiceName)
-                    .append(System.lineSeparator())
-                    .append("Text: ")
-                    .append(text)
-                    .append(System.lineSeparator());
-            // @formatter:on
-            textFileOutputStream.write(sb.toString().getBytes(UTF_8));
-        }
+    private String getTextFileContent(String text, String voiceName) {
+        // @formatter:off
+        return new StringBuilder("Config: ")
+                .append(config.toConfigString())
+                .append(",voice=")
+                .append(voiceName)
+                .append(System.lineSeparator())
+                .append("Text: ")
+                .append(text)
+                .append(System.lineSeparator())
+                .toString();
+        // @formatter:on
     }
 
     /**
@@ -368,31 +339,6 @@ class GoogleCloudAPI {
         return Base64.getDecoder().decode(encodedBytes);
     }
 
-    /**
-     * Gets a unique filename for a give text, by creating a MD5 hash of it. It
-     * will be preceded by the locale.
-     * <p>
-     * Sample: "en-US_00a2653ac5f77063bc4ea2fee87318d3"
-     */
-    private String getUniqueFilenameForText(String text, String voiceName) {
-        try {
-            byte[] bytesOfMessage = (config.toConfigString() + text).getBytes(UTF_8);
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] md5Hash = md.digest(bytesOfMessage);
-            BigInteger bigInt = new BigInteger(1, md5Hash);
-            StringBuilder hashText = new StringBuilder(bigInt.toString(16));
-            // Now we need to zero pad it if you actually want the full 32 chars.
-            while (hashText.length() < 32) {
-                hashText.insert(0, "0");
-            }
-            return voiceName + "_" + hashText;
-        } catch (UnsupportedEncodingException | NoSuchAlgorithmException ex) {
-            // should not happen
-            logger.error("Could not create MD5 hash for '{}'", text, ex);
-            return null;
-        }
-    }
-
     boolean isInitialized() {
         return initialized;
     }
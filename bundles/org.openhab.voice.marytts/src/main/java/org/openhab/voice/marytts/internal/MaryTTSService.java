@@ -18,6 +18,10 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
@@ -42,10 +46,23 @@ import marytts.modules.synthesis.Voice;
 @Component
 public class MaryTTSService implements TTSService {
 
+    /**
+     * The maximum number of texts that are synthesized at the same time
+     */
+    private static final int MAX_INTERFACES = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
     private final Logger logger = LoggerFactory.getLogger(MaryTTSService.class);
 
     private MaryInterface marytts;
 
+    /**
+     * The interfaces that are not synthesizing right now. A {@link MaryInterface} holds the voice of the request,
+     * therefore each one is used by a single request at a time.
+     */
+    private final BlockingQueue<MaryInterface> idleInterfaces = new LinkedBlockingQueue<>();
+    private final AtomicInteger interfaceCount = new AtomicInteger();
+    private final AtomicInteger waitingRequests = new AtomicInteger();
+
     /**
      * Set of supported voices
      */
@@ -59,6 +76,9 @@ public class MaryTTSService implements TTSService {
     protected void activate() {
         try {
             marytts = new LocalMaryInterface();
+            idleInterfaces.clear();
+            idleInterfaces.add(marytts);
+            interfaceCount.set(1);
             voices = initVoices();
             audioFormats = initAudioFormats();
         } catch (MaryConfigurationException e) {
@@ -114,18 +134,56 @@ public class MaryTTSService implements TTSService {
         Voice maryTTSVoice = Voice.getVoice(voice.getLabel());
         AudioFormat maryTTSVoiceAudioFormat = getAudioFormat(maryTTSVoice.dbAudioFormat());
 
-        // Synchronize on marytts
-        synchronized (marytts) {
+        long start = System.nanoTime();
+        MaryInterface maryInterface = acquireInterface();
+        long acquired = System.nanoTime();
+        try {
             // Set voice (Each voice supports only a single AudioFormat)
-            marytts.setLocale(voice.getLocale());
-            marytts.setVoice(voice.getLabel());
+            maryInterface.setLocale(voice.getLocale());
+            maryInterface.setVoice(voice.getLabel());
+
+            return new MaryTTSAudioStream(maryInterface.generateAudio(text), maryTTSVoiceAudioFormat);
+        } catch (SynthesisException | IOException e) {
+            throw new TTSException("Error generating an AudioStream", e);
+        } finally {
+            idleInterfaces.add(maryInterface);
+            logger.debug("Synthesized '{}' in {} ms after waiting {} ms, {} requests waiting", text,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - acquired),
+                    TimeUnit.NANOSECONDS.toMillis(acquired - start), waitingRequests.get());
+        }
+    }
 
+    /**
+     * Returns an idle interface. A new interface is created if all are busy and the maximum number of interfaces
+     * has not been reached, otherwise this waits for the next interface that becomes idle.
+     *
+     * @return An interface that is exclusively used by the caller until it is returned to {@link #idleInterfaces}
+     * @throws TTSException If no interface could be created or the caller was interrupted while waiting
+     */
+    private MaryInterface acquireInterface() throws TTSException {
+        MaryInterface maryInterface = idleInterfaces.poll();
+        if (maryInterface != null) {
+            return maryInterface;
+        }
+        if (interfaceCount.incrementAndGet() <= MAX_INTERFACES) {
             try {
-                return new MaryTTSAudioStream(marytts.generateAudio(text), maryTTSVoiceAudioFormat);
-            } catch (SynthesisException | IOException e) {
-                throw new TTSException("Error generating an AudioStream", e);
+                return new LocalMaryInterface();
+            } catch (MaryConfigurationException e) {
+                interfaceCount.decrementAndGet();
+                throw new TTSException("Failed to initialize MaryTTS", e);
             }
         }
+        interfaceCount.decrementAndGet();
+
+        waitingRequests.incrementAndGet();
+        try {
+            return idleInterfaces.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TTSException("Interrupted while waiting for MaryTTS", e);
+        } finally {
+            waitingRequests.decrementAndGet();
+        }
     }
 
     /**
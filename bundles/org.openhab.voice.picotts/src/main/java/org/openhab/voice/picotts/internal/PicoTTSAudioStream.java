@@ -12,11 +12,11 @@
  */
 package org.openhab.voice.picotts.internal;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 
 import org.eclipse.smarthome.core.audio.AudioException;
 import org.eclipse.smarthome.core.audio.AudioFormat;
@@ -26,6 +26,9 @@ import org.eclipse.smarthome.core.voice.Voice;
 
 /**
  * Implementation of {@link AudioStream} for {@link PicoTTSService}
+ * <p>
+ * pico2wave can only write to a seekable .wav file, because it completes the header after the synthesis.
+ * The file is read once and deleted right away, the audio is then served from memory.
  *
  * @author Florian Schmidt - Initial Contribution
  */
@@ -33,16 +36,15 @@ class PicoTTSAudioStream extends FixedLengthAudioStream {
     private final Voice voice;
     private final String text;
     private final AudioFormat audioFormat;
-    private final InputStream inputStream;
-
-    private long length;
-    private File file;
+    private final byte[] audio;
+    private InputStream inputStream;
 
     public PicoTTSAudioStream(String text, Voice voice, AudioFormat audioFormat) throws AudioException {
         this.text = text;
         this.voice = voice;
         this.audioFormat = audioFormat;
-        this.inputStream = createInputStream();
+        this.audio = synthesize();
+        this.inputStream = new ByteArrayInputStream(audio);
     }
 
     @Override
@@ -50,48 +52,35 @@ class PicoTTSAudioStream extends FixedLengthAudioStream {
         return audioFormat;
     }
 
-    private InputStream createInputStream() throws AudioException {
-        String outputFile = generateOutputFilename();
-        String[] command = getCommand(outputFile);
+    private byte[] synthesize() throws AudioException {
+        File file = createOutputFile();
+        String[] command = getCommand(file.getAbsolutePath());
 
         try {
             Process process = Runtime.getRuntime().exec(command);
-            process.waitFor();
-            file = new File(outputFile);
-            this.length = file.length();
-            return getFileInputStream(file);
+            int exitCode = process.waitFor();
+            if (exitCode != 0 || file.length() == 0) {
+                throw new AudioException("'" + String.join(" ", command) + "' failed with exit code " + exitCode);
+            }
+            return Files.readAllBytes(file.toPath());
         } catch (IOException e) {
-            throw new AudioException("Error while executing '" + command + "'", e);
+            throw new AudioException("Error while executing '" + String.join(" ", command) + "'", e);
         } catch (InterruptedException e) {
-            throw new AudioException("The '" + command + "' has been interrupted", e);
-        }
-    }
-
-    private InputStream getFileInputStream(File file) throws AudioException {
-        if (file == null) {
-            throw new IllegalArgumentException("file must not be null");
-        }
-        if (file.exists()) {
-            try {
-                return new FileInputStream(file);
-            } catch (FileNotFoundException e) {
-                throw new AudioException("Cannot open temporary audio file '" + file.getName() + ".");
-            }
-        } else {
-            throw new AudioException("Temporary file '" + file.getName() + "' not found!");
+            Thread.currentThread().interrupt();
+            throw new AudioException("The '" + String.join(" ", command) + "' has been interrupted", e);
+        } finally {
+            file.delete();
         }
     }
 
     /**
-     * Generates a unique, absolute output filename
+     * Creates a unique output file
      *
-     * @return Unique, absolute output filename
+     * @return Unique output file
      */
-    private String generateOutputFilename() throws AudioException {
+    private File createOutputFile() throws AudioException {
         try {
-            File tempFile = File.createTempFile(Integer.toString(text.hashCode()), ".wav");
-            tempFile.deleteOnExit();
-            return tempFile.getAbsolutePath();
+            return File.createTempFile(Integer.toString(text.hashCode()), ".wav");
         } catch (IOException e) {
             throw new AudioException("Unable to create temp file.", e);
         }
@@ -112,17 +101,23 @@ class PicoTTSAudioStream extends FixedLengthAudioStream {
         return inputStream.read();
     }
 
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return inputStream.read(b, off, len);
+    }
+
     @Override
     public long length() {
-        return length;
+        return audio.length;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        inputStream = new ByteArrayInputStream(audio);
     }
 
     @Override
     public InputStream getClonedStream() throws AudioException {
-        if (file != null) {
-            return getFileInputStream(file);
-        } else {
-            throw new AudioException("No temporary audio file available.");
-        }
+        return new ByteArrayInputStream(audio);
     }
 }
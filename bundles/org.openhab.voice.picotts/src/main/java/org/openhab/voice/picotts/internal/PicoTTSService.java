@@ -15,6 +15,9 @@ package org.openhab.voice.picotts.internal;
 import java.util.Collections;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -25,12 +28,24 @@ import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
 import org.eclipse.smarthome.core.voice.Voice;
 import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author Florian Schmidt - Initial Contribution
  */
 @Component
 public class PicoTTSService implements TTSService {
+    /**
+     * The maximum number of pico2wave processes that run at the same time
+     */
+    private static final int MAX_PROCESSES = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private final Logger logger = LoggerFactory.getLogger(PicoTTSService.class);
+
+    private final Semaphore processes = new Semaphore(MAX_PROCESSES, true);
+    private final AtomicInteger waitingRequests = new AtomicInteger();
+
     private final Set<Voice> voices = Stream
             .of(new PicoTTSVoice("de-DE"), new PicoTTSVoice("en-US"), new PicoTTSVoice("en-GB"),
                     new PicoTTSVoice("es-ES"), new PicoTTSVoice("fr-FR"), new PicoTTSVoice("it-IT"))
@@ -67,10 +82,26 @@ public class PicoTTSService implements TTSService {
             throw new TTSException("The passed AudioFormat is unsupported");
         }
 
+        long start = System.nanoTime();
+        waitingRequests.incrementAndGet();
+        try {
+            processes.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TTSException("Interrupted while waiting for pico2wave", e);
+        } finally {
+            waitingRequests.decrementAndGet();
+        }
+        long acquired = System.nanoTime();
         try {
             return new PicoTTSAudioStream(text, voice, requestedFormat);
         } catch (AudioException e) {
             throw new TTSException(e);
+        } finally {
+            processes.release();
+            logger.debug("Synthesized '{}' in {} ms after waiting {} ms, {} requests waiting", text,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - acquired),
+                    TimeUnit.NANOSECONDS.toMillis(acquired - start), waitingRequests.get());
         }
     }
 
@@ -0,0 +1,405 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.ttscache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.audio.AudioException;
+import org.eclipse.smarthome.core.audio.AudioFormat;
+import org.eclipse.smarthome.core.audio.ByteArrayAudioStream;
+import org.eclipse.smarthome.core.audio.FileAudioStream;
+import org.eclipse.smarthome.core.audio.FixedLengthAudioStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A disk cache for synthesized speech that is shared by the text-to-speech services.
+ * <p>
+ * Every audio file is stored together with a .txt file of the same name, which contains the spoken text.
+ * The cache is bounded by a maximum size and an optional maximum age, the least recently used files are
+ * removed first. Small files that are played more than once are additionally held in memory.
+ * Concurrent requests for the same file are synthesized only once.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class TTSCache {
+    /**
+     * Synthesizes the audio of a file that is not in the cache yet.
+     */
+    @FunctionalInterface
+    public interface Synthesizer {
+        /**
+         * Returns the synthesized audio. The stream is closed by the cache.
+         *
+         * @throws IOException If the speech service could not be reached
+         */
+        InputStream synthesize() throws IOException;
+    }
+
+    /**
+     * The default maximum size of the audio files on disk
+     */
+    public static final long DEFAULT_MAX_SIZE = 100L * 1024 * 1024;
+
+    private static final long MEMORY_MAX_SIZE = 2L * 1024 * 1024;
+    private static final long MEMORY_MAX_ENTRY_SIZE = 128L * 1024;
+    private static final int HOT_HITS = 1;
+
+    private static final String TEXT_EXTENSION = ".txt";
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    private final Logger logger = LoggerFactory.getLogger(TTSCache.class);
+
+    private final File cacheFolder;
+    private final long maxSize;
+    private final long maxAge;
+
+    /**
+     * The audio files on disk by file name, the least recently used first.
+     */
+    private final LinkedHashMap<String, Entry> files = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    /**
+     * The audio data of hot files by file name, the least recently used first.
+     */
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memorySize;
+
+    /**
+     * The files that are being synthesized right now
+     */
+    private final Map<String, CompletableFuture<File>> pending = new HashMap<>();
+
+    private static class Entry {
+        final long size;
+        long lastUsed;
+        int hits;
+
+        Entry(long size, long lastUsed) {
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    /**
+     * Creates a cache and indexes the audio files that are already in the cache folder.
+     *
+     * @param cacheFolder The cache folder. It is created if it does not exist.
+     * @param maxSize The maximum size of all audio files in bytes
+     * @param maxAge The time in milliseconds after which an unused audio file is removed, 0 to keep files forever
+     */
+    public TTSCache(File cacheFolder, long maxSize, long maxAge) {
+        this.cacheFolder = cacheFolder;
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+        if (!cacheFolder.exists()) {
+            cacheFolder.mkdirs();
+        }
+
+        File[] existingFiles = cacheFolder.listFiles();
+        if (existingFiles != null) {
+            Arrays.sort(existingFiles, Comparator.comparingLong(File::lastModified));
+            for (File file : existingFiles) {
+                String name = file.getName();
+                if (name.endsWith(TEMP_EXTENSION)) {
+                    // Left over from an interrupted synthesis
+                    file.delete();
+                } else if (file.isFile() && !name.endsWith(TEXT_EXTENSION)) {
+                    files.put(name, new Entry(file.length(), file.lastModified()));
+                    size += file.length();
+                }
+            }
+        }
+        synchronized (this) {
+            evict(System.currentTimeMillis());
+        }
+        logger.debug("Indexed {} cached audio files with {} bytes in {}", files.size(), size, cacheFolder);
+    }
+
+    /**
+     * Returns the cached audio for the given file name. If the file is not in the cache, it is synthesized first.
+     * Hot files are returned from memory, all others are streamed from disk.
+     *
+     * @param fileName The file name of the audio file, including the extension
+     * @param text The spoken text, which is written next to the audio file
+     * @param format The audio format of the returned stream
+     * @param synthesizer Synthesizes the audio if it is not cached
+     * @return The audio stream
+     * @throws IOException If the audio could neither be synthesized nor read from the cache
+     */
+    public FixedLengthAudioStream get(String fileName, String text, AudioFormat format, Synthesizer synthesizer)
+            throws IOException {
+        byte[] audio;
+        synchronized (this) {
+            audio = memory.get(fileName);
+            Entry entry = files.get(fileName);
+            if (audio != null && entry != null) {
+                entry.lastUsed = System.currentTimeMillis();
+                return new ByteArrayAudioStream(audio, format);
+            }
+        }
+
+        File file = getFile(fileName, text, synthesizer);
+        if (isHot(fileName)) {
+            audio = Files.readAllBytes(file.toPath());
+            synchronized (this) {
+                if (files.containsKey(fileName)) {
+                    byte[] previous = memory.put(fileName, audio);
+                    memorySize += audio.length - (previous != null ? previous.length : 0);
+                    evictMemory();
+                }
+            }
+            return new ByteArrayAudioStream(audio, format);
+        }
+        try {
+            return new FileAudioStream(file, format);
+        } catch (AudioException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the cached audio file for the given file name. If the file is not in the cache, it is synthesized
+     * first. If another thread is synthesizing the same file already, this waits for its result.
+     *
+     * @param fileName The file name of the audio file, including the extension
+     * @param text The spoken text, which is written next to the audio file
+     * @param synthesizer Synthesizes the audio if it is not cached
+     * @return The audio file in the cache folder
+     * @throws IOException If the audio could not be synthesized
+     */
+    public File getFile(String fileName, String text, Synthesizer synthesizer) throws IOException {
+        File file = new File(cacheFolder, fileName);
+        long now = System.currentTimeMillis();
+        CompletableFuture<File> request;
+        boolean synthesize = false;
+        synchronized (this) {
+            evict(now);
+            Entry entry = files.get(fileName);
+            if (entry != null) {
+                entry.lastUsed = now;
+                entry.hits++;
+                request = null;
+            } else {
+                request = pending.get(fileName);
+                if (request == null) {
+                    request = new CompletableFuture<>();
+                    pending.put(fileName, request);
+                    synthesize = true;
+                }
+            }
+        }
+
+        if (request == null) {
+            if (file.exists()) {
+                // The modification time keeps the order of use across restarts
+                file.setLastModified(now);
+                return file;
+            }
+            synchronized (this) {
+                remove(fileName);
+            }
+            return getFile(fileName, text, synthesizer);
+        }
+        if (!synthesize) {
+            return await(request);
+        }
+
+        try {
+            store(file, text, synthesizer);
+            request.complete(file);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            request.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (this) {
+                pending.remove(fileName);
+            }
+        }
+    }
+
+    /**
+     * Removes all files from the cache folder.
+     */
+    public synchronized void purge() {
+        File[] existingFiles = cacheFolder.listFiles();
+        if (existingFiles != null) {
+            Arrays.stream(existingFiles).forEach(File::delete);
+        }
+        files.clear();
+        memory.clear();
+        size = 0;
+        memorySize = 0;
+        logger.debug("Cache purged.");
+    }
+
+    /**
+     * Returns the size of all audio files in bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the size of the audio data that is held in memory in bytes.
+     */
+    public synchronized long getMemorySize() {
+        return memorySize;
+    }
+
+    /**
+     * Gets a unique file name for the given content, by creating a MD5 hash of it. It will be preceded by the
+     * given prefix, which is usually the locale or the voice.
+     * <p>
+     * Sample: "en-US_00a2653ac5f77063bc4ea2fee87318d3"
+     *
+     * @param prefix The prefix of the file name
+     * @param content The content that identifies the audio, e.g. the text and the service configuration
+     * @return The file name without extension
+     */
+    public static String getUniqueFilename(String prefix, String content) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            byte[] md5Hash = md.digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hashText = new StringBuilder(new BigInteger(1, md5Hash).toString(16));
+            // Zero pad it to the full 32 chars
+            while (hashText.length() < 32) {
+                hashText.insert(0, '0');
+            }
+            return prefix + "_" + hashText;
+        } catch (NoSuchAlgorithmException e) {
+            // should not happen, every Java platform supports MD5
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void store(File file, String text, Synthesizer synthesizer) throws IOException {
+        File tempFile = new File(cacheFolder, file.getName() + TEMP_EXTENSION);
+        logger.debug("Caching audio file {}", file.getName());
+        try (InputStream is = synthesizer.synthesize()) {
+            Files.copy(is, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            // write text to file for transparency too
+            // this allows to know which contents is in which audio file
+            Files.write(new File(cacheFolder, getTextFileName(file.getName())).toPath(),
+                    text.getBytes(StandardCharsets.UTF_8));
+            // Readers never see a partially written audio file
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            tempFile.delete();
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Entry previous = files.put(file.getName(), new Entry(file.length(), now));
+            if (previous != null) {
+                size -= previous.size;
+            }
+            size += file.length();
+            evict(now);
+        }
+    }
+
+    private File await(CompletableFuture<File> request) throws IOException {
+        try {
+            return request.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the synthesized audio");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private synchronized boolean isHot(String fileName) {
+        Entry entry = files.get(fileName);
+        return entry != null && entry.hits >= HOT_HITS && entry.size <= MEMORY_MAX_ENTRY_SIZE;
+    }
+
+    /**
+     * Removes the least recently used files until the cache is within its size and age limits.
+     * The most recently used file is always kept.
+     */
+    private void evict(long now) {
+        Iterator<Map.Entry<String, Entry>> iterator = files.entrySet().iterator();
+        while (iterator.hasNext() && files.size() > 1) {
+            Map.Entry<String, Entry> oldest = iterator.next();
+            Entry entry = oldest.getValue();
+            if (size <= maxSize && (maxAge <= 0 || now - entry.lastUsed <= maxAge)) {
+                break;
+            }
+            iterator.remove();
+            size -= entry.size;
+            delete(oldest.getKey());
+        }
+    }
+
+    private void evictMemory() {
+        Iterator<byte[]> iterator = memory.values().iterator();
+        while (memorySize > MEMORY_MAX_SIZE && iterator.hasNext()) {
+            memorySize -= iterator.next().length;
+            iterator.remove();
+        }
+    }
+
+    private void remove(String fileName) {
+        Entry entry = files.remove(fileName);
+        if (entry != null) {
+            size -= entry.size;
+        }
+        delete(fileName);
+    }
+
+    private void delete(String fileName) {
+        byte[] audio = memory.remove(fileName);
+        if (audio != null) {
+            memorySize -= audio.length;
+        }
+        File file = new File(cacheFolder, fileName);
+        if (file.exists() && !file.delete()) {
+            // A stream may still be reading it, the file is indexed again after a restart
+            logger.debug("Could not delete cached audio file {}", file);
+        }
+        new File(cacheFolder, getTextFileName(fileName)).delete();
+        logger.trace("Removed {} from the cache", fileName);
+    }
+
+    private static String getTextFileName(String fileName) {
+        int extension = fileName.lastIndexOf('.');
+        return (extension > 0 ? fileName.substring(0, extension) : fileName) + TEXT_EXTENSION;
+    }
+}
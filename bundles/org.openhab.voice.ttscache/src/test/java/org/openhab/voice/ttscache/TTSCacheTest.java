@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.ttscache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.smarthome.core.audio.AudioFormat;
+import org.eclipse.smarthome.core.audio.ByteArrayAudioStream;
+import org.eclipse.smarthome.core.audio.FileAudioStream;
+import org.eclipse.smarthome.core.audio.FixedLengthAudioStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link TTSCache}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class TTSCacheTest {
+    private File cacheFolder;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheFolder = Files.createTempDirectory("ttscache").toFile();
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(cacheFolder);
+    }
+
+    @Test
+    public void concurrentRequestsAreSynthesizedOnce() throws Exception {
+        TTSCache cache = new TTSCache(cacheFolder, TTSCache.DEFAULT_MAX_SIZE, 0);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        TTSCache.Synthesizer synthesizer = () -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ByteArrayInputStream("audio".getBytes());
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<File> first = executor.submit(() -> cache.getFile("a.mp3", "a", synthesizer));
+            Future<File> second = executor.submit(() -> cache.getFile("a.mp3", "a", synthesizer));
+            Thread.sleep(100);
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS), is(second.get(5, TimeUnit.SECONDS)));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(calls.get(), is(1));
+        assertTrue(new File(cacheFolder, "a.txt").exists());
+    }
+
+    @Test
+    public void leastRecentlyUsedFilesAreEvicted() throws IOException {
+        TTSCache cache = new TTSCache(cacheFolder, 10, 0);
+        cache.getFile("a.mp3", "a", () -> new ByteArrayInputStream(new byte[4]));
+        cache.getFile("b.mp3", "b", () -> new ByteArrayInputStream(new byte[4]));
+        // Use a again, b is the least recently used file now
+        cache.getFile("a.mp3", "a", () -> new ByteArrayInputStream(new byte[4]));
+        cache.getFile("c.mp3", "c", () -> new ByteArrayInputStream(new byte[4]));
+
+        assertTrue(new File(cacheFolder, "a.mp3").exists());
+        assertFalse(new File(cacheFolder, "b.mp3").exists());
+        assertFalse(new File(cacheFolder, "b.txt").exists());
+        assertTrue(new File(cacheFolder, "c.mp3").exists());
+        assertThat(cache.getSize(), is(8L));
+    }
+
+    @Test
+    public void hotFilesAreServedFromMemory() throws IOException {
+        TTSCache cache = new TTSCache(cacheFolder, TTSCache.DEFAULT_MAX_SIZE, 0);
+        TTSCache.Synthesizer synthesizer = () -> new ByteArrayInputStream("audio".getBytes());
+
+        FixedLengthAudioStream stream = cache.get("a.mp3", "a", AudioFormat.MP3, synthesizer);
+        assertTrue(stream instanceof FileAudioStream);
+        stream.close();
+        assertThat(cache.getMemorySize(), is(0L));
+
+        stream = cache.get("a.mp3", "a", AudioFormat.MP3, synthesizer);
+        assertTrue(stream instanceof ByteArrayAudioStream);
+        assertThat(stream.length(), is(5L));
+        assertThat(cache.getMemorySize(), is(5L));
+    }
+
+    @Test
+    public void existingFilesAreIndexed() throws IOException {
+        TTSCache cache = new TTSCache(cacheFolder, TTSCache.DEFAULT_MAX_SIZE, 0);
+        cache.getFile("a.mp3", "a", () -> new ByteArrayInputStream(new byte[4]));
+
+        cache = new TTSCache(cacheFolder, TTSCache.DEFAULT_MAX_SIZE, 0);
+        assertThat(cache.getSize(), is(4L));
+        cache.getFile("a.mp3", "a", () -> {
+            throw new IOException("must not be synthesized again");
+        });
+    }
+
+    @Test
+    public void failedSynthesisIsNotCached() {
+        TTSCache cache = new TTSCache(cacheFolder, TTSCache.DEFAULT_MAX_SIZE, 0);
+        try {
+            cache.getFile("a.mp3", "a", () -> {
+                throw new IOException("service unavailable");
+            });
+            fail();
+        } catch (IOException e) {
+            assertThat(e.getMessage(), is("service unavailable"));
+        }
+        assertThat(cacheFolder.list().length, is(0));
+    }
+
+    @Test
+    public void uniqueFilename() {
+        assertThat(TTSCache.getUniqueFilename("en-US", "Hello World"), is("en-US_b10a8db164e0754105b7a99be72e3fe5"));
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionState;
+import org.eclipse.smarthome.io.transport.mqtt.MqttService;
+import org.eclipse.smarthome.test.java.JavaOSGiTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
+import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
+import org.openhab.binding.mqtt.homeassistant.internal.ChannelConfigurationTypeAdapterFactory;
+import org.openhab.binding.mqtt.homeassistant.internal.DiscoverComponents;
+import org.openhab.binding.mqtt.homeassistant.internal.HaID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Measures the startup time of a {@link DiscoverComponents} discovery for a large number of components, published as
+ * retained messages on the embedded MQTT broker.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class DiscoverComponentsStartupTest extends JavaOSGiTest {
+    private static final int COMPONENTS = 400;
+
+    private final Logger logger = LoggerFactory.getLogger(DiscoverComponentsStartupTest.class);
+
+    private MqttBrokerConnection connection;
+    private final Set<HaID> haIDs = new HashSet<>();
+
+    @Mock
+    ChannelStateUpdateListener channelStateUpdateListener;
+
+    @Mock
+    TransformationServiceProvider transformationServiceProvider;
+
+    @Before
+    public void setUp() throws InterruptedException, ExecutionException, TimeoutException, IOException {
+        registerVolatileStorageService();
+        initMocks(this);
+        MqttService mqttService = getService(MqttService.class);
+
+        MqttBrokerConnection embeddedConnection = new EmbeddedBrokerTools().waitForConnection(mqttService);
+        embeddedConnection.setRetain(true);
+        embeddedConnection.setQos(1);
+
+        connection = new MqttBrokerConnection(embeddedConnection.getHost(), embeddedConnection.getPort(),
+                embeddedConnection.isSecure(), "ha_mqtt_startup");
+        connection.setQos(1);
+        connection.setPersistencePath(Paths.get("subconn"));
+        connection.start().get(1000, TimeUnit.MILLISECONDS);
+        assertThat(connection.connectionState(), is(MqttConnectionState.CONNECTED));
+
+        // Publish the component configurations, like Zigbee2MQTT does for its devices
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < COMPONENTS; i++) {
+            String topic = "homeassistant/switch/startup/object" + i;
+            String config = "{'name':'switch" + i + "','state_topic':'" + topic + "/state','command_topic':'" + topic
+                    + "/set'}";
+            futures.add(embeddedConnection.publish(topic + "/config", config.getBytes()));
+            haIDs.add(new HaID(topic + "/config"));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5000, TimeUnit.MILLISECONDS);
+
+        doReturn(null).when(transformationServiceProvider).getTransformationService(any());
+    }
+
+    @After
+    public void tearDown() throws InterruptedException, ExecutionException, TimeoutException {
+        if (connection != null) {
+            connection.stop().get(1000, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    public void discoveryStartupTime() throws InterruptedException, ExecutionException, TimeoutException {
+        Gson gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory()).create();
+        ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+        DiscoverComponents discover = new DiscoverComponents(ThingChannelConstants.testHomeAssistantThing, scheduler,
+                channelStateUpdateListener, gson, transformationServiceProvider);
+
+        final CountDownLatch latch = new CountDownLatch(COMPONENTS);
+        long start = System.nanoTime();
+        discover.startDiscovery(connection, 0, haIDs, (haID, component) -> latch.countDown()).get(1000,
+                TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Discovered {} components in {} ms", COMPONENTS, millis);
+
+        discover.stopDiscovery();
+        scheduler.shutdownNow();
+    }
+}